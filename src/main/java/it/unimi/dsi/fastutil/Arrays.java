@@ -20,6 +20,7 @@ import it.unimi.dsi.fastutil.ints.IntComparator;
 
 import java.util.ArrayList;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveAction;
 
 /** A class providing static methods and objects that do useful things with arrays.
@@ -73,6 +74,42 @@ public class Arrays {
 		if (offset + length > arrayLength) throw new ArrayIndexOutOfBoundsException("Last index (" + (offset + length) + ") is greater than array length (" + arrayLength + ")");
 	}
 
+	/** The pool executing parallel methods, or {@code null} for the {@linkplain ForkJoinPool#commonPool() common pool}. */
+	private static volatile ForkJoinPool parallelPool;
+
+	/** Returns the pool executing the parallel methods of this class and of the type-specific array classes.
+	 *
+	 * @return the pool set by {@link #setParallelPool(ForkJoinPool)}, or the {@linkplain ForkJoinPool#commonPool() common pool}
+	 * if no pool has been set.
+	 */
+	public static ForkJoinPool parallelPool() {
+		final ForkJoinPool pool = parallelPool;
+		return pool != null ? pool : ForkJoinPool.commonPool();
+	}
+
+	/** Sets the pool executing the parallel methods of this class and of the type-specific array classes.
+	 *
+	 * <p>Parallel methods called from within a fork/join computation run in the pool of the calling task, irrespective
+	 * of this setting: thus, a different pool can be used for a single call by submitting to it a task performing the call.
+	 *
+	 * @param pool a pool, or {@code null} to use the {@linkplain ForkJoinPool#commonPool() common pool}.
+	 */
+	public static void setParallelPool(final ForkJoinPool pool) {
+		parallelPool = pool;
+	}
+
+	/** Executes a task of a parallel method, waiting for its completion.
+	 *
+	 * <p>The task is executed in the pool of the calling task, if this method is called from within a fork/join computation,
+	 * and in the {@linkplain #parallelPool() pool of parallel methods} otherwise. No thread is created by this method.
+	 *
+	 * @param task a task.
+	 * @return the result of {@code task}.
+	 */
+	public static <T> T invoke(final ForkJoinTask<T> task) {
+		return ForkJoinTask.inForkJoinPool() ? task.invoke() : parallelPool().invoke(task);
+	}
+
 	/**
 	 * Transforms two consecutive sorted ranges into a single sorted range. The initial ranges are
 	 * {@code [first..middle)} and {@code [middle..last)}, and the resulting range is
@@ -337,7 +374,7 @@ public class Arrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain #parallelPool() pool of parallel methods}.
 	 *
 	 * @param from the index of the first element (inclusive) to be sorted.
 	 * @param to the index of the last element (exclusive) to be sorted.
@@ -346,9 +383,7 @@ public class Arrays {
 	 *
 	 */
 	public static void parallelQuickSort(final int from, final int to, final IntComparator comp, final Swapper swapper) {
-		final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-		pool.invoke(new ForkJoinGenericQuickSort(from, to, comp, swapper));
-		pool.shutdown();
+		invoke(new ForkJoinGenericQuickSort(from, to, comp, swapper));
 	}
 
 
@@ -0,0 +1,257 @@
+package it.unimi.dsi.fastutil;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/** A count-min sketch, estimating the frequency of the elements of a stream in constant space.
+ *
+ * <p>A sketch is a matrix of counters with {@linkplain #depth() depth} rows and {@linkplain #width() width} columns. Each
+ * element is associated with a counter in each row, and the estimated frequency of an element is
+ * the minimum of its counters. Estimates are never smaller than the true frequency, and with probability
+ * at least 1 &minus; &delta; they exceed it by at most &epsilon; times the {@linkplain #total() total count} if
+ * the width is at least <var>e</var>/&epsilon; and the depth is at least ln(1/&delta;). Thus, the estimates are accurate
+ * for heavy hitters: for instance, with &epsilon; = 0.001 and &delta; = 0.01 the sketch uses 4096 &times; 5 counters,
+ * and the frequency of an element occurring in 1% of the stream is estimated within 10%.
+ *
+ * <p>Elements are hashed to 64 bits using {@link HashCommon#murmurHash3(long)}; the counters of an element are then
+ * generated by double hashing. Objects are hashed starting from their {@link Object#hashCode()}.
+ *
+ * <p>Sketches are not thread-safe, but they are {@linkplain #merge(CountMinSketch) mergeable}: threads
+ * can process parts of a stream independently, and the resulting sketches can be merged (in any order) to
+ * obtain the sketch of the whole stream. Since {@link #merge(CountMinSketch)} returns the sketch itself,
+ * it can be used directly as a reduction operator (e.g., {@code stream.reduce(CountMinSketch::merge)}).
+ *
+ * @see HyperLogLog
+ */
+
+public class CountMinSketch implements java.io.Serializable, Cloneable {
+	private static final long serialVersionUID = 0L;
+	/** A constant scrambling the inputs, so that zero is not a fixed point of the hash function. */
+	private static final long SEED = 0x9E3779B97F4A7C15L;
+
+	/** The number of rows. */
+	protected final int depth;
+	/** The base-2 logarithm of the number of columns. */
+	protected final int log2width;
+	/** The counters, row by row. */
+	protected long[] count;
+	/** The sum of all counts added to this sketch. */
+	protected long total;
+
+	/** Creates a new sketch with given depth and width.
+	 *
+	 * @param depth the number of rows.
+	 * @param width the number of columns (it will be rounded to the next power of two).
+	 */
+	public CountMinSketch(final int depth, final int width) {
+		if (depth <= 0) throw new IllegalArgumentException("The depth must be positive: " + depth);
+		if (width <= 0) throw new IllegalArgumentException("The width must be positive: " + width);
+		final int w = HashCommon.nextPowerOfTwo(width);
+		if ((long)depth * w > Arrays.MAX_ARRAY_SIZE) throw new IllegalArgumentException("Too many counters: " + depth + " x " + w);
+		this.depth = depth;
+		this.log2width = Integer.numberOfTrailingZeros(w);
+		count = new long[depth * w];
+	}
+
+	/** Creates a new sketch with given error bounds.
+	 *
+	 * @param epsilon the maximum overestimate, relative to the total count.
+	 * @param delta the probability that the overestimate is larger than {@code epsilon} times the total count.
+	 */
+	public CountMinSketch(final double epsilon, final double delta) {
+		this(depth(delta), width(epsilon));
+	}
+
+	private static int depth(final double delta) {
+		if (! (delta > 0 && delta < 1)) throw new IllegalArgumentException("The error probability must be in (0..1): " + delta);
+		return (int)Math.ceil(Math.log(1 / delta));
+	}
+
+	private static int width(final double epsilon) {
+		if (! (epsilon > 0 && epsilon < 1)) throw new IllegalArgumentException("The relative error must be in (0..1): " + epsilon);
+		return (int)Math.ceil(Math.E / epsilon);
+	}
+
+	/** Adds to the counters of a 64-bit hash a given count.
+	 *
+	 * <p>This method is the common path of all {@code add()} methods, and it is useful to add
+	 * elements hashed by other means; hashes must be uniformly distributed over 64 bits.
+	 *
+	 * @param h a 64-bit hash.
+	 * @param c a nonnegative count.
+	 */
+	public void addHash(final long h, final long c) {
+		if (c < 0) throw new IllegalArgumentException("Counts must be nonnegative: " + c);
+		final long[] count = this.count;
+		final int mask = (1 << log2width) - 1;
+		final int a = (int)h, b = (int)(h >>> 32) | 1;
+		for(int i = 0, base = 0; i < depth; i++, base += mask + 1) count[base + (a + i * b & mask)] += c;
+		total += c;
+	}
+
+	/** Returns the estimated count associated with a 64-bit hash.
+	 *
+	 * @param h a 64-bit hash.
+	 * @return the minimum of the counters of {@code h}.
+	 */
+	public long estimateHash(final long h) {
+		final long[] count = this.count;
+		final int mask = (1 << log2width) - 1;
+		final int a = (int)h, b = (int)(h >>> 32) | 1;
+		long min = Long.MAX_VALUE;
+		for(int i = 0, base = 0; i < depth; i++, base += mask + 1) min = Math.min(min, count[base + (a + i * b & mask)]);
+		return min;
+	}
+
+	/** Adds a given count to an element.
+	 *
+	 * @param x an element.
+	 * @param c a nonnegative count.
+	 */
+	public void add(final long x, final long c) {
+		addHash(HashCommon.murmurHash3(x ^ SEED), c);
+	}
+
+	/** Adds one to the count of an element.
+	 *
+	 * @param x an element.
+	 */
+	public void add(final long x) {
+		add(x, 1);
+	}
+
+	/** Adds a given count to an element.
+	 *
+	 * <p>Integers are hashed as the corresponding longs.
+	 *
+	 * @param x an element.
+	 * @param c a nonnegative count.
+	 */
+	public void add(final int x, final long c) {
+		addHash(HashCommon.murmurHash3(x ^ SEED), c);
+	}
+
+	/** Adds one to the count of an element.
+	 *
+	 * @param x an element.
+	 */
+	public void add(final int x) {
+		add(x, 1);
+	}
+
+	/** Adds a given count to an element.
+	 *
+	 * @param o an element (possibly {@code null}).
+	 * @param c a nonnegative count.
+	 */
+	public void add(final Object o, final long c) {
+		addHash(HashCommon.murmurHash3((o == null ? 0 : o.hashCode()) ^ SEED), c);
+	}
+
+	/** Adds one to the count of an element.
+	 *
+	 * @param o an element (possibly {@code null}).
+	 */
+	public void add(final Object o) {
+		add(o, 1);
+	}
+
+	/** Returns the estimated count of an element.
+	 *
+	 * @param x an element.
+	 * @return an upper bound on the count of {@code x}.
+	 */
+	public long estimate(final long x) {
+		return estimateHash(HashCommon.murmurHash3(x ^ SEED));
+	}
+
+	/** Returns the estimated count of an element.
+	 *
+	 * @param x an element.
+	 * @return an upper bound on the count of {@code x}.
+	 */
+	public long estimate(final int x) {
+		return estimateHash(HashCommon.murmurHash3(x ^ SEED));
+	}
+
+	/** Returns the estimated count of an element.
+	 *
+	 * @param o an element (possibly {@code null}).
+	 * @return an upper bound on the count of {@code o}.
+	 */
+	public long estimate(final Object o) {
+		return estimateHash(HashCommon.murmurHash3((o == null ? 0 : o.hashCode()) ^ SEED));
+	}
+
+	/** Merges another sketch into this one.
+	 *
+	 * <p>After this call, this sketch estimates the sum of the counts added to either sketch.
+	 *
+	 * @param s a sketch with the same depth and width as this one.
+	 * @return this sketch.
+	 */
+	public CountMinSketch merge(final CountMinSketch s) {
+		if (s.depth != depth || s.log2width != log2width) throw new IllegalArgumentException("Sketches with different shape cannot be merged: " + s.depth + " x " + s.width() + " != " + depth + " x " + width());
+		final long[] a = count, b = s.count;
+		for(int i = a.length; i-- != 0;) a[i] += b[i];
+		total += s.total;
+		return this;
+	}
+
+	/** Resets this sketch. */
+	public void clear() {
+		java.util.Arrays.fill(count, 0);
+		total = 0;
+	}
+
+	/** Returns the sum of all counts added to this sketch.
+	 *
+	 * @return the sum of all counts added to this sketch.
+	 */
+	public long total() {
+		return total;
+	}
+
+	/** Returns the number of rows of this sketch.
+	 *
+	 * @return the number of rows of this sketch.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/** Returns the number of columns of this sketch.
+	 *
+	 * @return the number of columns of this sketch.
+	 */
+	public int width() {
+		return 1 << log2width;
+	}
+
+	@Override
+	public CountMinSketch clone() {
+		CountMinSketch c;
+		try {
+			c = (CountMinSketch)super.clone();
+		}
+		catch(CloneNotSupportedException cantHappen) {
+			throw new InternalError();
+		}
+		c.count = count.clone();
+		return c;
+	}
+}
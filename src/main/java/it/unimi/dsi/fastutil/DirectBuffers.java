@@ -0,0 +1,93 @@
+package it.unimi.dsi.fastutil;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** A class providing static methods to allocate and free direct (i.e., off-heap) buffers.
+ *
+ * <p>The memory of a direct buffer is released only when the buffer is garbage collected, which
+ * might happen much later than necessary, as the heap footprint of the buffer is tiny. {@link #free(ByteBuffer)}
+ * releases the memory immediately, using the buffer cleaner of the running JVM.
+ */
+
+public final class DirectBuffers {
+	private DirectBuffers() {}
+
+	/** A method handle freeing a direct buffer, or {@code null} if the JVM does not provide one. */
+	private static final MethodHandle FREE;
+
+	static {
+		MethodHandle free = null;
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			// Java 9 and later
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			free = lookup.findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class)).bindTo(theUnsafe.get(null));
+		}
+		catch(final ReflectiveOperationException | RuntimeException e) {
+			try {
+				// Java 8
+				final MethodHandle cleaner = lookup.unreflect(Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"));
+				final MethodHandle clean = lookup.unreflect(Class.forName("sun.misc.Cleaner").getMethod("clean"));
+				free = MethodHandles.filterReturnValue(cleaner, clean).asType(MethodType.methodType(void.class, ByteBuffer.class));
+			}
+			catch(final ReflectiveOperationException | RuntimeException f) {}
+		}
+		FREE = free;
+	}
+
+	/** Allocates a direct buffer in native byte order.
+	 *
+	 * @param capacity the capacity of the buffer, in bytes.
+	 * @return a new direct buffer of given capacity in {@linkplain ByteOrder#nativeOrder() native byte order}.
+	 */
+	public static ByteBuffer allocate(final int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+	/** Frees the memory of a direct buffer.
+	 *
+	 * <p>The buffer must have been allocated directly (i.e., it cannot be a slice or a duplicate), and
+	 * neither it nor any of its views can be accessed after this call: doing so might crash the JVM.
+	 *
+	 * @param buffer a direct buffer.
+	 * @return true if the memory of the buffer has been freed; false if the JVM does not make it possible,
+	 * in which case the memory will be freed when the buffer is garbage collected.
+	 */
+	public static boolean free(final ByteBuffer buffer) {
+		if (! buffer.isDirect()) throw new IllegalArgumentException("The buffer is not direct");
+		if (FREE == null) return false;
+		try {
+			FREE.invokeExact(buffer);
+			return true;
+		}
+		catch(final RuntimeException e) {
+			throw e;
+		}
+		catch(final Throwable t) {
+			return false;
+		}
+	}
+}
@@ -31,6 +31,10 @@ public class HashCommon {
 	private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
 	/** The reciprocal of {@link #LONG_PHI} modulo 2<sup>64</sup>. */
 	private static final long INV_LONG_PHI = 0xf1de83e19937733dL;
+	/** The first 64-bit prime used by xxHash64. */
+	private static final long XX_PRIME_1 = 0x9E3779B185EBCA87L;
+	/** The second 64-bit prime used by xxHash64. */
+	private static final long XX_PRIME_2 = 0xC2B2AE3D27D4EB4FL;
 
 	/** Avalanches the bits of an integer by applying the finalisation step of MurmurHash3.
 	 *
@@ -67,6 +71,22 @@ public class HashCommon {
 		return x;
 	}
 
+	/** Combines a 64-bit word into the running state of a word-at-a-time hash function.
+	 *
+	 * <p>This method implements the round function of Yann Collet's <a href="https://github.com/Cyan4973/xxHash">xxHash64</a>.
+	 * It is meant to be applied in sequence to the 64-bit words making up a key, starting from a
+	 * seed (e.g., the length of the key), and the final state should be avalanched using {@link #murmurHash3(long)}.
+	 * Since each call processes eight bytes, hashing long keys is much faster than with
+	 * polynomial hash functions processing an element at a time.
+	 *
+	 * @param h the current state.
+	 * @param w the next word of the key.
+	 * @return the new state.
+	 */
+	public static long wordRound(final long h, final long w) {
+		return Long.rotateLeft(h + w * XX_PRIME_2, 31) * XX_PRIME_1;
+	}
+
 	/** Quickly mixes the bits of an integer.
 	 *
 	 * <p>This method mixes the bits of the argument by multiplying by the golden ratio and
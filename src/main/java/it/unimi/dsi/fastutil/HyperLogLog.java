@@ -0,0 +1,221 @@
+package it.unimi.dsi.fastutil;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/** A HyperLogLog counter, estimating the number of distinct elements of a stream in constant space.
+ *
+ * <p>A counter with 2<sup><var>p</var></sup> registers uses 2<sup><var>p</var></sup> bytes and has a relative standard error of
+ * about 1.04/2<sup><var>p</var>/2</sup>: for instance, with <var>p</var> = 14 the error is about 0.8% and the counter
+ * uses 16&nbsp;KiB. Elements are hashed to 64 bits using {@link HashCommon#murmurHash3(long)}, so there is no limit
+ * on the cardinalities that can be estimated for primitive elements; objects are hashed starting from their {@link Object#hashCode()},
+ * so distinct objects with the same hash code are counted once.
+ *
+ * <p>Counters are not thread-safe, but they are {@linkplain #merge(HyperLogLog) mergeable}: threads
+ * can count parts of a stream independently, and the resulting counters can be merged (in any order) to
+ * obtain the estimate for the whole stream. Since {@link #merge(HyperLogLog)} returns the counter itself,
+ * it can be used directly as a reduction operator (e.g., {@code stream.reduce(HyperLogLog::merge)}).
+ *
+ * @see CountMinSketch
+ */
+
+public class HyperLogLog implements java.io.Serializable, Cloneable {
+	private static final long serialVersionUID = 0L;
+	/** The minimum base-2 logarithm of the number of registers. */
+	public static final int MIN_LOG2M = 4;
+	/** The maximum base-2 logarithm of the number of registers. */
+	public static final int MAX_LOG2M = 24;
+	/** A constant scrambling the inputs, so that zero is not a fixed point of the hash function. */
+	private static final long SEED = 0x9E3779B97F4A7C15L;
+
+	/** The base-2 logarithm of the number of registers. */
+	protected final int log2m;
+	/** The registers. */
+	protected byte[] register;
+
+	/** Creates a new counter with given number of registers.
+	 *
+	 * @param log2m the base-2 logarithm of the number of registers, between {@value #MIN_LOG2M} and {@value #MAX_LOG2M}.
+	 */
+	public HyperLogLog(final int log2m) {
+		if (log2m < MIN_LOG2M || log2m > MAX_LOG2M) throw new IllegalArgumentException("The logarithm of the number of registers must be between " + MIN_LOG2M + " and " + MAX_LOG2M + ": " + log2m);
+		this.log2m = log2m;
+		register = new byte[1 << log2m];
+	}
+
+	/** Creates a new counter with given relative standard error.
+	 *
+	 * @param rsd the desired relative standard error (e.g., .01 for 1%).
+	 */
+	public HyperLogLog(final double rsd) {
+		this(log2m(rsd));
+	}
+
+	/** Creates a new counter with relative standard error of about 0.8%. */
+	public HyperLogLog() {
+		this(14);
+	}
+
+	/** Returns the number of registers necessary to obtain a given relative standard error.
+	 *
+	 * @param rsd the desired relative standard error.
+	 * @return the base-2 logarithm of the number of registers.
+	 */
+	public static int log2m(final double rsd) {
+		if (! (rsd > 0 && rsd < 1)) throw new IllegalArgumentException("The relative standard error must be in (0..1): " + rsd);
+		final double m = (1.04 / rsd) * (1.04 / rsd);
+		return Math.max(MIN_LOG2M, Math.min(MAX_LOG2M, (int)Math.ceil(Math.log(m) / Math.log(2))));
+	}
+
+	/** Adds a 64-bit hash to this counter.
+	 *
+	 * <p>This method is the common path of all {@code add()} methods, and it is useful to add
+	 * elements hashed by other means; hashes must be uniformly distributed over 64 bits.
+	 *
+	 * @param h a 64-bit hash.
+	 */
+	public void addHash(final long h) {
+		final int index = (int)(h >>> -log2m);
+		// The position of the leftmost one in the remaining bits; the sentinel bounds it
+		final byte rank = (byte)(Long.numberOfLeadingZeros(h << log2m | 1L << log2m - 1) + 1);
+		if (rank > register[index]) register[index] = rank;
+	}
+
+	/** Adds an element to this counter.
+	 *
+	 * @param x an element.
+	 */
+	public void add(final long x) {
+		addHash(HashCommon.murmurHash3(x ^ SEED));
+	}
+
+	/** Adds an element to this counter.
+	 *
+	 * <p>Integers are hashed as the corresponding longs.
+	 *
+	 * @param x an element.
+	 */
+	public void add(final int x) {
+		addHash(HashCommon.murmurHash3(x ^ SEED));
+	}
+
+	/** Adds an element to this counter.
+	 *
+	 * @param o an element (possibly {@code null}).
+	 */
+	public void add(final Object o) {
+		addHash(HashCommon.murmurHash3((o == null ? 0 : o.hashCode()) ^ SEED));
+	}
+
+	/** Adds the elements of an array fragment to this counter.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the number of elements of {@code a} to add.
+	 */
+	public void addAll(final long[] a, final int offset, final int length) {
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		for(int i = offset; i < offset + length; i++) add(a[i]);
+	}
+
+	/** Adds the elements of an array fragment to this counter.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the number of elements of {@code a} to add.
+	 */
+	public void addAll(final int[] a, final int offset, final int length) {
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		for(int i = offset; i < offset + length; i++) add(a[i]);
+	}
+
+	/** Returns an estimate of the number of distinct elements added to this counter.
+	 *
+	 * @return an estimate of the number of distinct elements added to this counter.
+	 */
+	public double estimate() {
+		final byte[] register = this.register;
+		final int m = register.length;
+		double sum = 0;
+		int zeroes = 0;
+		for(int i = 0; i < m; i++) {
+			final int r = register[i];
+			if (r == 0) zeroes++;
+			sum += Double.longBitsToDouble((1023L - r) << 52); // 2^-r
+		}
+		final double alpha;
+		switch(m) {
+		case 16: alpha = .673; break;
+		case 32: alpha = .697; break;
+		case 64: alpha = .709; break;
+		default: alpha = .7213 / (1 + 1.079 / m);
+		}
+		final double e = alpha * m * m / sum;
+		// Small-range correction (linear counting); no large-range correction is necessary with 64-bit hashes
+		if (e <= 2.5 * m && zeroes != 0) return m * Math.log((double)m / zeroes);
+		return e;
+	}
+
+	/** Returns the estimate of the number of distinct elements added to this counter, rounded to the nearest long.
+	 *
+	 * @return the rounded estimate of the number of distinct elements added to this counter.
+	 * @see #estimate()
+	 */
+	public long cardinality() {
+		return Math.round(estimate());
+	}
+
+	/** Merges another counter into this one.
+	 *
+	 * <p>After this call, this counter estimates the number of distinct elements added to either counter.
+	 *
+	 * @param h a counter with the same number of registers as this one.
+	 * @return this counter.
+	 */
+	public HyperLogLog merge(final HyperLogLog h) {
+		if (h.log2m != log2m) throw new IllegalArgumentException("Counters with different number of registers cannot be merged: " + (1 << h.log2m) + " != " + (1 << log2m));
+		final byte[] a = register, b = h.register;
+		for(int i = a.length; i-- != 0;) if (b[i] > a[i]) a[i] = b[i];
+		return this;
+	}
+
+	/** Resets this counter. */
+	public void clear() {
+		java.util.Arrays.fill(register, (byte)0);
+	}
+
+	/** Returns the base-2 logarithm of the number of registers.
+	 *
+	 * @return the base-2 logarithm of the number of registers.
+	 */
+	public int log2m() {
+		return log2m;
+	}
+
+	@Override
+	public HyperLogLog clone() {
+		HyperLogLog c;
+		try {
+			c = (HyperLogLog)super.clone();
+		}
+		catch(CloneNotSupportedException cantHappen) {
+			throw new InternalError();
+		}
+		c.register = register.clone();
+		return c;
+	}
+}
@@ -0,0 +1,149 @@
+package it.unimi.dsi.fastutil;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/** An indirect priority queue.
+ *
+ * <p>An indirect priority queue provides a way to {@linkplain #enqueue(int)
+ * enqueue} by index elements taken from a given <em>reference list</em>,
+ * and to {@linkplain #dequeue() dequeue} them in some specified order.
+ * Elements that are <em>smaller</em> in the specified order are
+ * dequeued first. It is also possible to get the {@linkplain #first() index
+ * of the first element}, that is, the index that would be dequeued next.
+ *
+ * <p>Since the queue is indirect, the elements of the reference list can
+ * change while they are in the queue: the caller notifies the queue of such
+ * changes using {@link #changed(int)}, which makes it possible to implement
+ * <em>decrease-key</em> operations (e.g., in Dijkstra's algorithm). Moreover,
+ * each index can appear in the queue at most once, and it can be
+ * {@linkplain #remove(int) removed} at any time.
+ *
+ * @see PriorityQueue
+ */
+
+public interface IndirectPriorityQueue<K> {
+
+	/** Enqueues a new element.
+	 *
+	 * @param index the element to enqueue.
+	 */
+
+	void enqueue(int index);
+
+	/** Dequeues the {@linkplain #first() first} element from this queue.
+	 *
+	 * @return the dequeued element.
+	 * @throws NoSuchElementException if this queue is empty.
+	 */
+
+	int dequeue();
+
+	/** Checks whether this queue is empty.
+	 *
+	 * <p>This default implementation checks whether {@link #size()} is zero.
+	 *
+	 * @return true if this queue is empty.
+	 */
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/** Returns the number of elements in this queue.
+	 *
+	 * @return the number of elements in this queue.
+	 */
+
+	int size();
+
+	/** Removes all elements from this queue. */
+
+	void clear();
+
+	/** Returns the first element of this queue.
+	 *
+	 * @return the first element.
+	 * @throws NoSuchElementException if this queue is empty.
+	 */
+
+	int first();
+
+	/** Notifies this queue that the {@linkplain #first() first element} has changed (optional operation).
+	 *
+	 * <p>This default implementation just calls {@link #changed(int)} with argument {@link #first()}.
+	 */
+
+	default void changed() {
+		changed(first());
+	}
+
+	/** Returns the comparator associated with this queue, or {@code null} if it uses its elements' natural ordering.
+	 *
+	 * @return the comparator associated with this queue, or {@code null} if it uses its elements' natural ordering.
+	 */
+
+	Comparator<? super K> comparator();
+
+	/** Notifies this queue that the specified element has changed (optional operation).
+	 *
+	 * <p>This default implementation just throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param index the element that has changed.
+	 * @throws NoSuchElementException if the specified element is not in this queue.
+	 */
+
+	default void changed(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Notifies this queue that all elements have changed (optional operation).
+	 *
+	 * <p>This default implementation just throws an {@link UnsupportedOperationException}.
+	 */
+
+	default void allChanged() {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Checks whether a given index belongs to this queue (optional operation).
+	 *
+	 * <p>This default implementation just throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param index an index possibly in the queue.
+	 * @return true if the specified index belongs to this queue.
+	 */
+
+	default boolean contains(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Removes the specified element from this queue (optional operation).
+	 *
+	 * <p>This default implementation just throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param index the element to be removed.
+	 * @return true if the index was in the queue.
+	 */
+
+	default boolean remove(int index) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -31,7 +31,6 @@ package it.unimi.dsi.fastutil.booleans;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.ints.IntArrays;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
@@ -49,7 +48,7 @@ import it.unimi.dsi.fastutil.ints.IntArrays;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	* Some algorithms also provide an explicit <em>indirect</em> sorting facility, which makes it possible
 	* to sort an array using the values in another array as comparator.
 	*
@@ -495,8 +494,7 @@ public final class BooleanArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -506,9 +504,7 @@ public final class BooleanArrays {
 	public static void parallelQuickSort(final boolean[] x, final int from, final int to, final BooleanComparator comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -518,8 +514,7 @@ public final class BooleanArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -700,8 +695,7 @@ public final class BooleanArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -710,9 +704,7 @@ public final class BooleanArrays {
 	public static void parallelQuickSort(final boolean[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort (x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort (x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -721,8 +713,7 @@ public final class BooleanArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -909,8 +900,7 @@ public final class BooleanArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -920,9 +910,7 @@ public final class BooleanArrays {
 	public static void parallelQuickSortIndirect(final int[] perm, final boolean[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -935,8 +923,7 @@ public final class BooleanArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1182,8 +1169,7 @@ public final class BooleanArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1192,9 +1178,7 @@ public final class BooleanArrays {
 	 */
 	public static void parallelQuickSort(final boolean[] x, final boolean[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 (x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 (x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1208,8 +1192,7 @@ public final class BooleanArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1337,6 +1320,239 @@ public final class BooleanArrays {
 	public static void mergeSort(final boolean a[], BooleanComparator comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	private static int bound(final boolean[] a, int from, int to, final boolean x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? (!(a[mid]) || (x)) : ! (!(x) || (a[mid]))) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static int bound(final boolean[] a, int from, int to, final boolean x, final boolean strict, final BooleanComparator comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final boolean[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final boolean[] src, final int from1, final int to1, final int from2, final int to2, final boolean[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 protected void compute() {
+	  final boolean[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && (!(src[p]) || (src[q]))) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final boolean[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final BooleanComparator comp;
+	 public ForkJoinMergeComp(final boolean[] src, final int from1, final int to1, final int from2, final int to2, final boolean[] dest, final int to, final BooleanComparator comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final boolean[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final boolean[] a, supp;
+	 public ForkJoinMergeSort(final boolean[] a, final int from, final int to, final boolean[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final boolean[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort(supp, from, mid, a), new ForkJoinMergeSort(supp, mid, to, a));
+	  if ((!(supp[mid - 1]) || (supp[mid]))) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final boolean[] a, supp;
+	 private final BooleanComparator comp;
+	 public ForkJoinMergeSortComp(final boolean[] a, final int from, final int to, final BooleanComparator comp, final boolean[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final boolean[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp(supp, from, mid, comp, a), new ForkJoinMergeSortComp(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final boolean a[], final int from, final int to, final boolean supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(boolean[], int, int, boolean[])
+	 */
+	public static void parallelMergeSort(final boolean a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(boolean[], int, int, boolean[])
+	 */
+	public static void parallelMergeSort(final boolean a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final boolean a[], final int from, final int to, final BooleanComparator comp, final boolean supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(boolean[], int, int, BooleanComparator, boolean[])
+	 */
+	public static void parallelMergeSort(final boolean a[], final int from, final int to, final BooleanComparator comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(boolean[], int, int, BooleanComparator, boolean[])
+	 */
+	public static void parallelMergeSort(final boolean a[], final BooleanComparator comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
 	/** Shuffles the specified array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the array to be shuffled.
@@ -0,0 +1,39 @@
+/*
+	* Copyright (C) 2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.bytes;
+import java.util.function.BiFunction;
+/** A type-specific {@link BiFunction} mapping a byte key and a value to a new value; it is used to
+	* replace the values of a {@link Byte2ObjectMap} without boxing.
+	*
+	* @see BiFunction
+	*/
+@FunctionalInterface
+public interface Byte2ObjectBiFunction <V> extends BiFunction<Byte, V, V> {
+	/** Applies this function to the given key and value.
+	 *
+	 * @param k a key.
+	 * @param v a value.
+	 * @return the new value.
+	 */
+	V apply(byte k, V v);
+	/** {@inheritDoc}
+	 * @deprecated Please use the corresponding type-specific method instead. */
+	@Deprecated
+	@Override
+	default V apply(final Byte k, final V v) {
+	 return apply(k.byteValue(), v);
+	}
+}
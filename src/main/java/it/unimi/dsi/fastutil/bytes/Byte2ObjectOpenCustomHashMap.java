@@ -1141,5 +1141,82 @@ public class Byte2ObjectOpenCustomHashMap <V> extends AbstractByte2ObjectMap <V>
 	 }
 	 if (ASSERTS) checkTable();
 	}
+	/** Performs the given action for each entry of this map.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEach(final Byte2ObjectConsumer <? super V> action) {
+	 java.util.Objects.requireNonNull(action);
+	 if (containsNullKey) action.accept(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == ((byte)0) )) action.accept(key[pos], value[pos]);
+	}
+	/** Replaces the value of each entry with the result of applying a function to the entry.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param function the function computing new values.
+	 */
+	public void replaceAll(final Byte2ObjectBiFunction <V> function) {
+	 java.util.Objects.requireNonNull(function);
+	 if (containsNullKey) value[n] = function.apply(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == ((byte)0) )) value[pos] = function.apply(key[pos], value[pos]);
+	}
+	/** Removes all entries satisfying a predicate.
+	 *
+	 * <p>The table is compacted in a single pass: differently from removals through an iterator, no entry
+	 * is shifted more than once, and no memory is allocated unless the table shrinks.
+	 *
+	 * @param filter a predicate returning true for the entries to be removed.
+	 * @return true if any entry was removed.
+	 */
+	public boolean removeIf(final Byte2ObjectPredicate <? super V> filter) {
+	 java.util.Objects.requireNonNull(filter);
+	 final int oldSize = size;
+	 if (containsNullKey && filter.test(key[n], value[n])) {
+	  containsNullKey = false;
+	  value[n] = null;
+	  size--;
+	 }
+	 final byte[] key = this.key;
+	 final V[] value = this.value;
+	 // We start after a free slot, so that each run of full slots is scanned from its beginning.
+	 int pos = 0;
+	 RuntimeException failure = null;
+	 while(! ( (key[pos]) == ((byte)0) )) pos++;
+	 for(int i = n; i-- != 0;) {
+	  pos = (pos + 1) & mask;
+	  final byte curr = key[pos];
+	  if (( (curr) == ((byte)0) )) continue;
+	  if (failure == null) {
+	   try {
+	    if (filter.test(curr, value[pos])) {
+	     key[pos] = ((byte)0);
+	     value[pos] = null;
+	     size--;
+	     continue;
+	    }
+	   }
+	   catch(final RuntimeException e) {
+	    // We stop evaluating the predicate, but the compaction must be completed to keep the table consistent.
+	    failure = e;
+	   }
+	  }
+	  // All slots of the run preceding pos are final: we move the entry to the first free slot from its home.
+	  int slot = ( it.unimi.dsi.fastutil.HashCommon.mix( strategy.hashCode(curr) ) ) & mask;
+	  while(slot != pos && ! ( (key[slot]) == ((byte)0) )) slot = (slot + 1) & mask;
+	  if (slot != pos) {
+	   key[slot] = curr;
+	   value[slot] = value[pos];
+	   key[pos] = ((byte)0);
+	   value[pos] = null;
+	  }
+	 }
+	 if (size != oldSize && n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(Math.max(minN, arraySize(size, f)));
+	 if (ASSERTS) checkTable();
+	 if (failure != null) throw failure;
+	 return size != oldSize;
+	}
 	private void checkTable() {}
 }
@@ -0,0 +1,38 @@
+/*
+	* Copyright (C) 2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.chars;
+import java.util.function.BiConsumer;
+/** A type-specific {@link BiConsumer} accepting a char key and a value; it is used to
+	* iterate over the entries of a {@link Char2ObjectMap} without boxing.
+	*
+	* @see BiConsumer
+	*/
+@FunctionalInterface
+public interface Char2ObjectConsumer <V> extends BiConsumer<Character, V> {
+	/** Performs this operation on the given key and value.
+	 *
+	 * @param k a key.
+	 * @param v a value.
+	 */
+	void accept(char k, V v);
+	/** {@inheritDoc}
+	 * @deprecated Please use the corresponding type-specific method instead. */
+	@Deprecated
+	@Override
+	default void accept(final Character k, final V v) {
+	 accept(k.charValue(), v);
+	}
+}
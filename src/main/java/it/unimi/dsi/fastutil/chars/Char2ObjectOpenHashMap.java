@@ -958,5 +958,194 @@ public class Char2ObjectOpenHashMap <V> extends AbstractChar2ObjectMap <V> imple
 	 }
 	 if (ASSERTS) checkTable();
 	}
+	/** Stores this map to a data output using a compact binary format.
+	 *
+	 * <p>Keys are written in blocks using {@link it.unimi.dsi.fastutil.io.BinIO#writeChars(char[],int,int,java.io.DataOutput)},
+	 * and values are written by the given codec, so no per-entry call to an {@link java.io.ObjectOutputStream} is
+	 * necessary. If {@code table} is true, the backing table (empty slots included) is written as it is,
+	 * and {@link #load(java.io.DataInput,it.unimi.dsi.fastutil.io.ObjectCodec)} will restore it without
+	 * probing any key; otherwise, only the keys actually in the map are written, and they are
+	 * rehashed when loading.
+	 *
+	 * <p>The default return value is not stored.
+	 *
+	 * @param s a data output.
+	 * @param codec a codec for the values of this map.
+	 * @param table whether to write the backing table rather than just the keys.
+	 * @see #load(java.io.DataInput,it.unimi.dsi.fastutil.io.ObjectCodec)
+	 */
+	public void store(final java.io.DataOutput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? super V> codec, final boolean table) throws java.io.IOException {
+	 final char key[] = this.key;
+	 final V value[] = this.value;
+	 s.writeBoolean(table);
+	 s.writeFloat(f);
+	 s.writeInt(size);
+	 if (table) {
+	  s.writeInt(n);
+	  s.writeBoolean(containsNullKey);
+	  it.unimi.dsi.fastutil.io.BinIO.writeChars(key, 0, n, s);
+	  for(int pos = 0; pos < n; pos++) if (! ( (key[pos]) == ((char)0) )) codec.write(s, value[pos]);
+	  if (containsNullKey) codec.write(s, value[n]);
+	  return;
+	 }
+	 final int length = Math.min(size, 1024);
+	 final char block[] = new char[length];
+	 final int slot[] = new int[length];
+	 for(int j = size, pos = 0, c; j != 0; j -= c) {
+	  for(c = 0; c < length && c < j; pos++) {
+	   if (pos == n ? containsNullKey : ! ( (key[pos]) == ((char)0) )) {
+	    block[c] = key[pos];
+	    slot[c++] = pos;
+	   }
+	  }
+	  s.writeInt(c);
+	  it.unimi.dsi.fastutil.io.BinIO.writeChars(block, 0, c, s);
+	  for(int i = 0; i < c; i++) codec.write(s, value[slot[i]]);
+	 }
+	}
+	/** Loads a map stored by {@link #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec,boolean)}.
+	 *
+	 * <p>If the map was stored together with its backing table, the table is read in bulk and
+	 * no key is rehashed. The backing arrays are allocated only once if the stored table size is
+	 * the one that the map would choose for its size and load factor.
+	 *
+	 * @param s a data input.
+	 * @param codec a codec for the values of the map.
+	 * @return a new map containing the entries read from {@code s}.
+	 * @see #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec,boolean)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> Char2ObjectOpenHashMap <V> load(final java.io.DataInput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? extends V> codec) throws java.io.IOException {
+	 final boolean table = s.readBoolean();
+	 final float f = s.readFloat();
+	 final int size = s.readInt();
+	 final Char2ObjectOpenHashMap <V> m = new Char2ObjectOpenHashMap <>(size, f);
+	 if (table) {
+	  final int n = s.readInt();
+	  if (n < 2 || (n & n - 1) != 0 || n > 1 << 30 || size > maxFill(n, f)) throw new java.io.StreamCorruptedException("Illegal table size: " + n);
+	  if (n != m.n) {
+	   m.n = n;
+	   m.mask = n - 1;
+	   m.maxFill = maxFill(n, f);
+	   m.key = new char[n + 1];
+	   m.value = (V[]) new Object[n + 1];
+	  }
+	  m.containsNullKey = s.readBoolean();
+	  final char key[] = m.key;
+	  final V value[] = m.value;
+	  it.unimi.dsi.fastutil.io.BinIO.readChars(s, key, 0, n);
+	  int count = m.containsNullKey ? 1 : 0;
+	  for(int pos = 0; pos < n; pos++) if (! ( (key[pos]) == ((char)0) )) {
+	   value[pos] = codec.read(s);
+	   count++;
+	  }
+	  if (m.containsNullKey) value[n] = codec.read(s);
+	  if (count != size) throw new java.io.StreamCorruptedException("Illegal number of keys: " + count);
+	 }
+	 else {
+	  final char key[] = m.key;
+	  final V value[] = m.value;
+	  final int mask = m.mask;
+	  final char block[] = new char[Math.min(size, 1024)];
+	  char k;
+	  for(int j = size, c; j != 0; j -= c) {
+	   c = s.readInt();
+	   if (c <= 0 || c > j) throw new java.io.StreamCorruptedException("Illegal block length: " + c);
+	   it.unimi.dsi.fastutil.io.BinIO.readChars(s, block, 0, c);
+	   for(int i = 0, pos; i < c; i++) {
+	    k = block[i];
+	    if (( (k) == ((char)0) )) {
+	     pos = m.n;
+	     m.containsNullKey = true;
+	    }
+	    else {
+	     pos = ( it.unimi.dsi.fastutil.HashCommon.mix( (k) ) ) & mask;
+	     while (! ( (key[pos]) == ((char)0) )) pos = (pos + 1) & mask;
+	    }
+	    key[pos] = k;
+	    value[pos] = codec.read(s);
+	   }
+	  }
+	 }
+	 m.size = size;
+	 return m;
+	}
+	/** Performs the given action for each entry of this map.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEach(final Char2ObjectConsumer <? super V> action) {
+	 java.util.Objects.requireNonNull(action);
+	 if (containsNullKey) action.accept(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == ((char)0) )) action.accept(key[pos], value[pos]);
+	}
+	/** Replaces the value of each entry with the result of applying a function to the entry.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param function the function computing new values.
+	 */
+	public void replaceAll(final Char2ObjectBiFunction <V> function) {
+	 java.util.Objects.requireNonNull(function);
+	 if (containsNullKey) value[n] = function.apply(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == ((char)0) )) value[pos] = function.apply(key[pos], value[pos]);
+	}
+	/** Removes all entries satisfying a predicate.
+	 *
+	 * <p>The table is compacted in a single pass: differently from removals through an iterator, no entry
+	 * is shifted more than once, and no memory is allocated unless the table shrinks.
+	 *
+	 * @param filter a predicate returning true for the entries to be removed.
+	 * @return true if any entry was removed.
+	 */
+	public boolean removeIf(final Char2ObjectPredicate <? super V> filter) {
+	 java.util.Objects.requireNonNull(filter);
+	 final int oldSize = size;
+	 if (containsNullKey && filter.test(key[n], value[n])) {
+	  containsNullKey = false;
+	  value[n] = null;
+	  size--;
+	 }
+	 final char[] key = this.key;
+	 final V[] value = this.value;
+	 // We start after a free slot, so that each run of full slots is scanned from its beginning.
+	 int pos = 0;
+	 RuntimeException failure = null;
+	 while(! ( (key[pos]) == ((char)0) )) pos++;
+	 for(int i = n; i-- != 0;) {
+	  pos = (pos + 1) & mask;
+	  final char curr = key[pos];
+	  if (( (curr) == ((char)0) )) continue;
+	  if (failure == null) {
+	   try {
+	    if (filter.test(curr, value[pos])) {
+	     key[pos] = ((char)0);
+	     value[pos] = null;
+	     size--;
+	     continue;
+	    }
+	   }
+	   catch(final RuntimeException e) {
+	    // We stop evaluating the predicate, but the compaction must be completed to keep the table consistent.
+	    failure = e;
+	   }
+	  }
+	  // All slots of the run preceding pos are final: we move the entry to the first free slot from its home.
+	  int slot = ( it.unimi.dsi.fastutil.HashCommon.mix( (curr) ) ) & mask;
+	  while(slot != pos && ! ( (key[slot]) == ((char)0) )) slot = (slot + 1) & mask;
+	  if (slot != pos) {
+	   key[slot] = curr;
+	   value[slot] = value[pos];
+	   key[pos] = ((char)0);
+	   value[pos] = null;
+	  }
+	 }
+	 if (size != oldSize && n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(Math.max(minN, arraySize(size, f)));
+	 if (ASSERTS) checkTable();
+	 if (failure != null) throw failure;
+	 return size != oldSize;
+	}
 	private void checkTable() {}
 }
@@ -31,14 +31,8 @@ package it.unimi.dsi.fastutil.doubles;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.ints.IntArrays;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
 	*
 	* <p>In particular, the {@code forceCapacity()}, {@code ensureCapacity()}, {@code grow()},
@@ -54,7 +48,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	* Some algorithms also provide an explicit <em>indirect</em> sorting facility, which makes it possible
 	* to sort an array using the values in another array as comparator.
 	*
@@ -500,8 +494,7 @@ public final class DoubleArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -511,9 +504,7 @@ public final class DoubleArrays {
 	public static void parallelQuickSort(final double[] x, final int from, final int to, final DoubleComparator comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -523,8 +514,7 @@ public final class DoubleArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -705,8 +695,7 @@ public final class DoubleArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -715,9 +704,7 @@ public final class DoubleArrays {
 	public static void parallelQuickSort(final double[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort (x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort (x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -726,8 +713,7 @@ public final class DoubleArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -914,8 +900,7 @@ public final class DoubleArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -925,9 +910,7 @@ public final class DoubleArrays {
 	public static void parallelQuickSortIndirect(final int[] perm, final double[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -940,8 +923,7 @@ public final class DoubleArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1187,8 +1169,7 @@ public final class DoubleArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1197,9 +1178,7 @@ public final class DoubleArrays {
 	 */
 	public static void parallelQuickSort(final double[] x, final double[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 (x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 (x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1213,8 +1192,7 @@ public final class DoubleArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1342,6 +1320,804 @@ public final class DoubleArrays {
 	public static void mergeSort(final double a[], DoubleComparator comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	private static int bound(final double[] a, int from, int to, final double x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? (Double.compare((a[mid]),(x)) <= 0) : ! (Double.compare((x),(a[mid])) <= 0)) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static int bound(final double[] a, int from, int to, final double x, final boolean strict, final DoubleComparator comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final double[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final double[] src, final int from1, final int to1, final int from2, final int to2, final double[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && (Double.compare((src[p]),(src[q])) <= 0)) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final double[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final DoubleComparator comp;
+	 public ForkJoinMergeComp(final double[] src, final int from1, final int to1, final int from2, final int to2, final double[] dest, final int to, final DoubleComparator comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final double[] a, supp;
+	 public ForkJoinMergeSort(final double[] a, final int from, final int to, final double[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort(supp, from, mid, a), new ForkJoinMergeSort(supp, mid, to, a));
+	  if ((Double.compare((supp[mid - 1]),(supp[mid])) <= 0)) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final double[] a, supp;
+	 private final DoubleComparator comp;
+	 public ForkJoinMergeSortComp(final double[] a, final int from, final int to, final DoubleComparator comp, final double[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp(supp, from, mid, comp, a), new ForkJoinMergeSortComp(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final double a[], final int from, final int to, final double supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(double[], int, int, double[])
+	 */
+	public static void parallelMergeSort(final double a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(double[], int, int, double[])
+	 */
+	public static void parallelMergeSort(final double a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final double a[], final int from, final int to, final DoubleComparator comp, final double supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(double[], int, int, DoubleComparator, double[])
+	 */
+	public static void parallelMergeSort(final double a[], final int from, final int to, final DoubleComparator comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(double[], int, int, DoubleComparator, double[])
+	 */
+	public static void parallelMergeSort(final double a[], final DoubleComparator comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
+	private static final int SELECT_NO_REC = 16;
+	private static final int PARALLEL_SELECT_NO_FORK = 8192;
+	private static void ensureIndex(final int from, final int to, final int k) {
+	 if (k < from || k >= to) throw new IllegalArgumentException("Index (" + k + ") is not in the range [" + from + ".." + to + ")");
+	}
+	private static void ensureCount(final int from, final int to, final int k) {
+	 if (k < 0 || k > to - from) throw new IllegalArgumentException("Number of elements (" + k + ") is not in [0.." + (to - from) + "]");
+	}
+	/** Moves the medians of consecutive groups of five elements to the start of a range, and returns their median. */
+	private static double medianOfMedians(final double[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static double select(final double[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final double v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s);
+	    m = med3(x, m - s, m, m + s);
+	    n = med3(x, n - 2 * s, n - s, n);
+	   }
+	   v = x[med3(x, l, m, n)];
+	  }
+	  else v = medianOfMedians(x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Double.compare((x[i]),(v));
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSort(x, from, to);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #select(double[], int, int, int)
+	 */
+	public static double select(final double[] x, final int k) {
+	 return select(x, 0, x.length, k);
+	}
+	private static double medianOfMedians(final double[] x, final int from, final int to, final DoubleComparator comp) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e, comp);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1), comp);
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 */
+	public static double select(final double[] x, int from, int to, final int k, final DoubleComparator comp) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final double v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s, comp);
+	    m = med3(x, m - s, m, m + s, comp);
+	    n = med3(x, n - 2 * s, n - s, n, comp);
+	   }
+	   v = x[med3(x, l, m, n, comp)];
+	  }
+	  else v = medianOfMedians(x, from, to, comp);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = comp.compare(x[i], v);
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return x[k];
+	 }
+	 insertionSort(x, from, to, comp);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 * @see #select(double[], int, int, int, DoubleComparator)
+	 */
+	public static double select(final double[] x, final int k, final DoubleComparator comp) {
+	 return select(x, 0, x.length, k, comp);
+	}
+	private static double medianOfMediansIndirect(final int[] perm, final double[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSortIndirect(perm, x, i, e);
+	  IntArrays.swap(perm, m++, i + (e - i >>> 1));
+	 }
+	 return selectIndirect(perm, x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if the range were indirectly sorted according to the natural ascending order.
+	 *
+	 * <p>This method implement an <em>indirect</em> selection. After this call, the elements of the range preceding
+	 * {@code perm[k]} index elements of {@code x} smaller than or equal to {@code x[perm[k]]}, and the elements following it
+	 * index elements greater than or equal to {@code x[perm[k]]}.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of {@code perm} to select; it must belong to the range.
+	 * @return {@code x[perm[k]]}.
+	 * @see #select(double[], int, int, int)
+	 */
+	public static double selectIndirect(final int[] perm, final double[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final double v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3Indirect(perm, x, l, l + s, l + 2 * s);
+	    m = med3Indirect(perm, x, m - s, m, m + s);
+	    n = med3Indirect(perm, x, n - 2 * s, n - s, n);
+	   }
+	   v = x[perm[med3Indirect(perm, x, l, m, n)]];
+	  }
+	  else v = medianOfMediansIndirect(perm, x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Double.compare((x[perm[i]]),(v));
+	   if (comparison < 0) IntArrays.swap(perm, lt++, i++);
+	   else if (comparison > 0) IntArrays.swap(perm, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSortIndirect(perm, x, from, to);
+	 return x[perm[k]];
+	}
+	/** Rearranges a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if {@code x} were sorted according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the index of {@code perm} to select.
+	 * @return {@code x[perm[k]]}.
+	 * @see #selectIndirect(int[], double[], int, int, int)
+	 */
+	public static double selectIndirect(final int[] perm, final double[] x, final int k) {
+	 return selectIndirect(perm, x, 0, perm.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(double[], int, int, int) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void partialSort(final double[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to);
+	 else {
+	  select(x, from, to, from + k - 1);
+	  quickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(double[], int, int, int)
+	 */
+	public static void partialSort(final double[] x, final int k) {
+	 partialSort(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(double[], int, int, int, DoubleComparator) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 */
+	public static void partialSort(final double[] x, final int from, final int to, final int k, final DoubleComparator comp) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to, comp);
+	 else {
+	  select(x, from, to, from + k - 1, comp);
+	  quickSort(x, from, from + k - 1, comp);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 * @see #partialSort(double[], int, int, int, DoubleComparator)
+	 */
+	public static void partialSort(final double[] x, final int k, final DoubleComparator comp) {
+	 partialSort(x, 0, x.length, k, comp);
+	}
+	/** Sorts indirectly the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range of {@code perm} index the {@code k} smallest elements
+	 * of {@code x} they range over, in ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(double[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final double[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSortIndirect(perm, x, from, to);
+	 else {
+	  selectIndirect(perm, x, from, to, from + k - 1);
+	  quickSortIndirect(perm, x, from, from + k - 1);
+	 }
+	}
+	/** Sorts indirectly the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSortIndirect(int[], double[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final double[] x, final int k) {
+	 partialSortIndirect(perm, x, 0, perm.length, k);
+	}
+	private static void downHeap(final double[] heap, final int size, int i) {
+	 final double e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  double t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && ( Double.compare((heap[right]),(t)) < 0 )) t = heap[child = right];
+	  if (! ( Double.compare((t),(e)) < 0 )) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static double[] topK(final double[] x, final int from, final int to, final int k) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 // A heap containing the greatest elements seen so far, with the smallest one on top
+	 final double[] heap = new double[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i);
+	 for(int i = from + k; i < to; i++) {
+	  if (( Double.compare((heap[0]),(x[i])) < 0 )) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0);
+	  }
+	 }
+	 // Move repeatedly the top to the end of the heap
+	 for(int size = k; size > 1;) {
+	  final double t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(double[], int, int, int)
+	 */
+	public static double[] topK(final double[] x, final int k) {
+	 return topK(x, 0, x.length, k);
+	}
+	private static void downHeap(final double[] heap, final int size, int i, final DoubleComparator comp) {
+	 final double e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  double t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && comp.compare(heap[right], t) < 0) t = heap[child = right];
+	  if (comp.compare(t, e) >= 0) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static double[] topK(final double[] x, final int from, final int to, final int k, final DoubleComparator comp) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 final double[] heap = new double[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i, comp);
+	 for(int i = from + k; i < to; i++) {
+	  if (comp.compare(heap[0], x[i]) < 0) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0, comp);
+	  }
+	 }
+	 for(int size = k; size > 1;) {
+	  final double t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0, comp);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(double[], int, int, int, DoubleComparator)
+	 */
+	public static double[] topK(final double[] x, final int k, final DoubleComparator comp) {
+	 return topK(x, 0, x.length, k, comp);
+	}
+	/** A task partitioning chunks of an array around a pivot, or scattering the partitioned chunks into a support array. */
+	protected static class ForkJoinSelectPartition extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final double[] x, support;
+	 private final int from, to, firstChunk, lastChunk;
+	 private final double v;
+	 private final int[] lt, gt, offset;
+	 public ForkJoinSelectPartition(final double[] x, final int from, final int to, final double v, final int firstChunk, final int lastChunk, final int[] lt, final int[] gt, final double[] support, final int[] offset) {
+	  this.x = x;
+	  this.from = from;
+	  this.to = to;
+	  this.v = v;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.lt = lt;
+	  this.gt = gt;
+	  this.support = support;
+	  this.offset = offset;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinSelectPartition(x, from, to, v, firstChunk, mid, lt, gt, support, offset), new ForkJoinSelectPartition(x, from, to, v, mid, lastChunk, lt, gt, support, offset));
+	   return;
+	  }
+	  final double[] x = this.x;
+	  final int c = firstChunk, start = from + c * PARALLEL_SELECT_NO_FORK, end = Math.min(start + PARALLEL_SELECT_NO_FORK, to);
+	  if (offset == null) {
+	   // Partition the chunk in place: (<v)* v* (>v)*
+	   int l = start, i = start, g = end;
+	   while(i < g) {
+	    final int comparison = Double.compare((x[i]),(v));
+	    if (comparison < 0) swap(x, l++, i++);
+	    else if (comparison > 0) swap(x, i, --g);
+	    else i++;
+	   }
+	   lt[c] = l - start;
+	   gt[c] = end - g;
+	  }
+	  else {
+	   System.arraycopy(x, start, support, offset[3 * c], lt[c]);
+	   System.arraycopy(x, start + lt[c], support, offset[3 * c + 1], end - start - lt[c] - gt[c]);
+	   System.arraycopy(x, end - gt[c], support, offset[3 * c + 2], gt[c]);
+	  }
+	 }
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * <p>At each round, chunks of the range are partitioned in parallel around a pseudomedian, and then scattered
+	 * in parallel in a support array as large as the range, so that the range is
+	 * partitioned as a whole; rounds continue on the part containing {@code k} until it is small enough to be
+	 * {@linkplain #select(double[], int, int, int) selected sequentially}. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static double parallelSelect(final double[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 if (to - from < PARALLEL_SELECT_NO_FORK) return select(x, from, to, k);
+	 final double[] support = new double[to - from];
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from >= PARALLEL_SELECT_NO_FORK && rounds-- > 0) {
+	  final int len = to - from, s = len / 8;
+	  int l = from, m = from + len / 2, n = to - 1;
+	  l = med3(x, l, l + s, l + 2 * s);
+	  m = med3(x, m - s, m, m + s);
+	  n = med3(x, n - 2 * s, n - s, n);
+	  final double v = x[med3(x, l, m, n)];
+	  final int chunks = (len + PARALLEL_SELECT_NO_FORK - 1) / PARALLEL_SELECT_NO_FORK;
+	  final int[] lt = new int[chunks], gt = new int[chunks];
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, null, null));
+	  int smaller = 0, greater = 0;
+	  for(int c = 0; c < chunks; c++) {
+	   smaller += lt[c];
+	   greater += gt[c];
+	  }
+	  // Compute the positions in the support array of the three parts of each chunk
+	  final int[] offset = new int[3 * chunks];
+	  for(int c = 0, p = 0, q = smaller, r = len - greater; c < chunks; c++) {
+	   final int size = Math.min(PARALLEL_SELECT_NO_FORK, len - c * PARALLEL_SELECT_NO_FORK);
+	   offset[3 * c] = p;
+	   offset[3 * c + 1] = q;
+	   offset[3 * c + 2] = r;
+	   p += lt[c];
+	   q += size - lt[c] - gt[c];
+	   r += gt[c];
+	  }
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, support, offset));
+	  System.arraycopy(support, 0, x, from, len);
+	  if (k < from + smaller) to = from + smaller;
+	  else if (k >= to - greater) from = to - greater;
+	  else return v;
+	 }
+	 return select(x, from, to, k);
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #parallelSelect(double[], int, int, int)
+	 */
+	public static double parallelSelect(final double[] x, final int k) {
+	 return parallelSelect(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order using
+	 * a {@linkplain #parallelSelect(double[], int, int, int) parallel quickselect} followed by a parallel quicksort.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void parallelPartialSort(final double[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) parallelQuickSort(x, from, to);
+	 else {
+	  parallelSelect(x, from, to, from + k - 1);
+	  parallelQuickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order using
+	 * a parallel quickselect followed by a parallel quicksort.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #parallelPartialSort(double[], int, int, int)
+	 */
+	public static void parallelPartialSort(final double[] x, final int k) {
+	 parallelPartialSort(x, 0, x.length, k);
+	}
 	/**
 	 * Searches a range of the specified array for the specified value using
 	 * the binary search algorithm. The range must be sorted prior to making this call.
@@ -1547,23 +2323,65 @@ public final class DoubleArrays {
 	  }
 	 }
 	}
-	protected static final class Segment {
-	 protected final int offset, length, level;
-	 protected Segment(final int offset, final int length, final int level) {
-	  this.offset = offset;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final double[] a;
+	 public ForkJoinRadixSort(final double[] a, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.first = first;
 	  this.length = length;
 	  this.level = level;
 	 }
 	 @Override
-	 public String toString() { return "Segment [offset=" + offset + ", length=" + length + ", level=" + level + "]"; }
+	 protected void compute() {
+	  final double[] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(int)(fixDouble(a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   double t = a[i];
+	   c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) {
+	    while((d = --pos[c]) > i) {
+	     final double z = t;
+	     t = a[d];
+	     a[d] = z;
+	     c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[i] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
 	}
-	protected static final Segment POISON_PILL = new Segment(-1, -1, -1);
 	/** Sorts the specified range of an array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -1574,75 +2392,14 @@ public final class DoubleArrays {
 	  quickSort(a, from, to);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(int)(fixDouble(a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   final int end = first + length - count[lastUsed];
-	   // i moves through the start of each block
-	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	    double t = a[i];
-	    c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
-	    if (i < end) {
-	     while((d = --pos[c]) > i) {
-	      final double z = t;
-	      t = a[d];
-	      a[d] = z;
-	      c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
-	     }
-	     a[i] = t;
-	    }
-	    if (level < maxLevel && count[c] > 1) {
-	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
-	     else {
-	      queueSize.incrementAndGet();
-	      queue.add(new Segment(i, count[c], level + 1));
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 */
@@ -1760,6 +2517,84 @@ public final class DoubleArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] perm;
+	 private final double[] a;
+	 private final boolean stable;
+	 private final int[] support;
+	 public ForkJoinRadixSortIndirect(final int[] perm, final double[] a, final boolean stable, final int[] support, final int first, final int length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] perm = this.perm;
+	  final double[] a = this.a;
+	  final int[] support = this.support;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(int)(fixDouble(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(int i = first + length; i-- != first;) support[--pos[(int)(fixDouble(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
+	   System.arraycopy(support, first, perm, first, length);
+	   for(int i = 0, p = first; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	    p += count[i];
+	   }
+	   java.util.Arrays.fill(count, 0);
+	  }
+	  else {
+	   final int end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	    int t = perm[i];
+	    c = (int)(fixDouble(a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final int z = t;
+	      t = perm[d];
+	      perm[d] = z;
+	      c = (int)(fixDouble(a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     perm[i] = t;
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of an array using parallel indirect radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1769,7 +2604,7 @@ public final class DoubleArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1782,86 +2617,8 @@ public final class DoubleArrays {
 	  radixSortIndirect(perm, a, from, to, stable);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
 	 final int[] support = stable ? new int[perm.length] : null;
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(int)(fixDouble(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   if (stable) {
-	    for(int i = first + length; i-- != first;) support[--pos[(int)(fixDouble(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
-	    System.arraycopy(support, first, perm, first, length);
-	    for(int i = 0, p = first; i <= lastUsed; i++) {
-	     if (level < maxLevel && count[i] > 1) {
-	      if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(p, count[i], level + 1));
-	      }
-	     }
-	     p += count[i];
-	    }
-	    java.util.Arrays.fill(count, 0);
-	   }
-	   else {
-	    final int end = first + length - count[lastUsed];
-	    // i moves through the start of each block
-	    for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     int t = perm[i];
-	     c = (int)(fixDouble(a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while((d = --pos[c]) > i) {
-	       final int z = t;
-	       t = perm[d];
-	       perm[d] = z;
-	       c = (int)(fixDouble(a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	      }
-	      perm[i] = t;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSortIndirect(perm, a, stable, support, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel indirect radix sort.
 	 *
@@ -1872,7 +2629,7 @@ public final class DoubleArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1972,6 +2729,69 @@ public final class DoubleArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final double[] a;
+	 private final double[] b;
+	 public ForkJoinRadixSort2(final double[] a, final double[] b, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[] a = this.a;
+	  final double[] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final double[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys.
+	  for (int i = first + length; i-- != first;)
+	   count[(int)(fixDouble(k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   double t = a[i];
+	   double u = b[i];
+	   c = (int)(fixDouble(k[i]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while ((d = --pos[c]) > i) {
+	     c = (int)(fixDouble(k[d]) >>> shift & DIGIT_MASK ^ signMask);
+	     final double z = t;
+	     final double w = u;
+	     t = a[d];
+	     u = b[d];
+	     a[d] = z;
+	     b[d] = w;
+	    }
+	    a[i] = t;
+	    b[i] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of elements of two arrays using a parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1981,7 +2801,7 @@ public final class DoubleArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -1993,77 +2813,8 @@ public final class DoubleArrays {
 	  quickSort(a, b, from, to);
 	  return;
 	 }
-	 final int layers = 2;
 	 if (a.length != b.length) throw new IllegalArgumentException("Array size mismatch.");
-	 final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for (int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	   final int[] count = new int[1 << DIGIT_BITS];
-	   final int[] pos = new int[1 << DIGIT_BITS];
-	   for (;;) {
-	    if (queueSize.get() == 0) for (int i = numberOfThreads; i-- != 0;)
-	     queue.add(POISON_PILL);
-	    final Segment segment = queue.take();
-	    if (segment == POISON_PILL) return null;
-	    final int first = segment.offset;
-	    final int length = segment.length;
-	    final int level = segment.level;
-	    final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	    final double[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
-	    final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
-	    // Count keys.
-	    for (int i = first + length; i-- != first;)
-	     count[(int)(fixDouble(k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	    // Compute cumulative distribution
-	    int lastUsed = -1;
-	    for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	     if (count[i] != 0) lastUsed = i;
-	     pos[i] = (p += count[i]);
-	    }
-	    final int end = first + length - count[lastUsed];
-	    for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     double t = a[i];
-	     double u = b[i];
-	     c = (int)(fixDouble(k[i]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while ((d = --pos[c]) > i) {
-	       c = (int)(fixDouble(k[d]) >>> shift & DIGIT_MASK ^ signMask);
-	       final double z = t;
-	       final double w = u;
-	       t = a[d];
-	       u = b[d];
-	       a[d] = z;
-	       b[d] = w;
-	      }
-	      a[i] = t;
-	      b[i] = u;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	    queueSize.decrementAndGet();
-	   }
-	  });
-	 Throwable problem = null;
-	 for (int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch (Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
 	}
 	/** Sorts two arrays using a parallel radix sort.
 	 *
@@ -2074,7 +2825,7 @@ public final class DoubleArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
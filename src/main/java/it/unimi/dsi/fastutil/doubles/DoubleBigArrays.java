@@ -28,6 +28,7 @@
 package it.unimi.dsi.fastutil.doubles;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.BigArrays;
 import it.unimi.dsi.fastutil.Hash;
 import static it.unimi.dsi.fastutil.BigArrays.ensureLength;
@@ -38,6 +39,7 @@ import static it.unimi.dsi.fastutil.BigArrays.SEGMENT_MASK;
 import static it.unimi.dsi.fastutil.BigArrays.SEGMENT_SHIFT;
 import static it.unimi.dsi.fastutil.BigArrays.SEGMENT_SIZE;
 import it.unimi.dsi.fastutil.bytes.ByteBigArrays;
+import it.unimi.dsi.fastutil.longs.LongBigArrays;
 /** A class providing static methods and objects that do useful things with {@linkplain BigArrays big arrays}.
 	*
 	* <p>In particular, the {@code forceCapacity()}, {@code ensureCapacity()}, {@code grow()},
@@ -1080,6 +1082,361 @@ public final class DoubleBigArrays {
 	  }
 	 }
 	}
+	private static final int PARALLEL_RADIXSORT_NO_FORK = 1024;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final double[][] a;
+	 public ForkJoinRadixSort(final double[][] a, final long first, final long length, final int level) {
+	  this.a = a;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[][] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys, a segment at a time.
+	  for(long i = first, stop = first + length; i < stop;) {
+	   final double[] s = a[segment(i)];
+	   final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + stop - i);
+	   for(int j = start; j < end; j++) count[(int)(fixDouble(s[j]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	   i += end - start;
+	  }
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final long end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  int c = -1;
+	  for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	   double t = a[segment(i)][displacement(i)];
+	   c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while((d = --pos[c]) > i) {
+	     final double z = t;
+	     final double[] s = a[segment(d)];
+	     t = s[displacement(d)];
+	     s[displacement(d)] = z;
+	     c = (int)(fixDouble(t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[segment(i)][displacement(i)] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) {
+	     // Small blocks within a segment are sorted directly on the segment
+	     if (segment(i) == segment(i + count[c] - 1)) DoubleArrays.quickSort(a[segment(i)], displacement(i), displacement(i) + (int)count[c]);
+	     else quickSort(a, i, i + count[c]);
+	    }
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of a big array using parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>Buckets are sorted in parallel; buckets small enough to lie within a single segment
+	 * are sorted directly on the segment. This implementation runs in the
+	 * {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 */
+	public static void parallelRadixSort(final double[][] a, final long from, final long to) {
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) {
+	  quickSort(a, from, to);
+	  return;
+	 }
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
+	}
+	/** Sorts the specified big array using parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array to be sorted.
+	 */
+	public static void parallelRadixSort(final double[][] a) {
+	 parallelRadixSort(a, 0, DoubleBigArrays.length(a));
+	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final double[][] a;
+	 private final double[][] b;
+	 public ForkJoinRadixSort2(final double[][] a, final double[][] b, final long first, final long length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final double[][] a = this.a;
+	  final double[][] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final double[][] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys, a segment at a time.
+	  for(long i = first, stop = first + length; i < stop;) {
+	   final double[] s = k[segment(i)];
+	   final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + stop - i);
+	   for(int j = start; j < end; j++) count[(int)(fixDouble(s[j]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	   i += end - start;
+	  }
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final long end = first + length - count[lastUsed];
+	  int c = -1;
+	  for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	   double t = a[segment(i)][displacement(i)];
+	   double u = b[segment(i)][displacement(i)];
+	   c = (int)(fixDouble(k[segment(i)][displacement(i)]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while((d = --pos[c]) > i) {
+	     final int s = segment(d), e = displacement(d);
+	     c = (int)(fixDouble(k[s][e]) >>> shift & DIGIT_MASK ^ signMask);
+	     final double z = t;
+	     final double w = u;
+	     t = a[s][e];
+	     u = b[s][e];
+	     a[s][e] = z;
+	     b[s][e] = w;
+	    }
+	    a[segment(i)][displacement(i)] = t;
+	    b[segment(i)][displacement(i)] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) {
+	     // Small blocks within a segment are sorted directly on the segments
+	     if (segment(i) == segment(i + count[c] - 1)) DoubleArrays.quickSort(a[segment(i)], b[segment(i)], displacement(i), displacement(i) + (int)count[c]);
+	     else radixSort(a, b, i, i + count[c]);
+	    }
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of elements of two big arrays using a parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implements a <em>lexicographical</em> sorting of the arguments. Pairs of elements
+	 * in the same position in the two provided big arrays will be considered a single key, and permuted
+	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the first big array to be sorted.
+	 * @param b the second big array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 */
+	public static void parallelRadixSort(final double[][] a, final double[][] b, final long from, final long to) {
+	 if (DoubleBigArrays.length(a) != DoubleBigArrays.length(b)) throw new IllegalArgumentException("Array size mismatch.");
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) {
+	  radixSort(a, b, from, to);
+	  return;
+	 }
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
+	}
+	/** Sorts two big arrays using a parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implements a <em>lexicographical</em> sorting of the arguments. Pairs of elements
+	 * in the same position in the two provided big arrays will be considered a single key, and permuted
+	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the first big array to be sorted.
+	 * @param b the second big array to be sorted.
+	 */
+	public static void parallelRadixSort(final double[][] a, final double[][] b) {
+	 parallelRadixSort(a, b, 0, DoubleBigArrays.length(a));
+	}
+	private static void insertionSortIndirect(final long[][] perm, final double[][] a, final long from, final long to) {
+	 for(long i = from; ++i < to;) {
+	  final long t = LongBigArrays.get(perm, i);
+	  long j = i;
+	  for(long u = LongBigArrays.get(perm, j - 1); ( Double.compare((DoubleBigArrays.get(a, t)),(DoubleBigArrays.get(a, u))) < 0 ); u = LongBigArrays.get(perm, --j - 1)) {
+	   LongBigArrays.set(perm, j, u);
+	   if (from == j - 1) {
+	    --j;
+	    break;
+	   }
+	  }
+	  LongBigArrays.set(perm, j, t);
+	 }
+	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final long[][] perm;
+	 private final double[][] a;
+	 private final boolean stable;
+	 private final long[][] support;
+	 public ForkJoinRadixSortIndirect(final long[][] perm, final double[][] a, final boolean stable, final long[][] support, final long first, final long length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[][] perm = this.perm;
+	  final double[][] a = this.a;
+	  final long[][] support = this.support;
+	  if (length < MEDIUM) {
+	   insertionSortIndirect(perm, a, first, first + length);
+	   return;
+	  }
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(long i = first + length; i-- != first;) count[(int)(fixDouble(DoubleBigArrays.get(a, LongBigArrays.get(perm, i))) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(long i = first + length; i-- != first;) {
+	    final long t = LongBigArrays.get(perm, i);
+	    LongBigArrays.set(support, --pos[(int)(fixDouble(DoubleBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask)], t);
+	   }
+	   LongBigArrays.copy(support, first, perm, first, length);
+	   p = first;
+	   for(int i = 0; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     final ForkJoinRadixSortIndirect sub = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) sub.compute();
+	     else (task[tasks++] = sub).fork();
+	    }
+	    p += count[i];
+	   }
+	  }
+	  else {
+	   final long end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   int c = -1;
+	   for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	    long t = LongBigArrays.get(perm, i);
+	    c = (int)(fixDouble(DoubleBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final long z = t;
+	      t = LongBigArrays.get(perm, d);
+	      LongBigArrays.set(perm, d, z);
+	      c = (int)(fixDouble(DoubleBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     LongBigArrays.set(perm, i, t);
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     final ForkJoinRadixSortIndirect sub = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) sub.compute();
+	     else (task[tasks++] = sub).fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of a big array using parallel indirect radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implement an <em>indirect</em> sort. The elements of {@code perm} (which must
+	 * be exactly the numbers in the interval {@code [0..length(perm))}) will be permuted so that
+	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
+	 *
+	 * <p>This implementation will allocate, in the stable case, a support big array as large as {@code perm}, and
+	 * it runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param perm a permutation big array indexing {@code a}.
+	 * @param a the big array to be sorted.
+	 * @param from the index of the first element of {@code perm} (inclusive) to be permuted.
+	 * @param to the index of the last element of {@code perm} (exclusive) to be permuted.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static void parallelRadixSortIndirect(final long[][] perm, final double[][] a, final long from, final long to, final boolean stable) {
+	 final ForkJoinRadixSortIndirect task = new ForkJoinRadixSortIndirect(perm, a, stable, stable ? LongBigArrays.newBigArray(LongBigArrays.length(perm)) : null, from, to - from, 0);
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) task.compute();
+	 else it.unimi.dsi.fastutil.Arrays.invoke(task);
+	}
+	/** Sorts the specified big array using parallel indirect radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implement an <em>indirect</em> sort. The elements of {@code perm} (which must
+	 * be exactly the numbers in the interval {@code [0..length(perm))}) will be permuted so that
+	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
+	 *
+	 * <p>This implementation will allocate, in the stable case, a support big array as large as {@code perm}, and
+	 * it runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param perm a permutation big array indexing {@code a}.
+	 * @param a the big array to be sorted.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static void parallelRadixSortIndirect(final long[][] perm, final double[][] a, final boolean stable) {
+	 parallelRadixSortIndirect(perm, a, 0, LongBigArrays.length(perm), stable);
+	}
 	/** Shuffles the specified big array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the big array to be shuffled.
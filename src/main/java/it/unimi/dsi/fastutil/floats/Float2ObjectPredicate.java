@@ -0,0 +1,39 @@
+/*
+	* Copyright (C) 2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.floats;
+import java.util.function.BiPredicate;
+/** A type-specific {@link BiPredicate} on a float key and a value; it is used to
+	* select entries of a {@link Float2ObjectMap} without boxing.
+	*
+	* @see BiPredicate
+	*/
+@FunctionalInterface
+public interface Float2ObjectPredicate <V> extends BiPredicate<Float, V> {
+	/** Evaluates this predicate on the given key and value.
+	 *
+	 * @param k a key.
+	 * @param v a value.
+	 * @return true if the key and the value satisfy this predicate.
+	 */
+	boolean test(float k, V v);
+	/** {@inheritDoc}
+	 * @deprecated Please use the corresponding type-specific method instead. */
+	@Deprecated
+	@Override
+	default boolean test(final Float k, final V v) {
+	 return test(k.floatValue(), v);
+	}
+}
@@ -31,14 +31,8 @@ package it.unimi.dsi.fastutil.floats;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.ints.IntArrays;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
 	*
 	* <p>In particular, the {@code forceCapacity()}, {@code ensureCapacity()}, {@code grow()},
@@ -54,7 +48,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	* Some algorithms also provide an explicit <em>indirect</em> sorting facility, which makes it possible
 	* to sort an array using the values in another array as comparator.
 	*
@@ -500,8 +494,7 @@ public final class FloatArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -511,9 +504,7 @@ public final class FloatArrays {
 	public static void parallelQuickSort(final float[] x, final int from, final int to, final FloatComparator comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -523,8 +514,7 @@ public final class FloatArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -705,8 +695,7 @@ public final class FloatArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -715,9 +704,7 @@ public final class FloatArrays {
 	public static void parallelQuickSort(final float[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort (x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort (x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -726,8 +713,7 @@ public final class FloatArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -914,8 +900,7 @@ public final class FloatArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -925,9 +910,7 @@ public final class FloatArrays {
 	public static void parallelQuickSortIndirect(final int[] perm, final float[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -940,8 +923,7 @@ public final class FloatArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1187,8 +1169,7 @@ public final class FloatArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1197,9 +1178,7 @@ public final class FloatArrays {
 	 */
 	public static void parallelQuickSort(final float[] x, final float[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 (x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 (x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1213,8 +1192,7 @@ public final class FloatArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1342,6 +1320,239 @@ public final class FloatArrays {
 	public static void mergeSort(final float a[], FloatComparator comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	private static int bound(final float[] a, int from, int to, final float x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? (Float.compare((a[mid]),(x)) <= 0) : ! (Float.compare((x),(a[mid])) <= 0)) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static int bound(final float[] a, int from, int to, final float x, final boolean strict, final FloatComparator comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final float[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final float[] src, final int from1, final int to1, final int from2, final int to2, final float[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 protected void compute() {
+	  final float[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && (Float.compare((src[p]),(src[q])) <= 0)) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final float[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final FloatComparator comp;
+	 public ForkJoinMergeComp(final float[] src, final int from1, final int to1, final int from2, final int to2, final float[] dest, final int to, final FloatComparator comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final float[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final float[] a, supp;
+	 public ForkJoinMergeSort(final float[] a, final int from, final int to, final float[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final float[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort(supp, from, mid, a), new ForkJoinMergeSort(supp, mid, to, a));
+	  if ((Float.compare((supp[mid - 1]),(supp[mid])) <= 0)) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final float[] a, supp;
+	 private final FloatComparator comp;
+	 public ForkJoinMergeSortComp(final float[] a, final int from, final int to, final FloatComparator comp, final float[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final float[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp(supp, from, mid, comp, a), new ForkJoinMergeSortComp(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final float a[], final int from, final int to, final float supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(float[], int, int, float[])
+	 */
+	public static void parallelMergeSort(final float a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(float[], int, int, float[])
+	 */
+	public static void parallelMergeSort(final float a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final float a[], final int from, final int to, final FloatComparator comp, final float supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(float[], int, int, FloatComparator, float[])
+	 */
+	public static void parallelMergeSort(final float a[], final int from, final int to, final FloatComparator comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(float[], int, int, FloatComparator, float[])
+	 */
+	public static void parallelMergeSort(final float a[], final FloatComparator comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
 	/**
 	 * Searches a range of the specified array for the specified value using
 	 * the binary search algorithm. The range must be sorted prior to making this call.
@@ -1547,23 +1758,65 @@ public final class FloatArrays {
 	  }
 	 }
 	}
-	protected static final class Segment {
-	 protected final int offset, length, level;
-	 protected Segment(final int offset, final int length, final int level) {
-	  this.offset = offset;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final float[] a;
+	 public ForkJoinRadixSort(final float[] a, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.first = first;
 	  this.length = length;
 	  this.level = level;
 	 }
 	 @Override
-	 public String toString() { return "Segment [offset=" + offset + ", length=" + length + ", level=" + level + "]"; }
+	 protected void compute() {
+	  final float[] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(fixFloat(a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   float t = a[i];
+	   c = (fixFloat(t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) {
+	    while((d = --pos[c]) > i) {
+	     final float z = t;
+	     t = a[d];
+	     a[d] = z;
+	     c = (fixFloat(t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[i] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
 	}
-	protected static final Segment POISON_PILL = new Segment(-1, -1, -1);
 	/** Sorts the specified range of an array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -1574,75 +1827,14 @@ public final class FloatArrays {
 	  quickSort(a, from, to);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(fixFloat(a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   final int end = first + length - count[lastUsed];
-	   // i moves through the start of each block
-	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	    float t = a[i];
-	    c = (fixFloat(t) >>> shift & DIGIT_MASK ^ signMask);
-	    if (i < end) {
-	     while((d = --pos[c]) > i) {
-	      final float z = t;
-	      t = a[d];
-	      a[d] = z;
-	      c = (fixFloat(t) >>> shift & DIGIT_MASK ^ signMask);
-	     }
-	     a[i] = t;
-	    }
-	    if (level < maxLevel && count[c] > 1) {
-	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
-	     else {
-	      queueSize.incrementAndGet();
-	      queue.add(new Segment(i, count[c], level + 1));
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 */
@@ -1760,6 +1952,84 @@ public final class FloatArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] perm;
+	 private final float[] a;
+	 private final boolean stable;
+	 private final int[] support;
+	 public ForkJoinRadixSortIndirect(final int[] perm, final float[] a, final boolean stable, final int[] support, final int first, final int length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] perm = this.perm;
+	  final float[] a = this.a;
+	  final int[] support = this.support;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(fixFloat(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(int i = first + length; i-- != first;) support[--pos[(fixFloat(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
+	   System.arraycopy(support, first, perm, first, length);
+	   for(int i = 0, p = first; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	    p += count[i];
+	   }
+	   java.util.Arrays.fill(count, 0);
+	  }
+	  else {
+	   final int end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	    int t = perm[i];
+	    c = (fixFloat(a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final int z = t;
+	      t = perm[d];
+	      perm[d] = z;
+	      c = (fixFloat(a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     perm[i] = t;
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of an array using parallel indirect radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1769,7 +2039,7 @@ public final class FloatArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1782,86 +2052,8 @@ public final class FloatArrays {
 	  radixSortIndirect(perm, a, from, to, stable);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
 	 final int[] support = stable ? new int[perm.length] : null;
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(fixFloat(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   if (stable) {
-	    for(int i = first + length; i-- != first;) support[--pos[(fixFloat(a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
-	    System.arraycopy(support, first, perm, first, length);
-	    for(int i = 0, p = first; i <= lastUsed; i++) {
-	     if (level < maxLevel && count[i] > 1) {
-	      if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(p, count[i], level + 1));
-	      }
-	     }
-	     p += count[i];
-	    }
-	    java.util.Arrays.fill(count, 0);
-	   }
-	   else {
-	    final int end = first + length - count[lastUsed];
-	    // i moves through the start of each block
-	    for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     int t = perm[i];
-	     c = (fixFloat(a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while((d = --pos[c]) > i) {
-	       final int z = t;
-	       t = perm[d];
-	       perm[d] = z;
-	       c = (fixFloat(a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	      }
-	      perm[i] = t;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSortIndirect(perm, a, stable, support, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel indirect radix sort.
 	 *
@@ -1872,7 +2064,7 @@ public final class FloatArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1972,6 +2164,69 @@ public final class FloatArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final float[] a;
+	 private final float[] b;
+	 public ForkJoinRadixSort2(final float[] a, final float[] b, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final float[] a = this.a;
+	  final float[] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final float[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys.
+	  for (int i = first + length; i-- != first;)
+	   count[(fixFloat(k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   float t = a[i];
+	   float u = b[i];
+	   c = (fixFloat(k[i]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while ((d = --pos[c]) > i) {
+	     c = (fixFloat(k[d]) >>> shift & DIGIT_MASK ^ signMask);
+	     final float z = t;
+	     final float w = u;
+	     t = a[d];
+	     u = b[d];
+	     a[d] = z;
+	     b[d] = w;
+	    }
+	    a[i] = t;
+	    b[i] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of elements of two arrays using a parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1981,7 +2236,7 @@ public final class FloatArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -1993,77 +2248,8 @@ public final class FloatArrays {
 	  quickSort(a, b, from, to);
 	  return;
 	 }
-	 final int layers = 2;
 	 if (a.length != b.length) throw new IllegalArgumentException("Array size mismatch.");
-	 final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for (int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	   final int[] count = new int[1 << DIGIT_BITS];
-	   final int[] pos = new int[1 << DIGIT_BITS];
-	   for (;;) {
-	    if (queueSize.get() == 0) for (int i = numberOfThreads; i-- != 0;)
-	     queue.add(POISON_PILL);
-	    final Segment segment = queue.take();
-	    if (segment == POISON_PILL) return null;
-	    final int first = segment.offset;
-	    final int length = segment.length;
-	    final int level = segment.level;
-	    final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	    final float[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
-	    final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
-	    // Count keys.
-	    for (int i = first + length; i-- != first;)
-	     count[(fixFloat(k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	    // Compute cumulative distribution
-	    int lastUsed = -1;
-	    for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	     if (count[i] != 0) lastUsed = i;
-	     pos[i] = (p += count[i]);
-	    }
-	    final int end = first + length - count[lastUsed];
-	    for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     float t = a[i];
-	     float u = b[i];
-	     c = (fixFloat(k[i]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while ((d = --pos[c]) > i) {
-	       c = (fixFloat(k[d]) >>> shift & DIGIT_MASK ^ signMask);
-	       final float z = t;
-	       final float w = u;
-	       t = a[d];
-	       u = b[d];
-	       a[d] = z;
-	       b[d] = w;
-	      }
-	      a[i] = t;
-	      b[i] = u;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	    queueSize.decrementAndGet();
-	   }
-	  });
-	 Throwable problem = null;
-	 for (int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch (Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
 	}
 	/** Sorts two arrays using a parallel radix sort.
 	 *
@@ -2074,7 +2260,7 @@ public final class FloatArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
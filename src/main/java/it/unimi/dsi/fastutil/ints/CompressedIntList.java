@@ -0,0 +1,327 @@
+package it.unimi.dsi.fastutil.ints;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Arrays;
+
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/** An immutable compressed list of ints, particularly effective on sorted lists.
+ *
+ * <p>Elements are divided into blocks of {@value #BLOCK_SIZE} elements. The first element of each block
+ * is stored in a skip index; the others are stored as differences from their predecessor, bit-packed using the minimum
+ * number of bits necessary for the largest difference of the block. Differences are stored as they are if the block is
+ * nondecreasing, and in <em>zig-zag</em> encoding otherwise; thus, a sorted list of identifiers with small gaps (e.g., a posting list)
+ * uses just a few bits per element, but any list can be represented.
+ *
+ * <p>Sequential access through {@linkplain #listIterator(int) iterators} decodes a block at a time into a buffer,
+ * whereas {@link #getInt(int)} decodes on the fly the differences preceding the requested element in its block.
+ * If the list is {@linkplain #isSorted() sorted}, {@link #binarySearch(int)} and {@link #indexOf(int)} search first
+ * the skip index, and then a single block.
+ *
+ * <p>A list can be built from any type-specific iterator, and in particular from a stream of ints read from a file
+ * (see, e.g., {@link it.unimi.dsi.fastutil.io.BinIO#asIntIterator(CharSequence)}).
+ * All methods modifying the list throw an {@link UnsupportedOperationException}.
+ *
+ * @see IntArrayList
+ */
+
+public class CompressedIntList extends AbstractIntList implements RandomAccess, java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The base-2 logarithm of the number of elements of a block. */
+	public static final int BLOCK_SHIFT = 7;
+	/** The number of elements of a block. */
+	public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	/** The mask used to compute the position of an element in its block. */
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+	/** The flag marking in {@link #width} a block whose differences are zig-zag encoded. */
+	private static final int ZIGZAG = 0x80;
+	/** The mask extracting from {@link #width} the number of bits of the differences. */
+	private static final int WIDTH_MASK = 0x7F;
+
+	/** The number of elements. */
+	protected final int size;
+	/** The first element of each block. */
+	protected final int[] first;
+	/** The position of the first bit of the differences of each block in {@link #bits}. */
+	protected final long[] offset;
+	/** The number of bits of the differences of each block, possibly OR'd with {@link #ZIGZAG}. */
+	protected final byte[] width;
+	/** The bit-packed differences. */
+	protected final long[] bits;
+	/** Whether the list is nondecreasing. */
+	protected final boolean sorted;
+
+	/** Creates a new compressed list containing the elements returned by an iterator.
+	 *
+	 * @param i an iterator.
+	 */
+	public CompressedIntList(final IntIterator i) {
+		final int[] block = new int[BLOCK_SIZE];
+		int[] first = new int[16];
+		long[] offset = new long[16];
+		byte[] width = new byte[16];
+		long[] bits = new long[16];
+		long pos = 0;
+		int size = 0, blocks = 0;
+		boolean sorted = true;
+		int last = 0;
+		while(i.hasNext()) {
+			int n = 0;
+			while(n < BLOCK_SIZE && i.hasNext()) block[n++] = i.nextInt();
+			if (blocks == first.length) {
+				first = java.util.Arrays.copyOf(first, blocks * 2);
+				offset = java.util.Arrays.copyOf(offset, blocks * 2);
+				width = java.util.Arrays.copyOf(width, blocks * 2);
+			}
+			if (blocks != 0 && block[0] < last) sorted = false;
+			last = block[n - 1];
+			boolean nondecreasing = true;
+			for(int j = 1; j < n; j++) if (block[j] < block[j - 1]) {
+				nondecreasing = false;
+				break;
+			}
+			sorted &= nondecreasing;
+			long or = 0;
+			for(int j = 1; j < n; j++) or |= encode(block[j] - block[j - 1], nondecreasing);
+			final int w = Long.SIZE - Long.numberOfLeadingZeros(or);
+			first[blocks] = block[0];
+			offset[blocks] = pos;
+			width[blocks] = (byte)(nondecreasing ? w : w | ZIGZAG);
+			blocks++;
+			final long end = pos + (long)w * (n - 1);
+			if (end > (long)bits.length * Long.SIZE) bits = java.util.Arrays.copyOf(bits, (int)Math.max((end + Long.SIZE - 1) / Long.SIZE, Math.min(Arrays.MAX_ARRAY_SIZE, 2L * bits.length)));
+			if (w != 0) for(int j = 1; j < n; j++) {
+				final long d = encode(block[j] - block[j - 1], nondecreasing);
+				final int word = (int)(pos >>> 6), o = (int)(pos & 63);
+				bits[word] |= d << o;
+				if (o + w > Long.SIZE) bits[word + 1] |= d >>> -o;
+				pos += w;
+			}
+			size += n;
+			if (size < 0) throw new IllegalArgumentException("Too many elements");
+		}
+		this.size = size;
+		this.first = java.util.Arrays.copyOf(first, blocks);
+		this.offset = java.util.Arrays.copyOf(offset, blocks);
+		this.width = java.util.Arrays.copyOf(width, blocks);
+		this.bits = java.util.Arrays.copyOf(bits, (int)((pos + Long.SIZE - 1) / Long.SIZE));
+		this.sorted = sorted;
+	}
+
+	/** Creates a new compressed list containing the elements of an array fragment.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to use.
+	 * @param length the number of elements of {@code a} to use.
+	 */
+	public CompressedIntList(final int[] a, final int offset, final int length) {
+		this(IntIterators.wrap(a, offset, length));
+	}
+
+	/** Creates a new compressed list containing the elements of an array.
+	 *
+	 * @param a an array.
+	 */
+	public CompressedIntList(final int[] a) {
+		this(a, 0, a.length);
+	}
+
+	/** Creates a new compressed list containing the elements of a type-specific collection (e.g., a {@link IntArrayList}).
+	 *
+	 * @param c a type-specific collection.
+	 */
+	public CompressedIntList(final IntCollection c) {
+		this(c.iterator());
+	}
+
+	/** Returns the bit-packed representation of a difference. */
+	private static long encode(final int d, final boolean nondecreasing) {
+		return nondecreasing ? (d & 0xFFFFFFFFL) : ((d << 1 ^ d >> 31) & 0xFFFFFFFFL);
+	}
+
+	/** Returns a difference given its bit-packed representation. */
+	private static int decode(final long d, final boolean nondecreasing) {
+		return nondecreasing ? (int)d : (int)(d >>> 1) ^ -(int)(d & 1);
+	}
+
+	/** Extracts a bit field from a bit array. */
+	private static long extract(final long[] bits, final long pos, final int width) {
+		final int word = (int)(pos >>> 6), o = (int)(pos & 63);
+		long d = bits[word] >>> o;
+		if (o + width > Long.SIZE) d |= bits[word + 1] << -o;
+		return width == Long.SIZE ? d : d & (1L << width) - 1;
+	}
+
+	/** Decodes a block.
+	 *
+	 * @param b a block index.
+	 * @param a an array of length at least {@value #BLOCK_SIZE} that will contain the elements of the block.
+	 * @return the number of elements of the block.
+	 */
+	private int decodeBlock(final int b, final int[] a) {
+		final int n = Math.min(BLOCK_SIZE, size - (b << BLOCK_SHIFT));
+		final int w = width[b] & WIDTH_MASK;
+		final boolean nondecreasing = (width[b] & ZIGZAG) == 0;
+		int v = a[0] = first[b];
+		if (w == 0) java.util.Arrays.fill(a, 1, n, v);
+		else {
+			final long[] bits = this.bits;
+			long pos = offset[b];
+			for(int j = 1; j < n; j++, pos += w) a[j] = v += decode(extract(bits, pos, w), nondecreasing);
+		}
+		return n;
+	}
+
+	@Override
+	public int getInt(final int index) {
+		if (index >= size) throw new IndexOutOfBoundsException("Index (" + index + ") is greater than or equal to list size (" + size + ")");
+		final int b = index >>> BLOCK_SHIFT;
+		final int w = width[b] & WIDTH_MASK;
+		int v = first[b];
+		if (w == 0) return v;
+		final boolean nondecreasing = (width[b] & ZIGZAG) == 0;
+		long pos = offset[b];
+		for(int j = index & BLOCK_MASK; j-- != 0; pos += w) v += decode(extract(bits, pos, w), nondecreasing);
+		return v;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Returns whether this list is sorted (i.e., nondecreasing).
+	 *
+	 * @return true if this list is nondecreasing.
+	 */
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	/** Returns the index of the first element greater than or equal to a key in a sorted list. */
+	private int lowerBound(final int key) {
+		// The number of blocks whose first element is smaller than the key
+		int from = 0, to = first.length;
+		while(from < to) {
+			final int mid = from + to >>> 1;
+			if (first[mid] < key) from = mid + 1;
+			else to = mid;
+		}
+		if (from == 0) return 0;
+		// The first element of the block from (if any) is not smaller than the key, so we scan the previous block
+		final int b = from - 1;
+		final int n = Math.min(BLOCK_SIZE, size - (b << BLOCK_SHIFT));
+		final int w = width[b];
+		int v = first[b];
+		long pos = offset[b];
+		if (w != 0) for(int j = 1; j < n; j++, pos += w) {
+			v += extract(bits, pos, w);
+			if (v >= key) return (b << BLOCK_SHIFT) + j;
+		}
+		return Math.min(from << BLOCK_SHIFT, size);
+	}
+
+	/** Searches this sorted list for a key.
+	 *
+	 * @param key the key to be searched for.
+	 * @return the index of the first occurrence of the key, if it is contained in the list;
+	 * otherwise, {@code (-(<i>insertion point</i>) - 1)}, with the same meaning of {@link java.util.Arrays#binarySearch(int[], int)}.
+	 * @throws IllegalStateException if this list is not {@linkplain #isSorted() sorted}.
+	 */
+	public int binarySearch(final int key) {
+		if (! sorted) throw new IllegalStateException("The list is not sorted");
+		final int i = lowerBound(key);
+		return i < size && getInt(i) == key ? i : -i - 1;
+	}
+
+	@Override
+	public int indexOf(final int k) {
+		if (! sorted) return super.indexOf(k);
+		final int i = lowerBound(k);
+		return i < size && getInt(i) == k ? i : -1;
+	}
+
+	@Override
+	public boolean contains(final int k) {
+		return indexOf(k) != -1;
+	}
+
+	@Override
+	public void getElements(int from, final int[] a, int offset, int length) {
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		Arrays.ensureFromTo(size, from, from + length);
+		final int[] buffer = new int[BLOCK_SIZE];
+		while(length != 0) {
+			final int start = from & BLOCK_MASK;
+			final int l = Math.min(length, decodeBlock(from >>> BLOCK_SHIFT, buffer) - start);
+			System.arraycopy(buffer, start, a, offset, l);
+			from += l;
+			offset += l;
+			length -= l;
+		}
+	}
+
+	@Override
+	public IntListIterator listIterator(final int index) {
+		ensureIndex(index);
+		return new IntListIterator () {
+			/** The elements of the current block. */
+			private final int[] buffer = new int[BLOCK_SIZE];
+			/** The block currently in {@link #buffer}, or -1. */
+			private int block = -1;
+			private int pos = index;
+
+			private int element(final int i) {
+				if (i >>> BLOCK_SHIFT != block) decodeBlock(block = i >>> BLOCK_SHIFT, buffer);
+				return buffer[i & BLOCK_MASK];
+			}
+
+			@Override
+			public boolean hasNext() { return pos < size; }
+
+			@Override
+			public boolean hasPrevious() { return pos > 0; }
+
+			@Override
+			public int nextInt() { if (! hasNext()) throw new NoSuchElementException(); return element(pos++); }
+
+			@Override
+			public int previousInt() { if (! hasPrevious()) throw new NoSuchElementException(); return element(--pos); }
+
+			@Override
+			public int nextIndex() { return pos; }
+
+			@Override
+			public int previousIndex() { return pos - 1; }
+		};
+	}
+
+	/** Returns the number of bits used by this list.
+	 *
+	 * @return the number of bits used by the bit-packed differences and by the skip index.
+	 */
+	public long numBits() {
+		return (long)bits.length * Long.SIZE + (long)first.length * (Integer.SIZE + Long.SIZE + Byte.SIZE);
+	}
+}
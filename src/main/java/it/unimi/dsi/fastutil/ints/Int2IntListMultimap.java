@@ -0,0 +1,498 @@
+package it.unimi.dsi.fastutil.ints;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.maxFill;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/** A multimap from integers to lists of integers with a packed representation.
+ *
+ * <p>Keys are stored in an open-addressing hash table with linear probing, as in {@link Int2ObjectOpenHashMap}, but the
+ * values of all keys are stored in a single integer array, the <em>pool</em>. The values of a key form a chain of chunks
+ * in the pool; each chunk is made of a header of {@value #HEADER} integers (the position of the next chunk, the capacity and
+ * the number of values in the chunk) followed by the values. Chunk capacities double (up to {@value #MAX_CHUNK}),
+ * so appending a value takes amortised constant time and a list of <var>k</var> values takes O(log <var>k</var>) chunks.
+ * After {@link #trim()}, the values of each key are contiguous, as in the <em>compressed sparse row</em> format.
+ *
+ * <p>Compared to an {@code Int2ObjectOpenHashMap<IntArrayList>}, there is no object per key: memory per value approaches
+ * four bytes, and the garbage collector has just a handful of arrays to trace. Values can be enumerated
+ * with {@link #forEach(int, IntConsumer)} or copied with {@link #getValues(int, int[], int)} without allocating anything.
+ * Rehashing moves just keys and chunk pointers.
+ *
+ * <p>The chunks of a key removed by {@link #removeAll(int)} are left unused in the pool, which is compacted
+ * automatically when unused positions exceed used ones.
+ *
+ * @see Long2LongListMultimap
+ */
+
+public class Int2IntListMultimap implements java.io.Serializable, Cloneable, Hash {
+	private static final long serialVersionUID = 0L;
+	/** The number of integers in the header of a chunk. */
+	private static final int HEADER = 3;
+	/** The capacity of the first chunk of a key. */
+	private static final int MIN_CHUNK = 2;
+	/** The maximum capacity of a chunk allocated when appending values one at a time. */
+	private static final int MAX_CHUNK = 1 << 16;
+
+	/** The array of keys. */
+	protected int[] key;
+	/** The pool position of the first chunk of each key. */
+	protected int[] head;
+	/** The pool position of the last chunk of each key. */
+	protected int[] tail;
+	/** The number of values of each key. */
+	protected int[] count;
+	/** The pool of chunks. */
+	protected int[] pool;
+	/** The number of positions of {@link #pool} in use, including those of removed chunks. */
+	protected int used;
+	/** The number of positions of {@link #pool} occupied by removed chunks. */
+	protected int garbage;
+	/** The mask for wrapping a position counter. */
+	protected int mask;
+	/** Whether this multimap contains the key zero. */
+	protected boolean containsNullKey;
+	/** The current table size. */
+	protected int n;
+	/** Threshold after which we rehash. It must be the table size times {@link #f}. */
+	protected int maxFill;
+	/** We never resize below this threshold, which is the construction-time {#n}. */
+	protected final int minN;
+	/** Number of keys in the multimap (including the key zero, if present). */
+	protected int size;
+	/** Number of values in the multimap. */
+	protected int values;
+	/** The acceptable load factor. */
+	protected final float f;
+
+	/** Creates a new multimap.
+	 *
+	 * <p>The actual table size will be the least power of two greater than {@code expected}/{@code f}.
+	 *
+	 * @param expected the expected number of keys in the multimap.
+	 * @param f the load factor.
+	 */
+	public Int2IntListMultimap(final int expected, final float f) {
+		if (f <= 0 || f > 1) throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than or equal to 1");
+		if (expected < 0) throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+		this.f = f;
+		minN = n = arraySize(expected, f);
+		mask = n - 1;
+		maxFill = maxFill(n, f);
+		key = new int[n + 1];
+		head = new int[n + 1];
+		tail = new int[n + 1];
+		count = new int[n + 1];
+		pool = IntArrays.EMPTY_ARRAY;
+	}
+
+	/** Creates a new multimap with {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 *
+	 * @param expected the expected number of keys in the multimap.
+	 */
+	public Int2IntListMultimap(final int expected) {
+		this(expected, DEFAULT_LOAD_FACTOR);
+	}
+
+	/** Creates a new multimap with initial expected {@link Hash#DEFAULT_INITIAL_SIZE} keys
+	 * and {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 */
+	public Int2IntListMultimap() {
+		this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+	}
+
+	private int find(final int k) {
+		if (k == 0) return containsNullKey ? n : -(n + 1);
+		int curr;
+		final int[] key = this.key;
+		int pos;
+		// The starting point.
+		if ((curr = key[pos = HashCommon.mix(k) & mask]) == 0) return -(pos + 1);
+		if (k == curr) return pos;
+		// There's always an unused entry.
+		while(true) {
+			if ((curr = key[pos = (pos + 1) & mask]) == 0) return -(pos + 1);
+			if (k == curr) return pos;
+		}
+	}
+
+	/** Allocates a new empty chunk at the end of the pool.
+	 *
+	 * @param capacity the capacity of the chunk.
+	 * @return the position of the chunk.
+	 */
+	private int allocate(final int capacity) {
+		final int c = used;
+		pool = IntArrays.grow(pool, c + HEADER + capacity, c);
+		pool[c] = -1;
+		pool[c + 1] = capacity;
+		pool[c + 2] = 0;
+		used = c + HEADER + capacity;
+		return c;
+	}
+
+	/** Makes sure that the last chunk of the key in the given table position has at least one free slot.
+	 *
+	 * @param pos a table position.
+	 * @param needed the number of values that will be appended.
+	 * @return the position of the last chunk of the key.
+	 */
+	private int ensureTail(final int pos, final int needed) {
+		final int t = tail[pos];
+		if (pool[t + 2] < pool[t + 1]) return t;
+		final int c = allocate(Math.max(needed, Math.min(pool[t + 1] * 2, MAX_CHUNK)));
+		pool[t] = c;
+		return tail[pos] = c;
+	}
+
+	/** Returns the table position of a key, inserting it with an empty chunk if necessary.
+	 *
+	 * <p>Note that after this call the table might need rehashing, which must be delegated to the caller
+	 * as it would invalidate the returned position.
+	 *
+	 * @param k a key.
+	 * @param needed the number of values that will be appended.
+	 * @return the table position of {@code k}.
+	 */
+	private int findOrInsert(final int k, final int needed) {
+		int pos = find(k);
+		if (pos >= 0) return pos;
+		pos = -pos - 1;
+		if (pos == n) containsNullKey = true;
+		final int c = allocate(Math.max(needed, MIN_CHUNK));
+		key[pos] = k;
+		head[pos] = tail[pos] = c;
+		count[pos] = 0;
+		size++;
+		return pos;
+	}
+
+	/** Appends a value to the list associated with a key.
+	 *
+	 * @param k the key.
+	 * @param v the value to append.
+	 */
+	public void put(final int k, final int v) {
+		final int pos = findOrInsert(k, 1);
+		final int t = ensureTail(pos, 1);
+		final int[] pool = this.pool;
+		pool[t + HEADER + pool[t + 2]++] = v;
+		count[pos]++;
+		values++;
+		if (size > maxFill) rehash(arraySize(size + 1, f));
+	}
+
+	/** Appends an array fragment to the list associated with a key.
+	 *
+	 * @param k the key.
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to append.
+	 * @param length the number of elements of {@code a} to append.
+	 */
+	public void putAll(final int k, final int[] a, final int offset, final int length) {
+		IntArrays.ensureOffsetLength(a, offset, length);
+		if (length == 0) return;
+		final int pos = findOrInsert(k, length);
+		final int t = ensureTail(pos, length);
+		final int[] pool = this.pool;
+		// The last chunk has either enough room, or at least a free slot and is followed by a new chunk.
+		final int free = Math.min(length, pool[t + 1] - pool[t + 2]);
+		System.arraycopy(a, offset, pool, t + HEADER + pool[t + 2], free);
+		pool[t + 2] += free;
+		if (free < length) {
+			final int c = allocate(length - free);
+			final int[] newPool = this.pool;
+			System.arraycopy(a, offset + free, newPool, c + HEADER, length - free);
+			newPool[c + 2] = length - free;
+			newPool[t] = c;
+			tail[pos] = c;
+		}
+		count[pos] += length;
+		values += length;
+		if (size > maxFill) rehash(arraySize(size + 1, f));
+	}
+
+	/** Appends an array to the list associated with a key.
+	 *
+	 * @param k the key.
+	 * @param a an array.
+	 */
+	public void putAll(final int k, final int[] a) {
+		putAll(k, a, 0, a.length);
+	}
+
+	/** Returns whether a key has at least one associated value.
+	 *
+	 * @param k the key.
+	 * @return true if {@code k} is a key of this multimap.
+	 */
+	public boolean containsKey(final int k) {
+		return find(k) >= 0;
+	}
+
+	/** Returns the number of values associated with a key.
+	 *
+	 * @param k the key.
+	 * @return the number of values associated with {@code k} (possibly zero).
+	 */
+	public int valueCount(final int k) {
+		final int pos = find(k);
+		return pos < 0 ? 0 : count[pos];
+	}
+
+	/** Applies an action to all values associated with a key, in insertion order.
+	 *
+	 * @param k the key.
+	 * @param action the action to be applied to each value.
+	 */
+	public void forEach(final int k, final IntConsumer action) {
+		final int pos = find(k);
+		if (pos < 0) return;
+		final int[] pool = this.pool;
+		for(int c = head[pos]; c != -1; c = pool[c]) {
+			for(int i = c + HEADER, end = i + pool[c + 2]; i < end; i++) action.accept(pool[i]);
+		}
+	}
+
+	/** Copies the values associated with a key, in insertion order, into an array.
+	 *
+	 * <p>If {@code a} does not have enough space starting from {@code offset}, only the first values are copied.
+	 *
+	 * @param k the key.
+	 * @param a an array.
+	 * @param offset the first position of {@code a} to be filled.
+	 * @return the number of values associated with {@code k}.
+	 */
+	public int getValues(final int k, final int[] a, final int offset) {
+		final int pos = find(k);
+		if (pos < 0) return 0;
+		final int[] pool = this.pool;
+		int remaining = a.length - offset;
+		for(int c = head[pos], o = offset; c != -1 && remaining > 0; c = pool[c]) {
+			final int l = Math.min(remaining, pool[c + 2]);
+			System.arraycopy(pool, c + HEADER, a, o, l);
+			o += l;
+			remaining -= l;
+		}
+		return count[pos];
+	}
+
+	/** Returns the values associated with a key, in insertion order, in a new array.
+	 *
+	 * @param k the key.
+	 * @return a new array containing the values associated with {@code k}.
+	 */
+	public int[] getValues(final int k) {
+		final int c = valueCount(k);
+		if (c == 0) return IntArrays.EMPTY_ARRAY;
+		final int[] a = new int[c];
+		getValues(k, a, 0);
+		return a;
+	}
+
+	/** Applies an action to all keys of this multimap.
+	 *
+	 * @param action the action to be applied to each key.
+	 */
+	public void forEachKey(final IntConsumer action) {
+		if (containsNullKey) action.accept(key[n]);
+		for(int pos = n; pos-- != 0;) if (key[pos] != 0) action.accept(key[pos]);
+	}
+
+	/** Removes a key and all its values.
+	 *
+	 * @param k the key.
+	 * @return the number of values that have been removed.
+	 */
+	public int removeAll(final int k) {
+		final int pos = find(k);
+		if (pos < 0) return 0;
+		final int removed = count[pos];
+		for(int c = head[pos]; c != -1; c = pool[c]) garbage += HEADER + pool[c + 1];
+		values -= removed;
+		size--;
+		if (pos == n) containsNullKey = false;
+		else shiftKeys(pos);
+		if (garbage > used - garbage) compact();
+		if (n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(n / 2);
+		return removed;
+	}
+
+	/** Shifts left entries with the specified hash code, starting at the specified position,
+	 * and empties the resulting free entry.
+	 *
+	 * @param pos a starting position.
+	 */
+	protected final void shiftKeys(int pos) {
+		// Shift entries with the same hash.
+		int last, slot;
+		int curr;
+		final int[] key = this.key;
+		for(;;) {
+			pos = ((last = pos) + 1) & mask;
+			for(;;) {
+				if ((curr = key[pos]) == 0) {
+					key[last] = 0;
+					return;
+				}
+				slot = HashCommon.mix(curr) & mask;
+				if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+				pos = (pos + 1) & mask;
+			}
+			key[last] = curr;
+			head[last] = head[pos];
+			tail[last] = tail[pos];
+			count[last] = count[pos];
+		}
+	}
+
+	/** Rewrites the pool so that the values of each key are contiguous, and discards unused positions.
+	 *
+	 * <p>The resulting pool is exactly as large as needed; appending a value to a key will allocate a new chunk.
+	 */
+	protected void compact() {
+		final int[] pool = this.pool;
+		final int[] newPool = new int[values + HEADER * size];
+		int o = 0;
+		for(int pos = n + 1; pos-- != 0;) {
+			if (pos == n ? ! containsNullKey : key[pos] == 0) continue;
+			final int c = o;
+			newPool[o] = -1;
+			newPool[o + 1] = newPool[o + 2] = count[pos];
+			o += HEADER;
+			for(int d = head[pos]; d != -1; d = pool[d]) {
+				System.arraycopy(pool, d + HEADER, newPool, o, pool[d + 2]);
+				o += pool[d + 2];
+			}
+			head[pos] = tail[pos] = c;
+		}
+		this.pool = newPool;
+		used = o;
+		garbage = 0;
+	}
+
+	/** Compacts the pool, making the values of each key contiguous, and rehashes the table to the smallest size satisfying the load factor.
+	 *
+	 * <p>This method is useful when the multimap will not be changed anymore, as it
+	 * minimises memory usage and makes enumeration of the values of a key a linear scan.
+	 *
+	 * @return true if there was enough memory to trim the multimap.
+	 */
+	public boolean trim() {
+		try {
+			compact();
+			final int l = arraySize(size, f);
+			if (l < n && size <= maxFill(l, f)) rehash(l);
+		}
+		catch(OutOfMemoryError cantDoIt) { return false; }
+		return true;
+	}
+
+	/** Removes all keys and values from this multimap.
+	 *
+	 * <p>To increase object reuse, this method does not change the table size nor the pool size.
+	 */
+	public void clear() {
+		if (size == 0) return;
+		size = values = used = garbage = 0;
+		containsNullKey = false;
+		Arrays.fill(key, 0);
+	}
+
+	/** Returns the number of keys in this multimap.
+	 *
+	 * @return the number of keys in this multimap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/** Returns the overall number of values in this multimap.
+	 *
+	 * @return the number of key/value pairs in this multimap.
+	 */
+	public int valueCount() {
+		return values;
+	}
+
+	/** Returns true if this multimap contains no keys.
+	 *
+	 * @return true if this multimap contains no keys.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Rehashes the multimap.
+	 *
+	 * <p>Only keys and chunk pointers are moved: the pool is not modified.
+	 *
+	 * @param newN the new size
+	 */
+	protected void rehash(final int newN) {
+		final int key[] = this.key, head[] = this.head, tail[] = this.tail, count[] = this.count;
+		final int mask = newN - 1;
+		final int newKey[] = new int[newN + 1], newHead[] = new int[newN + 1], newTail[] = new int[newN + 1], newCount[] = new int[newN + 1];
+		int i = n, pos;
+		for(int j = containsNullKey ? size - 1 : size; j-- != 0;) {
+			while(key[--i] == 0);
+			if (newKey[pos = HashCommon.mix(key[i]) & mask] != 0)
+				while (newKey[pos = (pos + 1) & mask] != 0);
+			newKey[pos] = key[i];
+			newHead[pos] = head[i];
+			newTail[pos] = tail[i];
+			newCount[pos] = count[i];
+		}
+		newHead[newN] = head[n];
+		newTail[newN] = tail[n];
+		newCount[newN] = count[n];
+		n = newN;
+		this.mask = mask;
+		maxFill = maxFill(n, f);
+		this.key = newKey;
+		this.head = newHead;
+		this.tail = newTail;
+		this.count = newCount;
+	}
+
+	/** Returns a deep copy of this multimap.
+	 *
+	 * @return a deep copy of this multimap.
+	 */
+	@Override
+	public Int2IntListMultimap clone() {
+		Int2IntListMultimap c;
+		try {
+			c = (Int2IntListMultimap)super.clone();
+		}
+		catch(CloneNotSupportedException cantHappen) {
+			throw new InternalError();
+		}
+		c.key = key.clone();
+		c.head = head.clone();
+		c.tail = tail.clone();
+		c.count = count.clone();
+		c.pool = pool.clone();
+		return c;
+	}
+}
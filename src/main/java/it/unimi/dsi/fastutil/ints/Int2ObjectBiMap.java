@@ -0,0 +1,217 @@
+package it.unimi.dsi.fastutil.ints;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.Object2IntBiMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+
+import java.util.Objects;
+
+/** A bidirectional map from integers to objects, such as the identifier-to-string side of a dictionary.
+ *
+ * <p>This class is a thin view over an {@link Object2IntBiMap} with keys and values swapped, which holds all data:
+ * see its documentation for details about the representation. In particular, when keys are dense {@link #get(int)}
+ * is a single array access. The inverse map, returned by {@link #inverse()}, is the backing {@link Object2IntBiMap}.
+ *
+ * <p>Both keys and values are unique: {@link #put(int, Object)} throws an {@link IllegalArgumentException} if
+ * the value is already associated with a different key, whereas {@link #putForce(int, Object)} removes silently
+ * the existing association. Values cannot be {@code null}.
+ *
+ * @see Object2IntBiMap
+ */
+
+public class Int2ObjectBiMap <V> extends AbstractInt2ObjectMap <V> implements java.io.Serializable, Hash {
+	private static final long serialVersionUID = 0L;
+	/** The backing map, which is also the inverse of this map. */
+	protected final Object2IntBiMap <V> inverse;
+
+	/** Creates a new bidirectional map that is a view of a given one with keys and values swapped.
+	 *
+	 * <p>Usually, you should rather call {@link Object2IntBiMap#inverse()}, which caches its result.
+	 *
+	 * @param inverse the backing map.
+	 */
+	public Int2ObjectBiMap(final Object2IntBiMap <V> inverse) {
+		this.inverse = inverse;
+	}
+
+	/** Creates a new bidirectional map.
+	 *
+	 * @param expected the expected number of elements in the map.
+	 * @param f the load factor.
+	 */
+	public Int2ObjectBiMap(final int expected, final float f) {
+		this(new Object2IntBiMap <V>(expected, f));
+	}
+
+	/** Creates a new bidirectional map with {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 *
+	 * @param expected the expected number of elements in the map.
+	 */
+	public Int2ObjectBiMap(final int expected) {
+		this(expected, DEFAULT_LOAD_FACTOR);
+	}
+
+	/** Creates a new bidirectional map with initial expected {@link Hash#DEFAULT_INITIAL_SIZE} entries
+	 * and {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 */
+	public Int2ObjectBiMap() {
+		this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+	}
+
+	@Override
+	public V get(final int k) {
+		final V v = inverse.getKey(k);
+		return v == null ? defRetValue : v;
+	}
+
+	@Override
+	public boolean containsKey(final int k) {
+		return inverse.containsValue(k);
+	}
+
+	@Override
+	public boolean containsValue(final Object v) {
+		return inverse.containsKey(v);
+	}
+
+	/** Returns the key associated with a value.
+	 *
+	 * @param v a value.
+	 * @return the key associated with {@code v}, or the {@linkplain Object2IntBiMap#defaultReturnValue() default return value} of the inverse map.
+	 */
+	public int getKey(final Object v) {
+		return v == null || ! inverse.containsKey(v) ? inverse.defaultReturnValue() : inverse.getInt(v);
+	}
+
+	/** Associates a value with a key.
+	 *
+	 * @param k the key.
+	 * @param v the value (not {@code null}).
+	 * @return the old value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 * @throws IllegalArgumentException if {@code v} is already associated with a key different from {@code k}.
+	 */
+	@Override
+	public V put(final int k, final V v) {
+		Objects.requireNonNull(v);
+		final V oldValue = inverse.getKey(k);
+		if (oldValue != null && oldValue.equals(v)) return oldValue;
+		if (inverse.containsKey(v)) throw new IllegalArgumentException("Value " + v + " is already associated with key " + inverse.getInt(v));
+		if (oldValue != null) inverse.removeInt(oldValue);
+		inverse.put(v, k);
+		return oldValue == null ? defRetValue : oldValue;
+	}
+
+	/** Associates a value with a key, removing the association of the value with another key, if present.
+	 *
+	 * @param k the key.
+	 * @param v the value (not {@code null}).
+	 * @return the old value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 */
+	public V putForce(final int k, final V v) {
+		final V oldValue = inverse.getKey(k);
+		inverse.putForce(v, k);
+		return oldValue == null ? defRetValue : oldValue;
+	}
+
+	@Override
+	public V remove(final int k) {
+		final V oldValue = inverse.removeKey(k);
+		return oldValue == null ? defRetValue : oldValue;
+	}
+
+	/** Returns the inverse of this map, that is, the backing {@link Object2IntBiMap}.
+	 *
+	 * @return the inverse of this map.
+	 */
+	public Object2IntBiMap <V> inverse() {
+		return inverse;
+	}
+
+	@Override
+	public void clear() {
+		inverse.clear();
+	}
+
+	@Override
+	public int size() {
+		return inverse.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return inverse.isEmpty();
+	}
+
+	/** An entry of the map; its value can be set, but with the same restrictions of {@link Int2ObjectBiMap#put(int, Object)}. */
+	private final class MapEntry extends AbstractInt2ObjectMap.BasicEntry <V> {
+		MapEntry(final int key, final V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(final V v) {
+			final V oldValue = put(key, v);
+			value = v;
+			return oldValue;
+		}
+	}
+
+	@Override
+	public ObjectSet<Int2ObjectMap.Entry <V> > int2ObjectEntrySet() {
+		return new AbstractInt2ObjectMap.BasicEntrySet <V>(this) {
+			@Override
+			public ObjectIterator<Int2ObjectMap.Entry <V> > iterator() {
+				final ObjectIterator<Object2IntMap.Entry <V> > i = inverse.object2IntEntrySet().iterator();
+				return new ObjectIterator<Int2ObjectMap.Entry <V> >() {
+					@Override
+					public boolean hasNext() {
+						return i.hasNext();
+					}
+
+					@Override
+					public Int2ObjectMap.Entry <V> next() {
+						final Object2IntMap.Entry <V> e = i.next();
+						return new MapEntry(e.getIntValue(), e.getKey());
+					}
+
+					@Override
+					public void remove() {
+						i.remove();
+					}
+				};
+			}
+
+			@Override
+			public void clear() {
+				inverse.clear();
+			}
+		};
+	}
+
+	/** Rehashes the backing map, making the table as small as possible.
+	 *
+	 * @return true if there was enough memory to trim the map.
+	 * @see Object2IntBiMap#trim()
+	 */
+	public boolean trim() {
+		return inverse.trim();
+	}
+}
@@ -223,6 +223,78 @@ public class Int2ObjectOpenHashMap <V> extends AbstractInt2ObjectMap <V> impleme
 	 value[pos] = v;
 	 return oldValue;
 	}
+	/** Returns the slot of a key, inserting the key if it is not present.
+	 *
+	 * <p>This method, together with {@link #valueAt(int)} and {@link #setValueAt(int, Object)}, makes it possible to
+	 * perform read-modify-write sequences probing the table just once, as in
+	 * <pre>
+	 * int slot = map.findOrInsertSlot(k);
+	 * if (slot &lt; 0) map.setValueAt(slot = -slot - 1, new IntArrayList()); // The key has been inserted
+	 * map.valueAt(slot).add(x);
+	 * </pre>
+	 *
+	 * <p>A key inserted by this method is associated with the {@linkplain #defaultReturnValue() default return value}.
+	 * Since a rehash, if necessary, is performed before the insertion, the returned slot is valid until
+	 * the next structural modification of this map (i.e., until a key is added or removed, or the map is rehashed, trimmed or cleared).
+	 *
+	 * @param k the key.
+	 * @return the slot of {@code k}, if it was already present, or &minus;(<var>slot</var> + 1), if it has been inserted at <var>slot</var>.
+	 */
+	public int findOrInsertSlot(final int k) {
+	 int pos = find(k);
+	 if (pos >= 0) return pos;
+	 if (size >= maxFill) {
+	  // We rehash before inserting, so the slot remains valid
+	  rehash(arraySize(size + 2, f));
+	  pos = find(k);
+	 }
+	 pos = -pos - 1;
+	 if (pos == n) containsNullKey = true;
+	 key[pos] = k;
+	 value[pos] = defRetValue;
+	 size++;
+	 if (ASSERTS) checkTable();
+	 return -pos - 1;
+	}
+	/** Returns the slot of a key.
+	 *
+	 * <p>The returned slot is valid until the next structural modification of this map.
+	 *
+	 * @param k the key.
+	 * @return the slot of {@code k}, or &minus;1 if {@code k} is not present.
+	 * @see #findOrInsertSlot(int)
+	 */
+	public int findSlot(final int k) {
+	 final int pos = find(k);
+	 return pos < 0 ? -1 : pos;
+	}
+	/** Returns the key in a slot.
+	 *
+	 * @param slot a slot returned by {@link #findSlot(int)} or {@link #findOrInsertSlot(int)}.
+	 * @return the key in {@code slot}.
+	 */
+	public int keyAt(final int slot) {
+	 return key[slot];
+	}
+	/** Returns the value in a slot.
+	 *
+	 * @param slot a slot returned by {@link #findSlot(int)} or {@link #findOrInsertSlot(int)}.
+	 * @return the value in {@code slot}.
+	 */
+	public V valueAt(final int slot) {
+	 return value[slot];
+	}
+	/** Sets the value in a slot.
+	 *
+	 * @param slot a slot returned by {@link #findSlot(int)} or {@link #findOrInsertSlot(int)}.
+	 * @param v the new value.
+	 * @return the old value in {@code slot}.
+	 */
+	public V setValueAt(final int slot, final V v) {
+	 final V oldValue = value[slot];
+	 value[slot] = v;
+	 return oldValue;
+	}
 	/** Shifts left entries with the specified hash code, starting at the specified position,
 	 * and empties the resulting free entry.
 	 *
@@ -958,5 +1030,194 @@ public class Int2ObjectOpenHashMap <V> extends AbstractInt2ObjectMap <V> impleme
 	 }
 	 if (ASSERTS) checkTable();
 	}
+	/** Stores this map to a data output using a compact binary format.
+	 *
+	 * <p>Keys are written in blocks using {@link it.unimi.dsi.fastutil.io.BinIO#writeInts(int[],int,int,java.io.DataOutput)},
+	 * and values are written by the given codec, so no per-entry call to an {@link java.io.ObjectOutputStream} is
+	 * necessary. If {@code table} is true, the backing table (empty slots included) is written as it is,
+	 * and {@link #load(java.io.DataInput,it.unimi.dsi.fastutil.io.ObjectCodec)} will restore it without
+	 * probing any key; otherwise, only the keys actually in the map are written, and they are
+	 * rehashed when loading.
+	 *
+	 * <p>The default return value is not stored.
+	 *
+	 * @param s a data output.
+	 * @param codec a codec for the values of this map.
+	 * @param table whether to write the backing table rather than just the keys.
+	 * @see #load(java.io.DataInput,it.unimi.dsi.fastutil.io.ObjectCodec)
+	 */
+	public void store(final java.io.DataOutput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? super V> codec, final boolean table) throws java.io.IOException {
+	 final int key[] = this.key;
+	 final V value[] = this.value;
+	 s.writeBoolean(table);
+	 s.writeFloat(f);
+	 s.writeInt(size);
+	 if (table) {
+	  s.writeInt(n);
+	  s.writeBoolean(containsNullKey);
+	  it.unimi.dsi.fastutil.io.BinIO.writeInts(key, 0, n, s);
+	  for(int pos = 0; pos < n; pos++) if (! ( (key[pos]) == (0) )) codec.write(s, value[pos]);
+	  if (containsNullKey) codec.write(s, value[n]);
+	  return;
+	 }
+	 final int length = Math.min(size, 1024);
+	 final int block[] = new int[length];
+	 final int slot[] = new int[length];
+	 for(int j = size, pos = 0, c; j != 0; j -= c) {
+	  for(c = 0; c < length && c < j; pos++) {
+	   if (pos == n ? containsNullKey : ! ( (key[pos]) == (0) )) {
+	    block[c] = key[pos];
+	    slot[c++] = pos;
+	   }
+	  }
+	  s.writeInt(c);
+	  it.unimi.dsi.fastutil.io.BinIO.writeInts(block, 0, c, s);
+	  for(int i = 0; i < c; i++) codec.write(s, value[slot[i]]);
+	 }
+	}
+	/** Loads a map stored by {@link #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec,boolean)}.
+	 *
+	 * <p>If the map was stored together with its backing table, the table is read in bulk and
+	 * no key is rehashed. The backing arrays are allocated only once if the stored table size is
+	 * the one that the map would choose for its size and load factor.
+	 *
+	 * @param s a data input.
+	 * @param codec a codec for the values of the map.
+	 * @return a new map containing the entries read from {@code s}.
+	 * @see #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec,boolean)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> Int2ObjectOpenHashMap <V> load(final java.io.DataInput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? extends V> codec) throws java.io.IOException {
+	 final boolean table = s.readBoolean();
+	 final float f = s.readFloat();
+	 final int size = s.readInt();
+	 final Int2ObjectOpenHashMap <V> m = new Int2ObjectOpenHashMap <>(size, f);
+	 if (table) {
+	  final int n = s.readInt();
+	  if (n < 2 || (n & n - 1) != 0 || n > 1 << 30 || size > maxFill(n, f)) throw new java.io.StreamCorruptedException("Illegal table size: " + n);
+	  if (n != m.n) {
+	   m.n = n;
+	   m.mask = n - 1;
+	   m.maxFill = maxFill(n, f);
+	   m.key = new int[n + 1];
+	   m.value = (V[]) new Object[n + 1];
+	  }
+	  m.containsNullKey = s.readBoolean();
+	  final int key[] = m.key;
+	  final V value[] = m.value;
+	  it.unimi.dsi.fastutil.io.BinIO.readInts(s, key, 0, n);
+	  int count = m.containsNullKey ? 1 : 0;
+	  for(int pos = 0; pos < n; pos++) if (! ( (key[pos]) == (0) )) {
+	   value[pos] = codec.read(s);
+	   count++;
+	  }
+	  if (m.containsNullKey) value[n] = codec.read(s);
+	  if (count != size) throw new java.io.StreamCorruptedException("Illegal number of keys: " + count);
+	 }
+	 else {
+	  final int key[] = m.key;
+	  final V value[] = m.value;
+	  final int mask = m.mask;
+	  final int block[] = new int[Math.min(size, 1024)];
+	  int k;
+	  for(int j = size, c; j != 0; j -= c) {
+	   c = s.readInt();
+	   if (c <= 0 || c > j) throw new java.io.StreamCorruptedException("Illegal block length: " + c);
+	   it.unimi.dsi.fastutil.io.BinIO.readInts(s, block, 0, c);
+	   for(int i = 0, pos; i < c; i++) {
+	    k = block[i];
+	    if (( (k) == (0) )) {
+	     pos = m.n;
+	     m.containsNullKey = true;
+	    }
+	    else {
+	     pos = ( it.unimi.dsi.fastutil.HashCommon.mix( (k) ) ) & mask;
+	     while (! ( (key[pos]) == (0) )) pos = (pos + 1) & mask;
+	    }
+	    key[pos] = k;
+	    value[pos] = codec.read(s);
+	   }
+	  }
+	 }
+	 m.size = size;
+	 return m;
+	}
+	/** Performs the given action for each entry of this map.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEach(final Int2ObjectConsumer <? super V> action) {
+	 java.util.Objects.requireNonNull(action);
+	 if (containsNullKey) action.accept(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == (0) )) action.accept(key[pos], value[pos]);
+	}
+	/** Replaces the value of each entry with the result of applying a function to the entry.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param function the function computing new values.
+	 */
+	public void replaceAll(final Int2ObjectBiFunction <V> function) {
+	 java.util.Objects.requireNonNull(function);
+	 if (containsNullKey) value[n] = function.apply(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == (0) )) value[pos] = function.apply(key[pos], value[pos]);
+	}
+	/** Removes all entries satisfying a predicate.
+	 *
+	 * <p>The table is compacted in a single pass: differently from removals through an iterator, no entry
+	 * is shifted more than once, and no memory is allocated unless the table shrinks.
+	 *
+	 * @param filter a predicate returning true for the entries to be removed.
+	 * @return true if any entry was removed.
+	 */
+	public boolean removeIf(final Int2ObjectPredicate <? super V> filter) {
+	 java.util.Objects.requireNonNull(filter);
+	 final int oldSize = size;
+	 if (containsNullKey && filter.test(key[n], value[n])) {
+	  containsNullKey = false;
+	  value[n] = null;
+	  size--;
+	 }
+	 final int[] key = this.key;
+	 final V[] value = this.value;
+	 // We start after a free slot, so that each run of full slots is scanned from its beginning.
+	 int pos = 0;
+	 RuntimeException failure = null;
+	 while(! ( (key[pos]) == (0) )) pos++;
+	 for(int i = n; i-- != 0;) {
+	  pos = (pos + 1) & mask;
+	  final int curr = key[pos];
+	  if (( (curr) == (0) )) continue;
+	  if (failure == null) {
+	   try {
+	    if (filter.test(curr, value[pos])) {
+	     key[pos] = (0);
+	     value[pos] = null;
+	     size--;
+	     continue;
+	    }
+	   }
+	   catch(final RuntimeException e) {
+	    // We stop evaluating the predicate, but the compaction must be completed to keep the table consistent.
+	    failure = e;
+	   }
+	  }
+	  // All slots of the run preceding pos are final: we move the entry to the first free slot from its home.
+	  int slot = ( it.unimi.dsi.fastutil.HashCommon.mix( (curr) ) ) & mask;
+	  while(slot != pos && ! ( (key[slot]) == (0) )) slot = (slot + 1) & mask;
+	  if (slot != pos) {
+	   key[slot] = curr;
+	   value[slot] = value[pos];
+	   key[pos] = (0);
+	   value[pos] = null;
+	  }
+	 }
+	 if (size != oldSize && n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(Math.max(minN, arraySize(size, f)));
+	 if (ASSERTS) checkTable();
+	 if (failure != null) throw failure;
+	 return size != oldSize;
+	}
 	private void checkTable() {}
 }
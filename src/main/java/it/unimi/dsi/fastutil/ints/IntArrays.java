@@ -31,13 +31,7 @@ package it.unimi.dsi.fastutil.ints;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
 	*
 	* <p>In particular, the {@code forceCapacity()}, {@code ensureCapacity()}, {@code grow()},
@@ -53,7 +47,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	* Some algorithms also provide an explicit <em>indirect</em> sorting facility, which makes it possible
 	* to sort an array using the values in another array as comparator.
 	*
@@ -499,8 +493,7 @@ public final class IntArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -510,9 +503,7 @@ public final class IntArrays {
 	public static void parallelQuickSort(final int[] x, final int from, final int to, final IntComparator comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -522,8 +513,7 @@ public final class IntArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -704,8 +694,7 @@ public final class IntArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -714,9 +703,7 @@ public final class IntArrays {
 	public static void parallelQuickSort(final int[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort (x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort (x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -725,8 +712,7 @@ public final class IntArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -913,8 +899,7 @@ public final class IntArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -924,9 +909,7 @@ public final class IntArrays {
 	public static void parallelQuickSortIndirect(final int[] perm, final int[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -939,8 +922,7 @@ public final class IntArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1186,8 +1168,7 @@ public final class IntArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1196,9 +1177,7 @@ public final class IntArrays {
 	 */
 	public static void parallelQuickSort(final int[] x, final int[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 (x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 (x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1212,8 +1191,7 @@ public final class IntArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1341,6 +1319,804 @@ public final class IntArrays {
 	public static void mergeSort(final int a[], IntComparator comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	private static int bound(final int[] a, int from, int to, final int x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? ((a[mid]) <= (x)) : ! ((x) <= (a[mid]))) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static int bound(final int[] a, int from, int to, final int x, final boolean strict, final IntComparator comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final int[] src, final int from1, final int to1, final int from2, final int to2, final int[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && ((src[p]) <= (src[q]))) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final IntComparator comp;
+	 public ForkJoinMergeComp(final int[] src, final int from1, final int to1, final int from2, final int to2, final int[] dest, final int to, final IntComparator comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final int[] a, supp;
+	 public ForkJoinMergeSort(final int[] a, final int from, final int to, final int[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort(supp, from, mid, a), new ForkJoinMergeSort(supp, mid, to, a));
+	  if (((supp[mid - 1]) <= (supp[mid]))) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final int[] a, supp;
+	 private final IntComparator comp;
+	 public ForkJoinMergeSortComp(final int[] a, final int from, final int to, final IntComparator comp, final int[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp(supp, from, mid, comp, a), new ForkJoinMergeSortComp(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final int a[], final int from, final int to, final int supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(int[], int, int, int[])
+	 */
+	public static void parallelMergeSort(final int a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(int[], int, int, int[])
+	 */
+	public static void parallelMergeSort(final int a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final int a[], final int from, final int to, final IntComparator comp, final int supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(int[], int, int, IntComparator, int[])
+	 */
+	public static void parallelMergeSort(final int a[], final int from, final int to, final IntComparator comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(int[], int, int, IntComparator, int[])
+	 */
+	public static void parallelMergeSort(final int a[], final IntComparator comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
+	private static final int SELECT_NO_REC = 16;
+	private static final int PARALLEL_SELECT_NO_FORK = 8192;
+	private static void ensureIndex(final int from, final int to, final int k) {
+	 if (k < from || k >= to) throw new IllegalArgumentException("Index (" + k + ") is not in the range [" + from + ".." + to + ")");
+	}
+	private static void ensureCount(final int from, final int to, final int k) {
+	 if (k < 0 || k > to - from) throw new IllegalArgumentException("Number of elements (" + k + ") is not in [0.." + (to - from) + "]");
+	}
+	/** Moves the medians of consecutive groups of five elements to the start of a range, and returns their median. */
+	private static int medianOfMedians(final int[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static int select(final int[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final int v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s);
+	    m = med3(x, m - s, m, m + s);
+	    n = med3(x, n - 2 * s, n - s, n);
+	   }
+	   v = x[med3(x, l, m, n)];
+	  }
+	  else v = medianOfMedians(x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Integer.compare((x[i]),(v));
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSort(x, from, to);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #select(int[], int, int, int)
+	 */
+	public static int select(final int[] x, final int k) {
+	 return select(x, 0, x.length, k);
+	}
+	private static int medianOfMedians(final int[] x, final int from, final int to, final IntComparator comp) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e, comp);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1), comp);
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 */
+	public static int select(final int[] x, int from, int to, final int k, final IntComparator comp) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final int v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s, comp);
+	    m = med3(x, m - s, m, m + s, comp);
+	    n = med3(x, n - 2 * s, n - s, n, comp);
+	   }
+	   v = x[med3(x, l, m, n, comp)];
+	  }
+	  else v = medianOfMedians(x, from, to, comp);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = comp.compare(x[i], v);
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return x[k];
+	 }
+	 insertionSort(x, from, to, comp);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 * @see #select(int[], int, int, int, IntComparator)
+	 */
+	public static int select(final int[] x, final int k, final IntComparator comp) {
+	 return select(x, 0, x.length, k, comp);
+	}
+	private static int medianOfMediansIndirect(final int[] perm, final int[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSortIndirect(perm, x, i, e);
+	  IntArrays.swap(perm, m++, i + (e - i >>> 1));
+	 }
+	 return selectIndirect(perm, x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if the range were indirectly sorted according to the natural ascending order.
+	 *
+	 * <p>This method implement an <em>indirect</em> selection. After this call, the elements of the range preceding
+	 * {@code perm[k]} index elements of {@code x} smaller than or equal to {@code x[perm[k]]}, and the elements following it
+	 * index elements greater than or equal to {@code x[perm[k]]}.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of {@code perm} to select; it must belong to the range.
+	 * @return {@code x[perm[k]]}.
+	 * @see #select(int[], int, int, int)
+	 */
+	public static int selectIndirect(final int[] perm, final int[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final int v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3Indirect(perm, x, l, l + s, l + 2 * s);
+	    m = med3Indirect(perm, x, m - s, m, m + s);
+	    n = med3Indirect(perm, x, n - 2 * s, n - s, n);
+	   }
+	   v = x[perm[med3Indirect(perm, x, l, m, n)]];
+	  }
+	  else v = medianOfMediansIndirect(perm, x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Integer.compare((x[perm[i]]),(v));
+	   if (comparison < 0) IntArrays.swap(perm, lt++, i++);
+	   else if (comparison > 0) IntArrays.swap(perm, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSortIndirect(perm, x, from, to);
+	 return x[perm[k]];
+	}
+	/** Rearranges a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if {@code x} were sorted according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the index of {@code perm} to select.
+	 * @return {@code x[perm[k]]}.
+	 * @see #selectIndirect(int[], int[], int, int, int)
+	 */
+	public static int selectIndirect(final int[] perm, final int[] x, final int k) {
+	 return selectIndirect(perm, x, 0, perm.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(int[], int, int, int) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void partialSort(final int[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to);
+	 else {
+	  select(x, from, to, from + k - 1);
+	  quickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(int[], int, int, int)
+	 */
+	public static void partialSort(final int[] x, final int k) {
+	 partialSort(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(int[], int, int, int, IntComparator) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 */
+	public static void partialSort(final int[] x, final int from, final int to, final int k, final IntComparator comp) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to, comp);
+	 else {
+	  select(x, from, to, from + k - 1, comp);
+	  quickSort(x, from, from + k - 1, comp);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 * @see #partialSort(int[], int, int, int, IntComparator)
+	 */
+	public static void partialSort(final int[] x, final int k, final IntComparator comp) {
+	 partialSort(x, 0, x.length, k, comp);
+	}
+	/** Sorts indirectly the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range of {@code perm} index the {@code k} smallest elements
+	 * of {@code x} they range over, in ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(int[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final int[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSortIndirect(perm, x, from, to);
+	 else {
+	  selectIndirect(perm, x, from, to, from + k - 1);
+	  quickSortIndirect(perm, x, from, from + k - 1);
+	 }
+	}
+	/** Sorts indirectly the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSortIndirect(int[], int[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final int[] x, final int k) {
+	 partialSortIndirect(perm, x, 0, perm.length, k);
+	}
+	private static void downHeap(final int[] heap, final int size, int i) {
+	 final int e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  int t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && ( (heap[right]) < (t) )) t = heap[child = right];
+	  if (! ( (t) < (e) )) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static int[] topK(final int[] x, final int from, final int to, final int k) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 // A heap containing the greatest elements seen so far, with the smallest one on top
+	 final int[] heap = new int[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i);
+	 for(int i = from + k; i < to; i++) {
+	  if (( (heap[0]) < (x[i]) )) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0);
+	  }
+	 }
+	 // Move repeatedly the top to the end of the heap
+	 for(int size = k; size > 1;) {
+	  final int t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(int[], int, int, int)
+	 */
+	public static int[] topK(final int[] x, final int k) {
+	 return topK(x, 0, x.length, k);
+	}
+	private static void downHeap(final int[] heap, final int size, int i, final IntComparator comp) {
+	 final int e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  int t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && comp.compare(heap[right], t) < 0) t = heap[child = right];
+	  if (comp.compare(t, e) >= 0) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static int[] topK(final int[] x, final int from, final int to, final int k, final IntComparator comp) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 final int[] heap = new int[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i, comp);
+	 for(int i = from + k; i < to; i++) {
+	  if (comp.compare(heap[0], x[i]) < 0) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0, comp);
+	  }
+	 }
+	 for(int size = k; size > 1;) {
+	  final int t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0, comp);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(int[], int, int, int, IntComparator)
+	 */
+	public static int[] topK(final int[] x, final int k, final IntComparator comp) {
+	 return topK(x, 0, x.length, k, comp);
+	}
+	/** A task partitioning chunks of an array around a pivot, or scattering the partitioned chunks into a support array. */
+	protected static class ForkJoinSelectPartition extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int[] x, support;
+	 private final int from, to, firstChunk, lastChunk;
+	 private final int v;
+	 private final int[] lt, gt, offset;
+	 public ForkJoinSelectPartition(final int[] x, final int from, final int to, final int v, final int firstChunk, final int lastChunk, final int[] lt, final int[] gt, final int[] support, final int[] offset) {
+	  this.x = x;
+	  this.from = from;
+	  this.to = to;
+	  this.v = v;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.lt = lt;
+	  this.gt = gt;
+	  this.support = support;
+	  this.offset = offset;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinSelectPartition(x, from, to, v, firstChunk, mid, lt, gt, support, offset), new ForkJoinSelectPartition(x, from, to, v, mid, lastChunk, lt, gt, support, offset));
+	   return;
+	  }
+	  final int[] x = this.x;
+	  final int c = firstChunk, start = from + c * PARALLEL_SELECT_NO_FORK, end = Math.min(start + PARALLEL_SELECT_NO_FORK, to);
+	  if (offset == null) {
+	   // Partition the chunk in place: (<v)* v* (>v)*
+	   int l = start, i = start, g = end;
+	   while(i < g) {
+	    final int comparison = Integer.compare((x[i]),(v));
+	    if (comparison < 0) swap(x, l++, i++);
+	    else if (comparison > 0) swap(x, i, --g);
+	    else i++;
+	   }
+	   lt[c] = l - start;
+	   gt[c] = end - g;
+	  }
+	  else {
+	   System.arraycopy(x, start, support, offset[3 * c], lt[c]);
+	   System.arraycopy(x, start + lt[c], support, offset[3 * c + 1], end - start - lt[c] - gt[c]);
+	   System.arraycopy(x, end - gt[c], support, offset[3 * c + 2], gt[c]);
+	  }
+	 }
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * <p>At each round, chunks of the range are partitioned in parallel around a pseudomedian, and then scattered
+	 * in parallel in a support array as large as the range, so that the range is
+	 * partitioned as a whole; rounds continue on the part containing {@code k} until it is small enough to be
+	 * {@linkplain #select(int[], int, int, int) selected sequentially}. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static int parallelSelect(final int[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 if (to - from < PARALLEL_SELECT_NO_FORK) return select(x, from, to, k);
+	 final int[] support = new int[to - from];
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from >= PARALLEL_SELECT_NO_FORK && rounds-- > 0) {
+	  final int len = to - from, s = len / 8;
+	  int l = from, m = from + len / 2, n = to - 1;
+	  l = med3(x, l, l + s, l + 2 * s);
+	  m = med3(x, m - s, m, m + s);
+	  n = med3(x, n - 2 * s, n - s, n);
+	  final int v = x[med3(x, l, m, n)];
+	  final int chunks = (len + PARALLEL_SELECT_NO_FORK - 1) / PARALLEL_SELECT_NO_FORK;
+	  final int[] lt = new int[chunks], gt = new int[chunks];
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, null, null));
+	  int smaller = 0, greater = 0;
+	  for(int c = 0; c < chunks; c++) {
+	   smaller += lt[c];
+	   greater += gt[c];
+	  }
+	  // Compute the positions in the support array of the three parts of each chunk
+	  final int[] offset = new int[3 * chunks];
+	  for(int c = 0, p = 0, q = smaller, r = len - greater; c < chunks; c++) {
+	   final int size = Math.min(PARALLEL_SELECT_NO_FORK, len - c * PARALLEL_SELECT_NO_FORK);
+	   offset[3 * c] = p;
+	   offset[3 * c + 1] = q;
+	   offset[3 * c + 2] = r;
+	   p += lt[c];
+	   q += size - lt[c] - gt[c];
+	   r += gt[c];
+	  }
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, support, offset));
+	  System.arraycopy(support, 0, x, from, len);
+	  if (k < from + smaller) to = from + smaller;
+	  else if (k >= to - greater) from = to - greater;
+	  else return v;
+	 }
+	 return select(x, from, to, k);
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #parallelSelect(int[], int, int, int)
+	 */
+	public static int parallelSelect(final int[] x, final int k) {
+	 return parallelSelect(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order using
+	 * a {@linkplain #parallelSelect(int[], int, int, int) parallel quickselect} followed by a parallel quicksort.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void parallelPartialSort(final int[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) parallelQuickSort(x, from, to);
+	 else {
+	  parallelSelect(x, from, to, from + k - 1);
+	  parallelQuickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order using
+	 * a parallel quickselect followed by a parallel quicksort.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #parallelPartialSort(int[], int, int, int)
+	 */
+	public static void parallelPartialSort(final int[] x, final int k) {
+	 parallelPartialSort(x, 0, x.length, k);
+	}
 	/**
 	 * Searches a range of the specified array for the specified value using
 	 * the binary search algorithm. The range must be sorted prior to making this call.
@@ -1542,23 +2318,65 @@ public final class IntArrays {
 	  }
 	 }
 	}
-	protected static final class Segment {
-	 protected final int offset, length, level;
-	 protected Segment(final int offset, final int length, final int level) {
-	  this.offset = offset;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] a;
+	 public ForkJoinRadixSort(final int[] a, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.first = first;
 	  this.length = length;
 	  this.level = level;
 	 }
 	 @Override
-	 public String toString() { return "Segment [offset=" + offset + ", length=" + length + ", level=" + level + "]"; }
+	 protected void compute() {
+	  final int[] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[((a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   int t = a[i];
+	   c = ((t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) {
+	    while((d = --pos[c]) > i) {
+	     final int z = t;
+	     t = a[d];
+	     a[d] = z;
+	     c = ((t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[i] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
 	}
-	protected static final Segment POISON_PILL = new Segment(-1, -1, -1);
 	/** Sorts the specified range of an array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -1569,75 +2387,14 @@ public final class IntArrays {
 	  quickSort(a, from, to);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[((a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   final int end = first + length - count[lastUsed];
-	   // i moves through the start of each block
-	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	    int t = a[i];
-	    c = ((t) >>> shift & DIGIT_MASK ^ signMask);
-	    if (i < end) {
-	     while((d = --pos[c]) > i) {
-	      final int z = t;
-	      t = a[d];
-	      a[d] = z;
-	      c = ((t) >>> shift & DIGIT_MASK ^ signMask);
-	     }
-	     a[i] = t;
-	    }
-	    if (level < maxLevel && count[c] > 1) {
-	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
-	     else {
-	      queueSize.incrementAndGet();
-	      queue.add(new Segment(i, count[c], level + 1));
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 */
@@ -1755,6 +2512,84 @@ public final class IntArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] perm;
+	 private final int[] a;
+	 private final boolean stable;
+	 private final int[] support;
+	 public ForkJoinRadixSortIndirect(final int[] perm, final int[] a, final boolean stable, final int[] support, final int first, final int length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] perm = this.perm;
+	  final int[] a = this.a;
+	  final int[] support = this.support;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(int i = first + length; i-- != first;) support[--pos[((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
+	   System.arraycopy(support, first, perm, first, length);
+	   for(int i = 0, p = first; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	    p += count[i];
+	   }
+	   java.util.Arrays.fill(count, 0);
+	  }
+	  else {
+	   final int end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	    int t = perm[i];
+	    c = ((a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final int z = t;
+	      t = perm[d];
+	      perm[d] = z;
+	      c = ((a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     perm[i] = t;
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of an array using parallel indirect radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1764,7 +2599,7 @@ public final class IntArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1777,86 +2612,8 @@ public final class IntArrays {
 	  radixSortIndirect(perm, a, from, to, stable);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
 	 final int[] support = stable ? new int[perm.length] : null;
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   if (stable) {
-	    for(int i = first + length; i-- != first;) support[--pos[((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
-	    System.arraycopy(support, first, perm, first, length);
-	    for(int i = 0, p = first; i <= lastUsed; i++) {
-	     if (level < maxLevel && count[i] > 1) {
-	      if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(p, count[i], level + 1));
-	      }
-	     }
-	     p += count[i];
-	    }
-	    java.util.Arrays.fill(count, 0);
-	   }
-	   else {
-	    final int end = first + length - count[lastUsed];
-	    // i moves through the start of each block
-	    for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     int t = perm[i];
-	     c = ((a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while((d = --pos[c]) > i) {
-	       final int z = t;
-	       t = perm[d];
-	       perm[d] = z;
-	       c = ((a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	      }
-	      perm[i] = t;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSortIndirect(perm, a, stable, support, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel indirect radix sort.
 	 *
@@ -1867,7 +2624,7 @@ public final class IntArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1967,6 +2724,69 @@ public final class IntArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] a;
+	 private final int[] b;
+	 public ForkJoinRadixSort2(final int[] a, final int[] b, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] a = this.a;
+	  final int[] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys.
+	  for (int i = first + length; i-- != first;)
+	   count[((k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   int t = a[i];
+	   int u = b[i];
+	   c = ((k[i]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while ((d = --pos[c]) > i) {
+	     c = ((k[d]) >>> shift & DIGIT_MASK ^ signMask);
+	     final int z = t;
+	     final int w = u;
+	     t = a[d];
+	     u = b[d];
+	     a[d] = z;
+	     b[d] = w;
+	    }
+	    a[i] = t;
+	    b[i] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of elements of two arrays using a parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1976,7 +2796,7 @@ public final class IntArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -1988,77 +2808,8 @@ public final class IntArrays {
 	  quickSort(a, b, from, to);
 	  return;
 	 }
-	 final int layers = 2;
 	 if (a.length != b.length) throw new IllegalArgumentException("Array size mismatch.");
-	 final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for (int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	   final int[] count = new int[1 << DIGIT_BITS];
-	   final int[] pos = new int[1 << DIGIT_BITS];
-	   for (;;) {
-	    if (queueSize.get() == 0) for (int i = numberOfThreads; i-- != 0;)
-	     queue.add(POISON_PILL);
-	    final Segment segment = queue.take();
-	    if (segment == POISON_PILL) return null;
-	    final int first = segment.offset;
-	    final int length = segment.length;
-	    final int level = segment.level;
-	    final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	    final int[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
-	    final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
-	    // Count keys.
-	    for (int i = first + length; i-- != first;)
-	     count[((k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	    // Compute cumulative distribution
-	    int lastUsed = -1;
-	    for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	     if (count[i] != 0) lastUsed = i;
-	     pos[i] = (p += count[i]);
-	    }
-	    final int end = first + length - count[lastUsed];
-	    for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     int t = a[i];
-	     int u = b[i];
-	     c = ((k[i]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while ((d = --pos[c]) > i) {
-	       c = ((k[d]) >>> shift & DIGIT_MASK ^ signMask);
-	       final int z = t;
-	       final int w = u;
-	       t = a[d];
-	       u = b[d];
-	       a[d] = z;
-	       b[d] = w;
-	      }
-	      a[i] = t;
-	      b[i] = u;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	    queueSize.decrementAndGet();
-	   }
-	  });
-	 Throwable problem = null;
-	 for (int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch (Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
 	}
 	/** Sorts two arrays using a parallel radix sort.
 	 *
@@ -2069,7 +2820,7 @@ public final class IntArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -2319,6 +3070,393 @@ public final class IntArrays {
 	  }
 	 }
 	}
+	/** The number of elements below which prefix sums, histograms and scatters are not parallelized. */
+	private static final int PARALLEL_SCAN_NO_FORK = 8192;
+	/** Returns the number of chunks in which a parallel scan splits a range of given length. */
+	private static int scanChunks(final int length) {
+	 return (int)Math.min((length + (long)PARALLEL_SCAN_NO_FORK - 1) / PARALLEL_SCAN_NO_FORK, 4L * Arrays.parallelPool().getParallelism());
+	}
+	/** Returns the start of a chunk of a range split in a given number of chunks. */
+	private static int chunkStart(final int from, final int to, final int chunks, final int c) {
+	 return from + (int)((long)(to - from) * c / chunks);
+	}
+	/** Replaces the elements of the specified range with their exclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of the elements preceding it in the range before the call
+	 * (in particular, the first element is zero). Sums are computed using {@code int} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static int exclusivePrefixSum(final int[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 int sum = 0;
+	 for(int i = from; i < to; i++) {
+	  final int t = a[i];
+	  a[i] = sum;
+	  sum += t;
+	 }
+	 return sum;
+	}
+	/** Replaces the elements of an array with their exclusive prefix sums.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #exclusivePrefixSum(int[], int, int)
+	 */
+	public static int exclusivePrefixSum(final int[] a) {
+	 return exclusivePrefixSum(a, 0, a.length);
+	}
+	/** Replaces the elements of the specified range with their inclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of itself and of the elements preceding it in the range before the call.
+	 * Sums are computed using {@code int} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static int inclusivePrefixSum(final int[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 int sum = 0;
+	 for(int i = from; i < to; i++) a[i] = sum += a[i];
+	 return sum;
+	}
+	/** Replaces the elements of an array with their inclusive prefix sums.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #inclusivePrefixSum(int[], int, int)
+	 */
+	public static int inclusivePrefixSum(final int[] a) {
+	 return inclusivePrefixSum(a, 0, a.length);
+	}
+	/** A task computing the sums of the chunks of a range, or replacing each chunk with its prefix sums given the sums of the preceding chunks. */
+	protected static class ForkJoinPrefixSum extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int[] a, sum;
+	 private final int from, to, chunks, firstChunk, lastChunk;
+	 private final boolean inclusive, apply;
+	 public ForkJoinPrefixSum(final int[] a, final int from, final int to, final int chunks, final int firstChunk, final int lastChunk, final int[] sum, final boolean inclusive, final boolean apply) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.sum = sum;
+	  this.inclusive = inclusive;
+	  this.apply = apply;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinPrefixSum(a, from, to, chunks, firstChunk, mid, sum, inclusive, apply), new ForkJoinPrefixSum(a, from, to, chunks, mid, lastChunk, sum, inclusive, apply));
+	   return;
+	  }
+	  final int[] a = this.a;
+	  final int c = firstChunk, start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  if (! apply) {
+	   int s = 0;
+	   for(int i = start; i < end; i++) s += a[i];
+	   sum[c] = s;
+	  }
+	  else {
+	   int s = sum[c];
+	   if (inclusive) for(int i = start; i < end; i++) a[i] = s += a[i];
+	   else for(int i = start; i < end; i++) {
+	    final int t = a[i];
+	    a[i] = s;
+	    s += t;
+	   }
+	  }
+	 }
+	}
+	/** Computes prefix sums in parallel, using a two-pass blocked scan. */
+	private static int parallelPrefixSum(final int[] a, final int from, final int to, final boolean inclusive) {
+	 final int chunks = scanChunks(to - from);
+	 final int[] sum = new int[chunks];
+	 Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, false));
+	 final int total = exclusivePrefixSum(sum, 0, chunks);
+	 Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, true));
+	 return total;
+	}
+	/** Replaces the elements of the specified range with their exclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses a two-pass blocked scan: the range is split in chunks, the sums of the chunks are computed in parallel,
+	 * their exclusive prefix sums are computed sequentially, and finally each chunk is replaced in parallel by its prefix sums,
+	 * starting from the sum of the preceding chunks. This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #exclusivePrefixSum(int[], int, int)
+	 */
+	public static int parallelExclusivePrefixSum(final int[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return exclusivePrefixSum(a, from, to);
+	 return parallelPrefixSum(a, from, to, false);
+	}
+	/** Replaces the elements of an array with their exclusive prefix sums, in parallel.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #parallelExclusivePrefixSum(int[], int, int)
+	 */
+	public static int parallelExclusivePrefixSum(final int[] a) {
+	 return parallelExclusivePrefixSum(a, 0, a.length);
+	}
+	/** Replaces the elements of the specified range with their inclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses the same two-pass blocked scan of {@link #parallelExclusivePrefixSum(int[], int, int)}.
+	 * This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #inclusivePrefixSum(int[], int, int)
+	 */
+	public static int parallelInclusivePrefixSum(final int[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return inclusivePrefixSum(a, from, to);
+	 return parallelPrefixSum(a, from, to, true);
+	}
+	/** Replaces the elements of an array with their inclusive prefix sums, in parallel.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #parallelInclusivePrefixSum(int[], int, int)
+	 */
+	public static int parallelInclusivePrefixSum(final int[] a) {
+	 return parallelInclusivePrefixSum(a, 0, a.length);
+	}
+	/** Ensures that the number of bits and the shift of a digit are valid. */
+	private static void ensureDigit(final int bits, final int shift) {
+	 if (bits < 0 || bits > 30) throw new IllegalArgumentException("The number of bits of a digit (" + bits + ") must be between 0 and 30");
+	 if (shift < 0 || shift >= Integer.SIZE) throw new IllegalArgumentException("The shift of a digit (" + shift + ") must be between 0 and " + (Integer.SIZE - 1));
+	}
+	/** Returns the number of chunks in which a parallel histogram or scatter splits a range of given length.
+	 *
+	 * <p>Each chunk needs a counter per digit value, so we never use more chunks than elements per digit value. */
+	private static int digitChunks(final int length, final int bits) {
+	 return Math.max(1, Math.min(scanChunks(length), length >>> bits));
+	}
+	/** Computes the histogram of the digits of the elements of the specified range.
+	 *
+	 * <p>The digit of an element {@code x} is {@code x >>> shift & (1 << bits) - 1}, that is, digits are
+	 * extracted from the two's complement representation of the elements: on the most significant digit, negative
+	 * elements have larger digits than nonnegative elements.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters, whose entry of index <var>d</var> contains the number of
+	 * elements of the range whose digit is <var>d</var>.
+	 */
+	public static int[] histogram(final int[] a, final int from, final int to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int mask = (1 << bits) - 1;
+	 final int[] count = new int[1 << bits];
+	 for(int i = from; i < to; i++) count[a[i] >>> shift & mask]++;
+	 return count;
+	}
+	/** Computes the histogram of the digits of the elements of an array.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(int[], int, int, int, int)
+	 */
+	public static int[] histogram(final int[] a, final int bits, final int shift) {
+	 return histogram(a, 0, a.length, bits, shift);
+	}
+	/** Stably distributes the elements of the specified range in a destination array, grouping them by digit.
+	 *
+	 * <p>This method is the distribution step of a least-significant-digit radix sort: the elements with digit
+	 * <var>d</var> (see {@link #histogram(int[], int, int, int, int)}) are copied, in the order in which they appear in the range,
+	 * to the positions {@code b[d]}, {@code b[d] + 1}, &hellip;, {@code b[d + 1] - 1} of {@code dest}, where {@code b} is the returned array.
+	 * The range and the destination fragment must not overlap.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive);
+	 * in particular, {@code b[0] == offset} and {@code b[1 << bits] == offset + to - from}.
+	 */
+	public static int[] scatter(final int[] a, final int from, final int to, final int bits, final int shift, final int[] dest, final int offset) {
+	 ensureOffsetLength(dest, offset, to - from);
+	 final int[] pos = histogram(a, from, to, bits, shift);
+	 final int mask = (1 << bits) - 1;
+	 final int[] bound = new int[pos.length + 1];
+	 bound[0] = offset;
+	 for(int d = 0; d < pos.length; d++) {
+	  bound[d + 1] = bound[d] + pos[d];
+	  pos[d] = bound[d];
+	 }
+	 for(int i = from; i < to; i++) {
+	  final int t = a[i];
+	  dest[pos[t >>> shift & mask]++] = t;
+	 }
+	 return bound;
+	}
+	/** Stably distributes the elements of an array in a destination array, grouping them by digit.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(int[], int, int, int, int, int[], int)
+	 */
+	public static int[] scatter(final int[] a, final int bits, final int shift, final int[] dest) {
+	 return scatter(a, 0, a.length, bits, shift, dest, 0);
+	}
+	/** A task computing the histograms of the digits of the chunks of a range, or scattering each chunk given the positions of its digit groups. */
+	protected static class ForkJoinScatter extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int[] a, dest;
+	 private final int from, to, chunks, firstChunk, lastChunk, bits, shift;
+	 private final int[] count;
+	 public ForkJoinScatter(final int[] a, final int from, final int to, final int chunks, final int firstChunk, final int lastChunk, final int bits, final int shift, final int[] count, final int[] dest) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.bits = bits;
+	  this.shift = shift;
+	  this.count = count;
+	  this.dest = dest;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinScatter(a, from, to, chunks, firstChunk, mid, bits, shift, count, dest), new ForkJoinScatter(a, from, to, chunks, mid, lastChunk, bits, shift, count, dest));
+	   return;
+	  }
+	  final int[] a = this.a;
+	  final int[] count = this.count;
+	  final int c = firstChunk, start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  final int mask = (1 << bits) - 1, base = c << bits;
+	  if (dest == null) for(int i = start; i < end; i++) count[base + (a[i] >>> shift & mask)]++;
+	  else {
+	   final int[] dest = this.dest;
+	   for(int i = start; i < end; i++) {
+	    final int t = a[i];
+	    dest[count[base + (t >>> shift & mask)]++] = t;
+	   }
+	  }
+	 }
+	}
+	/** Computes in parallel the histogram of the digits of the elements of the specified range.
+	 *
+	 * <p>Each chunk of the range is counted in parallel using its own counters, which are then added up.
+	 * This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(int[], int, int, int, int)
+	 */
+	public static int[] parallelHistogram(final int[] a, final int from, final int to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return histogram(a, from, to, bits, shift);
+	 final int buckets = 1 << bits;
+	 final int[] count = new int[chunks << bits];
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 final int[] result = java.util.Arrays.copyOf(count, buckets);
+	 for(int c = 1; c < chunks; c++) for(int d = 0; d < buckets; d++) result[d] += count[(c << bits) + d];
+	 return result;
+	}
+	/** Computes in parallel the histogram of the digits of the elements of an array.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #parallelHistogram(int[], int, int, int, int)
+	 */
+	public static int[] parallelHistogram(final int[] a, final int bits, final int shift) {
+	 return parallelHistogram(a, 0, a.length, bits, shift);
+	}
+	/** Stably distributes in parallel the elements of the specified range in a destination array, grouping them by digit.
+	 *
+	 * <p>The range is split in chunks whose histograms are computed in parallel; then, the position in {@code dest} of
+	 * the elements of each chunk with a given digit is computed by a prefix sum over digits and chunks, so that
+	 * the chunks can be scattered in parallel while preserving stability. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(int[], int, int, int, int, int[], int)
+	 */
+	public static int[] parallelScatter(final int[] a, final int from, final int to, final int bits, final int shift, final int[] dest, final int offset) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return scatter(a, from, to, bits, shift, dest, offset);
+	 ensureOffsetLength(dest, offset, to - from);
+	 final int buckets = 1 << bits;
+	 final int[] count = new int[chunks << bits];
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 // Turn counts into positions, digit by digit and, within each digit, chunk by chunk
+	 final int[] bound = new int[buckets + 1];
+	 int p = offset;
+	 for(int d = 0; d < buckets; d++) {
+	  bound[d] = p;
+	  for(int c = 0; c < chunks; c++) {
+	   final int t = count[(c << bits) + d];
+	   count[(c << bits) + d] = p;
+	   p += t;
+	  }
+	 }
+	 bound[buckets] = p;
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, dest));
+	 return bound;
+	}
+	/** Stably distributes in parallel the elements of an array in a destination array, grouping them by digit.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #parallelScatter(int[], int, int, int, int, int[], int)
+	 */
+	public static int[] parallelScatter(final int[] a, final int bits, final int shift, final int[] dest) {
+	 return parallelScatter(a, 0, a.length, bits, shift, dest, 0);
+	}
 	/** Shuffles the specified array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the array to be shuffled.
@@ -2381,6 +3519,378 @@ public final class IntArrays {
 	 }
 	 return a;
 	}
+	/** The size ratio beyond which set operations on sorted arrays gallop through the larger array instead of merging. */
+	private static final int GALLOP_RATIO = 16;
+	/** Returns the index of the first element of a sorted range that is greater than or equal to a given key,
+	 * using an exponential search from the start of the range.
+	 *
+	 * <p>The cost of this method is logarithmic in the distance between {@code from} and the returned index, rather
+	 * than in the length of the range: thus, a sequence of searches for increasing keys scans the range once.
+	 *
+	 * @param a a sorted array.
+	 * @param from the index of the first element (inclusive) to be searched.
+	 * @param to the index of the last element (exclusive) to be searched.
+	 * @param key the value to be searched for.
+	 * @return the index of the first element of the range greater than or equal to {@code key}, or {@code to} if there is no such element.
+	 */
+	public static int gallop(final int[] a, final int from, final int to, final int key) {
+	 if (from >= to || a[from] >= key) return from;
+	 // a[lo] < key always holds
+	 int lo = from, step = 1;
+	 while(step < to - lo && a[lo + step] < key) {
+	  lo += step;
+	  step <<= 1;
+	 }
+	 int hi = step < to - lo ? lo + step : to;
+	 lo++;
+	 while(lo < hi) {
+	  final int mid = (lo + hi) >>> 1;
+	  if (a[mid] < key) lo = mid + 1;
+	  else hi = mid;
+	 }
+	 return lo;
+	}
+	/** Computes the intersection of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs min(<var>m</var>, <var>n</var>) times in the result, which is sorted. If one range is much shorter than the other,
+	 * its elements are searched for in the longer one by {@linkplain #gallop(int[], int, int, int) galloping}, so the cost is
+	 * logarithmic, rather than linear, in the length of the longer range.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the length of the shorter range).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #intersectionSize(int[], int, int, int[], int, int)
+	 */
+	public static int intersection(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo, final int[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return intersection(b, bFrom, bTo, a, aFrom, aTo, dest, destFrom);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final int k = a[i];
+	   j = gallop(b, j, bTo, k);
+	   if (j == bTo) break;
+	   if (b[j] == k) {
+	    dest[d++] = k;
+	    j++;
+	   }
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final int x = a[i], y = b[j];
+	   if (x < y) i++;
+	   else if (x > y) j++;
+	   else {
+	    dest[d++] = x;
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 return d - destFrom;
+	}
+	/** Computes the intersection of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the length of the shorter array).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #intersection(int[], int, int, int[], int, int, int[], int)
+	 */
+	public static int intersection(final int[] a, final int[] b, final int[] dest) {
+	 return intersection(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the intersection of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #intersection(int[], int, int, int[], int, int, int[], int)} would write.
+	 */
+	public static int intersectionSize(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return intersectionSize(b, bFrom, bTo, a, aFrom, aTo);
+	 int i = aFrom, j = bFrom, n = 0;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   j = gallop(b, j, bTo, a[i]);
+	   if (j == bTo) break;
+	   if (b[j] == a[i]) {
+	    n++;
+	    j++;
+	   }
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final int x = a[i], y = b[j];
+	   if (x < y) i++;
+	   else if (x > y) j++;
+	   else {
+	    n++;
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 return n;
+	}
+	/** Computes the size of the intersection of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #intersection(int[], int[], int[])} would write.
+	 */
+	public static int intersectionSize(final int[] a, final int[] b) {
+	 return intersectionSize(a, 0, a.length, b, 0, b.length);
+	}
+	/** Computes the union of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs max(<var>m</var>, <var>n</var>) times in the result, which is sorted. If one range is much shorter than the other,
+	 * the elements of the longer one lying between consecutive elements of the shorter one are located by
+	 * {@linkplain #gallop(int[], int, int, int) galloping} and copied in bulk.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the sum of the lengths of the ranges).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #unionSize(int[], int, int, int[], int, int)
+	 */
+	public static int union(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo, final int[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return union(b, bFrom, bTo, a, aFrom, aTo, dest, destFrom);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final int k = a[i];
+	   final int p = gallop(b, j, bTo, k);
+	   System.arraycopy(b, j, dest, d, p - j);
+	   d += p - j;
+	   j = p;
+	   if (j < bTo && b[j] == k) j++;
+	   dest[d++] = k;
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final int x = a[i], y = b[j];
+	   if (x < y) {
+	    dest[d++] = x;
+	    i++;
+	   }
+	   else if (x > y) {
+	    dest[d++] = y;
+	    j++;
+	   }
+	   else {
+	    dest[d++] = x;
+	    i++;
+	    j++;
+	   }
+	  }
+	  System.arraycopy(a, i, dest, d, aTo - i);
+	  d += aTo - i;
+	 }
+	 System.arraycopy(b, j, dest, d, bTo - j);
+	 return d + bTo - j - destFrom;
+	}
+	/** Computes the union of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the sum of the lengths of the arrays).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #union(int[], int, int, int[], int, int, int[], int)
+	 */
+	public static int union(final int[] a, final int[] b, final int[] dest) {
+	 return union(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the union of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #union(int[], int, int, int[], int, int, int[], int)} would write.
+	 */
+	public static int unionSize(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo) {
+	 return aTo - aFrom + bTo - bFrom - intersectionSize(a, aFrom, aTo, b, bFrom, bTo);
+	}
+	/** Computes the size of the union of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #union(int[], int[], int[])} would write.
+	 */
+	public static int unionSize(final int[] a, final int[] b) {
+	 return unionSize(a, 0, a.length, b, 0, b.length);
+	}
+	/** Computes the difference of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs max(<var>m</var> &minus; <var>n</var>, 0) times in the result, which is sorted. If one range is
+	 * much shorter than the other, the longer one is traversed by {@linkplain #gallop(int[], int, int, int) galloping}.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the length of the range of {@code a}).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #differenceSize(int[], int, int, int[], int, int)
+	 */
+	public static int difference(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo, final int[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final int k = a[i];
+	   j = gallop(b, j, bTo, k);
+	   if (j < bTo && b[j] == k) j++;
+	   else dest[d++] = k;
+	  }
+	  return d - destFrom;
+	 }
+	 if ((long)(bTo - bFrom) * GALLOP_RATIO < aTo - aFrom) {
+	  for(; j < bTo && i < aTo; j++) {
+	   final int k = b[j];
+	   final int p = gallop(a, i, aTo, k);
+	   System.arraycopy(a, i, dest, d, p - i);
+	   d += p - i;
+	   i = p;
+	   if (i < aTo && a[i] == k) i++;
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final int x = a[i], y = b[j];
+	   if (x < y) {
+	    dest[d++] = x;
+	    i++;
+	   }
+	   else if (x > y) j++;
+	   else {
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 System.arraycopy(a, i, dest, d, aTo - i);
+	 return d + aTo - i - destFrom;
+	}
+	/** Computes the difference of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the length of {@code a}).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #difference(int[], int, int, int[], int, int, int[], int)
+	 */
+	public static int difference(final int[] a, final int[] b, final int[] dest) {
+	 return difference(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the difference of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #difference(int[], int, int, int[], int, int, int[], int)} would write.
+	 */
+	public static int differenceSize(final int[] a, final int aFrom, final int aTo, final int[] b, final int bFrom, final int bTo) {
+	 return aTo - aFrom - intersectionSize(a, aFrom, aTo, b, bFrom, bTo);
+	}
+	/** Computes the size of the difference of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #difference(int[], int[], int[])} would write.
+	 */
+	public static int differenceSize(final int[] a, final int[] b) {
+	 return differenceSize(a, 0, a.length, b, 0, b.length);
+	}
+	private static void siftDown(final int[][] a, final int[] pos, final int[] heap, final int n, int i) {
+	 final int t = heap[i];
+	 final int k = a[t][pos[t]];
+	 for(int c; (c = 2 * i + 1) < n; i = c) {
+	  if (c + 1 < n && a[heap[c + 1]][pos[heap[c + 1]]] < a[heap[c]][pos[heap[c]]]) c++;
+	  if (k <= a[heap[c]][pos[heap[c]]]) break;
+	  heap[i] = heap[c];
+	 }
+	 heap[i] = t;
+	}
+	/** Merges sorted arrays, writing the result into a destination array.
+	 *
+	 * <p>The result is sorted and contains all elements of the arrays, duplicates included (use
+	 * {@link #union(int[], int, int, int[], int, int, int[], int)} to merge two arrays removing duplicates).
+	 * Arrays are kept in a heap ordered by their first unmerged element, and each time an array reaches the top of the
+	 * heap all its elements not greater than those at the top of the other arrays are copied at once, so the heap is updated once per run,
+	 * rather than once per element.
+	 *
+	 * @param a an array of sorted arrays.
+	 * @param dest the destination array, which must have room for the result (the sum of the lengths of the arrays).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 */
+	public static int merge(final int[][] a, final int[] dest, final int destFrom) {
+	 final int k = a.length;
+	 final int[] heap = new int[k], pos = new int[k];
+	 long total = 0;
+	 int n = 0;
+	 for(int i = 0; i < k; i++) {
+	  total += a[i].length;
+	  if (a[i].length != 0) heap[n++] = i;
+	 }
+	 if (destFrom < 0 || total > dest.length - destFrom) throw new ArrayIndexOutOfBoundsException("The destination array cannot contain " + total + " elements starting at " + destFrom);
+	 for(int i = n / 2; i-- != 0;) siftDown(a, pos, heap, n, i);
+	 int d = destFrom;
+	 while(n > 1) {
+	  final int t = heap[0];
+	  final int[] x = a[t];
+	  int c = heap[1];
+	  if (n > 2 && a[heap[2]][pos[heap[2]]] < a[c][pos[c]]) c = heap[2];
+	  final int bound = a[c][pos[c]];
+	  int p = pos[t];
+	  do dest[d++] = x[p++]; while(p < x.length && x[p] <= bound);
+	  pos[t] = p;
+	  if (p == x.length) heap[0] = heap[--n];
+	  siftDown(a, pos, heap, n, 0);
+	 }
+	 if (n == 1) {
+	  final int t = heap[0];
+	  System.arraycopy(a[t], pos[t], dest, d, a[t].length - pos[t]);
+	  d += a[t].length - pos[t];
+	 }
+	 return d - destFrom;
+	}
 	/** A type-specific content-based hash strategy for arrays. */
 	private static final class ArrayHashStrategy implements Hash.Strategy<int[]>, java.io.Serializable {
 	 private static final long serialVersionUID = -7046029254386353129L;
@@ -0,0 +1,430 @@
+package it.unimi.dsi.fastutil.ints;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** An immutable sorted set of ints stored in a cache-friendly static search layout.
+ *
+ * <p>A binary search on a large sorted array causes a cache miss at almost every step, as the probed elements are
+ * far apart. Instances of this class are built from a sorted array, and store its elements in a layout whose
+ * search paths touch few cache lines:
+ *
+ * <ul>
+ * <li>by default, the elements are stored in <em>Eytzinger</em> (i.e., breadth-first) order of a complete binary search tree: the
+ * root is at position 1, and the children of the node at position <var>k</var> are at positions 2<var>k</var> and
+ * 2<var>k</var> + 1. The first levels of the tree, which are visited by every search, are packed in the same few cache lines,
+ * and a search never needs to keep track of bounds, as the next position is computed arithmetically from the current one;
+ * <li>in the {@linkplain #IntEytzingerSet(int[], int, int, boolean) blocked} layout, the elements are stored in sorted order, in blocks of
+ * {@value #BLOCK_SIZE} elements, as in the leaves of a B-tree, and the largest element of each block is stored in a (much smaller) Eytzinger
+ * index. A search descends the index and then counts, without branches, the elements of a single block that are smaller than the key;
+ * the index is {@value #BLOCK_SIZE} times smaller than the set, so its upper levels are more likely to be cached, and ranks are just positions in the blocks.
+ * </ul>
+ *
+ * <p>Both layouts map in constant time positions in the layout to ranks in the sorted sequence of elements and vice versa,
+ * so {@link #rank(int)}, {@link #lowerBound(int)}, {@link #upperBound(int)} and {@link #select(int)} do not
+ * need any additional space. A set can contain at most {@value #MAX_SIZE} elements.
+ *
+ * <p>This class is immutable: all methods that would modify the set throw an {@link UnsupportedOperationException}.
+ *
+ * @see IntArrays#binarySearch(int[], int)
+ */
+
+public class IntEytzingerSet extends AbstractIntSortedSet implements java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The number of elements of a block in the blocked layout. */
+	public static final int BLOCK_SIZE = 16;
+	/** The maximum number of elements of a set. */
+	public static final int MAX_SIZE = (1 << 30) - 1;
+
+	/** The Eytzinger tree: the elements of this set or, in the blocked layout, the largest element of each block; position 0 is unused. */
+	protected final int[] tree;
+	/** The elements of this set in sorted order, padded with {@link Integer#MAX_VALUE} to a multiple of {@link #BLOCK_SIZE}, or {@code null}
+	 * if this set does not use the blocked layout. */
+	protected final int[] block;
+	/** The number of elements of this set. */
+	protected final int size;
+
+	/** Creates a new set containing the elements of a sorted array fragment.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to use.
+	 * @param length the number of elements of {@code a} to use; they must be sorted in nondecreasing order (duplicates are ignored).
+	 * @param blocked whether this set should use the blocked layout.
+	 * @throws IllegalArgumentException if the array fragment is not sorted, or it contains more than {@link #MAX_SIZE} distinct elements.
+	 */
+	public IntEytzingerSet(final int[] a, final int offset, final int length, final boolean blocked) {
+		IntArrays.ensureOffsetLength(a, offset, length);
+		// Copy the distinct elements, checking the order
+		final int[] sorted = new int[length];
+		int n = 0;
+		for(int i = 0; i < length; i++) {
+			final int x = a[offset + i];
+			if (n != 0 && x <= sorted[n - 1]) {
+				if (x == sorted[n - 1]) continue;
+				throw new IllegalArgumentException("The array is not sorted: element " + (offset + i) + " (" + x + ") is smaller than the previous one (" + sorted[n - 1] + ")");
+			}
+			sorted[n++] = x;
+		}
+		if (n > MAX_SIZE) throw new IllegalArgumentException("Too many elements: " + n);
+		size = n;
+		if (blocked) {
+			final int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			block = sorted.length == blocks * BLOCK_SIZE ? sorted : Arrays.copyOf(sorted, blocks * BLOCK_SIZE);
+			Arrays.fill(block, n, block.length, Integer.MAX_VALUE);
+			tree = new int[blocks + 1];
+			for(int b = 0; b < blocks; b++) tree[position(b, blocks)] = block[Math.min(n, (b + 1) * BLOCK_SIZE) - 1];
+		}
+		else {
+			block = null;
+			tree = new int[n + 1];
+			for(int r = 0; r < n; r++) tree[position(r, n)] = sorted[r];
+		}
+	}
+
+	/** Creates a new set containing the elements of a sorted array fragment, using the Eytzinger layout.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to use.
+	 * @param length the number of elements of {@code a} to use; they must be sorted in nondecreasing order (duplicates are ignored).
+	 */
+	public IntEytzingerSet(final int[] a, final int offset, final int length) {
+		this(a, offset, length, false);
+	}
+
+	/** Creates a new set containing the elements of a sorted array.
+	 *
+	 * @param a an array sorted in nondecreasing order (duplicates are ignored).
+	 * @param blocked whether this set should use the blocked layout.
+	 */
+	public IntEytzingerSet(final int[] a, final boolean blocked) {
+		this(a, 0, a.length, blocked);
+	}
+
+	/** Creates a new set containing the elements of a sorted array, using the Eytzinger layout.
+	 *
+	 * @param a an array sorted in nondecreasing order (duplicates are ignored).
+	 */
+	public IntEytzingerSet(final int[] a) {
+		this(a, 0, a.length, false);
+	}
+
+	/** Returns the position in an Eytzinger tree of the node of given rank.
+	 *
+	 * <p>We consider the complete tree with the same height, in which the node at depth <var>d</var> and offset <var>p</var> in
+	 * its level has in-order rank (2<var>p</var> + 1)2<sup><var>h</var> &minus; <var>d</var></sup> &minus; 1. The missing leaves
+	 * are the rightmost ones of the last level, and have even ranks, so after the first 2<var>&#x2113;</var> ranks (where <var>&#x2113;</var> is
+	 * the number of leaves on the last level) only odd ranks of the complete tree are used.
+	 *
+	 * @param r a rank.
+	 * @param n the number of nodes of the tree.
+	 * @return the position in the tree of the node of rank {@code r}.
+	 */
+	private static int position(final int r, final int n) {
+		final int h = 31 - Integer.numberOfLeadingZeros(n), leaves = n - (1 << h) + 1;
+		final int f = (r < 2 * leaves ? r : 2 * r - 2 * leaves + 1) + 1;
+		final int z = Integer.numberOfTrailingZeros(f);
+		return (1 << h - z) + (f >>> z + 1);
+	}
+
+	/** Returns the rank of the node at a given position of an Eytzinger tree.
+	 *
+	 * @param k a position (1 &le; {@code k} &le; {@code n}).
+	 * @param n the number of nodes of the tree.
+	 * @return the rank of the node at position {@code k}.
+	 * @see #position(int, int)
+	 */
+	private static int rank(final int k, final int n) {
+		final int h = 31 - Integer.numberOfLeadingZeros(n), leaves = n - (1 << h) + 1;
+		final int d = 31 - Integer.numberOfLeadingZeros(k);
+		final int f = (2 * (k - (1 << d)) + 1 << h - d) - 1;
+		return f - Math.max(0, (f + 1) / 2 - leaves);
+	}
+
+	/** Returns the position in {@link #tree} of the smallest node greater than or equal to a given int.
+	 *
+	 * <p>The path is recorded in the bits of the position, and the last left turn (i.e., the last zero bit)
+	 * identifies the result, so the loop needs no bookkeeping. The descent is deliberately written with a
+	 * branch rather than a conditional move: since the two children of a node are adjacent, and the 2<sup><var>j</var></sup>
+	 * descendants at distance <var>j</var> are contiguous, the loads issued by the processor while speculating on
+	 * the following levels fetch the right cache lines even when the prediction is wrong.
+	 *
+	 * @param x a int.
+	 * @return the position of the smallest node greater than or equal to {@code x}, or 0 if there is no such node.
+	 */
+	private int search(final int x) {
+		final int[] tree = this.tree;
+		final int n = tree.length - 1;
+		int k = 1;
+		while(k <= n) {
+			if (tree[k] < x) k = 2 * k + 1;
+			else k = 2 * k;
+		}
+		return k >>> Integer.numberOfTrailingZeros(~k) + 1;
+	}
+
+	/** Returns the number of elements of this set smaller than a given int.
+	 *
+	 * <p>If {@code k} belongs to this set, its rank is its position in the sorted sequence of elements, so
+	 * {@code select(rank(k)) == k}.
+	 *
+	 * @param k a int.
+	 * @return the number of elements of this set smaller than {@code k}.
+	 */
+	public int rank(final int k) {
+		final int p = search(k);
+		if (block == null) return p == 0 ? size : rank(p, size);
+		if (p == 0) return size;
+		final int[] block = this.block;
+		final int start = rank(p, tree.length - 1) * BLOCK_SIZE;
+		int r = start;
+		for(int i = start; i < start + BLOCK_SIZE; i++) r += block[i] < k ? 1 : 0;
+		return r;
+	}
+
+	/** Returns the rank of the smallest element of this set greater than or equal to a given int.
+	 *
+	 * <p>This method is equivalent to {@link #rank(int)}, and it is provided for symmetry with {@link #upperBound(int)}.
+	 *
+	 * @param k a int.
+	 * @return the rank of the smallest element greater than or equal to {@code k}, or {@link #size()} if there is no such element.
+	 */
+	public int lowerBound(final int k) {
+		return rank(k);
+	}
+
+	/** Returns the rank of the smallest element of this set greater than a given int.
+	 *
+	 * @param k a int.
+	 * @return the rank of the smallest element greater than {@code k}, or {@link #size()} if there is no such element.
+	 */
+	public int upperBound(final int k) {
+		return k == Integer.MAX_VALUE ? size : rank(k + 1);
+	}
+
+	/** Returns the element of given rank.
+	 *
+	 * @param rank a rank, between 0 (inclusive) and {@link #size()} (exclusive).
+	 * @return the element of this set having exactly {@code rank} smaller elements.
+	 * @throws IndexOutOfBoundsException if {@code rank} is negative or not smaller than {@link #size()}.
+	 */
+	public int select(final int rank) {
+		if (rank < 0 || rank >= size) throw new IndexOutOfBoundsException("Rank (" + rank + ") is not in [0.." + size + ")");
+		return block == null ? tree[position(rank, size)] : block[rank];
+	}
+
+	@Override
+	public boolean contains(final int k) {
+		if (block == null) {
+			final int p = search(k);
+			return p != 0 && tree[p] == k;
+		}
+		final int r = rank(k);
+		return r < size && block[r] == k;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean remove(final int k) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int firstInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return select(0);
+	}
+
+	@Override
+	public int lastInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return select(size - 1);
+	}
+
+	@Override
+	public IntComparator comparator() {
+		return null;
+	}
+
+	@Override
+	public IntBidirectionalIterator iterator() {
+		return new SetIterator(0, 0, size);
+	}
+
+	@Override
+	public IntBidirectionalIterator iterator(final int from) {
+		return new SetIterator(upperBound(from), 0, size);
+	}
+
+	@Override
+	public void forEach(final java.util.function.IntConsumer action) {
+		if (block == null) for(int r = 0; r < size; r++) action.accept(tree[position(r, size)]);
+		else for(int r = 0; r < size; r++) action.accept(block[r]);
+	}
+
+	@Override
+	public IntSortedSet subSet(final int from, final int to) {
+		if (from > to) throw new IllegalArgumentException("Start element (" + from + ") is larger than end element (" + to + ")");
+		return new Subset(rank(from), rank(to));
+	}
+
+	@Override
+	public IntSortedSet headSet(final int to) {
+		return new Subset(0, rank(to));
+	}
+
+	@Override
+	public IntSortedSet tailSet(final int from) {
+		return new Subset(rank(from), size);
+	}
+
+	/** An iterator between two ranks. */
+	private final class SetIterator implements IntBidirectionalIterator {
+		/** The lower bound (inclusive). */
+		private final int from;
+		/** The upper bound (exclusive). */
+		private final int to;
+		/** The rank of the element that {@link #nextInt()} would return. */
+		private int pos;
+
+		private SetIterator(final int pos, final int from, final int to) {
+			this.pos = Math.max(from, Math.min(to, pos));
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pos < to;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return pos > from;
+		}
+
+		@Override
+		public int nextInt() {
+			if (pos >= to) throw new NoSuchElementException();
+			return select(pos++);
+		}
+
+		@Override
+		public int previousInt() {
+			if (pos <= from) throw new NoSuchElementException();
+			return select(--pos);
+		}
+	}
+
+	/** A view on the elements of this set between two ranks. */
+	private final class Subset extends AbstractIntSortedSet implements java.io.Serializable {
+		private static final long serialVersionUID = 0L;
+		/** The lower bound (inclusive). */
+		private final int from;
+		/** The upper bound (exclusive). */
+		private final int to;
+
+		private Subset(final int from, final int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean contains(final int k) {
+			final int r = rank(k);
+			return r >= from && r < to && select(r) == k;
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return from == to;
+		}
+
+		@Override
+		public boolean remove(final int k) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int firstInt() {
+			if (from == to) throw new NoSuchElementException();
+			return select(from);
+		}
+
+		@Override
+		public int lastInt() {
+			if (from == to) throw new NoSuchElementException();
+			return select(to - 1);
+		}
+
+		@Override
+		public IntComparator comparator() {
+			return null;
+		}
+
+		@Override
+		public IntBidirectionalIterator iterator() {
+			return new SetIterator(from, from, to);
+		}
+
+		@Override
+		public IntBidirectionalIterator iterator(final int k) {
+			return new SetIterator(upperBound(k), from, to);
+		}
+
+		@Override
+		public IntSortedSet subSet(final int from, final int to) {
+			if (from > to) throw new IllegalArgumentException("Start element (" + from + ") is larger than end element (" + to + ")");
+			return new Subset(Math.max(this.from, Math.min(this.to, rank(from))), Math.max(this.from, Math.min(this.to, rank(to))));
+		}
+
+		@Override
+		public IntSortedSet headSet(final int to) {
+			return new Subset(from, Math.max(from, Math.min(this.to, rank(to))));
+		}
+
+		@Override
+		public IntSortedSet tailSet(final int from) {
+			return new Subset(Math.min(to, Math.max(this.from, rank(from))), to);
+		}
+	}
+}
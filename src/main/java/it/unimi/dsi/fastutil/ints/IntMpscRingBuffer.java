@@ -0,0 +1,223 @@
+/*
+	* Copyright (C) 2002-2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.ints;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import it.unimi.dsi.fastutil.HashCommon;
+/** A type-specific lock-free bounded multiple-producer/single-consumer ring buffer.
+	*
+	* <p>Instances of this class make it possible to hand primitive elements from any number of producer threads to one
+	* consumer thread without locks and without allocating objects: any thread may call the producer methods
+	* ({@link #offer(int)}, {@link #fill(int[], int, int)}), but at most one thread at a time may call
+	* the consumer methods ({@link #poll(int)}, {@link #drain(IntConsumer, int)}, {@link #drain(int[], int, int)}).
+	*
+	* <p>Producers claim slots by a compare-and-set on the producer sequence, and then publish each slot by
+	* updating its sequence number; the consumer frees a slot by advancing its sequence number by the capacity of the buffer.
+	* As a consequence, an element may become visible to the consumer only after some elements enqueued later
+	* by other producers have been stored, but the consumer always removes elements in sequence order: if the
+	* next slot has been claimed but not yet published, the consumer methods behave as if the buffer were empty.
+	*
+	* <p>The elements and their sequence numbers are stored in arrays whose length is a power of two, padded at both ends, and
+	* the producer and consumer sequence counters live in different cache lines, so that they do not
+	* suffer from false sharing.
+	*
+	* @see IntSpscRingBuffer
+	*/
+public class IntMpscRingBuffer {
+	/** The number of elements of padding at each end of {@link #buffer}. */
+	private static final int PAD = 32;
+	/** The number of counters in a padding block (128 bytes, i.e., two cache lines). */
+	private static final int COUNTER_PAD = 16;
+	/** The index in {@link #counters} of the producer sequence. */
+	private static final int TAIL = COUNTER_PAD;
+	/** The index in {@link #counters} of the consumer sequence. */
+	private static final int HEAD = 3 * COUNTER_PAD;
+	/** The padded backing array: the element of sequence <var>s</var> is at position {@code PAD + (s & mask)}. */
+	private final int[] buffer;
+	/** The padded array of slot sequences: slot <var>i</var> contains <var>s</var> if it is free for sequence <var>s</var>,
+	 * and <var>s</var> + 1 if it contains the element of sequence <var>s</var>. */
+	private final AtomicLongArray sequences;
+	/** The mask used to reduce sequences to positions. */
+	private final int mask;
+	/** The sequence counters, separated by padding. */
+	private final AtomicLongArray counters = new AtomicLongArray(5 * COUNTER_PAD);
+	/** Creates a new ring buffer with given capacity.
+	 *
+	 * @param capacity the minimum capacity of this ring buffer; it will be rounded up to a power of two greater than one
+	 * (with a single slot, a published element would be indistinguishable from a free slot).
+	 */
+	public IntMpscRingBuffer(final int capacity) {
+	 if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+	 final int length = HashCommon.nextPowerOfTwo(Math.max(2, capacity));
+	 buffer = new int[length + 2 * PAD];
+	 sequences = new AtomicLongArray(length + 2 * COUNTER_PAD);
+	 for(int i = 0; i < length; i++) sequences.lazySet(COUNTER_PAD + i, i);
+	 mask = length - 1;
+	}
+	/** Returns the capacity of this ring buffer.
+	 *
+	 * @return the capacity of this ring buffer (a power of two greater than one).
+	 */
+	public int capacity() {
+	 return mask + 1;
+	}
+	/** Returns the number of elements in this ring buffer, including those that have been claimed but not yet published.
+	 *
+	 * <p>If a producer or the consumer are active, the returned value is just an estimate.
+	 *
+	 * @return the number of elements in this ring buffer.
+	 */
+	public int size() {
+	 final long head = counters.get(HEAD);
+	 return (int)Math.min(counters.get(TAIL) - head, mask + 1);
+	}
+	/** Checks whether this ring buffer is empty.
+	 *
+	 * @return true if this ring buffer is empty.
+	 * @see #size()
+	 */
+	public boolean isEmpty() {
+	 return counters.get(HEAD) == counters.get(TAIL);
+	}
+	/** Adds an element to this ring buffer, if there is space.
+	 *
+	 * @param x the element to add.
+	 * @return true if the element was added; false if this ring buffer is full.
+	 */
+	public boolean offer(final int x) {
+	 long tail = counters.get(TAIL);
+	 int pos;
+	 for(;;) {
+	  pos = (int)tail & mask;
+	  final long seq = sequences.get(COUNTER_PAD + pos);
+	  if (seq == tail) {
+	   if (counters.compareAndSet(TAIL, tail, tail + 1)) break;
+	   tail = counters.get(TAIL);
+	  }
+	  else if (seq < tail) return false; // The consumer has not freed the slot yet
+	  else tail = counters.get(TAIL); // Another producer claimed the slot
+	 }
+	 buffer[PAD + pos] = x;
+	 sequences.lazySet(COUNTER_PAD + pos, tail + 1);
+	 return true;
+	}
+	/** Adds as many elements as possible from an array fragment, in order.
+	 *
+	 * <p>This method claims all the slots it needs with a single compare-and-set, so the elements added by a call
+	 * are contiguous in the buffer, and are not interleaved with elements added by other producers.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the maximum number of elements to add.
+	 * @return the number of elements added, which is the minimum between {@code length} and the free space in this ring buffer.
+	 */
+	public int fill(final int[] a, final int offset, final int length) {
+	 IntArrays.ensureOffsetLength(a, offset, length);
+	 if (length == 0) return 0;
+	 long tail;
+	 int n;
+	 do {
+	  tail = counters.get(TAIL);
+	  n = (int)Math.min(length, mask + 1 - (tail - counters.get(HEAD)));
+	  if (n <= 0) return 0;
+	 } while(! counters.compareAndSet(TAIL, tail, tail + n));
+	 for(int i = 0; i < n; i++) {
+	  final int pos = (int)(tail + i) & mask;
+	  buffer[PAD + pos] = a[offset + i];
+	  sequences.lazySet(COUNTER_PAD + pos, tail + i + 1);
+	 }
+	 return n;
+	}
+	/** Adds as many elements as possible from an array, in order.
+	 *
+	 * @param a an array.
+	 * @return the number of elements added.
+	 * @see #fill(int[], int, int)
+	 */
+	public int fill(final int[] a) {
+	 return fill(a, 0, a.length);
+	}
+	/** Removes the first element of this ring buffer, if it has been published (consumer only).
+	 *
+	 * @param defRetValue the value to return if this ring buffer is empty.
+	 * @return the removed element, or {@code defRetValue} if this ring buffer is empty or its first element has not been published yet.
+	 */
+	public int poll(final int defRetValue) {
+	 final long head = counters.get(HEAD);
+	 final int pos = (int)head & mask;
+	 if (sequences.get(COUNTER_PAD + pos) != head + 1) return defRetValue;
+	 final int x = buffer[PAD + pos];
+	 sequences.lazySet(COUNTER_PAD + pos, head + mask + 1);
+	 counters.lazySet(HEAD, head + 1);
+	 return x;
+	}
+	/** Removes at most a given number of published elements, passing them in order to a consumer (consumer only).
+	 *
+	 * <p>The consumer sequence is published just once, after all elements have been processed (or
+	 * the consumer has thrown an exception, in which case the elements passed to the consumer so far are removed).
+	 *
+	 * @param consumer a consumer that will receive the removed elements.
+	 * @param limit the maximum number of elements to remove.
+	 * @return the number of elements removed.
+	 */
+	public int drain(final IntConsumer consumer, final int limit) {
+	 if (limit < 0) throw new IllegalArgumentException("Negative limit: " + limit);
+	 final long head = counters.get(HEAD);
+	 int n = 0;
+	 try {
+	  while(n < limit) {
+	   final int pos = (int)(head + n) & mask;
+	   if (sequences.get(COUNTER_PAD + pos) != head + n + 1) break;
+	   final int x = buffer[PAD + pos];
+	   sequences.lazySet(COUNTER_PAD + pos, head + n++ + mask + 1);
+	   consumer.accept(x);
+	  }
+	 }
+	 finally {
+	  if (n != 0) counters.lazySet(HEAD, head + n);
+	 }
+	 return n;
+	}
+	/** Removes all published elements, passing them in order to a consumer (consumer only).
+	 *
+	 * @param consumer a consumer that will receive the removed elements.
+	 * @return the number of elements removed.
+	 * @see #drain(IntConsumer, int)
+	 */
+	public int drain(final IntConsumer consumer) {
+	 return drain(consumer, Integer.MAX_VALUE);
+	}
+	/** Removes published elements into an array fragment, in order (consumer only).
+	 *
+	 * @param a an array.
+	 * @param offset the first position of {@code a} that will be filled.
+	 * @param length the maximum number of elements to remove.
+	 * @return the number of elements removed.
+	 */
+	public int drain(final int[] a, final int offset, final int length) {
+	 IntArrays.ensureOffsetLength(a, offset, length);
+	 final long head = counters.get(HEAD);
+	 int i = 0;
+	 for(; i < length; i++) {
+	  final int pos = (int)(head + i) & mask;
+	  if (sequences.get(COUNTER_PAD + pos) != head + i + 1) break;
+	  a[offset + i] = buffer[PAD + pos];
+	  sequences.lazySet(COUNTER_PAD + pos, head + i + mask + 1);
+	 }
+	 if (i != 0) counters.lazySet(HEAD, head + i);
+	 return i;
+	}
+}
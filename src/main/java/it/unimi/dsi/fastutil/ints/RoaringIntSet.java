@@ -0,0 +1,1218 @@
+package it.unimi.dsi.fastutil.ints;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Size64;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** A compressed bitmap set of ints in the style of <em>Roaring</em> bitmaps.
+ *
+ * <p>Elements are partitioned by their upper 16 bits; the lower 16 bits of the elements of each partition are
+ * stored in a <em>container</em>, which is a sorted array of chars if the partition has at most {@value #MAX_ARRAY_SIZE}
+ * elements, and a bitmap of 2<sup>16</sup> bits otherwise. Thus, sparse sets use about two bytes per element and
+ * dense sets about one bit per element. {@link #runOptimize()} converts to a run-length encoded representation
+ * the containers that are smaller in that form, which is very effective on sets made of long intervals; run containers
+ * are converted back to arrays or bitmaps when they are modified.
+ *
+ * <p>Besides the standard set methods, this class provides in-place {@linkplain #and(RoaringIntSet) intersection},
+ * {@linkplain #or(RoaringIntSet) union}, {@linkplain #andNot(RoaringIntSet) difference} and
+ * {@linkplain #xor(RoaringIntSet) symmetric difference} with another set, in the style of {@link java.util.BitSet}; they work
+ * container by container, merging arrays and combining bitmaps a word at a time. Moreover, {@link #rank(int)}
+ * and {@link #select(long)} make it possible to use a set as a monotone map from elements to their positions.
+ *
+ * <p>Since a set can contain up to 2<sup>32</sup> elements, this class implements {@link Size64}.
+ * Sets can be {@linkplain #store(DataOutput) stored} to and {@linkplain #load(DataInput) loaded} from any
+ * {@link DataOutput}/{@link DataInput} (e.g., the streams returned by {@link it.unimi.dsi.fastutil.io.BinIO});
+ * standard serialization uses the same format.
+ *
+ * <p>Iterators and views are not fail-fast, and the behavior of an iterator is undefined if the set is modified
+ * by other means during the iteration.
+ *
+ * @see java.util.BitSet
+ */
+
+public class RoaringIntSet extends AbstractIntSortedSet implements Size64, java.io.Serializable, Cloneable {
+	private static final long serialVersionUID = 0L;
+	/** The maximum number of elements of an array container. */
+	public static final int MAX_ARRAY_SIZE = 4096;
+	/** The number of longs of a bitmap container. */
+	private static final int BITMAP_LENGTH = 1 << 16 - 6;
+	/** A value returned by {@link #ceiling(long)} and {@link #lower(long)} when there is no such element. */
+	private static final long NONE = Long.MAX_VALUE;
+	/** The type tag of array containers in the stored format. */
+	private static final int ARRAY = 0;
+	/** The type tag of bitmap containers in the stored format. */
+	private static final int BITMAP = 1;
+	/** The type tag of run containers in the stored format. */
+	private static final int RUN = 2;
+
+	/** The keys of the containers, that is, the upper 16 bits of their elements with flipped sign bit, in increasing order. */
+	protected transient char[] keys;
+	/** The containers (none of which is empty), in the same order as {@link #keys}. */
+	protected transient Container[] container;
+	/** The number of containers. */
+	protected transient int count;
+	/** The number of elements. */
+	protected transient long size;
+
+	/** Creates a new empty set. */
+	public RoaringIntSet() {
+		keys = new char[4];
+		container = new Container[4];
+	}
+
+	/** Creates a new set containing the elements returned by an iterator.
+	 *
+	 * @param i an iterator.
+	 */
+	public RoaringIntSet(final IntIterator i) {
+		this();
+		while(i.hasNext()) add(i.nextInt());
+	}
+
+	/** Creates a new set containing the elements of an array fragment.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the number of elements of {@code a} to add.
+	 */
+	public RoaringIntSet(final int[] a, final int offset, final int length) {
+		this();
+		it.unimi.dsi.fastutil.Arrays.ensureOffsetLength(a.length, offset, length);
+		for(int i = 0; i < length; i++) add(a[offset + i]);
+	}
+
+	/** Creates a new set containing the elements of an array.
+	 *
+	 * @param a an array.
+	 */
+	public RoaringIntSet(final int[] a) {
+		this(a, 0, a.length);
+	}
+
+	/** Creates a new set containing the elements of a type-specific collection.
+	 *
+	 * @param c a type-specific collection.
+	 */
+	public RoaringIntSet(final IntCollection c) {
+		this(c.iterator());
+	}
+
+	/** Returns the key of the container of an element. */
+	private static int key(final int k) {
+		return k >>> 16 ^ 0x8000;
+	}
+
+	/** Returns the element with given container key and lower 16 bits. */
+	private static int element(final int key, final int low) {
+		return (key ^ 0x8000) << 16 | low;
+	}
+
+	/** Returns the position of a key, or {@code -(insertion point) - 1} if it is not present. */
+	private int find(final int key) {
+		return Arrays.binarySearch(keys, 0, count, (char)key);
+	}
+
+	/** Inserts a container with given key at a given position. */
+	private void insert(final int pos, final int key, final Container c) {
+		if (count == keys.length) {
+			keys = Arrays.copyOf(keys, count * 2);
+			container = Arrays.copyOf(container, count * 2);
+		}
+		System.arraycopy(keys, pos, keys, pos + 1, count - pos);
+		System.arraycopy(container, pos, container, pos + 1, count - pos);
+		keys[pos] = (char)key;
+		container[pos] = c;
+		count++;
+	}
+
+	/** Sets the container at a given position, removing it if {@code c} is {@code null}. */
+	private void set(final int pos, final Container c) {
+		if (c != null) container[pos] = c;
+		else {
+			count--;
+			System.arraycopy(keys, pos + 1, keys, pos, count - pos);
+			System.arraycopy(container, pos + 1, container, pos, count - pos);
+			container[count] = null;
+		}
+	}
+
+	@Override
+	public boolean add(final int k) {
+		final int key = key(k), pos = find(key);
+		if (pos < 0) {
+			final char[] a = new char[4];
+			a[0] = (char)k;
+			insert(-pos - 1, key, new ArrayContainer(a, 1));
+			size++;
+			return true;
+		}
+		final Container c = container[pos];
+		final int before = c.cardinality();
+		final Container d = c.add(k & 0xFFFF);
+		container[pos] = d;
+		if (d.cardinality() == before) return false;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(final int k) {
+		final int pos = find(key(k));
+		if (pos < 0) return false;
+		final Container c = container[pos];
+		final int before = c.cardinality();
+		final Container d = c.remove(k & 0xFFFF);
+		if (d != null && d.cardinality() == before) return false;
+		set(pos, d);
+		size--;
+		return true;
+	}
+
+	@Override
+	public boolean contains(final int k) {
+		final int pos = find(key(k));
+		return pos >= 0 && container[pos].contains(k & 0xFFFF);
+	}
+
+	@Override
+	public long size64() {
+		return size;
+	}
+
+	/** Returns the number of elements of this set, or {@link Integer#MAX_VALUE} if it is larger.
+	 *
+	 * @deprecated Please use {@link #size64()} instead.
+	 */
+	@Override
+	@Deprecated
+	public int size() {
+		return (int)Math.min(Integer.MAX_VALUE, size);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(container, 0, count, null);
+		count = 0;
+		size = 0;
+	}
+
+	/** Returns the smallest element greater than or equal to a given bound.
+	 *
+	 * @param x a bound (not necessarily an int).
+	 * @return the smallest element greater than or equal to {@code x}, or {@link #NONE}.
+	 */
+	private long ceiling(long x) {
+		if (x > Integer.MAX_VALUE) return NONE;
+		if (x < Integer.MIN_VALUE) x = Integer.MIN_VALUE;
+		final int key = key((int)x);
+		int pos = find(key);
+		if (pos >= 0) {
+			final int low = container[pos].next((int)x & 0xFFFF);
+			if (low >= 0) return element(key, low);
+			pos++;
+		}
+		else pos = -pos - 1;
+		return pos < count ? element(keys[pos], container[pos].next(0)) : NONE;
+	}
+
+	/** Returns the largest element smaller than a given bound.
+	 *
+	 * @param x a bound (not necessarily an int).
+	 * @return the largest element smaller than {@code x}, or {@link #NONE}.
+	 */
+	private long lower(long x) {
+		if (x <= Integer.MIN_VALUE) return NONE;
+		if (x > Integer.MAX_VALUE) x = Integer.MAX_VALUE + 1L;
+		final int y = (int)(x - 1), key = key(y);
+		int pos = find(key);
+		if (pos >= 0) {
+			final int low = container[pos].previous(y & 0xFFFF);
+			if (low >= 0) return element(key, low);
+		}
+		else pos = -pos - 1;
+		pos--;
+		return pos >= 0 ? element(keys[pos], container[pos].previous(0xFFFF)) : NONE;
+	}
+
+	/** Returns the number of elements smaller than a given bound.
+	 *
+	 * @param x a bound (not necessarily an int).
+	 * @return the number of elements smaller than {@code x}.
+	 */
+	private long rank(long x) {
+		if (x <= Integer.MIN_VALUE) return 0;
+		if (x > Integer.MAX_VALUE) return size;
+		final int key = key((int)x);
+		int pos = find(key);
+		long r = 0;
+		if (pos < 0) pos = -pos - 1;
+		else r = container[pos].rank((int)x & 0xFFFF);
+		for(int i = 0; i < pos; i++) r += container[i].cardinality();
+		return r;
+	}
+
+	/** Returns the number of elements of this set smaller than a given int.
+	 *
+	 * <p>If {@code k} belongs to this set, its rank is its position in the sorted sequence of elements, so
+	 * {@code select(rank(k)) == k}.
+	 *
+	 * @param k an int.
+	 * @return the number of elements of this set smaller than {@code k}.
+	 */
+	public long rank(final int k) {
+		return rank((long)k);
+	}
+
+	/** Returns the element of given rank.
+	 *
+	 * @param rank a rank, between 0 (inclusive) and {@link #size64()} (exclusive).
+	 * @return the element of this set having exactly {@code rank} smaller elements.
+	 * @throws IndexOutOfBoundsException if {@code rank} is negative or not smaller than {@link #size64()}.
+	 */
+	public int select(long rank) {
+		if (rank < 0 || rank >= size) throw new IndexOutOfBoundsException("Rank (" + rank + ") is not in [0.." + size + ")");
+		for(int i = 0;; i++) {
+			final int c = container[i].cardinality();
+			if (rank < c) return element(keys[i], container[i].select((int)rank));
+			rank -= c;
+		}
+	}
+
+	@Override
+	public int firstInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return element(keys[0], container[0].next(0));
+	}
+
+	@Override
+	public int lastInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return element(keys[count - 1], container[count - 1].previous(0xFFFF));
+	}
+
+	@Override
+	public IntComparator comparator() {
+		return null;
+	}
+
+	@Override
+	public IntBidirectionalIterator iterator() {
+		return new SetIterator(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE + 1L);
+	}
+
+	@Override
+	public IntBidirectionalIterator iterator(final int from) {
+		return new SetIterator(from + 1L, Integer.MIN_VALUE, Integer.MAX_VALUE + 1L);
+	}
+
+	@Override
+	public void forEach(final java.util.function.IntConsumer action) {
+		for(int i = 0; i < count; i++) container[i].forEach((keys[i] ^ 0x8000) << 16, action);
+	}
+
+	@Override
+	public IntSortedSet subSet(final int from, final int to) {
+		return new Subset(from, to);
+	}
+
+	@Override
+	public IntSortedSet headSet(final int to) {
+		return new Subset(Integer.MIN_VALUE, to);
+	}
+
+	@Override
+	public IntSortedSet tailSet(final int from) {
+		return new Subset(from, Integer.MAX_VALUE + 1L);
+	}
+
+	/** Intersects this set with another set.
+	 *
+	 * <p>After this call, this set contains the elements that belonged both to this set and to {@code s}.
+	 *
+	 * @param s a set.
+	 */
+	public void and(final RoaringIntSet s) {
+		final char[] keys = new char[Math.max(4, Math.min(count, s.count))];
+		final Container[] container = new Container[keys.length];
+		int n = 0;
+		for(int i = 0, j = 0; i < count && j < s.count;) {
+			if (this.keys[i] < s.keys[j]) i++;
+			else if (this.keys[i] > s.keys[j]) j++;
+			else {
+				final Container c = and(this.container[i], s.container[j]);
+				if (c != null) {
+					keys[n] = this.keys[i];
+					container[n++] = c;
+				}
+				i++;
+				j++;
+			}
+		}
+		replace(keys, container, n);
+	}
+
+	/** Adds to this set the elements of another set.
+	 *
+	 * <p>After this call, this set contains the elements that belonged to this set or to {@code s}.
+	 *
+	 * @param s a set.
+	 */
+	public void or(final RoaringIntSet s) {
+		merge(s, false);
+	}
+
+	/** Removes from this set the elements of another set.
+	 *
+	 * <p>After this call, this set contains the elements that belonged to this set but not to {@code s}.
+	 *
+	 * @param s a set.
+	 */
+	public void andNot(final RoaringIntSet s) {
+		final char[] keys = new char[Math.max(4, count)];
+		final Container[] container = new Container[keys.length];
+		int n = 0;
+		for(int i = 0, j = 0; i < count; i++) {
+			while(j < s.count && s.keys[j] < this.keys[i]) j++;
+			final Container c = j < s.count && s.keys[j] == this.keys[i] ? andNot(this.container[i], s.container[j]) : this.container[i];
+			if (c != null) {
+				keys[n] = this.keys[i];
+				container[n++] = c;
+			}
+		}
+		replace(keys, container, n);
+	}
+
+	/** Computes the symmetric difference of this set and another set.
+	 *
+	 * <p>After this call, this set contains the elements that belonged to exactly one of this set and {@code s}.
+	 *
+	 * @param s a set.
+	 */
+	public void xor(final RoaringIntSet s) {
+		merge(s, true);
+	}
+
+	/** Merges the containers of this set with those of another set, computing either union or symmetric difference. */
+	private void merge(final RoaringIntSet s, final boolean xor) {
+		final char[] keys = new char[Math.max(4, count + s.count)];
+		final Container[] container = new Container[keys.length];
+		int n = 0, i = 0, j = 0;
+		while(i < count || j < s.count) {
+			final Container c;
+			final char key;
+			if (j == s.count || i < count && this.keys[i] < s.keys[j]) {
+				key = this.keys[i];
+				c = this.container[i++];
+			}
+			else if (i == count || this.keys[i] > s.keys[j]) {
+				key = s.keys[j];
+				c = s.container[j++].copy();
+			}
+			else {
+				key = this.keys[i];
+				c = xor ? xor(this.container[i++], s.container[j++]) : or(this.container[i++], s.container[j++]);
+			}
+			if (c != null) {
+				keys[n] = key;
+				container[n++] = c;
+			}
+		}
+		replace(keys, container, n);
+	}
+
+	/** Replaces the containers of this set, recomputing its size. */
+	private void replace(final char[] keys, final Container[] container, final int count) {
+		this.keys = keys;
+		this.container = container;
+		this.count = count;
+		long size = 0;
+		for(int i = 0; i < count; i++) size += container[i].cardinality();
+		this.size = size;
+	}
+
+	/** Converts each container to the smallest among the array, bitmap and run-length encoded representations.
+	 *
+	 * <p>Run containers are never created by the other methods of this class, as detecting runs has a cost;
+	 * this method should be called after the set has been built, in particular if it contains long intervals.
+	 *
+	 * @return true if some container has changed representation.
+	 */
+	public boolean runOptimize() {
+		boolean changed = false;
+		for(int i = 0; i < count; i++) {
+			final Container c = container[i];
+			final int card = c.cardinality(), runs = c.runs();
+			final boolean run = 4 * runs < Math.min(card <= MAX_ARRAY_SIZE ? 2 * card : Integer.MAX_VALUE, 8 * BITMAP_LENGTH);
+			if (run == c instanceof RunContainer) continue;
+			container[i] = run ? RunContainer.fromBitmap(c.bitmap(), runs, card) : fromBitmap(c.bitmap());
+			changed = true;
+		}
+		return changed;
+	}
+
+	/** Trims the arrays of this set to their minimum length. */
+	public void trim() {
+		final int length = Math.max(4, count);
+		keys = Arrays.copyOf(keys, length);
+		container = Arrays.copyOf(container, length);
+		for(int i = 0; i < count; i++) if (container[i] instanceof ArrayContainer) ((ArrayContainer)container[i]).trim();
+	}
+
+	/** Stores this set in a data output.
+	 *
+	 * <p>The format is the number of containers (an int), followed by, for each container, its key (a short),
+	 * its type (a byte) and its content: for an array container, the number of elements minus one (a short) followed by the
+	 * elements (shorts); for a bitmap container, {@value #BITMAP_LENGTH} longs; for a run container, the number of runs (a short)
+	 * followed by, for each run, its first element and its length minus one (shorts).
+	 *
+	 * @param out a data output.
+	 * @see #load(DataInput)
+	 */
+	public void store(final DataOutput out) throws IOException {
+		out.writeInt(count);
+		for(int i = 0; i < count; i++) {
+			out.writeShort(keys[i]);
+			container[i].store(out);
+		}
+	}
+
+	/** Loads a set from a data input.
+	 *
+	 * @param in a data input containing a set in the format written by {@link #store(DataOutput)}.
+	 * @return the set.
+	 */
+	public static RoaringIntSet load(final DataInput in) throws IOException {
+		final RoaringIntSet s = new RoaringIntSet();
+		s.read(in);
+		return s;
+	}
+
+	/** Reads the content of this set from a data input. */
+	private void read(final DataInput in) throws IOException {
+		final int count = in.readInt();
+		if (count < 0 || count > 1 << 16) throw new IOException("Invalid number of containers: " + count);
+		final char[] keys = new char[Math.max(4, count)];
+		final Container[] container = new Container[keys.length];
+		for(int i = 0; i < count; i++) {
+			keys[i] = in.readChar();
+			if (i > 0 && keys[i] <= keys[i - 1]) throw new IOException("Container keys are not increasing");
+			switch(in.readByte()) {
+			case ARRAY: {
+				final int card = in.readUnsignedShort() + 1;
+				if (card > MAX_ARRAY_SIZE) throw new IOException("Invalid array container size: " + card);
+				final char[] a = new char[card];
+				for(int j = 0; j < card; j++) a[j] = in.readChar();
+				container[i] = new ArrayContainer(a, card);
+				break;
+			}
+			case BITMAP: {
+				final long[] words = new long[BITMAP_LENGTH];
+				int card = 0;
+				for(int j = 0; j < BITMAP_LENGTH; j++) card += Long.bitCount(words[j] = in.readLong());
+				container[i] = new BitmapContainer(words, card);
+				break;
+			}
+			case RUN: {
+				final int runs = in.readUnsignedShort();
+				final char[] r = new char[2 * runs];
+				int card = 0;
+				for(int j = 0; j < 2 * runs; j += 2) {
+					r[j] = in.readChar();
+					r[j + 1] = in.readChar();
+					card += r[j + 1] + 1;
+				}
+				if (runs == 0) throw new IOException("Empty run container");
+				container[i] = new RunContainer(r, runs, card);
+				break;
+			}
+			default: throw new IOException("Invalid container type");
+			}
+		}
+		replace(keys, container, count);
+	}
+
+	@Override
+	public RoaringIntSet clone() {
+		RoaringIntSet c;
+		try {
+			c = (RoaringIntSet)super.clone();
+		}
+		catch(CloneNotSupportedException cantHappen) {
+			throw new InternalError();
+		}
+		c.keys = keys.clone();
+		c.container = container.clone();
+		for(int i = 0; i < count; i++) c.container[i] = container[i].copy();
+		return c;
+	}
+
+	private void writeObject(final java.io.ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		store(s);
+	}
+
+	private void readObject(final java.io.ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		read(s);
+	}
+
+	/** An iterator between two bounds. Positions are represented by the smallest element that {@link #nextInt()} can return. */
+	private final class SetIterator implements IntBidirectionalIterator {
+		/** The lower bound (inclusive). */
+		private final long from;
+		/** The upper bound (exclusive). */
+		private final long to;
+		/** The current position. */
+		private long pos;
+		/** The last element returned, or {@link #NONE}. */
+		private long last = NONE;
+
+		private SetIterator(final long pos, final long from, final long to) {
+			this.pos = Math.max(from, Math.min(to, pos));
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			final long next = ceiling(pos);
+			return next != NONE && next < to;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			final long previous = lower(pos);
+			return previous != NONE && previous >= from;
+		}
+
+		@Override
+		public int nextInt() {
+			final long next = ceiling(pos);
+			if (next == NONE || next >= to) throw new NoSuchElementException();
+			pos = next + 1;
+			return (int)(last = next);
+		}
+
+		@Override
+		public int previousInt() {
+			final long previous = lower(pos);
+			if (previous == NONE || previous < from) throw new NoSuchElementException();
+			pos = previous;
+			return (int)(last = previous);
+		}
+
+		@Override
+		public void remove() {
+			if (last == NONE) throw new IllegalStateException();
+			RoaringIntSet.this.remove((int)last);
+			last = NONE;
+		}
+	}
+
+	/** A view on the elements of this set between two bounds. */
+	private final class Subset extends AbstractIntSortedSet implements java.io.Serializable {
+		private static final long serialVersionUID = 0L;
+		/** The lower bound (inclusive). */
+		private final long from;
+		/** The upper bound (exclusive). */
+		private final long to;
+
+		private Subset(final long from, final long to) {
+			if (from > to) throw new IllegalArgumentException("Start element (" + from + ") is larger than end element (" + to + ")");
+			this.from = from;
+			this.to = to;
+		}
+
+		private boolean inRange(final int k) {
+			return k >= from && k < to;
+		}
+
+		@Override
+		public boolean add(final int k) {
+			if (! inRange(k)) throw new IllegalArgumentException("Element (" + k + ") out of range [" + from + "-" + to + ")");
+			return RoaringIntSet.this.add(k);
+		}
+
+		@Override
+		public boolean remove(final int k) {
+			return inRange(k) && RoaringIntSet.this.remove(k);
+		}
+
+		@Override
+		public boolean contains(final int k) {
+			return inRange(k) && RoaringIntSet.this.contains(k);
+		}
+
+		@Override
+		public int size() {
+			return (int)Math.min(Integer.MAX_VALUE, rank(to) - rank(from));
+		}
+
+		@Override
+		public boolean isEmpty() {
+			final long first = ceiling(from);
+			return first == NONE || first >= to;
+		}
+
+		@Override
+		public void clear() {
+			for(final IntIterator i = iterator(); i.hasNext();) {
+				i.nextInt();
+				i.remove();
+			}
+		}
+
+		@Override
+		public int firstInt() {
+			final long first = ceiling(from);
+			if (first == NONE || first >= to) throw new NoSuchElementException();
+			return (int)first;
+		}
+
+		@Override
+		public int lastInt() {
+			final long last = lower(to);
+			if (last == NONE || last < from) throw new NoSuchElementException();
+			return (int)last;
+		}
+
+		@Override
+		public IntComparator comparator() {
+			return null;
+		}
+
+		@Override
+		public IntBidirectionalIterator iterator() {
+			return new SetIterator(from, from, to);
+		}
+
+		@Override
+		public IntBidirectionalIterator iterator(final int k) {
+			return new SetIterator(k + 1L, from, to);
+		}
+
+		@Override
+		public IntSortedSet subSet(final int from, final int to) {
+			return new Subset(Math.max(this.from, from), Math.max(Math.max(this.from, from), Math.min(this.to, to)));
+		}
+
+		@Override
+		public IntSortedSet headSet(final int to) {
+			return new Subset(from, Math.max(from, Math.min(this.to, to)));
+		}
+
+		@Override
+		public IntSortedSet tailSet(final int from) {
+			return new Subset(Math.min(to, Math.max(this.from, from)), to);
+		}
+	}
+
+	/** Returns a container with the elements of a bitmap, or {@code null} if the bitmap is empty. */
+	private static Container fromBitmap(final long[] words) {
+		int card = 0;
+		for(final long w : words) card += Long.bitCount(w);
+		if (card == 0) return null;
+		if (card > MAX_ARRAY_SIZE) return new BitmapContainer(words, card);
+		final char[] a = new char[card];
+		for(int i = 0, n = 0; i < BITMAP_LENGTH; i++) for(long w = words[i]; w != 0; w &= w - 1) a[n++] = (char)(i << 6 | Long.numberOfTrailingZeros(w));
+		return new ArrayContainer(a, card);
+	}
+
+	private static Container and(final Container a, final Container b) {
+		if (a instanceof ArrayContainer) return ((ArrayContainer)a).filter(b, true);
+		if (b instanceof ArrayContainer) return ((ArrayContainer)b).filter(a, true);
+		final long[] w = a.bitmap(), v = b.bitmapView();
+		for(int i = 0; i < BITMAP_LENGTH; i++) w[i] &= v[i];
+		return fromBitmap(w);
+	}
+
+	private static Container or(final Container a, final Container b) {
+		if (a instanceof ArrayContainer && b instanceof ArrayContainer && a.cardinality() + b.cardinality() <= MAX_ARRAY_SIZE) return ((ArrayContainer)a).merge((ArrayContainer)b, false);
+		final long[] w = a.bitmap();
+		b.setBits(w);
+		return fromBitmap(w);
+	}
+
+	private static Container andNot(final Container a, final Container b) {
+		if (a instanceof ArrayContainer) return ((ArrayContainer)a).filter(b, false);
+		final long[] w = a.bitmap(), v = b.bitmapView();
+		for(int i = 0; i < BITMAP_LENGTH; i++) w[i] &= ~v[i];
+		return fromBitmap(w);
+	}
+
+	private static Container xor(final Container a, final Container b) {
+		if (a instanceof ArrayContainer && b instanceof ArrayContainer && a.cardinality() + b.cardinality() <= MAX_ARRAY_SIZE) return ((ArrayContainer)a).merge((ArrayContainer)b, true);
+		final long[] w = a.bitmap(), v = b.bitmapView();
+		for(int i = 0; i < BITMAP_LENGTH; i++) w[i] ^= v[i];
+		return fromBitmap(w);
+	}
+
+	/** Sets the bits of a bitmap in a given range. */
+	private static void setRange(final long[] words, final int from, final int to) {
+		final int first = from >>> 6, last = to - 1 >>> 6;
+		if (first == last) words[first] |= -1L << from & -1L >>> -to;
+		else {
+			words[first] |= -1L << from;
+			for(int i = first + 1; i < last; i++) words[i] = -1L;
+			words[last] |= -1L >>> -to;
+		}
+	}
+
+	/** A set of lower 16 bits of elements (i.e., of ints between 0 and 2<sup>16</sup> &minus; 1).
+	 *
+	 * <p>Modification methods return the resulting container, which might be of a different type;
+	 * {@link #remove(int)} returns {@code null} if the resulting container is empty.
+	 */
+	protected abstract static class Container {
+		/** Returns the number of elements. */
+		abstract int cardinality();
+		abstract boolean contains(int x);
+		abstract Container add(int x);
+		abstract Container remove(int x);
+		/** Returns the smallest element greater than or equal to {@code x}, or -1. */
+		abstract int next(int x);
+		/** Returns the largest element smaller than or equal to {@code x}, or -1. */
+		abstract int previous(int x);
+		/** Returns the number of elements smaller than {@code x}. */
+		abstract int rank(int x);
+		/** Returns the element of given rank. */
+		abstract int select(int rank);
+		/** Sets in a bitmap the bits of the elements. */
+		abstract void setBits(long[] words);
+		/** Returns the number of maximal runs of consecutive elements. */
+		abstract int runs();
+		abstract void forEach(int high, java.util.function.IntConsumer action);
+		abstract void store(DataOutput out) throws IOException;
+		abstract Container copy();
+
+		/** Returns a new bitmap containing the elements. */
+		long[] bitmap() {
+			final long[] words = new long[BITMAP_LENGTH];
+			setBits(words);
+			return words;
+		}
+
+		/** Returns a bitmap containing the elements that must not be modified. */
+		long[] bitmapView() {
+			return bitmap();
+		}
+	}
+
+	/** A container storing its elements in a sorted array. */
+	private static final class ArrayContainer extends Container {
+		private char[] a;
+		private int cardinality;
+
+		private ArrayContainer(final char[] a, final int cardinality) {
+			this.a = a;
+			this.cardinality = cardinality;
+		}
+
+		private int search(final int x) {
+			return Arrays.binarySearch(a, 0, cardinality, (char)x);
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(final int x) {
+			return search(x) >= 0;
+		}
+
+		@Override
+		Container add(final int x) {
+			int pos = search(x);
+			if (pos >= 0) return this;
+			if (cardinality == MAX_ARRAY_SIZE) return new BitmapContainer(bitmap(), cardinality).add(x);
+			pos = -pos - 1;
+			if (cardinality == a.length) a = Arrays.copyOf(a, Math.min(MAX_ARRAY_SIZE, 2 * cardinality));
+			System.arraycopy(a, pos, a, pos + 1, cardinality - pos);
+			a[pos] = (char)x;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(final int x) {
+			final int pos = search(x);
+			if (pos < 0) return this;
+			if (--cardinality == 0) return null;
+			System.arraycopy(a, pos + 1, a, pos, cardinality - pos);
+			return this;
+		}
+
+		@Override
+		int next(final int x) {
+			int pos = search(x);
+			if (pos >= 0) return x;
+			pos = -pos - 1;
+			return pos < cardinality ? a[pos] : -1;
+		}
+
+		@Override
+		int previous(final int x) {
+			int pos = search(x);
+			if (pos >= 0) return x;
+			pos = -pos - 2;
+			return pos >= 0 ? a[pos] : -1;
+		}
+
+		@Override
+		int rank(final int x) {
+			final int pos = search(x);
+			return pos >= 0 ? pos : -pos - 1;
+		}
+
+		@Override
+		int select(final int rank) {
+			return a[rank];
+		}
+
+		@Override
+		void setBits(final long[] words) {
+			for(int i = 0; i < cardinality; i++) words[a[i] >>> 6] |= 1L << a[i];
+		}
+
+		@Override
+		int runs() {
+			int runs = 0;
+			for(int i = 0; i < cardinality; i++) if (i == 0 || a[i] != a[i - 1] + 1) runs++;
+			return runs;
+		}
+
+		@Override
+		void forEach(final int high, final java.util.function.IntConsumer action) {
+			for(int i = 0; i < cardinality; i++) action.accept(high | a[i]);
+		}
+
+		@Override
+		void store(final DataOutput out) throws IOException {
+			out.writeByte(ARRAY);
+			out.writeShort(cardinality - 1);
+			for(int i = 0; i < cardinality; i++) out.writeShort(a[i]);
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(a, cardinality), cardinality);
+		}
+
+		private void trim() {
+			if (a.length > cardinality) a = Arrays.copyOf(a, cardinality);
+		}
+
+		/** Returns a container with the elements that are ({@code keep}) or are not (! {@code keep}) contained in another container. */
+		private Container filter(final Container c, final boolean keep) {
+			final char[] b = new char[cardinality];
+			int n = 0;
+			for(int i = 0; i < cardinality; i++) if (c.contains(a[i]) == keep) b[n++] = a[i];
+			return n == 0 ? null : new ArrayContainer(b, n);
+		}
+
+		/** Merges this container with another one, computing either union or symmetric difference. */
+		private Container merge(final ArrayContainer c, final boolean xor) {
+			final char[] a = this.a, b = c.a, r = new char[cardinality + c.cardinality];
+			int i = 0, j = 0, n = 0;
+			while(i < cardinality && j < c.cardinality) {
+				if (a[i] < b[j]) r[n++] = a[i++];
+				else if (a[i] > b[j]) r[n++] = b[j++];
+				else {
+					if (! xor) r[n++] = a[i];
+					i++;
+					j++;
+				}
+			}
+			while(i < cardinality) r[n++] = a[i++];
+			while(j < c.cardinality) r[n++] = b[j++];
+			return n == 0 ? null : new ArrayContainer(r, n);
+		}
+	}
+
+	/** A container storing its elements in a bitmap; it always contains more than {@link #MAX_ARRAY_SIZE} elements. */
+	private static final class BitmapContainer extends Container {
+		private final long[] words;
+		private int cardinality;
+
+		private BitmapContainer(final long[] words, final int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(final int x) {
+			return (words[x >>> 6] & 1L << x) != 0;
+		}
+
+		@Override
+		Container add(final int x) {
+			final long w = words[x >>> 6];
+			if ((w & 1L << x) != 0) return this;
+			words[x >>> 6] = w | 1L << x;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(final int x) {
+			final long w = words[x >>> 6];
+			if ((w & 1L << x) == 0) return this;
+			words[x >>> 6] = w & ~(1L << x);
+			if (--cardinality <= MAX_ARRAY_SIZE) return fromBitmap(words);
+			return this;
+		}
+
+		@Override
+		int next(final int x) {
+			int i = x >>> 6;
+			long w = words[i] & -1L << x;
+			while(w == 0) {
+				if (++i == BITMAP_LENGTH) return -1;
+				w = words[i];
+			}
+			return i << 6 | Long.numberOfTrailingZeros(w);
+		}
+
+		@Override
+		int previous(final int x) {
+			int i = x >>> 6;
+			long w = words[i] & -1L >>> 63 - (x & 63);
+			while(w == 0) {
+				if (--i < 0) return -1;
+				w = words[i];
+			}
+			return i << 6 | 63 - Long.numberOfLeadingZeros(w);
+		}
+
+		@Override
+		int rank(final int x) {
+			int r = 0;
+			for(int i = x >>> 6; i-- != 0;) r += Long.bitCount(words[i]);
+			return r + Long.bitCount(words[x >>> 6] & (1L << x) - 1);
+		}
+
+		@Override
+		int select(int rank) {
+			for(int i = 0;; i++) {
+				long w = words[i];
+				final int c = Long.bitCount(w);
+				if (rank < c) {
+					while(rank-- != 0) w &= w - 1;
+					return i << 6 | Long.numberOfTrailingZeros(w);
+				}
+				rank -= c;
+			}
+		}
+
+		@Override
+		void setBits(final long[] words) {
+			for(int i = 0; i < BITMAP_LENGTH; i++) words[i] |= this.words[i];
+		}
+
+		@Override
+		int runs() {
+			int runs = 0;
+			long carry = 0;
+			for(int i = 0; i < BITMAP_LENGTH; i++) {
+				final long w = words[i];
+				runs += Long.bitCount(w & ~(w << 1 | carry));
+				carry = w >>> 63;
+			}
+			return runs;
+		}
+
+		@Override
+		void forEach(final int high, final java.util.function.IntConsumer action) {
+			for(int i = 0; i < BITMAP_LENGTH; i++) for(long w = words[i]; w != 0; w &= w - 1) action.accept(high | i << 6 | Long.numberOfTrailingZeros(w));
+		}
+
+		@Override
+		void store(final DataOutput out) throws IOException {
+			out.writeByte(BITMAP);
+			for(int i = 0; i < BITMAP_LENGTH; i++) out.writeLong(words[i]);
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		long[] bitmap() {
+			return words.clone();
+		}
+
+		@Override
+		long[] bitmapView() {
+			return words;
+		}
+	}
+
+	/** A container storing its elements as a sorted sequence of runs. Each run is represented by its
+	 * first element followed by its length minus one. */
+	private static final class RunContainer extends Container {
+		private final char[] r;
+		private final int runs;
+		private final int cardinality;
+
+		private RunContainer(final char[] r, final int runs, final int cardinality) {
+			this.r = r;
+			this.runs = runs;
+			this.cardinality = cardinality;
+		}
+
+		/** Returns a run container with the elements of a bitmap, given its number of runs and of elements. */
+		private static RunContainer fromBitmap(final long[] words, final int runs, final int cardinality) {
+			final char[] r = new char[2 * runs];
+			for(int i = 0, start = next(words, 0, true); start != -1; i += 2) {
+				final int end = next(words, start, false);
+				r[i] = (char)start;
+				r[i + 1] = (char)((end == -1 ? 1 << 16 : end) - start - 1);
+				start = end == -1 ? -1 : next(words, end, true);
+			}
+			return new RunContainer(r, runs, cardinality);
+		}
+
+		/** Returns the first position greater than or equal to {@code x} whose bit is {@code value}, or -1. */
+		private static int next(final long[] words, final int x, final boolean value) {
+			int i = x >>> 6;
+			long w = (value ? words[i] : ~words[i]) & -1L << x;
+			while(w == 0) {
+				if (++i == BITMAP_LENGTH) return -1;
+				w = value ? words[i] : ~words[i];
+			}
+			return i << 6 | Long.numberOfTrailingZeros(w);
+		}
+
+		private int start(final int i) {
+			return r[2 * i];
+		}
+
+		private int end(final int i) {
+			return r[2 * i] + r[2 * i + 1];
+		}
+
+		/** Returns the index of the last run starting at or before {@code x}, or -1. */
+		private int find(final int x) {
+			int lo = 0, hi = runs - 1;
+			while(lo <= hi) {
+				final int mid = lo + hi >>> 1;
+				if (start(mid) <= x) lo = mid + 1;
+				else hi = mid - 1;
+			}
+			return hi;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(final int x) {
+			final int i = find(x);
+			return i >= 0 && x <= end(i);
+		}
+
+		@Override
+		Container add(final int x) {
+			if (contains(x)) return this;
+			return RoaringIntSet.fromBitmap(bitmap()).add(x);
+		}
+
+		@Override
+		Container remove(final int x) {
+			if (! contains(x)) return this;
+			final Container c = RoaringIntSet.fromBitmap(bitmap());
+			return c.remove(x);
+		}
+
+		@Override
+		int next(final int x) {
+			final int i = find(x);
+			if (i >= 0 && x <= end(i)) return x;
+			return i + 1 < runs ? start(i + 1) : -1;
+		}
+
+		@Override
+		int previous(final int x) {
+			final int i = find(x);
+			return i < 0 ? -1 : Math.min(x, end(i));
+		}
+
+		@Override
+		int rank(final int x) {
+			int rank = 0;
+			for(int i = 0; i < runs && start(i) < x; i++) rank += Math.min(end(i) + 1, x) - start(i);
+			return rank;
+		}
+
+		@Override
+		int select(int rank) {
+			for(int i = 0;; i++) {
+				final int length = r[2 * i + 1] + 1;
+				if (rank < length) return start(i) + rank;
+				rank -= length;
+			}
+		}
+
+		@Override
+		void setBits(final long[] words) {
+			for(int i = 0; i < runs; i++) setRange(words, start(i), end(i) + 1);
+		}
+
+		@Override
+		int runs() {
+			return runs;
+		}
+
+		@Override
+		void forEach(final int high, final java.util.function.IntConsumer action) {
+			for(int i = 0; i < runs; i++) for(int x = start(i), end = end(i); x <= end; x++) action.accept(high | x);
+		}
+
+		@Override
+		void store(final DataOutput out) throws IOException {
+			out.writeByte(RUN);
+			out.writeShort(runs);
+			for(int i = 0; i < 2 * runs; i++) out.writeShort(r[i]);
+		}
+
+		@Override
+		Container copy() {
+			return this;
+		}
+	}
+}
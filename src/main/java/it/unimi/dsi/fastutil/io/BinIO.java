@@ -176,6 +176,8 @@ public class BinIO {
 	*/
 // HORRIBLE kluges to work around bug #6478546
 private static final int MAX_IO_LENGTH = 1024 * 1024;
+/** The size in bytes of the buffers used by the bulk {@code write}/{@code read} methods. */
+private static final int BULK_BUFFER_SIZE = 64 * 1024;
 private static int read(final InputStream is, final byte a[], final int offset, final int length) throws IOException {
 	if (length == 0) return 0;
 	int read = 0, result;
@@ -354,6 +356,39 @@ public static void storeBytes(final byte array[][], final long offset, final lon
 public static void storeBytes(final byte array[][], final OutputStream outputStream) throws IOException {
 	write(outputStream, array, 0, ByteBigArrays.length(array));
 }
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeBytes(byte[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readBytes(DataInput,byte[],int,int)
+	*/
+public static void writeBytes(final byte array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.bytes.ByteArrays.ensureOffsetLength(array, offset, length);
+	write(dataOutput, array, offset, length);
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeBytes(byte[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadBytes(DataInput,byte[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeBytes(byte[],int,int,DataOutput)
+	*/
+public static void readBytes(final DataInput dataInput, final byte[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.bytes.ByteArrays.ensureOffsetLength(array, offset, length);
+	dataInput.readFully(array, offset, length);
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -837,6 +872,53 @@ public static ByteIterable asByteIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeInts(int[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readInts(DataInput,int[],int,int)
+	*/
+public static void writeInts(final int array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.ints.IntArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Integer.BYTES) * Integer.BYTES];
+	final java.nio.IntBuffer view = java.nio.ByteBuffer.wrap(buffer).asIntBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Integer.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeInts(int[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadInts(DataInput,int[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeInts(int[],int,int,DataOutput)
+	*/
+public static void readInts(final DataInput dataInput, final int[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.ints.IntArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Integer.BYTES) * Integer.BYTES];
+	final java.nio.IntBuffer view = java.nio.ByteBuffer.wrap(buffer).asIntBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Integer.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -1379,6 +1461,53 @@ public static IntIterable asIntIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeLongs(long[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readLongs(DataInput,long[],int,int)
+	*/
+public static void writeLongs(final long array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.longs.LongArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Long.BYTES) * Long.BYTES];
+	final java.nio.LongBuffer view = java.nio.ByteBuffer.wrap(buffer).asLongBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Long.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeLongs(long[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadLongs(DataInput,long[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeLongs(long[],int,int,DataOutput)
+	*/
+public static void readLongs(final DataInput dataInput, final long[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.longs.LongArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Long.BYTES) * Long.BYTES];
+	final java.nio.LongBuffer view = java.nio.ByteBuffer.wrap(buffer).asLongBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Long.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -1921,6 +2050,53 @@ public static LongIterable asLongIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeDoubles(double[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readDoubles(DataInput,double[],int,int)
+	*/
+public static void writeDoubles(final double array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.doubles.DoubleArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Double.BYTES) * Double.BYTES];
+	final java.nio.DoubleBuffer view = java.nio.ByteBuffer.wrap(buffer).asDoubleBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Double.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeDoubles(double[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadDoubles(DataInput,double[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeDoubles(double[],int,int,DataOutput)
+	*/
+public static void readDoubles(final DataInput dataInput, final double[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.doubles.DoubleArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Double.BYTES) * Double.BYTES];
+	final java.nio.DoubleBuffer view = java.nio.ByteBuffer.wrap(buffer).asDoubleBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Double.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -2463,6 +2639,49 @@ public static DoubleIterable asDoubleIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeBooleans(boolean[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readBooleans(DataInput,boolean[],int,int)
+	*/
+public static void writeBooleans(final boolean array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.booleans.BooleanArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE)];
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, buffer.length);
+	 for(int j = 0; j < l; j++) buffer[j] = array[offset + i + j] ? (byte)1 : (byte)0;
+	 dataOutput.write(buffer, 0, l);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeBooleans(boolean[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadBooleans(DataInput,boolean[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeBooleans(boolean[],int,int,DataOutput)
+	*/
+public static void readBooleans(final DataInput dataInput, final boolean[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.booleans.BooleanArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE)];
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, buffer.length);
+	 dataInput.readFully(buffer, 0, l);
+	 for(int j = 0; j < l; j++) array[offset + i + j] = buffer[j] != 0;
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -3005,6 +3224,53 @@ public static BooleanIterable asBooleanIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeShorts(short[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readShorts(DataInput,short[],int,int)
+	*/
+public static void writeShorts(final short array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.shorts.ShortArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Short.BYTES) * Short.BYTES];
+	final java.nio.ShortBuffer view = java.nio.ByteBuffer.wrap(buffer).asShortBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Short.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeShorts(short[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadShorts(DataInput,short[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeShorts(short[],int,int,DataOutput)
+	*/
+public static void readShorts(final DataInput dataInput, final short[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.shorts.ShortArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Short.BYTES) * Short.BYTES];
+	final java.nio.ShortBuffer view = java.nio.ByteBuffer.wrap(buffer).asShortBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Short.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -3547,6 +3813,53 @@ public static ShortIterable asShortIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeChars(char[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readChars(DataInput,char[],int,int)
+	*/
+public static void writeChars(final char array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.chars.CharArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Character.BYTES) * Character.BYTES];
+	final java.nio.CharBuffer view = java.nio.ByteBuffer.wrap(buffer).asCharBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Character.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeChars(char[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadChars(DataInput,char[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeChars(char[],int,int,DataOutput)
+	*/
+public static void readChars(final DataInput dataInput, final char[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.chars.CharArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Character.BYTES) * Character.BYTES];
+	final java.nio.CharBuffer view = java.nio.ByteBuffer.wrap(buffer).asCharBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Character.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -4089,6 +4402,53 @@ public static CharIterable asCharIterable(final CharSequence filename) {
 	* See the License for the specific language governing permissions and
 	* limitations under the License.
 	*/
+/** Writes an array fragment to a given data output in large blocks.
+	*
+	* <p>The elements are written in the same format used by {@link #storeFloats(float[],int,int,DataOutput)}, but
+	* they are first copied into a byte buffer that is then passed to {@link DataOutput#write(byte[],int,int)}, avoiding
+	* a call per element.
+	*
+	* @param array an array whose elements will be written to {@code dataOutput}.
+	* @param offset the index of the first element of {@code array} to be written.
+	* @param length the number of elements of {@code array} to be written.
+	* @param dataOutput a data output.
+	* @see #readFloats(DataInput,float[],int,int)
+	*/
+public static void writeFloats(final float array[], final int offset, final int length, final DataOutput dataOutput) throws IOException {
+	it.unimi.dsi.fastutil.floats.FloatArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Float.BYTES) * Float.BYTES];
+	final java.nio.FloatBuffer view = java.nio.ByteBuffer.wrap(buffer).asFloatBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 view.clear();
+	 view.put(array, offset + i, l);
+	 dataOutput.write(buffer, 0, l * Float.BYTES);
+	}
+}
+/** Reads exactly the given number of elements from a given data input, storing them in a given array fragment.
+	*
+	* <p>This method reads data in the format used by {@link #writeFloats(float[],int,int,DataOutput)}, filling a byte
+	* buffer with {@link DataInput#readFully(byte[],int,int)} and decoding it in a single pass. Differently from
+	* {@link #loadFloats(DataInput,float[],int,int)}, the end of the data input is not acceptable.
+	*
+	* @param dataInput a data input.
+	* @param array an array which will be filled with data from {@code dataInput}.
+	* @param offset the index of the first element of {@code array} to be filled.
+	* @param length the number of elements of {@code array} to be filled.
+	* @throws EOFException if {@code dataInput} ends before {@code length} elements have been read.
+	* @see #writeFloats(float[],int,int,DataOutput)
+	*/
+public static void readFloats(final DataInput dataInput, final float[] array, final int offset, final int length) throws IOException {
+	it.unimi.dsi.fastutil.floats.FloatArrays.ensureOffsetLength(array, offset, length);
+	final byte[] buffer = new byte[Math.min(length, BULK_BUFFER_SIZE / Float.BYTES) * Float.BYTES];
+	final java.nio.FloatBuffer view = java.nio.ByteBuffer.wrap(buffer).asFloatBuffer();
+	for(int i = 0, l; i < length; i += l) {
+	 l = Math.min(length - i, view.capacity());
+	 dataInput.readFully(buffer, 0, l * Float.BYTES);
+	 view.clear();
+	 view.get(array, offset + i, l);
+	}
+}
 /** Loads elements from a given data input, storing them in a given array fragment.
 	*
 	* @param dataInput a data input.
@@ -0,0 +1,75 @@
+package it.unimi.dsi.fastutil.io;
+
+/*
+ * Copyright (C) 2005-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** A strategy to write objects to a {@link DataOutput} and read them back from a {@link DataInput}.
+ *
+ * <p>Codecs are used by the compact binary format of hash maps (see, e.g.,
+ * {@link it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap#store(DataOutput, ObjectCodec, boolean)}) to
+ * serialise the reference side of a map without going through an {@link java.io.ObjectOutputStream}.
+ * A codec must be able to handle {@code null} if the objects it will be applied to may be {@code null}.
+ *
+ * @param <T> the type of the objects handled by this codec.
+ */
+
+public interface ObjectCodec<T> {
+
+	/** Writes an object to a data output.
+	 *
+	 * @param dataOutput a data output.
+	 * @param o the object to be written.
+	 */
+	void write(DataOutput dataOutput, T o) throws IOException;
+
+	/** Reads an object written by {@link #write(DataOutput, Object)} from a data input.
+	 *
+	 * @param dataInput a data input.
+	 * @return the object read from {@code dataInput}.
+	 */
+	T read(DataInput dataInput) throws IOException;
+
+	/** A codec for strings (possibly {@code null}) that writes the length of the UTF-8 representation followed by its bytes.
+	 *
+	 * <p>Differently from {@link DataOutput#writeUTF(String)}, there is no limit on the length of the strings. */
+	ObjectCodec<String> STRING = new ObjectCodec<String>() {
+		@Override
+		public void write(final DataOutput dataOutput, final String s) throws IOException {
+			if (s == null) {
+				dataOutput.writeInt(-1);
+				return;
+			}
+			final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+			dataOutput.writeInt(b.length);
+			dataOutput.write(b);
+		}
+
+		@Override
+		public String read(final DataInput dataInput) throws IOException {
+			final int length = dataInput.readInt();
+			if (length < 0) return null;
+			final byte[] b = new byte[length];
+			dataInput.readFully(b);
+			return new String(b, StandardCharsets.UTF_8);
+		}
+	};
+}
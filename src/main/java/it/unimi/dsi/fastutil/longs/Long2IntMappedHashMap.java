@@ -0,0 +1,281 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.Size64;
+import it.unimi.dsi.fastutil.ints.IntBigArrays;
+
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.SEGMENT_MASK;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.SEGMENT_SHIFT;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.getLong;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.map;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.putLong;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.readHeader;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.tableSize;
+import static it.unimi.dsi.fastutil.longs.Long2LongMappedHashMap.writeHeader;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/** A read-only long-to-int hash map backed by a memory-mapped file.
+ *
+ * <p>Files are written by {@link #store(long[][], int[][], float, File)}, which lays out the entries in an open-addressing
+ * table with linear probing on {@link HashCommon#mix(long)}&mdash;the same layout used in memory by {@link Long2ObjectOpenHashMap}.
+ * Instances of this class map such a file using {@link FileChannel#map(FileChannel.MapMode, long, long)}: nothing is read at
+ * opening time, the table lives outside of the heap, and all processes opening the same file share the pages
+ * of the operating-system cache. Tables larger than 2<sup>31</sup> bytes are mapped in segments of 2<sup>30</sup> bytes.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes containing a magic number (which also
+ * determines the byte order of the rest of the file), the table size <var>n</var> (a power of two),
+ * the number of entries, whether the key zero is present and its associated value. The header
+ * is followed by <var>n</var> keys (longs) and then by <var>n</var> values (integers), using zero to denote an empty slot.
+ *
+ * <p>Instances of this class are thread safe. Note that the mapping stays valid until the
+ * instance is garbage collected, even after {@link #close()}.
+ *
+ * @see Long2LongMappedHashMap
+ */
+
+public class Long2IntMappedHashMap implements Size64, Closeable {
+	/** The magic number at the start of the file, stored in the byte order of the file. */
+	private static final long MAGIC = 0x464C32494D415031L;
+	/** The size in bytes of the file header. */
+	public static final int HEADER_SIZE = Long2LongMappedHashMap.HEADER_SIZE;
+
+	/** The channel of the mapped file. */
+	private final FileChannel channel;
+	/** The segments containing the keys. */
+	private final ByteBuffer[] key;
+	/** The segments containing the values. */
+	private final ByteBuffer[] value;
+	/** The mask for wrapping a position counter. */
+	private final long mask;
+	/** Number of entries in the map (including the key zero, if present). */
+	private final long size;
+	/** Whether this map contains the key zero. */
+	private final boolean containsNullKey;
+	/** The value associated with the key zero, if present. */
+	private final int nullValue;
+	/** The value returned for missing keys. */
+	protected int defRetValue;
+
+	/** Opens a file written by {@link #store(long[][], int[][], float, File)}.
+	 *
+	 * @param file a file.
+	 */
+	public Long2IntMappedHashMap(final File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			final ByteBuffer header = readHeader(channel, MAGIC);
+			final long n = header.getLong(8);
+			if (n < 2 || (n & (n - 1)) != 0) throw new IOException("Illegal table size: " + n);
+			if (channel.size() < HEADER_SIZE + n * (Long.BYTES + Integer.BYTES)) throw new EOFException("File too short for a table of size " + n);
+			mask = n - 1;
+			size = header.getLong(16);
+			containsNullKey = header.getLong(24) != 0;
+			nullValue = (int)header.getLong(32);
+			key = map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, n * Long.BYTES, header.order());
+			value = map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE + n * Long.BYTES, n * Integer.BYTES, header.order());
+		}
+		catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/** Opens a file written by {@link #store(long[][], int[][], float, File)}.
+	 *
+	 * @param filename a filename.
+	 */
+	public Long2IntMappedHashMap(final CharSequence filename) throws IOException {
+		this(new File(filename.toString()));
+	}
+
+	/** Writes a map given by two parallel big arrays to a file, so that it can be opened by {@link #Long2IntMappedHashMap(File)}.
+	 *
+	 * <p>The table is built directly in the mapped file, so the amount of heap used by this method does not depend on the
+	 * size of the table. If a key appears more than once, the last associated value is used. The file is written in native
+	 * byte order.
+	 *
+	 * @param keys a big array of keys.
+	 * @param values a big array of values, parallel to {@code keys}.
+	 * @param f the load factor of the table.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 */
+	public static void store(final long[][] keys, final int[][] values, final float f, final File file) throws IOException {
+		final long length = LongBigArrays.length(keys);
+		if (IntBigArrays.length(values) != length) throw new IllegalArgumentException("The key array and the value array have different lengths (" + length + " and " + IntBigArrays.length(values) + ")");
+		final long n = tableSize(length, f), mask = n - 1;
+		final ByteOrder order = ByteOrder.nativeOrder();
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			raf.setLength(HEADER_SIZE + n * (Long.BYTES + Integer.BYTES));
+			final FileChannel channel = raf.getChannel();
+			final ByteBuffer[] key = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE, n * Long.BYTES, order);
+			final ByteBuffer[] value = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE + n * Long.BYTES, n * Integer.BYTES, order);
+			boolean containsNullKey = false;
+			int nullValue = 0;
+			long size = 0;
+			for(long i = 0; i < length; i++) {
+				final long k = LongBigArrays.get(keys, i);
+				final int v = IntBigArrays.get(values, i);
+				if (k == 0) {
+					if (! containsNullKey) size++;
+					containsNullKey = true;
+					nullValue = v;
+					continue;
+				}
+				long pos = HashCommon.mix(k) & mask, curr;
+				while((curr = getLong(key, pos)) != 0 && curr != k) pos = (pos + 1) & mask;
+				if (curr == 0) {
+					putLong(key, pos, k);
+					size++;
+				}
+				putInt(value, pos, v);
+			}
+			writeHeader(channel, MAGIC, order, n, size, containsNullKey, nullValue);
+		}
+	}
+
+	/** Writes a map given by two parallel arrays to a file, so that it can be opened by {@link #Long2IntMappedHashMap(File)}.
+	 *
+	 * @param keys an array of keys.
+	 * @param values an array of values, parallel to {@code keys}.
+	 * @param f the load factor of the table.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 * @see #store(long[][], int[][], float, File)
+	 */
+	public static void store(final long[] keys, final int[] values, final float f, final File file) throws IOException {
+		store(LongBigArrays.wrap(keys), IntBigArrays.wrap(values), f, file);
+	}
+
+	/** Writes a map given by two parallel arrays to a file using {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 *
+	 * @param keys an array of keys.
+	 * @param values an array of values, parallel to {@code keys}.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 * @see #store(long[][], int[][], float, File)
+	 */
+	public static void store(final long[] keys, final int[] values, final File file) throws IOException {
+		store(keys, values, Hash.DEFAULT_LOAD_FACTOR, file);
+	}
+
+	/** Returns the value to which the given key is mapped.
+	 *
+	 * @param k the key.
+	 * @return the corresponding value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 */
+	public int get(final long k) {
+		if (k == 0) return containsNullKey ? nullValue : defRetValue;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return getInt(value, pos);
+			pos = (pos + 1) & mask;
+		}
+		return defRetValue;
+	}
+
+	/** Returns the value to which the given key is mapped, or a default value if the key is not present.
+	 *
+	 * @param k the key.
+	 * @param defaultValue the value to return if {@code k} is not present.
+	 * @return the corresponding value, or {@code defaultValue}.
+	 */
+	public int getOrDefault(final long k, final int defaultValue) {
+		if (k == 0) return containsNullKey ? nullValue : defaultValue;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return getInt(value, pos);
+			pos = (pos + 1) & mask;
+		}
+		return defaultValue;
+	}
+
+	/** Returns whether the given key is present.
+	 *
+	 * @param k the key.
+	 * @return true if {@code k} is a key of this map.
+	 */
+	public boolean containsKey(final long k) {
+		if (k == 0) return containsNullKey;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return true;
+			pos = (pos + 1) & mask;
+		}
+		return false;
+	}
+
+	/** Sets the value returned by {@link #get(long)} for missing keys.
+	 *
+	 * @param rv the new default return value.
+	 */
+	public void defaultReturnValue(final int rv) {
+		defRetValue = rv;
+	}
+
+	/** Returns the value returned by {@link #get(long)} for missing keys.
+	 *
+	 * @return the current default return value.
+	 */
+	public int defaultReturnValue() {
+		return defRetValue;
+	}
+
+	private static int getInt(final ByteBuffer[] segment, final long index) {
+		final long b = index << 2;
+		return segment[(int)(b >>> SEGMENT_SHIFT)].getInt((int)(b & SEGMENT_MASK));
+	}
+
+	private static void putInt(final ByteBuffer[] segment, final long index, final int v) {
+		final long b = index << 2;
+		segment[(int)(b >>> SEGMENT_SHIFT)].putInt((int)(b & SEGMENT_MASK), v);
+	}
+
+	@Override
+	public long size64() {
+		return size;
+	}
+
+	/** Returns true if this map contains no entries.
+	 *
+	 * @return true if this map contains no entries.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
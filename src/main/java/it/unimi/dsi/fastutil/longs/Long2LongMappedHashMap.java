@@ -0,0 +1,338 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.Size64;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/** A read-only long-to-long hash map backed by a memory-mapped file.
+ *
+ * <p>Files are written by {@link #store(long[][], long[][], float, File)}, which lays out the entries in an open-addressing
+ * table with linear probing on {@link HashCommon#mix(long)}&mdash;the same layout used in memory by {@link Long2ObjectOpenHashMap}.
+ * Instances of this class map such a file using {@link FileChannel#map(FileChannel.MapMode, long, long)}: nothing is read at
+ * opening time, the table lives outside of the heap, and all processes opening the same file share the pages
+ * of the operating-system cache. Tables larger than 2<sup>31</sup> bytes are mapped in segments of 2<sup>30</sup> bytes.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes containing a magic number (which also
+ * determines the byte order of the rest of the file), the table size <var>n</var> (a power of two),
+ * the number of entries, whether the key zero is present and its associated value. The header
+ * is followed by <var>n</var> keys and then by <var>n</var> values, using zero to denote an empty slot.
+ *
+ * <p>Instances of this class are thread safe. Note that the mapping stays valid until the
+ * instance is garbage collected, even after {@link #close()}.
+ *
+ * @see Long2IntMappedHashMap
+ */
+
+public class Long2LongMappedHashMap implements Size64, Closeable {
+	/** The magic number at the start of the file, stored in the byte order of the file. */
+	private static final long MAGIC = 0x464C324C4D415031L;
+	/** The size in bytes of the file header. */
+	public static final int HEADER_SIZE = 64;
+	/** The binary logarithm of the size in bytes of a mapped segment. */
+	static final int SEGMENT_SHIFT = 30;
+	/** The size in bytes of a mapped segment. */
+	private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+	/** The mask used to compute the displacement in a segment. */
+	static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+	/** The channel of the mapped file. */
+	private final FileChannel channel;
+	/** The segments containing the keys. */
+	private final ByteBuffer[] key;
+	/** The segments containing the values. */
+	private final ByteBuffer[] value;
+	/** The mask for wrapping a position counter. */
+	private final long mask;
+	/** Number of entries in the map (including the key zero, if present). */
+	private final long size;
+	/** Whether this map contains the key zero. */
+	private final boolean containsNullKey;
+	/** The value associated with the key zero, if present. */
+	private final long nullValue;
+	/** The value returned for missing keys. */
+	protected long defRetValue;
+
+	/** Opens a file written by {@link #store(long[][], long[][], float, File)}.
+	 *
+	 * @param file a file.
+	 */
+	public Long2LongMappedHashMap(final File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			final ByteBuffer header = readHeader(channel, MAGIC);
+			final long n = header.getLong(8);
+			if (n < 2 || (n & (n - 1)) != 0) throw new IOException("Illegal table size: " + n);
+			if (channel.size() < HEADER_SIZE + n * (Long.BYTES + Long.BYTES)) throw new EOFException("File too short for a table of size " + n);
+			mask = n - 1;
+			size = header.getLong(16);
+			containsNullKey = header.getLong(24) != 0;
+			nullValue = header.getLong(32);
+			key = map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, n * Long.BYTES, header.order());
+			value = map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE + n * Long.BYTES, n * Long.BYTES, header.order());
+		}
+		catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/** Opens a file written by {@link #store(long[][], long[][], float, File)}.
+	 *
+	 * @param filename a filename.
+	 */
+	public Long2LongMappedHashMap(final CharSequence filename) throws IOException {
+		this(new File(filename.toString()));
+	}
+
+	/** Reads and checks the header of a file, setting the byte order of the returned buffer to that of the file.
+	 *
+	 * @param channel a channel positioned anywhere.
+	 * @param magic the expected magic number.
+	 * @return a buffer containing the header.
+	 */
+	static ByteBuffer readHeader(final FileChannel channel, final long magic) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while(header.hasRemaining()) if (channel.read(header, header.position()) < 0) throw new EOFException("File too short for a header");
+		final long m = header.getLong(0);
+		if (m == Long.reverseBytes(magic)) header.order(ByteOrder.LITTLE_ENDIAN);
+		else if (m != magic) throw new IOException("Wrong magic number: " + Long.toHexString(m));
+		return header;
+	}
+
+	/** Maps a region of a file in segments of {@link #SEGMENT_SIZE} bytes.
+	 *
+	 * @param channel a file channel.
+	 * @param mode the mapping mode.
+	 * @param offset the starting position of the region.
+	 * @param length the length in bytes of the region.
+	 * @param order the byte order of the region.
+	 * @return the segments mapping the region.
+	 */
+	static ByteBuffer[] map(final FileChannel channel, final FileChannel.MapMode mode, final long offset, final long length, final ByteOrder order) throws IOException {
+		final ByteBuffer[] segment = new ByteBuffer[(int)((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+		for(int i = 0; i < segment.length; i++) {
+			final long start = (long)i << SEGMENT_SHIFT;
+			segment[i] = channel.map(mode, offset + start, Math.min(SEGMENT_SIZE, length - start)).order(order);
+		}
+		return segment;
+	}
+
+	static long getLong(final ByteBuffer[] segment, final long index) {
+		final long b = index << 3;
+		return segment[(int)(b >>> SEGMENT_SHIFT)].getLong((int)(b & SEGMENT_MASK));
+	}
+
+	static void putLong(final ByteBuffer[] segment, final long index, final long v) {
+		final long b = index << 3;
+		segment[(int)(b >>> SEGMENT_SHIFT)].putLong((int)(b & SEGMENT_MASK), v);
+	}
+
+	/** Writes a header in the given byte order.
+	 *
+	 * @param channel a file channel.
+	 * @param magic the magic number.
+	 * @param order the byte order of the file.
+	 * @param n the table size.
+	 * @param size the number of entries.
+	 * @param containsNullKey whether the key zero is present.
+	 * @param nullValue the value associated with the key zero.
+	 */
+	static void writeHeader(final FileChannel channel, final long magic, final ByteOrder order, final long n, final long size, final boolean containsNullKey, final long nullValue) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(order);
+		header.putLong(magic).putLong(n).putLong(size).putLong(containsNullKey ? 1 : 0).putLong(nullValue);
+		header.clear();
+		while(header.hasRemaining()) channel.write(header, header.position());
+	}
+
+	/** Returns the table size for a given number of entries and load factor, making sure that there is always a free slot.
+	 *
+	 * @param length the number of entries.
+	 * @param f the load factor.
+	 * @return the table size.
+	 */
+	static long tableSize(final long length, final float f) {
+		if (f <= 0 || f > 1) throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than or equal to 1");
+		final long n = Math.max(2, HashCommon.bigArraySize(length, f));
+		return length < n ? n : 2 * n;
+	}
+
+	/** Writes a map given by two parallel big arrays to a file, so that it can be opened by {@link #Long2LongMappedHashMap(File)}.
+	 *
+	 * <p>The table is built directly in the mapped file, so the amount of heap used by this method does not depend on the
+	 * size of the table. If a key appears more than once, the last associated value is used. The file is written in native
+	 * byte order.
+	 *
+	 * @param keys a big array of keys.
+	 * @param values a big array of values, parallel to {@code keys}.
+	 * @param f the load factor of the table.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 */
+	public static void store(final long[][] keys, final long[][] values, final float f, final File file) throws IOException {
+		final long length = LongBigArrays.length(keys);
+		if (LongBigArrays.length(values) != length) throw new IllegalArgumentException("The key array and the value array have different lengths (" + length + " and " + LongBigArrays.length(values) + ")");
+		final long n = tableSize(length, f), mask = n - 1;
+		final ByteOrder order = ByteOrder.nativeOrder();
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			raf.setLength(HEADER_SIZE + n * (Long.BYTES + Long.BYTES));
+			final FileChannel channel = raf.getChannel();
+			final ByteBuffer[] key = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE, n * Long.BYTES, order);
+			final ByteBuffer[] value = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE + n * Long.BYTES, n * Long.BYTES, order);
+			boolean containsNullKey = false;
+			long nullValue = 0, size = 0;
+			for(long i = 0; i < length; i++) {
+				final long k = LongBigArrays.get(keys, i);
+				final long v = LongBigArrays.get(values, i);
+				if (k == 0) {
+					if (! containsNullKey) size++;
+					containsNullKey = true;
+					nullValue = v;
+					continue;
+				}
+				long pos = HashCommon.mix(k) & mask, curr;
+				while((curr = getLong(key, pos)) != 0 && curr != k) pos = (pos + 1) & mask;
+				if (curr == 0) {
+					putLong(key, pos, k);
+					size++;
+				}
+				putLong(value, pos, v);
+			}
+			writeHeader(channel, MAGIC, order, n, size, containsNullKey, nullValue);
+		}
+	}
+
+	/** Writes a map given by two parallel arrays to a file, so that it can be opened by {@link #Long2LongMappedHashMap(File)}.
+	 *
+	 * @param keys an array of keys.
+	 * @param values an array of values, parallel to {@code keys}.
+	 * @param f the load factor of the table.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 * @see #store(long[][], long[][], float, File)
+	 */
+	public static void store(final long[] keys, final long[] values, final float f, final File file) throws IOException {
+		store(LongBigArrays.wrap(keys), LongBigArrays.wrap(values), f, file);
+	}
+
+	/** Writes a map given by two parallel arrays to a file using {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 *
+	 * @param keys an array of keys.
+	 * @param values an array of values, parallel to {@code keys}.
+	 * @param file a file.
+	 * @throws IllegalArgumentException if {@code keys} and {@code values} have different lengths.
+	 * @see #store(long[][], long[][], float, File)
+	 */
+	public static void store(final long[] keys, final long[] values, final File file) throws IOException {
+		store(keys, values, Hash.DEFAULT_LOAD_FACTOR, file);
+	}
+
+	/** Returns the value to which the given key is mapped.
+	 *
+	 * @param k the key.
+	 * @return the corresponding value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 */
+	public long get(final long k) {
+		if (k == 0) return containsNullKey ? nullValue : defRetValue;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return getLong(value, pos);
+			pos = (pos + 1) & mask;
+		}
+		return defRetValue;
+	}
+
+	/** Returns the value to which the given key is mapped, or a default value if the key is not present.
+	 *
+	 * @param k the key.
+	 * @param defaultValue the value to return if {@code k} is not present.
+	 * @return the corresponding value, or {@code defaultValue}.
+	 */
+	public long getOrDefault(final long k, final long defaultValue) {
+		if (k == 0) return containsNullKey ? nullValue : defaultValue;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return getLong(value, pos);
+			pos = (pos + 1) & mask;
+		}
+		return defaultValue;
+	}
+
+	/** Returns whether the given key is present.
+	 *
+	 * @param k the key.
+	 * @return true if {@code k} is a key of this map.
+	 */
+	public boolean containsKey(final long k) {
+		if (k == 0) return containsNullKey;
+		final ByteBuffer[] key = this.key;
+		long pos = HashCommon.mix(k) & mask, curr;
+		while((curr = getLong(key, pos)) != 0) {
+			if (curr == k) return true;
+			pos = (pos + 1) & mask;
+		}
+		return false;
+	}
+
+	/** Sets the value returned by {@link #get(long)} for missing keys.
+	 *
+	 * @param rv the new default return value.
+	 */
+	public void defaultReturnValue(final long rv) {
+		defRetValue = rv;
+	}
+
+	/** Returns the value returned by {@link #get(long)} for missing keys.
+	 *
+	 * @return the current default return value.
+	 */
+	public long defaultReturnValue() {
+		return defRetValue;
+	}
+
+	@Override
+	public long size64() {
+		return size;
+	}
+
+	/** Returns true if this map contains no entries.
+	 *
+	 * @return true if this map contains no entries.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -427,4 +427,92 @@ public final class Long2ObjectMaps {
 	 * @see java.util.Collections#unmodifiableMap(Map)
 	 */
 	public static <V> Long2ObjectMap <V> unmodifiable(final Long2ObjectMap <V> m) { return new UnmodifiableMap <>(m); }
+	/** A wrapper class for maps placing a {@linkplain LongMembershipFilter membership filter} in front of a map. */
+	public static class FilteredMap <V> extends AbstractLong2ObjectMap <V> implements java.io.Serializable {
+	 private static final long serialVersionUID = 0L;
+	 protected final Long2ObjectMap <V> map;
+	 protected final LongMembershipFilter filter;
+	 /** Whether the filter could not record some key, in which case it is bypassed. */
+	 protected boolean saturated;
+	 protected FilteredMap(final Long2ObjectMap <V> m, final LongMembershipFilter filter) {
+	  if (m == null || filter == null) throw new NullPointerException();
+	  this.map = m;
+	  this.filter = filter;
+	  filter.clear();
+	  for(final LongIterator i = m.keySet().iterator(); i.hasNext();) record(i.nextLong());
+	 }
+	 private void record(final long k) {
+	  if (! filter.add(k)) saturated = true;
+	 }
+	 private boolean mightContain(final long k) {
+	  return saturated || filter.mightContain(k);
+	 }
+	 @Override
+	 public int size() { return map.size(); }
+	 @Override
+	 public boolean isEmpty() { return map.isEmpty(); }
+	 @Override
+	 public V defaultReturnValue() { return map.defaultReturnValue(); }
+	 @Override
+	 public void defaultReturnValue(final V defRetValue) { map.defaultReturnValue(defRetValue); }
+	 @Override
+	 public boolean containsKey(final long k) { return mightContain(k) && map.containsKey(k); }
+	 @Override
+	 public boolean containsValue(final Object v) { return map.containsValue(v); }
+	 @Override
+	 public V get(final long k) { return mightContain(k) ? map.get(k) : map.defaultReturnValue(); }
+	 @Override
+	 public V getOrDefault(final long k, final V defaultValue) { return mightContain(k) ? map.getOrDefault(k, defaultValue) : defaultValue; }
+	 @Override
+	 public V put(final long k, final V v) {
+	  final boolean present = mightContain(k) && map.containsKey(k);
+	  final V oldValue = map.put(k, v);
+	  if (! present) record(k);
+	  return oldValue;
+	 }
+	 @Override
+	 public V remove(final long k) {
+	  if (! mightContain(k) || ! map.containsKey(k)) return map.defaultReturnValue();
+	  final V oldValue = map.remove(k);
+	  filter.remove(k);
+	  return oldValue;
+	 }
+	 @Override
+	 public void clear() {
+	  map.clear();
+	  filter.clear();
+	  saturated = false;
+	 }
+	 @Override
+	 public ObjectSet<Long2ObjectMap.Entry <V> > long2ObjectEntrySet() { return map.long2ObjectEntrySet(); }
+	 @Override
+	 public LongSet keySet() { return map.keySet(); }
+	 @Override
+	 public ObjectCollection <V> values() { return map.values(); }
+	 @Override
+	 public int hashCode() { return map.hashCode(); }
+	 @Override
+	 public boolean equals(final Object o) {
+	  if (o == this) return true;
+	  return map.equals(o);
+	 }
+	 @Override
+	 public String toString() { return map.toString(); }
+	}
+	/** Returns a map backed by the given map that uses a membership filter to answer quickly queries about missing keys.
+	 *
+	 * <p>The filter is cleared, and then the keys of the map are added to it. Afterwards, all keys inserted
+	 * through the returned map are added to the filter, and lookups of keys rejected by the filter do not
+	 * access the map at all: if the map is much larger than the cache, a miss costs
+	 * a single cache-line access (for a {@link LongBloomFilter}) or two (for a {@link LongCuckooFilter}) instead of a
+	 * cache miss for each probe. Keys removed through the returned map are removed from the filter, if it supports removal.
+	 *
+	 * <p>The backing map must not be modified directly, except for removals (which simply make the filter less effective).
+	 * If the filter becomes full, it is bypassed until the map is cleared.
+	 *
+	 * @param m the map to be wrapped.
+	 * @param filter a filter that will record the keys of the map.
+	 * @return a view of the specified map that filters lookups of missing keys.
+	 */
+	public static <V> Long2ObjectMap <V> filtered(final Long2ObjectMap <V> m, final LongMembershipFilter filter) { return new FilteredMap <>(m, filter); }
 }
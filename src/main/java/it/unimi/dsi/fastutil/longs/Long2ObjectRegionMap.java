@@ -0,0 +1,446 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/** A map from packed two-dimensional integer coordinates to objects, supporting fast range queries.
+ *
+ * <p>Keys are pairs of integer coordinates (<var>x</var>, <var>z</var>) packed into a long by {@link #key(int, int)},
+ * with <var>x</var> in the lower 32 bits and <var>z</var> in the upper 32 bits, as it is customary for chunk coordinates.
+ * Coordinates are grouped into square <em>regions</em> of {@value #REGION_SIZE}&times;{@value #REGION_SIZE} cells, which are
+ * stored in a {@link Long2ObjectOpenHashMap} keyed by region coordinates; each region contains an occupancy bitmap
+ * and an array of values indexed by cell. Thus, {@link #get(long)} and {@link #put(long, Object)} cost a hash-table lookup (which
+ * is skipped altogether when consecutive accesses fall in the same region) and an array access.
+ *
+ * <p>Differently from a hash map, in which the hash function destroys locality, entries that are close in space
+ * are stored together, so {@linkplain #forEachInRectangle(int, int, int, int, Long2ObjectConsumer) rectangle} and
+ * {@linkplain #forEachInRadius(int, int, int, Long2ObjectConsumer) radius} queries enumerate the occupancy bitmaps of
+ * the regions intersecting the query area, rather than probing each coordinate. Moreover, all entries of a region can be
+ * {@linkplain #removeRegion(int, int) removed} in constant time.
+ *
+ * <p>Each region occupies about 5&nbsp;KiB (with compressed pointers), so this map is convenient when entries are
+ * clustered; empty regions are discarded. {@code null} values are allowed.
+ */
+
+public class Long2ObjectRegionMap <V> extends AbstractLong2ObjectMap <V> implements java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The base-2 logarithm of the side of a region. */
+	public static final int REGION_SHIFT = 5;
+	/** The side of a region; each row of a region fills half a long of its occupancy bitmap. */
+	public static final int REGION_SIZE = 1 << REGION_SHIFT;
+	/** A mask extracting the coordinate of a cell within its region. */
+	private static final int REGION_MASK = REGION_SIZE - 1;
+
+	/** A region of {@link #REGION_SIZE}&times;{@link #REGION_SIZE} cells. */
+	protected static final class Region implements java.io.Serializable {
+		private static final long serialVersionUID = 0L;
+		/** The coordinates of this region, packed by {@link Long2ObjectRegionMap#key(int, int)}. */
+		final long key;
+		/** The occupancy bitmap; cell (<var>x</var>, <var>z</var>) is bit <var>z</var>&nbsp;{@link #REGION_SIZE}&nbsp;+&nbsp;<var>x</var>. */
+		final long[] occupancy = new long[REGION_SIZE * REGION_SIZE / Long.SIZE];
+		/** The values, indexed as the occupancy bitmap. */
+		final Object[] value = new Object[REGION_SIZE * REGION_SIZE];
+		/** The number of entries of this region. */
+		int size;
+
+		Region(final long key) {
+			this.key = key;
+		}
+
+		boolean contains(final int cell) {
+			return (occupancy[cell >>> 6] & 1L << cell) != 0;
+		}
+
+		/** Returns the first occupied cell greater than or equal to a given one, or -1. */
+		int nextCell(final int from) {
+			if (from >= REGION_SIZE * REGION_SIZE) return -1;
+			int w = from >>> 6;
+			long bits = occupancy[w] & -1L << from;
+			while(bits == 0) {
+				if (++w == occupancy.length) return -1;
+				bits = occupancy[w];
+			}
+			return w << 6 | Long.numberOfTrailingZeros(bits);
+		}
+	}
+
+	/** The regions, keyed by region coordinates. */
+	protected final Long2ObjectOpenHashMap <Region> regions;
+	/** The number of entries of this map. */
+	protected int size;
+	/** The last region accessed, or {@code null}; consecutive accesses to the same region do not need a lookup. */
+	protected transient Region last;
+
+	/** Creates a new region map.
+	 *
+	 * @param expectedRegions the expected number of nonempty regions.
+	 */
+	public Long2ObjectRegionMap(final int expectedRegions) {
+		regions = new Long2ObjectOpenHashMap <>(expectedRegions);
+	}
+
+	/** Creates a new region map. */
+	public Long2ObjectRegionMap() {
+		regions = new Long2ObjectOpenHashMap <>();
+	}
+
+	/** Packs two coordinates into a key.
+	 *
+	 * @param x the first coordinate.
+	 * @param z the second coordinate.
+	 * @return a key with {@code x} in the lower 32 bits and {@code z} in the upper 32 bits.
+	 */
+	public static long key(final int x, final int z) {
+		return x & 0xFFFFFFFFL | (long)z << 32;
+	}
+
+	/** Returns the first coordinate of a key.
+	 *
+	 * @param key a key.
+	 * @return the first coordinate packed in {@code key}.
+	 */
+	public static int x(final long key) {
+		return (int)key;
+	}
+
+	/** Returns the second coordinate of a key.
+	 *
+	 * @param key a key.
+	 * @return the second coordinate packed in {@code key}.
+	 */
+	public static int z(final long key) {
+		return (int)(key >>> 32);
+	}
+
+	/** Returns the key of the region containing a given key.
+	 *
+	 * @param key a key.
+	 * @return the coordinates of the region containing {@code key}, packed by {@link #key(int, int)}.
+	 */
+	public static long regionKey(final long key) {
+		return key(x(key) >> REGION_SHIFT, z(key) >> REGION_SHIFT);
+	}
+
+	/** Returns the index of the cell of a key within its region. */
+	private static int cell(final long key) {
+		return (z(key) & REGION_MASK) << REGION_SHIFT | x(key) & REGION_MASK;
+	}
+
+	/** Returns the region with given coordinates, or {@code null}. */
+	private Region region(final long regionKey) {
+		final Region last = this.last;
+		if (last != null && last.key == regionKey) return last;
+		final Region region = regions.get(regionKey);
+		if (region != null) this.last = region;
+		return region;
+	}
+
+	/** Discards a region. */
+	private void discard(final Region region) {
+		regions.remove(region.key);
+		if (last == region) last = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(final long k) {
+		final Region region = region(regionKey(k));
+		if (region == null) return defRetValue;
+		final int cell = cell(k);
+		return region.contains(cell) ? (V)region.value[cell] : defRetValue;
+	}
+
+	@Override
+	public boolean containsKey(final long k) {
+		final Region region = region(regionKey(k));
+		return region != null && region.contains(cell(k));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V put(final long k, final V v) {
+		final long regionKey = regionKey(k);
+		Region region = region(regionKey);
+		if (region == null) {
+			regions.put(regionKey, region = new Region(regionKey));
+			last = region;
+		}
+		final int cell = cell(k);
+		final V oldValue;
+		if (region.contains(cell)) oldValue = (V)region.value[cell];
+		else {
+			region.occupancy[cell >>> 6] |= 1L << cell;
+			region.size++;
+			size++;
+			oldValue = defRetValue;
+		}
+		region.value[cell] = v;
+		return oldValue;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V remove(final long k) {
+		final Region region = region(regionKey(k));
+		if (region == null) return defRetValue;
+		final int cell = cell(k);
+		if (! region.contains(cell)) return defRetValue;
+		final V oldValue = (V)region.value[cell];
+		region.occupancy[cell >>> 6] &= ~(1L << cell);
+		region.value[cell] = null;
+		size--;
+		if (--region.size == 0) discard(region);
+		return oldValue;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		regions.clear();
+		last = null;
+		size = 0;
+	}
+
+	/** Returns the number of entries in a region.
+	 *
+	 * @param regionX the first coordinate of the region (i.e., the first coordinate of its keys shifted right by {@value #REGION_SHIFT}).
+	 * @param regionZ the second coordinate of the region.
+	 * @return the number of entries in the region.
+	 */
+	public int regionSize(final int regionX, final int regionZ) {
+		final Region region = region(key(regionX, regionZ));
+		return region == null ? 0 : region.size;
+	}
+
+	/** Removes all entries of a region.
+	 *
+	 * <p>This method runs in constant time.
+	 *
+	 * @param regionX the first coordinate of the region (i.e., the first coordinate of its keys shifted right by {@value #REGION_SHIFT}).
+	 * @param regionZ the second coordinate of the region.
+	 * @return the number of removed entries.
+	 */
+	public int removeRegion(final int regionX, final int regionZ) {
+		final Region region = region(key(regionX, regionZ));
+		if (region == null) return 0;
+		discard(region);
+		size -= region.size;
+		return region.size;
+	}
+
+	/** Returns the number of nonempty regions.
+	 *
+	 * @return the number of nonempty regions.
+	 */
+	public int regions() {
+		return regions.size();
+	}
+
+	/** Enumerates the regions intersecting a rectangle of region coordinates, choosing the cheapest strategy. */
+	private void forEachRegion(final int minRegionX, final int minRegionZ, final int maxRegionX, final int maxRegionZ, final Consumer<Region> action) {
+		// If the rectangle contains more regions than the map, it is faster to scan the map
+		if (((long)maxRegionX - minRegionX + 1) * ((long)maxRegionZ - minRegionZ + 1) > regions.size()) {
+			for(final Region region : regions.values()) {
+				final int rx = x(region.key), rz = z(region.key);
+				if (rx >= minRegionX && rx <= maxRegionX && rz >= minRegionZ && rz <= maxRegionZ) action.accept(region);
+			}
+		}
+		else {
+			for(int rz = minRegionZ; ; rz++) {
+				for(int rx = minRegionX; ; rx++) {
+					final Region region = regions.get(key(rx, rz));
+					if (region != null) action.accept(region);
+					if (rx == maxRegionX) break;
+				}
+				if (rz == maxRegionZ) break;
+			}
+		}
+	}
+
+	/** Enumerates the entries of a row of a region whose first coordinate (within the region) is between two bounds (inclusive). */
+	@SuppressWarnings("unchecked")
+	private void forEachInRow(final Region region, final int row, final int from, final int to, final Long2ObjectConsumer <? super V> action) {
+		final long mask = (-1L >>> 63 - (to - from)) << from;
+		long bits = region.occupancy[row >>> 1] >>> (row & 1) * REGION_SIZE & mask;
+		if (bits == 0) return;
+		final int bx = x(region.key) << REGION_SHIFT, bz = z(region.key) << REGION_SHIFT;
+		do {
+			final int x = Long.numberOfTrailingZeros(bits);
+			bits &= bits - 1;
+			action.accept(key(bx + x, bz + row), (V)region.value[row << REGION_SHIFT | x]);
+		} while(bits != 0);
+	}
+
+	/** Performs the given action for each entry whose coordinates lie in a given rectangle.
+	 *
+	 * <p>Only the regions intersecting the rectangle are examined, and within each region
+	 * the occupancy bitmap is scanned one row at a time.
+	 *
+	 * @param minX the minimum first coordinate (inclusive).
+	 * @param minZ the minimum second coordinate (inclusive).
+	 * @param maxX the maximum first coordinate (inclusive).
+	 * @param maxZ the maximum second coordinate (inclusive).
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEachInRectangle(final int minX, final int minZ, final int maxX, final int maxZ, final Long2ObjectConsumer <? super V> action) {
+		Objects.requireNonNull(action);
+		if (minX > maxX || minZ > maxZ || size == 0) return;
+		forEachRegion(minX >> REGION_SHIFT, minZ >> REGION_SHIFT, maxX >> REGION_SHIFT, maxZ >> REGION_SHIFT, region -> {
+			final int bx = x(region.key) << REGION_SHIFT, bz = z(region.key) << REGION_SHIFT;
+			final int from = Math.max(minX, bx) - bx, to = Math.min(maxX, bx + REGION_MASK) - bx;
+			final int lastRow = Math.min(maxZ, bz + REGION_MASK) - bz;
+			for(int row = Math.max(minZ, bz) - bz; row <= lastRow; row++) forEachInRow(region, row, from, to, action);
+		});
+	}
+
+	/** Performs the given action for each entry whose coordinates lie within a given Euclidean distance from a center.
+	 *
+	 * <p>Use {@link #forEachInRectangle(int, int, int, int, Long2ObjectConsumer)} for a square neighbourhood.
+	 *
+	 * @param x the first coordinate of the center.
+	 * @param z the second coordinate of the center.
+	 * @param radius the maximum distance from the center (inclusive).
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEachInRadius(final int x, final int z, final int radius, final Long2ObjectConsumer <? super V> action) {
+		Objects.requireNonNull(action);
+		if (radius < 0) throw new IllegalArgumentException("The radius must be nonnegative: " + radius);
+		if (size == 0) return;
+		final int minX = (int)Math.max(Integer.MIN_VALUE, (long)x - radius), maxX = (int)Math.min(Integer.MAX_VALUE, (long)x + radius);
+		final int minZ = (int)Math.max(Integer.MIN_VALUE, (long)z - radius), maxZ = (int)Math.min(Integer.MAX_VALUE, (long)z + radius);
+		final long r2 = (long)radius * radius;
+		forEachRegion(minX >> REGION_SHIFT, minZ >> REGION_SHIFT, maxX >> REGION_SHIFT, maxZ >> REGION_SHIFT, region -> {
+			final int bx = x(region.key) << REGION_SHIFT, bz = z(region.key) << REGION_SHIFT;
+			final int lastRow = Math.min(maxZ, bz + REGION_MASK) - bz;
+			for(int row = Math.max(minZ, bz) - bz; row <= lastRow; row++) {
+				// The half-width of the disk at this row
+				final long dz = (long)bz + row - z, rem = r2 - dz * dz;
+				long w = (long)Math.sqrt(rem);
+				while(w * w > rem) w--;
+				while((w + 1) * (w + 1) <= rem) w++;
+				final long from = Math.max(x - w, bx) - bx, to = Math.min(x + w, (long)bx + REGION_MASK) - bx;
+				if (from <= to) forEachInRow(region, row, (int)from, (int)to, action);
+			}
+		});
+	}
+
+	/** Performs the given action for each entry of this map.
+	 *
+	 * <p>Entries are enumerated region by region, with no boxing and without allocating entries.
+	 *
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEach(final Long2ObjectConsumer <? super V> action) {
+		Objects.requireNonNull(action);
+		for(final Region region : regions.values()) for(int row = 0; row < REGION_SIZE; row++) forEachInRow(region, row, 0, REGION_MASK, action);
+	}
+
+	/** An entry of the map; setting its value is equivalent to a {@link #put(long, Object)}. */
+	private final class MapEntry extends AbstractLong2ObjectMap.BasicEntry <V> {
+		MapEntry(final long key, final V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(final V v) {
+			final V oldValue = put(key, v);
+			value = v;
+			return oldValue;
+		}
+	}
+
+	/** An iterator over the entries of the map, region by region. */
+	private final class EntryIterator implements ObjectIterator<Long2ObjectMap.Entry <V> > {
+		/** The iterator over the regions. */
+		private final ObjectIterator<Region> regionIterator = regions.values().iterator();
+		/** The region of the last returned entry, or of the next one. */
+		private Region region;
+		/** The next cell to return in {@link #region}, or -1 if it has not been computed yet. */
+		private int next = -1;
+		/** The cell of {@link #region} from which the search for the next cell starts. */
+		private int from;
+		/** The cell of the last returned entry, or -1. */
+		private int lastCell = -1;
+		/** The region of the last returned entry. */
+		private Region lastRegion;
+
+		@Override
+		public boolean hasNext() {
+			if (next >= 0) return true;
+			// Advancing lazily lets remove() discard the current region through the region iterator
+			if (region != null && (next = region.nextCell(from)) >= 0) return true;
+			while(regionIterator.hasNext()) {
+				region = regionIterator.next();
+				if ((next = region.nextCell(0)) >= 0) return true;
+			}
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Long2ObjectMap.Entry <V> next() {
+			if (! hasNext()) throw new NoSuchElementException();
+			lastRegion = region;
+			lastCell = next;
+			from = next + 1;
+			next = -1;
+			final int bx = x(region.key) << REGION_SHIFT, bz = z(region.key) << REGION_SHIFT;
+			return new MapEntry(key(bx + (lastCell & REGION_MASK), bz + (lastCell >>> REGION_SHIFT)), (V)region.value[lastCell]);
+		}
+
+		@Override
+		public void remove() {
+			if (lastCell == -1) throw new IllegalStateException();
+			lastRegion.occupancy[lastCell >>> 6] &= ~(1L << lastCell);
+			lastRegion.value[lastCell] = null;
+			size--;
+			// An empty region can be discarded only if it is the last one returned by the region iterator (i.e., if
+			// hasNext() has not moved to the next region); otherwise, it is left in place, as all methods handle empty regions.
+			if (--lastRegion.size == 0 && lastRegion == region) {
+				regionIterator.remove();
+				if (last == region) last = null;
+				region = null;
+			}
+			lastCell = -1;
+		}
+	}
+
+	@Override
+	public ObjectSet<Long2ObjectMap.Entry <V> > long2ObjectEntrySet() {
+		return new AbstractLong2ObjectMap.BasicEntrySet <V>(this) {
+			@Override
+			public ObjectIterator<Long2ObjectMap.Entry <V> > iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public void clear() {
+				Long2ObjectRegionMap.this.clear();
+			}
+		};
+	}
+}
@@ -31,14 +31,8 @@ package it.unimi.dsi.fastutil.longs;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.ints.IntArrays;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
 	*
 	* <p>In particular, the {@code forceCapacity()}, {@code ensureCapacity()}, {@code grow()},
@@ -54,7 +48,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	* Some algorithms also provide an explicit <em>indirect</em> sorting facility, which makes it possible
 	* to sort an array using the values in another array as comparator.
 	*
@@ -500,8 +494,7 @@ public final class LongArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -511,9 +504,7 @@ public final class LongArrays {
 	public static void parallelQuickSort(final long[] x, final int from, final int to, final LongComparator comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp (x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -523,8 +514,7 @@ public final class LongArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -705,8 +695,7 @@ public final class LongArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -715,9 +704,7 @@ public final class LongArrays {
 	public static void parallelQuickSort(final long[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort (x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort (x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -726,8 +713,7 @@ public final class LongArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -914,8 +900,7 @@ public final class LongArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -925,9 +910,7 @@ public final class LongArrays {
 	public static void parallelQuickSortIndirect(final int[] perm, final long[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect (perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -940,8 +923,7 @@ public final class LongArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1187,8 +1169,7 @@ public final class LongArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1197,9 +1178,7 @@ public final class LongArrays {
 	 */
 	public static void parallelQuickSort(final long[] x, final long[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 (x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 (x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1213,8 +1192,7 @@ public final class LongArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1342,6 +1320,804 @@ public final class LongArrays {
 	public static void mergeSort(final long a[], LongComparator comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	private static int bound(final long[] a, int from, int to, final long x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? ((a[mid]) <= (x)) : ! ((x) <= (a[mid]))) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static int bound(final long[] a, int from, int to, final long x, final boolean strict, final LongComparator comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final long[] src, final int from1, final int to1, final int from2, final int to2, final long[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && ((src[p]) <= (src[q]))) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final LongComparator comp;
+	 public ForkJoinMergeComp(final long[] src, final int from1, final int to1, final int from2, final int to2, final long[] dest, final int to, final LongComparator comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final long[] a, supp;
+	 public ForkJoinMergeSort(final long[] a, final int from, final int to, final long[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort(supp, from, mid, a), new ForkJoinMergeSort(supp, mid, to, a));
+	  if (((supp[mid - 1]) <= (supp[mid]))) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final long[] a, supp;
+	 private final LongComparator comp;
+	 public ForkJoinMergeSortComp(final long[] a, final int from, final int to, final LongComparator comp, final long[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp(supp, from, mid, comp, a), new ForkJoinMergeSortComp(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final long a[], final int from, final int to, final long supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(long[], int, int, long[])
+	 */
+	public static void parallelMergeSort(final long a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(long[], int, int, long[])
+	 */
+	public static void parallelMergeSort(final long a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static void parallelMergeSort(final long a[], final int from, final int to, final LongComparator comp, final long supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(long[], int, int, LongComparator, long[])
+	 */
+	public static void parallelMergeSort(final long a[], final int from, final int to, final LongComparator comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(long[], int, int, LongComparator, long[])
+	 */
+	public static void parallelMergeSort(final long a[], final LongComparator comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
+	private static final int SELECT_NO_REC = 16;
+	private static final int PARALLEL_SELECT_NO_FORK = 8192;
+	private static void ensureIndex(final int from, final int to, final int k) {
+	 if (k < from || k >= to) throw new IllegalArgumentException("Index (" + k + ") is not in the range [" + from + ".." + to + ")");
+	}
+	private static void ensureCount(final int from, final int to, final int k) {
+	 if (k < 0 || k > to - from) throw new IllegalArgumentException("Number of elements (" + k + ") is not in [0.." + (to - from) + "]");
+	}
+	/** Moves the medians of consecutive groups of five elements to the start of a range, and returns their median. */
+	private static long medianOfMedians(final long[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static long select(final long[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final long v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s);
+	    m = med3(x, m - s, m, m + s);
+	    n = med3(x, n - 2 * s, n - s, n);
+	   }
+	   v = x[med3(x, l, m, n)];
+	  }
+	  else v = medianOfMedians(x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Long.compare((x[i]),(v));
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSort(x, from, to);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #select(long[], int, int, int)
+	 */
+	public static long select(final long[] x, final int k) {
+	 return select(x, 0, x.length, k);
+	}
+	private static long medianOfMedians(final long[] x, final int from, final int to, final LongComparator comp) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSort(x, i, e, comp);
+	  swap(x, m++, i + (e - i >>> 1));
+	 }
+	 return select(x, from, m, from + (m - from >>> 1), comp);
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the elements of the range preceding {@code x[k]} are smaller than or equal to it,
+	 * and the elements following it are greater than or equal to it.
+	 *
+	 * <p>The selection algorithm is an introselect: a quickselect with three-way partitioning around a pseudomedian,
+	 * which switches to median-of-medians pivots after a logarithmic number of rounds, so that it
+	 * runs in linear time also in the worst case. It does not allocate any object.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 */
+	public static long select(final long[] x, int from, int to, final int k, final LongComparator comp) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final long v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3(x, l, l + s, l + 2 * s, comp);
+	    m = med3(x, m - s, m, m + s, comp);
+	    n = med3(x, n - 2 * s, n - s, n, comp);
+	   }
+	   v = x[med3(x, l, m, n, comp)];
+	  }
+	  else v = medianOfMedians(x, from, to, comp);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = comp.compare(x[i], v);
+	   if (comparison < 0) swap(x, lt++, i++);
+	   else if (comparison > 0) swap(x, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return x[k];
+	 }
+	 insertionSort(x, from, to, comp);
+	 return x[k];
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @param comp the comparator to determine the order.
+	 * @return the element of index {@code k}.
+	 * @see #select(long[], int, int, int, LongComparator)
+	 */
+	public static long select(final long[] x, final int k, final LongComparator comp) {
+	 return select(x, 0, x.length, k, comp);
+	}
+	private static long medianOfMediansIndirect(final int[] perm, final long[] x, final int from, final int to) {
+	 int m = from;
+	 for(int i = from; i < to; i += 5) {
+	  final int e = Math.min(i + 5, to);
+	  insertionSortIndirect(perm, x, i, e);
+	  IntArrays.swap(perm, m++, i + (e - i >>> 1));
+	 }
+	 return selectIndirect(perm, x, from, m, from + (m - from >>> 1));
+	}
+	/** Rearranges the specified range of a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if the range were indirectly sorted according to the natural ascending order.
+	 *
+	 * <p>This method implement an <em>indirect</em> selection. After this call, the elements of the range preceding
+	 * {@code perm[k]} index elements of {@code x} smaller than or equal to {@code x[perm[k]]}, and the elements following it
+	 * index elements greater than or equal to {@code x[perm[k]]}.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of {@code perm} to select; it must belong to the range.
+	 * @return {@code x[perm[k]]}.
+	 * @see #select(long[], int, int, int)
+	 */
+	public static long selectIndirect(final int[] perm, final long[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from > SELECT_NO_REC) {
+	  final long v;
+	  if (rounds-- > 0) {
+	   final int len = to - from;
+	   int l = from, m = from + len / 2, n = to - 1;
+	   if (len > QUICKSORT_MEDIAN_OF_9) { // Big arrays, pseudomedian of 9
+	    final int s = len / 8;
+	    l = med3Indirect(perm, x, l, l + s, l + 2 * s);
+	    m = med3Indirect(perm, x, m - s, m, m + s);
+	    n = med3Indirect(perm, x, n - 2 * s, n - s, n);
+	   }
+	   v = x[perm[med3Indirect(perm, x, l, m, n)]];
+	  }
+	  else v = medianOfMediansIndirect(perm, x, from, to);
+	  // Establish invariant: (<v)* v* (>v)*
+	  int lt = from, i = from, gt = to;
+	  while(i < gt) {
+	   final int comparison = Long.compare((x[perm[i]]),(v));
+	   if (comparison < 0) IntArrays.swap(perm, lt++, i++);
+	   else if (comparison > 0) IntArrays.swap(perm, i, --gt);
+	   else i++;
+	  }
+	  if (k < lt) to = lt;
+	  else if (k >= gt) from = gt;
+	  else return v;
+	 }
+	 insertionSortIndirect(perm, x, from, to);
+	 return x[perm[k]];
+	}
+	/** Rearranges a permutation so that the element of given index indexes the element of
+	 * {@code x} that would be in that position if {@code x} were sorted according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the index of {@code perm} to select.
+	 * @return {@code x[perm[k]]}.
+	 * @see #selectIndirect(int[], long[], int, int, int)
+	 */
+	public static long selectIndirect(final int[] perm, final long[] x, final int k) {
+	 return selectIndirect(perm, x, 0, perm.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(long[], int, int, int) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void partialSort(final long[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to);
+	 else {
+	  select(x, from, to, from + k - 1);
+	  quickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(long[], int, int, int)
+	 */
+	public static void partialSort(final long[] x, final int k) {
+	 partialSort(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. The elements are
+	 * {@linkplain #select(long[], int, int, int, LongComparator) selected} in linear time, so this method runs in time
+	 * O(<var>n</var> + <var>k</var> log <var>k</var>).
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 */
+	public static void partialSort(final long[] x, final int from, final int to, final int k, final LongComparator comp) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSort(x, from, to, comp);
+	 else {
+	  select(x, from, to, from + k - 1, comp);
+	  quickSort(x, from, from + k - 1, comp);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @param comp the comparator to determine the order.
+	 * @see #partialSort(long[], int, int, int, LongComparator)
+	 */
+	public static void partialSort(final long[] x, final int k, final LongComparator comp) {
+	 partialSort(x, 0, x.length, k, comp);
+	}
+	/** Sorts indirectly the smallest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range of {@code perm} index the {@code k} smallest elements
+	 * of {@code x} they range over, in ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 * @see #partialSort(long[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final long[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) quickSortIndirect(perm, x, from, to);
+	 else {
+	  selectIndirect(perm, x, from, to, from + k - 1);
+	  quickSortIndirect(perm, x, from, from + k - 1);
+	 }
+	}
+	/** Sorts indirectly the smallest elements of an array according to the natural ascending order.
+	 *
+	 * @param perm a permutation array indexing {@code x}.
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #partialSortIndirect(int[], long[], int, int, int)
+	 */
+	public static void partialSortIndirect(final int[] perm, final long[] x, final int k) {
+	 partialSortIndirect(perm, x, 0, perm.length, k);
+	}
+	private static void downHeap(final long[] heap, final int size, int i) {
+	 final long e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  long t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && ( (heap[right]) < (t) )) t = heap[child = right];
+	  if (! ( (t) < (e) )) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the natural ascending order.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static long[] topK(final long[] x, final int from, final int to, final int k) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 // A heap containing the greatest elements seen so far, with the smallest one on top
+	 final long[] heap = new long[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i);
+	 for(int i = from + k; i < to; i++) {
+	  if (( (heap[0]) < (x[i]) )) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0);
+	  }
+	 }
+	 // Move repeatedly the top to the end of the heap
+	 for(int size = k; size > 1;) {
+	  final long t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the natural ascending order.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(long[], int, int, int)
+	 */
+	public static long[] topK(final long[] x, final int k) {
+	 return topK(x, 0, x.length, k);
+	}
+	private static void downHeap(final long[] heap, final int size, int i, final LongComparator comp) {
+	 final long e = heap[i];
+	 int child;
+	 while((child = (i << 1) + 1) < size) {
+	  long t = heap[child];
+	  final int right = child + 1;
+	  if (right < size && comp.compare(heap[right], t) < 0) t = heap[child = right];
+	  if (comp.compare(t, e) >= 0) break;
+	  heap[i] = t;
+	  i = child;
+	 }
+	 heap[i] = e;
+	}
+	/** Returns the greatest elements of the specified range according to the order induced by the specified comparator.
+	 *
+	 * <p>The array is not modified: elements are scanned once and collected in a heap of size {@code k},
+	 * so this method runs in time O(<var>n</var> log <var>k</var>) and allocates just the result.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of the range, in descending order.
+	 */
+	public static long[] topK(final long[] x, final int from, final int to, final int k, final LongComparator comp) {
+	 ensureFromTo(x, from, to);
+	 ensureCount(from, to, k);
+	 if (k == 0) return EMPTY_ARRAY;
+	 final long[] heap = new long[k];
+	 System.arraycopy(x, from, heap, 0, k);
+	 for(int i = k >>> 1; i-- != 0;) downHeap(heap, k, i, comp);
+	 for(int i = from + k; i < to; i++) {
+	  if (comp.compare(heap[0], x[i]) < 0) {
+	   heap[0] = x[i];
+	   downHeap(heap, k, 0, comp);
+	  }
+	 }
+	 for(int size = k; size > 1;) {
+	  final long t = heap[0];
+	  heap[0] = heap[--size];
+	  heap[size] = t;
+	  downHeap(heap, size, 0, comp);
+	 }
+	 return heap;
+	}
+	/** Returns the greatest elements of an array according to the order induced by the specified comparator.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to return.
+	 * @param comp the comparator to determine the order.
+	 * @return a new array containing the {@code k} greatest elements of {@code x}, in descending order.
+	 * @see #topK(long[], int, int, int, LongComparator)
+	 */
+	public static long[] topK(final long[] x, final int k, final LongComparator comp) {
+	 return topK(x, 0, x.length, k, comp);
+	}
+	/** A task partitioning chunks of an array around a pivot, or scattering the partitioned chunks into a support array. */
+	protected static class ForkJoinSelectPartition extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[] x, support;
+	 private final int from, to, firstChunk, lastChunk;
+	 private final long v;
+	 private final int[] lt, gt, offset;
+	 public ForkJoinSelectPartition(final long[] x, final int from, final int to, final long v, final int firstChunk, final int lastChunk, final int[] lt, final int[] gt, final long[] support, final int[] offset) {
+	  this.x = x;
+	  this.from = from;
+	  this.to = to;
+	  this.v = v;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.lt = lt;
+	  this.gt = gt;
+	  this.support = support;
+	  this.offset = offset;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinSelectPartition(x, from, to, v, firstChunk, mid, lt, gt, support, offset), new ForkJoinSelectPartition(x, from, to, v, mid, lastChunk, lt, gt, support, offset));
+	   return;
+	  }
+	  final long[] x = this.x;
+	  final int c = firstChunk, start = from + c * PARALLEL_SELECT_NO_FORK, end = Math.min(start + PARALLEL_SELECT_NO_FORK, to);
+	  if (offset == null) {
+	   // Partition the chunk in place: (<v)* v* (>v)*
+	   int l = start, i = start, g = end;
+	   while(i < g) {
+	    final int comparison = Long.compare((x[i]),(v));
+	    if (comparison < 0) swap(x, l++, i++);
+	    else if (comparison > 0) swap(x, i, --g);
+	    else i++;
+	   }
+	   lt[c] = l - start;
+	   gt[c] = end - g;
+	  }
+	  else {
+	   System.arraycopy(x, start, support, offset[3 * c], lt[c]);
+	   System.arraycopy(x, start + lt[c], support, offset[3 * c + 1], end - start - lt[c] - gt[c]);
+	   System.arraycopy(x, end - gt[c], support, offset[3 * c + 2], gt[c]);
+	  }
+	 }
+	}
+	/** Rearranges the specified range of elements so that the element of given index is the one that
+	 * would be in that position if the range were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * <p>At each round, chunks of the range are partitioned in parallel around a pseudomedian, and then scattered
+	 * in parallel in a support array as large as the range, so that the range is
+	 * partitioned as a whole; rounds continue on the part containing {@code k} until it is small enough to be
+	 * {@linkplain #select(long[], int, int, int) selected sequentially}. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the index of the element to select; it must belong to the range.
+	 * @return the element of index {@code k}.
+	 */
+	public static long parallelSelect(final long[] x, int from, int to, final int k) {
+	 ensureIndex(from, to, k);
+	 if (to - from < PARALLEL_SELECT_NO_FORK) return select(x, from, to, k);
+	 final long[] support = new long[to - from];
+	 int rounds = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(to - from));
+	 while(to - from >= PARALLEL_SELECT_NO_FORK && rounds-- > 0) {
+	  final int len = to - from, s = len / 8;
+	  int l = from, m = from + len / 2, n = to - 1;
+	  l = med3(x, l, l + s, l + 2 * s);
+	  m = med3(x, m - s, m, m + s);
+	  n = med3(x, n - 2 * s, n - s, n);
+	  final long v = x[med3(x, l, m, n)];
+	  final int chunks = (len + PARALLEL_SELECT_NO_FORK - 1) / PARALLEL_SELECT_NO_FORK;
+	  final int[] lt = new int[chunks], gt = new int[chunks];
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, null, null));
+	  int smaller = 0, greater = 0;
+	  for(int c = 0; c < chunks; c++) {
+	   smaller += lt[c];
+	   greater += gt[c];
+	  }
+	  // Compute the positions in the support array of the three parts of each chunk
+	  final int[] offset = new int[3 * chunks];
+	  for(int c = 0, p = 0, q = smaller, r = len - greater; c < chunks; c++) {
+	   final int size = Math.min(PARALLEL_SELECT_NO_FORK, len - c * PARALLEL_SELECT_NO_FORK);
+	   offset[3 * c] = p;
+	   offset[3 * c + 1] = q;
+	   offset[3 * c + 2] = r;
+	   p += lt[c];
+	   q += size - lt[c] - gt[c];
+	   r += gt[c];
+	  }
+	  Arrays.invoke(new ForkJoinSelectPartition(x, from, to, v, 0, chunks, lt, gt, support, offset));
+	  System.arraycopy(support, 0, x, from, len);
+	  if (k < from + smaller) to = from + smaller;
+	  else if (k >= to - greater) from = to - greater;
+	  else return v;
+	 }
+	 return select(x, from, to, k);
+	}
+	/** Rearranges an array so that the element of given index is the one that
+	 * would be in that position if the array were sorted according to the natural ascending order, using a parallel quickselect.
+	 *
+	 * @param x the array.
+	 * @param k the index of the element to select.
+	 * @return the element of index {@code k}.
+	 * @see #parallelSelect(long[], int, int, int)
+	 */
+	public static long parallelSelect(final long[] x, final int k) {
+	 return parallelSelect(x, 0, x.length, k);
+	}
+	/** Sorts the smallest elements of the specified range according to the natural ascending order using
+	 * a {@linkplain #parallelSelect(long[], int, int, int) parallel quickselect} followed by a parallel quicksort.
+	 *
+	 * <p>After this call, the first {@code k} elements of the range are its {@code k} smallest elements, in ascending
+	 * order, and the order of the remaining elements is unspecified. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param x the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param k the number of elements to sort.
+	 */
+	public static void parallelPartialSort(final long[] x, final int from, final int to, final int k) {
+	 ensureCount(from, to, k);
+	 if (k == 0) return;
+	 if (from + k == to) parallelQuickSort(x, from, to);
+	 else {
+	  parallelSelect(x, from, to, from + k - 1);
+	  parallelQuickSort(x, from, from + k - 1);
+	 }
+	}
+	/** Sorts the smallest elements of an array according to the natural ascending order using
+	 * a parallel quickselect followed by a parallel quicksort.
+	 *
+	 * @param x the array.
+	 * @param k the number of elements to sort.
+	 * @see #parallelPartialSort(long[], int, int, int)
+	 */
+	public static void parallelPartialSort(final long[] x, final int k) {
+	 parallelPartialSort(x, 0, x.length, k);
+	}
 	/**
 	 * Searches a range of the specified array for the specified value using
 	 * the binary search algorithm. The range must be sorted prior to making this call.
@@ -1543,23 +2319,65 @@ public final class LongArrays {
 	  }
 	 }
 	}
-	protected static final class Segment {
-	 protected final int offset, length, level;
-	 protected Segment(final int offset, final int length, final int level) {
-	  this.offset = offset;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final long[] a;
+	 public ForkJoinRadixSort(final long[] a, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.first = first;
 	  this.length = length;
 	  this.level = level;
 	 }
 	 @Override
-	 public String toString() { return "Segment [offset=" + offset + ", length=" + length + ", level=" + level + "]"; }
+	 protected void compute() {
+	  final long[] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(int)((a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   long t = a[i];
+	   c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) {
+	    while((d = --pos[c]) > i) {
+	     final long z = t;
+	     t = a[d];
+	     a[d] = z;
+	     c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[i] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
 	}
-	protected static final Segment POISON_PILL = new Segment(-1, -1, -1);
 	/** Sorts the specified range of an array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -1570,75 +2388,14 @@ public final class LongArrays {
 	  quickSort(a, from, to);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(int)((a[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for(int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   final int end = first + length - count[lastUsed];
-	   // i moves through the start of each block
-	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	    long t = a[i];
-	    c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
-	    if (i < end) {
-	     while((d = --pos[c]) > i) {
-	      final long z = t;
-	      t = a[d];
-	      a[d] = z;
-	      c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
-	     }
-	     a[i] = t;
-	    }
-	    if (level < maxLevel && count[c] > 1) {
-	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, i, i + count[c]);
-	     else {
-	      queueSize.incrementAndGet();
-	      queue.add(new Segment(i, count[c], level + 1));
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
 	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the array to be sorted.
 	 */
@@ -1756,6 +2513,84 @@ public final class LongArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final int[] perm;
+	 private final long[] a;
+	 private final boolean stable;
+	 private final int[] support;
+	 public ForkJoinRadixSortIndirect(final int[] perm, final long[] a, final boolean stable, final int[] support, final int first, final int length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final int[] perm = this.perm;
+	  final long[] a = this.a;
+	  final int[] support = this.support;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(int i = first + length; i-- != first;) count[(int)((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(int i = first + length; i-- != first;) support[--pos[(int)((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
+	   System.arraycopy(support, first, perm, first, length);
+	   for(int i = 0, p = first; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	    p += count[i];
+	   }
+	   java.util.Arrays.fill(count, 0);
+	  }
+	  else {
+	   final int end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	    int t = perm[i];
+	    c = (int)((a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final int z = t;
+	      t = perm[d];
+	      perm[d] = z;
+	      c = (int)((a[t]) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     perm[i] = t;
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
+	     else {
+	      task[tasks] = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	      task[tasks++].fork();
+	     }
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of an array using parallel indirect radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1765,7 +2600,7 @@ public final class LongArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1778,86 +2613,8 @@ public final class LongArrays {
 	  radixSortIndirect(perm, a, from, to, stable);
 	  return;
 	 }
-	 final int maxLevel = DIGITS_PER_ELEMENT - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
 	 final int[] support = stable ? new int[perm.length] : null;
-	 for(int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	  final int[] count = new int[1 << DIGIT_BITS];
-	  final int[] pos = new int[1 << DIGIT_BITS];
-	  for(;;) {
-	   if (queueSize.get() == 0) for(int i = numberOfThreads; i-- != 0;) queue.add(POISON_PILL);
-	   final Segment segment = queue.take();
-	   if (segment == POISON_PILL) return null;
-	   final int first = segment.offset;
-	   final int length = segment.length;
-	   final int level = segment.level;
-	   final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	   final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
-	   // Count keys.
-	   for(int i = first + length; i-- != first;) count[(int)((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	   // Compute cumulative distribution
-	   int lastUsed = -1;
-	   for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	    if (count[i] != 0) lastUsed = i;
-	    pos[i] = (p += count[i]);
-	   }
-	   if (stable) {
-	    for(int i = first + length; i-- != first;) support[--pos[(int)((a[perm[i]]) >>> shift & DIGIT_MASK ^ signMask)]] = perm[i];
-	    System.arraycopy(support, first, perm, first, length);
-	    for(int i = 0, p = first; i <= lastUsed; i++) {
-	     if (level < maxLevel && count[i] > 1) {
-	      if (count[i] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, p, p + count[i], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(p, count[i], level + 1));
-	      }
-	     }
-	     p += count[i];
-	    }
-	    java.util.Arrays.fill(count, 0);
-	   }
-	   else {
-	    final int end = first + length - count[lastUsed];
-	    // i moves through the start of each block
-	    for(int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     int t = perm[i];
-	     c = (int)((a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while((d = --pos[c]) > i) {
-	       final int z = t;
-	       t = perm[d];
-	       perm[d] = z;
-	       c = (int)((a[t]) >>> shift & DIGIT_MASK ^ signMask);
-	      }
-	      perm[i] = t;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) radixSortIndirect(perm, a, i, i + count[c], stable);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	   }
-	   queueSize.decrementAndGet();
-	  }
-	 });
-	 Throwable problem = null;
-	 for(int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch(Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSortIndirect(perm, a, stable, support, from, to - from, 0));
 	}
 	/** Sorts the specified array using parallel indirect radix sort.
 	 *
@@ -1868,7 +2625,7 @@ public final class LongArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code a}.
 	 * @param a the array to be sorted.
@@ -1968,6 +2725,69 @@ public final class LongArrays {
 	  }
 	 }
 	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int first, length, level;
+	 private final long[] a;
+	 private final long[] b;
+	 public ForkJoinRadixSort2(final long[] a, final long[] b, final int first, final int length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[] a = this.a;
+	  final long[] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final int[] count = new int[1 << DIGIT_BITS];
+	  final int[] pos = new int[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final long[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys.
+	  for (int i = first + length; i-- != first;)
+	   count[(int)((k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final int end = first + length - count[lastUsed];
+	  for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
+	   long t = a[i];
+	   long u = b[i];
+	   c = (int)((k[i]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while ((d = --pos[c]) > i) {
+	     c = (int)((k[d]) >>> shift & DIGIT_MASK ^ signMask);
+	     final long z = t;
+	     final long w = u;
+	     t = a[d];
+	     u = b[d];
+	     a[d] = z;
+	     b[d] = w;
+	    }
+	    a[i] = t;
+	    b[i] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
 	/** Sorts the specified range of elements of two arrays using a parallel radix sort.
 	 *
 	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
@@ -1977,7 +2797,7 @@ public final class LongArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -1989,77 +2809,8 @@ public final class LongArrays {
 	  quickSort(a, b, from, to);
 	  return;
 	 }
-	 final int layers = 2;
 	 if (a.length != b.length) throw new IllegalArgumentException("Array size mismatch.");
-	 final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
-	 final LinkedBlockingQueue<Segment> queue = new LinkedBlockingQueue<>();
-	 queue.add(new Segment(from, to - from, 0));
-	 final AtomicInteger queueSize = new AtomicInteger(1);
-	 final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-	 final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, Executors.defaultThreadFactory());
-	 final ExecutorCompletionService<Void> executorCompletionService = new ExecutorCompletionService<>(executorService);
-	 for (int j = numberOfThreads; j-- != 0;) executorCompletionService.submit(() -> {
-	   final int[] count = new int[1 << DIGIT_BITS];
-	   final int[] pos = new int[1 << DIGIT_BITS];
-	   for (;;) {
-	    if (queueSize.get() == 0) for (int i = numberOfThreads; i-- != 0;)
-	     queue.add(POISON_PILL);
-	    final Segment segment = queue.take();
-	    if (segment == POISON_PILL) return null;
-	    final int first = segment.offset;
-	    final int length = segment.length;
-	    final int level = segment.level;
-	    final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
-	    final long[] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
-	    final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
-	    // Count keys.
-	    for (int i = first + length; i-- != first;)
-	     count[(int)((k[i]) >>> shift & DIGIT_MASK ^ signMask)]++;
-	    // Compute cumulative distribution
-	    int lastUsed = -1;
-	    for (int i = 0, p = first; i < 1 << DIGIT_BITS; i++) {
-	     if (count[i] != 0) lastUsed = i;
-	     pos[i] = (p += count[i]);
-	    }
-	    final int end = first + length - count[lastUsed];
-	    for (int i = first, c = -1, d; i <= end; i += count[c], count[c] = 0) {
-	     long t = a[i];
-	     long u = b[i];
-	     c = (int)((k[i]) >>> shift & DIGIT_MASK ^ signMask);
-	     if (i < end) { // When all slots are OK, the last slot is necessarily OK.
-	      while ((d = --pos[c]) > i) {
-	       c = (int)((k[d]) >>> shift & DIGIT_MASK ^ signMask);
-	       final long z = t;
-	       final long w = u;
-	       t = a[d];
-	       u = b[d];
-	       a[d] = z;
-	       b[d] = w;
-	      }
-	      a[i] = t;
-	      b[i] = u;
-	     }
-	     if (level < maxLevel && count[c] > 1) {
-	      if (count[c] < PARALLEL_RADIXSORT_NO_FORK) quickSort(a, b, i, i + count[c]);
-	      else {
-	       queueSize.incrementAndGet();
-	       queue.add(new Segment(i, count[c], level + 1));
-	      }
-	     }
-	    }
-	    queueSize.decrementAndGet();
-	   }
-	  });
-	 Throwable problem = null;
-	 for (int i = numberOfThreads; i-- != 0;)
-	  try {
-	   executorCompletionService.take().get();
-	  }
-	  catch (Exception e) {
-	   problem = e.getCause(); // We keep only the last one. They will be logged anyway.
-	  }
-	 executorService.shutdown();
-	 if (problem != null) throw (problem instanceof RuntimeException) ? (RuntimeException)problem : new RuntimeException(problem);
+	 Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
 	}
 	/** Sorts two arrays using a parallel radix sort.
 	 *
@@ -2070,7 +2821,7 @@ public final class LongArrays {
 	 * in the same position in the two provided arrays will be considered a single key, and permuted
 	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
 	 *
-	 * <p>This implementation uses a pool of {@link Runtime#availableProcessors()} threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param a the first array to be sorted.
 	 * @param b the second array to be sorted.
@@ -2320,6 +3071,393 @@ public final class LongArrays {
 	  }
 	 }
 	}
+	/** The number of elements below which prefix sums, histograms and scatters are not parallelized. */
+	private static final int PARALLEL_SCAN_NO_FORK = 8192;
+	/** Returns the number of chunks in which a parallel scan splits a range of given length. */
+	private static int scanChunks(final int length) {
+	 return (int)Math.min((length + (long)PARALLEL_SCAN_NO_FORK - 1) / PARALLEL_SCAN_NO_FORK, 4L * Arrays.parallelPool().getParallelism());
+	}
+	/** Returns the start of a chunk of a range split in a given number of chunks. */
+	private static int chunkStart(final int from, final int to, final int chunks, final int c) {
+	 return from + (int)((long)(to - from) * c / chunks);
+	}
+	/** Replaces the elements of the specified range with their exclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of the elements preceding it in the range before the call
+	 * (in particular, the first element is zero). Sums are computed using {@code long} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static long exclusivePrefixSum(final long[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 long sum = 0;
+	 for(int i = from; i < to; i++) {
+	  final long t = a[i];
+	  a[i] = sum;
+	  sum += t;
+	 }
+	 return sum;
+	}
+	/** Replaces the elements of an array with their exclusive prefix sums.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #exclusivePrefixSum(long[], int, int)
+	 */
+	public static long exclusivePrefixSum(final long[] a) {
+	 return exclusivePrefixSum(a, 0, a.length);
+	}
+	/** Replaces the elements of the specified range with their inclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of itself and of the elements preceding it in the range before the call.
+	 * Sums are computed using {@code long} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static long inclusivePrefixSum(final long[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 long sum = 0;
+	 for(int i = from; i < to; i++) a[i] = sum += a[i];
+	 return sum;
+	}
+	/** Replaces the elements of an array with their inclusive prefix sums.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #inclusivePrefixSum(long[], int, int)
+	 */
+	public static long inclusivePrefixSum(final long[] a) {
+	 return inclusivePrefixSum(a, 0, a.length);
+	}
+	/** A task computing the sums of the chunks of a range, or replacing each chunk with its prefix sums given the sums of the preceding chunks. */
+	protected static class ForkJoinPrefixSum extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[] a, sum;
+	 private final int from, to, chunks, firstChunk, lastChunk;
+	 private final boolean inclusive, apply;
+	 public ForkJoinPrefixSum(final long[] a, final int from, final int to, final int chunks, final int firstChunk, final int lastChunk, final long[] sum, final boolean inclusive, final boolean apply) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.sum = sum;
+	  this.inclusive = inclusive;
+	  this.apply = apply;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinPrefixSum(a, from, to, chunks, firstChunk, mid, sum, inclusive, apply), new ForkJoinPrefixSum(a, from, to, chunks, mid, lastChunk, sum, inclusive, apply));
+	   return;
+	  }
+	  final long[] a = this.a;
+	  final int c = firstChunk, start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  if (! apply) {
+	   long s = 0;
+	   for(int i = start; i < end; i++) s += a[i];
+	   sum[c] = s;
+	  }
+	  else {
+	   long s = sum[c];
+	   if (inclusive) for(int i = start; i < end; i++) a[i] = s += a[i];
+	   else for(int i = start; i < end; i++) {
+	    final long t = a[i];
+	    a[i] = s;
+	    s += t;
+	   }
+	  }
+	 }
+	}
+	/** Computes prefix sums in parallel, using a two-pass blocked scan. */
+	private static long parallelPrefixSum(final long[] a, final int from, final int to, final boolean inclusive) {
+	 final int chunks = scanChunks(to - from);
+	 final long[] sum = new long[chunks];
+	 Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, false));
+	 final long total = exclusivePrefixSum(sum, 0, chunks);
+	 Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, true));
+	 return total;
+	}
+	/** Replaces the elements of the specified range with their exclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses a two-pass blocked scan: the range is split in chunks, the sums of the chunks are computed in parallel,
+	 * their exclusive prefix sums are computed sequentially, and finally each chunk is replaced in parallel by its prefix sums,
+	 * starting from the sum of the preceding chunks. This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #exclusivePrefixSum(long[], int, int)
+	 */
+	public static long parallelExclusivePrefixSum(final long[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return exclusivePrefixSum(a, from, to);
+	 return parallelPrefixSum(a, from, to, false);
+	}
+	/** Replaces the elements of an array with their exclusive prefix sums, in parallel.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #parallelExclusivePrefixSum(long[], int, int)
+	 */
+	public static long parallelExclusivePrefixSum(final long[] a) {
+	 return parallelExclusivePrefixSum(a, 0, a.length);
+	}
+	/** Replaces the elements of the specified range with their inclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses the same two-pass blocked scan of {@link #parallelExclusivePrefixSum(long[], int, int)}.
+	 * This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #inclusivePrefixSum(long[], int, int)
+	 */
+	public static long parallelInclusivePrefixSum(final long[] a, final int from, final int to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return inclusivePrefixSum(a, from, to);
+	 return parallelPrefixSum(a, from, to, true);
+	}
+	/** Replaces the elements of an array with their inclusive prefix sums, in parallel.
+	 *
+	 * @param a the array.
+	 * @return the sum of all elements of the array (before the call).
+	 * @see #parallelInclusivePrefixSum(long[], int, int)
+	 */
+	public static long parallelInclusivePrefixSum(final long[] a) {
+	 return parallelInclusivePrefixSum(a, 0, a.length);
+	}
+	/** Ensures that the number of bits and the shift of a digit are valid. */
+	private static void ensureDigit(final int bits, final int shift) {
+	 if (bits < 0 || bits > 30) throw new IllegalArgumentException("The number of bits of a digit (" + bits + ") must be between 0 and 30");
+	 if (shift < 0 || shift >= Long.SIZE) throw new IllegalArgumentException("The shift of a digit (" + shift + ") must be between 0 and " + (Long.SIZE - 1));
+	}
+	/** Returns the number of chunks in which a parallel histogram or scatter splits a range of given length.
+	 *
+	 * <p>Each chunk needs a counter per digit value, so we never use more chunks than elements per digit value. */
+	private static int digitChunks(final int length, final int bits) {
+	 return Math.max(1, Math.min(scanChunks(length), length >>> bits));
+	}
+	/** Computes the histogram of the digits of the elements of the specified range.
+	 *
+	 * <p>The digit of an element {@code x} is {@code (int)(x >>> shift) & (1 << bits) - 1}, that is, digits are
+	 * extracted from the two's complement representation of the elements: on the most significant digit, negative
+	 * elements have larger digits than nonnegative elements.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters, whose entry of index <var>d</var> contains the number of
+	 * elements of the range whose digit is <var>d</var>.
+	 */
+	public static int[] histogram(final long[] a, final int from, final int to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int mask = (1 << bits) - 1;
+	 final int[] count = new int[1 << bits];
+	 for(int i = from; i < to; i++) count[(int)(a[i] >>> shift) & mask]++;
+	 return count;
+	}
+	/** Computes the histogram of the digits of the elements of an array.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(long[], int, int, int, int)
+	 */
+	public static int[] histogram(final long[] a, final int bits, final int shift) {
+	 return histogram(a, 0, a.length, bits, shift);
+	}
+	/** Stably distributes the elements of the specified range in a destination array, grouping them by digit.
+	 *
+	 * <p>This method is the distribution step of a least-significant-digit radix sort: the elements with digit
+	 * <var>d</var> (see {@link #histogram(long[], int, int, int, int)}) are copied, in the order in which they appear in the range,
+	 * to the positions {@code b[d]}, {@code b[d] + 1}, &hellip;, {@code b[d + 1] - 1} of {@code dest}, where {@code b} is the returned array.
+	 * The range and the destination fragment must not overlap.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive);
+	 * in particular, {@code b[0] == offset} and {@code b[1 << bits] == offset + to - from}.
+	 */
+	public static int[] scatter(final long[] a, final int from, final int to, final int bits, final int shift, final long[] dest, final int offset) {
+	 ensureOffsetLength(dest, offset, to - from);
+	 final int[] pos = histogram(a, from, to, bits, shift);
+	 final int mask = (1 << bits) - 1;
+	 final int[] bound = new int[pos.length + 1];
+	 bound[0] = offset;
+	 for(int d = 0; d < pos.length; d++) {
+	  bound[d + 1] = bound[d] + pos[d];
+	  pos[d] = bound[d];
+	 }
+	 for(int i = from; i < to; i++) {
+	  final long t = a[i];
+	  dest[pos[(int)(t >>> shift) & mask]++] = t;
+	 }
+	 return bound;
+	}
+	/** Stably distributes the elements of an array in a destination array, grouping them by digit.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(long[], int, int, int, int, long[], int)
+	 */
+	public static int[] scatter(final long[] a, final int bits, final int shift, final long[] dest) {
+	 return scatter(a, 0, a.length, bits, shift, dest, 0);
+	}
+	/** A task computing the histograms of the digits of the chunks of a range, or scattering each chunk given the positions of its digit groups. */
+	protected static class ForkJoinScatter extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[] a, dest;
+	 private final int from, to, chunks, firstChunk, lastChunk, bits, shift;
+	 private final int[] count;
+	 public ForkJoinScatter(final long[] a, final int from, final int to, final int chunks, final int firstChunk, final int lastChunk, final int bits, final int shift, final int[] count, final long[] dest) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.bits = bits;
+	  this.shift = shift;
+	  this.count = count;
+	  this.dest = dest;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinScatter(a, from, to, chunks, firstChunk, mid, bits, shift, count, dest), new ForkJoinScatter(a, from, to, chunks, mid, lastChunk, bits, shift, count, dest));
+	   return;
+	  }
+	  final long[] a = this.a;
+	  final int[] count = this.count;
+	  final int c = firstChunk, start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  final int mask = (1 << bits) - 1, base = c << bits;
+	  if (dest == null) for(int i = start; i < end; i++) count[base + ((int)(a[i] >>> shift) & mask)]++;
+	  else {
+	   final long[] dest = this.dest;
+	   for(int i = start; i < end; i++) {
+	    final long t = a[i];
+	    dest[count[base + ((int)(t >>> shift) & mask)]++] = t;
+	   }
+	  }
+	 }
+	}
+	/** Computes in parallel the histogram of the digits of the elements of the specified range.
+	 *
+	 * <p>Each chunk of the range is counted in parallel using its own counters, which are then added up.
+	 * This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(long[], int, int, int, int)
+	 */
+	public static int[] parallelHistogram(final long[] a, final int from, final int to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return histogram(a, from, to, bits, shift);
+	 final int buckets = 1 << bits;
+	 final int[] count = new int[chunks << bits];
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 final int[] result = java.util.Arrays.copyOf(count, buckets);
+	 for(int c = 1; c < chunks; c++) for(int d = 0; d < buckets; d++) result[d] += count[(c << bits) + d];
+	 return result;
+	}
+	/** Computes in parallel the histogram of the digits of the elements of an array.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #parallelHistogram(long[], int, int, int, int)
+	 */
+	public static int[] parallelHistogram(final long[] a, final int bits, final int shift) {
+	 return parallelHistogram(a, 0, a.length, bits, shift);
+	}
+	/** Stably distributes in parallel the elements of the specified range in a destination array, grouping them by digit.
+	 *
+	 * <p>The range is split in chunks whose histograms are computed in parallel; then, the position in {@code dest} of
+	 * the elements of each chunk with a given digit is computed by a prefix sum over digits and chunks, so that
+	 * the chunks can be scattered in parallel while preserving stability. This implementation runs in the
+	 * {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(long[], int, int, int, int, long[], int)
+	 */
+	public static int[] parallelScatter(final long[] a, final int from, final int to, final int bits, final int shift, final long[] dest, final int offset) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return scatter(a, from, to, bits, shift, dest, offset);
+	 ensureOffsetLength(dest, offset, to - from);
+	 final int buckets = 1 << bits;
+	 final int[] count = new int[chunks << bits];
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 // Turn counts into positions, digit by digit and, within each digit, chunk by chunk
+	 final int[] bound = new int[buckets + 1];
+	 int p = offset;
+	 for(int d = 0; d < buckets; d++) {
+	  bound[d] = p;
+	  for(int c = 0; c < chunks; c++) {
+	   final int t = count[(c << bits) + d];
+	   count[(c << bits) + d] = p;
+	   p += t;
+	  }
+	 }
+	 bound[buckets] = p;
+	 Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, dest));
+	 return bound;
+	}
+	/** Stably distributes in parallel the elements of an array in a destination array, grouping them by digit.
+	 *
+	 * @param a the array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #parallelScatter(long[], int, int, int, int, long[], int)
+	 */
+	public static int[] parallelScatter(final long[] a, final int bits, final int shift, final long[] dest) {
+	 return parallelScatter(a, 0, a.length, bits, shift, dest, 0);
+	}
 	/** Shuffles the specified array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the array to be shuffled.
@@ -2382,6 +3520,378 @@ public final class LongArrays {
 	 }
 	 return a;
 	}
+	/** The size ratio beyond which set operations on sorted arrays gallop through the larger array instead of merging. */
+	private static final int GALLOP_RATIO = 16;
+	/** Returns the index of the first element of a sorted range that is greater than or equal to a given key,
+	 * using an exponential search from the start of the range.
+	 *
+	 * <p>The cost of this method is logarithmic in the distance between {@code from} and the returned index, rather
+	 * than in the length of the range: thus, a sequence of searches for increasing keys scans the range once.
+	 *
+	 * @param a a sorted array.
+	 * @param from the index of the first element (inclusive) to be searched.
+	 * @param to the index of the last element (exclusive) to be searched.
+	 * @param key the value to be searched for.
+	 * @return the index of the first element of the range greater than or equal to {@code key}, or {@code to} if there is no such element.
+	 */
+	public static int gallop(final long[] a, final int from, final int to, final long key) {
+	 if (from >= to || a[from] >= key) return from;
+	 // a[lo] < key always holds
+	 int lo = from, step = 1;
+	 while(step < to - lo && a[lo + step] < key) {
+	  lo += step;
+	  step <<= 1;
+	 }
+	 int hi = step < to - lo ? lo + step : to;
+	 lo++;
+	 while(lo < hi) {
+	  final int mid = (lo + hi) >>> 1;
+	  if (a[mid] < key) lo = mid + 1;
+	  else hi = mid;
+	 }
+	 return lo;
+	}
+	/** Computes the intersection of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs min(<var>m</var>, <var>n</var>) times in the result, which is sorted. If one range is much shorter than the other,
+	 * its elements are searched for in the longer one by {@linkplain #gallop(long[], int, int, long) galloping}, so the cost is
+	 * logarithmic, rather than linear, in the length of the longer range.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the length of the shorter range).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #intersectionSize(long[], int, int, long[], int, int)
+	 */
+	public static int intersection(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo, final long[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return intersection(b, bFrom, bTo, a, aFrom, aTo, dest, destFrom);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final long k = a[i];
+	   j = gallop(b, j, bTo, k);
+	   if (j == bTo) break;
+	   if (b[j] == k) {
+	    dest[d++] = k;
+	    j++;
+	   }
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final long x = a[i], y = b[j];
+	   if (x < y) i++;
+	   else if (x > y) j++;
+	   else {
+	    dest[d++] = x;
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 return d - destFrom;
+	}
+	/** Computes the intersection of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the length of the shorter array).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #intersection(long[], int, int, long[], int, int, long[], int)
+	 */
+	public static int intersection(final long[] a, final long[] b, final long[] dest) {
+	 return intersection(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the intersection of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #intersection(long[], int, int, long[], int, int, long[], int)} would write.
+	 */
+	public static int intersectionSize(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return intersectionSize(b, bFrom, bTo, a, aFrom, aTo);
+	 int i = aFrom, j = bFrom, n = 0;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   j = gallop(b, j, bTo, a[i]);
+	   if (j == bTo) break;
+	   if (b[j] == a[i]) {
+	    n++;
+	    j++;
+	   }
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final long x = a[i], y = b[j];
+	   if (x < y) i++;
+	   else if (x > y) j++;
+	   else {
+	    n++;
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 return n;
+	}
+	/** Computes the size of the intersection of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #intersection(long[], long[], long[])} would write.
+	 */
+	public static int intersectionSize(final long[] a, final long[] b) {
+	 return intersectionSize(a, 0, a.length, b, 0, b.length);
+	}
+	/** Computes the union of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs max(<var>m</var>, <var>n</var>) times in the result, which is sorted. If one range is much shorter than the other,
+	 * the elements of the longer one lying between consecutive elements of the shorter one are located by
+	 * {@linkplain #gallop(long[], int, int, long) galloping} and copied in bulk.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the sum of the lengths of the ranges).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #unionSize(long[], int, int, long[], int, int)
+	 */
+	public static int union(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo, final long[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 if (aTo - aFrom > bTo - bFrom) return union(b, bFrom, bTo, a, aFrom, aTo, dest, destFrom);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final long k = a[i];
+	   final int p = gallop(b, j, bTo, k);
+	   System.arraycopy(b, j, dest, d, p - j);
+	   d += p - j;
+	   j = p;
+	   if (j < bTo && b[j] == k) j++;
+	   dest[d++] = k;
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final long x = a[i], y = b[j];
+	   if (x < y) {
+	    dest[d++] = x;
+	    i++;
+	   }
+	   else if (x > y) {
+	    dest[d++] = y;
+	    j++;
+	   }
+	   else {
+	    dest[d++] = x;
+	    i++;
+	    j++;
+	   }
+	  }
+	  System.arraycopy(a, i, dest, d, aTo - i);
+	  d += aTo - i;
+	 }
+	 System.arraycopy(b, j, dest, d, bTo - j);
+	 return d + bTo - j - destFrom;
+	}
+	/** Computes the union of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the sum of the lengths of the arrays).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #union(long[], int, int, long[], int, int, long[], int)
+	 */
+	public static int union(final long[] a, final long[] b, final long[] dest) {
+	 return union(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the union of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #union(long[], int, int, long[], int, int, long[], int)} would write.
+	 */
+	public static int unionSize(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo) {
+	 return aTo - aFrom + bTo - bFrom - intersectionSize(a, aFrom, aTo, b, bFrom, bTo);
+	}
+	/** Computes the size of the union of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #union(long[], long[], long[])} would write.
+	 */
+	public static int unionSize(final long[] a, final long[] b) {
+	 return unionSize(a, 0, a.length, b, 0, b.length);
+	}
+	/** Computes the difference of two sorted array ranges, writing it into a destination array.
+	 *
+	 * <p>Ranges are treated as multisets: an element occurring <var>m</var> times in the first range and <var>n</var> times
+	 * in the second range occurs max(<var>m</var> &minus; <var>n</var>, 0) times in the result, which is sorted. If one range is
+	 * much shorter than the other, the longer one is traversed by {@linkplain #gallop(long[], int, int, long) galloping}.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @param dest the destination array, which must have room for the result (at most the length of the range of {@code a}).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 * @see #differenceSize(long[], int, int, long[], int, int)
+	 */
+	public static int difference(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo, final long[] dest, final int destFrom) {
+	 ensureFromTo(a, aFrom, aTo);
+	 ensureFromTo(b, bFrom, bTo);
+	 int i = aFrom, j = bFrom, d = destFrom;
+	 if ((long)(aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+	  for(; i < aTo; i++) {
+	   final long k = a[i];
+	   j = gallop(b, j, bTo, k);
+	   if (j < bTo && b[j] == k) j++;
+	   else dest[d++] = k;
+	  }
+	  return d - destFrom;
+	 }
+	 if ((long)(bTo - bFrom) * GALLOP_RATIO < aTo - aFrom) {
+	  for(; j < bTo && i < aTo; j++) {
+	   final long k = b[j];
+	   final int p = gallop(a, i, aTo, k);
+	   System.arraycopy(a, i, dest, d, p - i);
+	   d += p - i;
+	   i = p;
+	   if (i < aTo && a[i] == k) i++;
+	  }
+	 }
+	 else {
+	  while(i < aTo && j < bTo) {
+	   final long x = a[i], y = b[j];
+	   if (x < y) {
+	    dest[d++] = x;
+	    i++;
+	   }
+	   else if (x > y) j++;
+	   else {
+	    i++;
+	    j++;
+	   }
+	  }
+	 }
+	 System.arraycopy(a, i, dest, d, aTo - i);
+	 return d + aTo - i - destFrom;
+	}
+	/** Computes the difference of two sorted arrays, writing it into a destination array.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @param dest the destination array, which must have room for the result (at most the length of {@code a}).
+	 * @return the number of elements written into {@code dest}.
+	 * @see #difference(long[], int, int, long[], int, int, long[], int)
+	 */
+	public static int difference(final long[] a, final long[] b, final long[] dest) {
+	 return difference(a, 0, a.length, b, 0, b.length, dest, 0);
+	}
+	/** Computes the size of the difference of two sorted array ranges.
+	 *
+	 * @param a a sorted array.
+	 * @param aFrom the index of the first element (inclusive) of the range of {@code a}.
+	 * @param aTo the index of the last element (exclusive) of the range of {@code a}.
+	 * @param b a sorted array.
+	 * @param bFrom the index of the first element (inclusive) of the range of {@code b}.
+	 * @param bTo the index of the last element (exclusive) of the range of {@code b}.
+	 * @return the number of elements that {@link #difference(long[], int, int, long[], int, int, long[], int)} would write.
+	 */
+	public static int differenceSize(final long[] a, final int aFrom, final int aTo, final long[] b, final int bFrom, final int bTo) {
+	 return aTo - aFrom - intersectionSize(a, aFrom, aTo, b, bFrom, bTo);
+	}
+	/** Computes the size of the difference of two sorted arrays.
+	 *
+	 * @param a a sorted array.
+	 * @param b a sorted array.
+	 * @return the number of elements that {@link #difference(long[], long[], long[])} would write.
+	 */
+	public static int differenceSize(final long[] a, final long[] b) {
+	 return differenceSize(a, 0, a.length, b, 0, b.length);
+	}
+	private static void siftDown(final long[][] a, final int[] pos, final int[] heap, final int n, int i) {
+	 final int t = heap[i];
+	 final long k = a[t][pos[t]];
+	 for(int c; (c = 2 * i + 1) < n; i = c) {
+	  if (c + 1 < n && a[heap[c + 1]][pos[heap[c + 1]]] < a[heap[c]][pos[heap[c]]]) c++;
+	  if (k <= a[heap[c]][pos[heap[c]]]) break;
+	  heap[i] = heap[c];
+	 }
+	 heap[i] = t;
+	}
+	/** Merges sorted arrays, writing the result into a destination array.
+	 *
+	 * <p>The result is sorted and contains all elements of the arrays, duplicates included (use
+	 * {@link #union(long[], int, int, long[], int, int, long[], int)} to merge two arrays removing duplicates).
+	 * Arrays are kept in a heap ordered by their first unmerged element, and each time an array reaches the top of the
+	 * heap all its elements not greater than those at the top of the other arrays are copied at once, so the heap is updated once per run,
+	 * rather than once per element.
+	 *
+	 * @param a an array of sorted arrays.
+	 * @param dest the destination array, which must have room for the result (the sum of the lengths of the arrays).
+	 * @param destFrom the index of {@code dest} at which the result will be written.
+	 * @return the number of elements written into {@code dest}.
+	 */
+	public static int merge(final long[][] a, final long[] dest, final int destFrom) {
+	 final int k = a.length;
+	 final int[] heap = new int[k], pos = new int[k];
+	 long total = 0;
+	 int n = 0;
+	 for(int i = 0; i < k; i++) {
+	  total += a[i].length;
+	  if (a[i].length != 0) heap[n++] = i;
+	 }
+	 if (destFrom < 0 || total > dest.length - destFrom) throw new ArrayIndexOutOfBoundsException("The destination array cannot contain " + total + " elements starting at " + destFrom);
+	 for(int i = n / 2; i-- != 0;) siftDown(a, pos, heap, n, i);
+	 int d = destFrom;
+	 while(n > 1) {
+	  final int t = heap[0];
+	  final long[] x = a[t];
+	  int c = heap[1];
+	  if (n > 2 && a[heap[2]][pos[heap[2]]] < a[c][pos[c]]) c = heap[2];
+	  final long bound = a[c][pos[c]];
+	  int p = pos[t];
+	  do dest[d++] = x[p++]; while(p < x.length && x[p] <= bound);
+	  pos[t] = p;
+	  if (p == x.length) heap[0] = heap[--n];
+	  siftDown(a, pos, heap, n, 0);
+	 }
+	 if (n == 1) {
+	  final int t = heap[0];
+	  System.arraycopy(a[t], pos[t], dest, d, a[t].length - pos[t]);
+	  d += a[t].length - pos[t];
+	 }
+	 return d - destFrom;
+	}
 	/** A type-specific content-based hash strategy for arrays. */
 	private static final class ArrayHashStrategy implements Hash.Strategy<long[]>, java.io.Serializable {
 	 private static final long serialVersionUID = -7046029254386353129L;
@@ -2390,6 +3900,26 @@ public final class LongArrays {
 	 @Override
 	 public boolean equals(final long[] a, final long[] b) { return java.util.Arrays.equals(a, b); }
 	}
+	/** A type-specific content-based hash strategy for arrays using a word-at-a-time hash function. */
+	private static final class WordHashStrategy implements Hash.Strategy<long[]>, java.io.Serializable {
+	 private static final long serialVersionUID = 0L;
+	 @Override
+	 public int hashCode(final long[] o) {
+	  if (o == null) return 0;
+	  long h = o.length;
+	  for(final long w : o) h = it.unimi.dsi.fastutil.HashCommon.wordRound(h, w);
+	  h = it.unimi.dsi.fastutil.HashCommon.murmurHash3(h);
+	  return (int)(h ^ h >>> 32);
+	 }
+	 @Override
+	 public boolean equals(final long[] a, final long[] b) {
+	  if (a == b) return true;
+	  if (a == null || b == null) return false;
+	  final int length = a.length;
+	  if (length != b.length || length != 0 && a[length - 1] != b[length - 1]) return false;
+	  return java.util.Arrays.equals(a, b);
+	 }
+	}
 	/** A type-specific content-based hash strategy for arrays.
 	 *
 	 * <p>This hash strategy may be used in custom hash collections whenever keys are
@@ -2397,4 +3927,13 @@ public final class LongArrays {
 	 * will handle {@code null} correctly, and it is serializable.
 	 */
 	public static final Hash.Strategy<long[]> HASH_STRATEGY = new ArrayHashStrategy();
+	/** A type-specific content-based hash strategy for arrays using a word-at-a-time hash function.
+	 *
+	 * <p>This hash strategy is equivalent to {@link #HASH_STRATEGY}, but hash codes are computed
+	 * combining the elements of an array with {@link it.unimi.dsi.fastutil.HashCommon#wordRound(long,long)},
+	 * which is faster and mixes better than {@link java.util.Arrays#hashCode(long[])}, and arrays of different lengths
+	 * or with different last elements are told apart before comparing their content.
+	 * This strategy will handle {@code null} correctly, and it is serializable.
+	 */
+	public static final Hash.Strategy<long[]> FAST_HASH_STRATEGY = new WordHashStrategy();
 }
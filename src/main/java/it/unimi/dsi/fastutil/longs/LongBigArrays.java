@@ -28,6 +28,7 @@
 package it.unimi.dsi.fastutil.longs;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.BigArrays;
 import it.unimi.dsi.fastutil.Hash;
 import static it.unimi.dsi.fastutil.BigArrays.ensureLength;
@@ -1076,6 +1077,774 @@ public final class LongBigArrays {
 	  }
 	 }
 	}
+	private static final int PARALLEL_RADIXSORT_NO_FORK = 1024;
+	protected static class ForkJoinRadixSort extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final long[][] a;
+	 public ForkJoinRadixSort(final long[][] a, final long first, final long length, final int level) {
+	  this.a = a;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[][] a = this.a;
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort[] task = new ForkJoinRadixSort[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys, a segment at a time.
+	  for(long i = first, stop = first + length; i < stop;) {
+	   final long[] s = a[segment(i)];
+	   final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + stop - i);
+	   for(int j = start; j < end; j++) count[(int)((s[j]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	   i += end - start;
+	  }
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final long end = first + length - count[lastUsed];
+	  // i moves through the start of each block
+	  int c = -1;
+	  for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	   long t = a[segment(i)][displacement(i)];
+	   c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while((d = --pos[c]) > i) {
+	     final long z = t;
+	     final long[] s = a[segment(d)];
+	     t = s[displacement(d)];
+	     s[displacement(d)] = z;
+	     c = (int)((t) >>> shift & DIGIT_MASK ^ signMask);
+	    }
+	    a[segment(i)][displacement(i)] = t;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) {
+	     // Small blocks within a segment are sorted directly on the segment
+	     if (segment(i) == segment(i + count[c] - 1)) LongArrays.quickSort(a[segment(i)], displacement(i), displacement(i) + (int)count[c]);
+	     else quickSort(a, i, i + count[c]);
+	    }
+	    else {
+	     task[tasks] = new ForkJoinRadixSort(a, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of a big array using parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>Buckets are sorted in parallel; buckets small enough to lie within a single segment
+	 * are sorted directly on the segment. This implementation runs in the
+	 * {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 */
+	public static void parallelRadixSort(final long[][] a, final long from, final long to) {
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) {
+	  quickSort(a, from, to);
+	  return;
+	 }
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinRadixSort(a, from, to - from, 0));
+	}
+	/** Sorts the specified big array using parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array to be sorted.
+	 */
+	public static void parallelRadixSort(final long[][] a) {
+	 parallelRadixSort(a, 0, LongBigArrays.length(a));
+	}
+	protected static class ForkJoinRadixSort2 extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final long[][] a;
+	 private final long[][] b;
+	 public ForkJoinRadixSort2(final long[][] a, final long[][] b, final long first, final long length, final int level) {
+	  this.a = a;
+	  this.b = b;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[][] a = this.a;
+	  final long[][] b = this.b;
+	  final int layers = 2;
+	  final int maxLevel = DIGITS_PER_ELEMENT * layers - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSort2[] task = new ForkJoinRadixSort2[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final long[][] k = level < DIGITS_PER_ELEMENT ? a : b; // This is the key array
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS;
+	  // Count keys, a segment at a time.
+	  for(long i = first, stop = first + length; i < stop;) {
+	   final long[] s = k[segment(i)];
+	   final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + stop - i);
+	   for(int j = start; j < end; j++) count[(int)((s[j]) >>> shift & DIGIT_MASK ^ signMask)]++;
+	   i += end - start;
+	  }
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  final long end = first + length - count[lastUsed];
+	  int c = -1;
+	  for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	   long t = a[segment(i)][displacement(i)];
+	   long u = b[segment(i)][displacement(i)];
+	   c = (int)((k[segment(i)][displacement(i)]) >>> shift & DIGIT_MASK ^ signMask);
+	   if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	    while((d = --pos[c]) > i) {
+	     final int s = segment(d), e = displacement(d);
+	     c = (int)((k[s][e]) >>> shift & DIGIT_MASK ^ signMask);
+	     final long z = t;
+	     final long w = u;
+	     t = a[s][e];
+	     u = b[s][e];
+	     a[s][e] = z;
+	     b[s][e] = w;
+	    }
+	    a[segment(i)][displacement(i)] = t;
+	    b[segment(i)][displacement(i)] = u;
+	   }
+	   if (level < maxLevel && count[c] > 1) {
+	    if (count[c] < PARALLEL_RADIXSORT_NO_FORK) {
+	     // Small blocks within a segment are sorted directly on the segments
+	     if (segment(i) == segment(i + count[c] - 1)) LongArrays.quickSort(a[segment(i)], b[segment(i)], displacement(i), displacement(i) + (int)count[c]);
+	     else radixSort(a, b, i, i + count[c]);
+	    }
+	    else {
+	     task[tasks] = new ForkJoinRadixSort2(a, b, i, count[c], level + 1);
+	     task[tasks++].fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of elements of two big arrays using a parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implements a <em>lexicographical</em> sorting of the arguments. Pairs of elements
+	 * in the same position in the two provided big arrays will be considered a single key, and permuted
+	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the first big array to be sorted.
+	 * @param b the second big array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 */
+	public static void parallelRadixSort(final long[][] a, final long[][] b, final long from, final long to) {
+	 if (LongBigArrays.length(a) != LongBigArrays.length(b)) throw new IllegalArgumentException("Array size mismatch.");
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) {
+	  radixSort(a, b, from, to);
+	  return;
+	 }
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinRadixSort2(a, b, from, to - from, 0));
+	}
+	/** Sorts two big arrays using a parallel radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implements a <em>lexicographical</em> sorting of the arguments. Pairs of elements
+	 * in the same position in the two provided big arrays will be considered a single key, and permuted
+	 * accordingly. In the end, either {@code a[i] &lt; a[i + 1]} or {@code a[i] == a[i + 1]} and {@code b[i] &le; b[i + 1]}.
+	 *
+	 * <p>This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the first big array to be sorted.
+	 * @param b the second big array to be sorted.
+	 */
+	public static void parallelRadixSort(final long[][] a, final long[][] b) {
+	 parallelRadixSort(a, b, 0, LongBigArrays.length(a));
+	}
+	private static void insertionSortIndirect(final long[][] perm, final long[][] a, final long from, final long to) {
+	 for(long i = from; ++i < to;) {
+	  final long t = LongBigArrays.get(perm, i);
+	  long j = i;
+	  for(long u = LongBigArrays.get(perm, j - 1); ( (LongBigArrays.get(a, t)) < (LongBigArrays.get(a, u)) ); u = LongBigArrays.get(perm, --j - 1)) {
+	   LongBigArrays.set(perm, j, u);
+	   if (from == j - 1) {
+	    --j;
+	    break;
+	   }
+	  }
+	  LongBigArrays.set(perm, j, t);
+	 }
+	}
+	protected static class ForkJoinRadixSortIndirect extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long first, length;
+	 private final int level;
+	 private final long[][] perm;
+	 private final long[][] a;
+	 private final boolean stable;
+	 private final long[][] support;
+	 public ForkJoinRadixSortIndirect(final long[][] perm, final long[][] a, final boolean stable, final long[][] support, final long first, final long length, final int level) {
+	  this.perm = perm;
+	  this.a = a;
+	  this.stable = stable;
+	  this.support = support;
+	  this.first = first;
+	  this.length = length;
+	  this.level = level;
+	 }
+	 @Override
+	 protected void compute() {
+	  final long[][] perm = this.perm;
+	  final long[][] a = this.a;
+	  final long[][] support = this.support;
+	  if (length < MEDIUM) {
+	   insertionSortIndirect(perm, a, first, first + length);
+	   return;
+	  }
+	  final int maxLevel = DIGITS_PER_ELEMENT - 1;
+	  final long[] count = new long[1 << DIGIT_BITS];
+	  final long[] pos = new long[1 << DIGIT_BITS];
+	  final ForkJoinRadixSortIndirect[] task = new ForkJoinRadixSortIndirect[1 << DIGIT_BITS];
+	  int tasks = 0;
+	  final int signMask = level % DIGITS_PER_ELEMENT == 0 ? 1 << DIGIT_BITS - 1 : 0;
+	  final int shift = (DIGITS_PER_ELEMENT - 1 - level % DIGITS_PER_ELEMENT) * DIGIT_BITS; // This is the shift that extract the right byte from a key
+	  // Count keys.
+	  for(long i = first + length; i-- != first;) count[(int)((LongBigArrays.get(a, LongBigArrays.get(perm, i))) >>> shift & DIGIT_MASK ^ signMask)]++;
+	  // Compute cumulative distribution
+	  int lastUsed = -1;
+	  long p = first;
+	  for(int i = 0; i < 1 << DIGIT_BITS; i++) {
+	   if (count[i] != 0) lastUsed = i;
+	   pos[i] = (p += count[i]);
+	  }
+	  if (stable) {
+	   for(long i = first + length; i-- != first;) {
+	    final long t = LongBigArrays.get(perm, i);
+	    LongBigArrays.set(support, --pos[(int)((LongBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask)], t);
+	   }
+	   LongBigArrays.copy(support, first, perm, first, length);
+	   p = first;
+	   for(int i = 0; i <= lastUsed; i++) {
+	    if (level < maxLevel && count[i] > 1) {
+	     final ForkJoinRadixSortIndirect sub = new ForkJoinRadixSortIndirect(perm, a, stable, support, p, count[i], level + 1);
+	     if (count[i] < PARALLEL_RADIXSORT_NO_FORK) sub.compute();
+	     else (task[tasks++] = sub).fork();
+	    }
+	    p += count[i];
+	   }
+	  }
+	  else {
+	   final long end = first + length - count[lastUsed];
+	   // i moves through the start of each block
+	   int c = -1;
+	   for(long i = first, d; i <= end; i += count[c], count[c] = 0) {
+	    long t = LongBigArrays.get(perm, i);
+	    c = (int)((LongBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask);
+	    if (i < end) { // When all slots are OK, the last slot is necessarily OK.
+	     while((d = --pos[c]) > i) {
+	      final long z = t;
+	      t = LongBigArrays.get(perm, d);
+	      LongBigArrays.set(perm, d, z);
+	      c = (int)((LongBigArrays.get(a, t)) >>> shift & DIGIT_MASK ^ signMask);
+	     }
+	     LongBigArrays.set(perm, i, t);
+	    }
+	    if (level < maxLevel && count[c] > 1) {
+	     final ForkJoinRadixSortIndirect sub = new ForkJoinRadixSortIndirect(perm, a, stable, support, i, count[c], level + 1);
+	     if (count[c] < PARALLEL_RADIXSORT_NO_FORK) sub.compute();
+	     else (task[tasks++] = sub).fork();
+	    }
+	   }
+	  }
+	  while(tasks != 0) task[--tasks].join();
+	 }
+	}
+	/** Sorts the specified range of a big array using parallel indirect radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implement an <em>indirect</em> sort. The elements of {@code perm} (which must
+	 * be exactly the numbers in the interval {@code [0..length(perm))}) will be permuted so that
+	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
+	 *
+	 * <p>This implementation will allocate, in the stable case, a support big array as large as {@code perm}, and
+	 * it runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param perm a permutation big array indexing {@code a}.
+	 * @param a the big array to be sorted.
+	 * @param from the index of the first element of {@code perm} (inclusive) to be permuted.
+	 * @param to the index of the last element of {@code perm} (exclusive) to be permuted.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static void parallelRadixSortIndirect(final long[][] perm, final long[][] a, final long from, final long to, final boolean stable) {
+	 final ForkJoinRadixSortIndirect task = new ForkJoinRadixSortIndirect(perm, a, stable, stable ? LongBigArrays.newBigArray(LongBigArrays.length(perm)) : null, from, to - from, 0);
+	 if (to - from < PARALLEL_RADIXSORT_NO_FORK) task.compute();
+	 else it.unimi.dsi.fastutil.Arrays.invoke(task);
+	}
+	/** Sorts the specified big array using parallel indirect radix sort.
+	 *
+	 * <p>The sorting algorithm is a tuned radix sort adapted from Peter M. McIlroy, Keith Bostic and M. Douglas
+	 * McIlroy, &ldquo;Engineering radix sort&rdquo;, <i>Computing Systems</i>, 6(1), pages 5&minus;27 (1993).
+	 *
+	 * <p>This method implement an <em>indirect</em> sort. The elements of {@code perm} (which must
+	 * be exactly the numbers in the interval {@code [0..length(perm))}) will be permuted so that
+	 * {@code a[perm[i]] &le; a[perm[i + 1]]}.
+	 *
+	 * <p>This implementation will allocate, in the stable case, a support big array as large as {@code perm}, and
+	 * it runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param perm a permutation big array indexing {@code a}.
+	 * @param a the big array to be sorted.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static void parallelRadixSortIndirect(final long[][] perm, final long[][] a, final boolean stable) {
+	 parallelRadixSortIndirect(perm, a, 0, LongBigArrays.length(perm), stable);
+	}
+	/** The number of elements below which prefix sums, histograms and scatters are not parallelized. */
+	private static final int PARALLEL_SCAN_NO_FORK = 8192;
+	/** Returns the number of chunks in which a parallel scan splits a range of given length. */
+	private static int scanChunks(final long length) {
+	 return (int)Math.min((length + PARALLEL_SCAN_NO_FORK - 1) / PARALLEL_SCAN_NO_FORK, 4L * it.unimi.dsi.fastutil.Arrays.parallelPool().getParallelism());
+	}
+	/** Returns the start of a chunk of a range split in a given number of chunks. */
+	private static long chunkStart(final long from, final long to, final int chunks, final int c) {
+	 return from + (to - from) / chunks * c + Math.min(c, (to - from) % chunks);
+	}
+	/** Returns the sum of the elements of a range, a segment at a time. */
+	private static long sum(final long[][] a, final long from, final long to) {
+	 long sum = 0;
+	 for(long i = from; i < to;) {
+	  final long[] s = a[segment(i)];
+	  final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + to - i);
+	  for(int j = start; j < end; j++) sum += s[j];
+	  i += end - start;
+	 }
+	 return sum;
+	}
+	/** Replaces the elements of a range with their prefix sums, starting from a given sum, a segment at a time.
+	 *
+	 * @return the given sum plus the sum of the elements of the range (before the call).
+	 */
+	private static long prefixSum(final long[][] a, final long from, final long to, long sum, final boolean inclusive) {
+	 for(long i = from; i < to;) {
+	  final long[] s = a[segment(i)];
+	  final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + to - i);
+	  if (inclusive) for(int j = start; j < end; j++) s[j] = sum += s[j];
+	  else for(int j = start; j < end; j++) {
+	   final long t = s[j];
+	   s[j] = sum;
+	   sum += t;
+	  }
+	  i += end - start;
+	 }
+	 return sum;
+	}
+	/** Replaces the elements of the specified range of a big array with their exclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of the elements preceding it in the range before the call
+	 * (in particular, the first element is zero). Sums are computed using {@code long} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static long exclusivePrefixSum(final long[][] a, final long from, final long to) {
+	 ensureFromTo(a, from, to);
+	 return prefixSum(a, from, to, 0, false);
+	}
+	/** Replaces the elements of a big array with their exclusive prefix sums.
+	 *
+	 * @param a the big array.
+	 * @return the sum of all elements of the big array (before the call).
+	 * @see #exclusivePrefixSum(long[][], long, long)
+	 */
+	public static long exclusivePrefixSum(final long[][] a) {
+	 return exclusivePrefixSum(a, 0, length(a));
+	}
+	/** Replaces the elements of the specified range of a big array with their inclusive prefix sums.
+	 *
+	 * <p>After this call, each element of the range is the sum of itself and of the elements preceding it in the range before the call.
+	 * Sums are computed using {@code long} arithmetic, so they wrap around on overflow.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 */
+	public static long inclusivePrefixSum(final long[][] a, final long from, final long to) {
+	 ensureFromTo(a, from, to);
+	 return prefixSum(a, from, to, 0, true);
+	}
+	/** Replaces the elements of a big array with their inclusive prefix sums.
+	 *
+	 * @param a the big array.
+	 * @return the sum of all elements of the big array (before the call).
+	 * @see #inclusivePrefixSum(long[][], long, long)
+	 */
+	public static long inclusivePrefixSum(final long[][] a) {
+	 return inclusivePrefixSum(a, 0, length(a));
+	}
+	/** A task computing the sums of the chunks of a range, or replacing each chunk with its prefix sums given the sums of the preceding chunks. */
+	protected static class ForkJoinPrefixSum extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[][] a;
+	 private final long[] sum;
+	 private final long from, to;
+	 private final int chunks, firstChunk, lastChunk;
+	 private final boolean inclusive, apply;
+	 public ForkJoinPrefixSum(final long[][] a, final long from, final long to, final int chunks, final int firstChunk, final int lastChunk, final long[] sum, final boolean inclusive, final boolean apply) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.sum = sum;
+	  this.inclusive = inclusive;
+	  this.apply = apply;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinPrefixSum(a, from, to, chunks, firstChunk, mid, sum, inclusive, apply), new ForkJoinPrefixSum(a, from, to, chunks, mid, lastChunk, sum, inclusive, apply));
+	   return;
+	  }
+	  final int c = firstChunk;
+	  final long start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  if (apply) prefixSum(a, start, end, sum[c], inclusive);
+	  else sum[c] = sum(a, start, end);
+	 }
+	}
+	/** Computes prefix sums in parallel, using a two-pass blocked scan. */
+	private static long parallelPrefixSum(final long[][] a, final long from, final long to, final boolean inclusive) {
+	 final int chunks = scanChunks(to - from);
+	 final long[] sum = new long[chunks];
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, false));
+	 final long total = LongArrays.exclusivePrefixSum(sum, 0, chunks);
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinPrefixSum(a, from, to, chunks, 0, chunks, sum, inclusive, true));
+	 return total;
+	}
+	/** Replaces the elements of the specified range of a big array with their exclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses a two-pass blocked scan: the range is split in chunks, the sums of the chunks are computed in parallel,
+	 * their exclusive prefix sums are computed sequentially, and finally each chunk is replaced in parallel by its prefix sums,
+	 * starting from the sum of the preceding chunks. This implementation runs in the
+	 * {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #exclusivePrefixSum(long[][], long, long)
+	 */
+	public static long parallelExclusivePrefixSum(final long[][] a, final long from, final long to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return prefixSum(a, from, to, 0, false);
+	 return parallelPrefixSum(a, from, to, false);
+	}
+	/** Replaces the elements of a big array with their exclusive prefix sums, in parallel.
+	 *
+	 * @param a the big array.
+	 * @return the sum of all elements of the big array (before the call).
+	 * @see #parallelExclusivePrefixSum(long[][], long, long)
+	 */
+	public static long parallelExclusivePrefixSum(final long[][] a) {
+	 return parallelExclusivePrefixSum(a, 0, length(a));
+	}
+	/** Replaces the elements of the specified range of a big array with their inclusive prefix sums, in parallel.
+	 *
+	 * <p>This method uses the same two-pass blocked scan of {@link #parallelExclusivePrefixSum(long[][], long, long)}.
+	 * This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @return the sum of all elements of the range (before the call).
+	 * @see #inclusivePrefixSum(long[][], long, long)
+	 */
+	public static long parallelInclusivePrefixSum(final long[][] a, final long from, final long to) {
+	 ensureFromTo(a, from, to);
+	 if (to - from < PARALLEL_SCAN_NO_FORK) return prefixSum(a, from, to, 0, true);
+	 return parallelPrefixSum(a, from, to, true);
+	}
+	/** Replaces the elements of a big array with their inclusive prefix sums, in parallel.
+	 *
+	 * @param a the big array.
+	 * @return the sum of all elements of the big array (before the call).
+	 * @see #parallelInclusivePrefixSum(long[][], long, long)
+	 */
+	public static long parallelInclusivePrefixSum(final long[][] a) {
+	 return parallelInclusivePrefixSum(a, 0, length(a));
+	}
+	/** Ensures that the number of bits and the shift of a digit are valid. */
+	private static void ensureDigit(final int bits, final int shift) {
+	 if (bits < 0 || bits > 30) throw new IllegalArgumentException("The number of bits of a digit (" + bits + ") must be between 0 and 30");
+	 if (shift < 0 || shift >= Long.SIZE) throw new IllegalArgumentException("The shift of a digit (" + shift + ") must be between 0 and " + (Long.SIZE - 1));
+	}
+	/** Returns the number of chunks in which a parallel histogram or scatter splits a range of given length.
+	 *
+	 * <p>Each chunk needs a counter per digit value: we never use more chunks than elements per digit value, so that the counters take
+	 * at most as much memory as the range. Moreover, all counters must fit in a single array.
+	 * A result of one means that the operation should be performed sequentially. */
+	private static int digitChunks(final long length, final int bits) {
+	 return (int)Math.max(1, Math.min(Math.min(scanChunks(length), length >>> bits), (Integer.MAX_VALUE - 8) >>> bits));
+	}
+	/** Adds to a histogram the digits of the elements of a range, a segment at a time. */
+	private static void count(final long[][] a, final long from, final long to, final int bits, final int shift, final long[] count, final int base) {
+	 final int mask = (1 << bits) - 1;
+	 for(long i = from; i < to;) {
+	  final long[] s = a[segment(i)];
+	  final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + to - i);
+	  for(int j = start; j < end; j++) count[base + ((int)(s[j] >>> shift) & mask)]++;
+	  i += end - start;
+	 }
+	}
+	/** Scatters the elements of a range, given the next position in the destination of each digit, a segment at a time. */
+	private static void scatter(final long[][] a, final long from, final long to, final int bits, final int shift, final long[][] dest, final long[] pos, final int base) {
+	 final int mask = (1 << bits) - 1;
+	 for(long i = from; i < to;) {
+	  final long[] s = a[segment(i)];
+	  final int start = displacement(i), end = (int)Math.min(SEGMENT_SIZE, start + to - i);
+	  for(int j = start; j < end; j++) {
+	   final long t = s[j];
+	   final long p = pos[base + ((int)(t >>> shift) & mask)]++;
+	   dest[segment(p)][displacement(p)] = t;
+	  }
+	  i += end - start;
+	 }
+	}
+	/** Computes the histogram of the digits of the elements of the specified range of a big array.
+	 *
+	 * <p>The digit of an element {@code x} is {@code (int)(x >>> shift) & (1 << bits) - 1}, that is, digits are
+	 * extracted from the two's complement representation of the elements: on the most significant digit, negative
+	 * elements have larger digits than nonnegative elements.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters, whose entry of index <var>d</var> contains the number of
+	 * elements of the range whose digit is <var>d</var>.
+	 */
+	public static long[] histogram(final long[][] a, final long from, final long to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final long[] count = new long[1 << bits];
+	 count(a, from, to, bits, shift, count, 0);
+	 return count;
+	}
+	/** Computes the histogram of the digits of the elements of a big array.
+	 *
+	 * @param a the big array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(long[][], long, long, int, int)
+	 */
+	public static long[] histogram(final long[][] a, final int bits, final int shift) {
+	 return histogram(a, 0, length(a), bits, shift);
+	}
+	/** Stably distributes the elements of the specified range of a big array in a destination big array, grouping them by digit.
+	 *
+	 * <p>This method is the distribution step of a least-significant-digit radix sort: the elements with digit
+	 * <var>d</var> (see {@link #histogram(long[][], long, long, int, int)}) are copied, in the order in which they appear in the range,
+	 * to the positions {@code b[d]}, {@code b[d] + 1}, &hellip;, {@code b[d + 1] - 1} of {@code dest}, where {@code b} is the returned array.
+	 * The range and the destination fragment must not overlap.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination big array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive);
+	 * in particular, {@code b[0] == offset} and {@code b[1 << bits] == offset + to - from}.
+	 */
+	public static long[] scatter(final long[][] a, final long from, final long to, final int bits, final int shift, final long[][] dest, final long offset) {
+	 ensureOffsetLength(dest, offset, to - from);
+	 final long[] pos = histogram(a, from, to, bits, shift);
+	 final long[] bound = new long[pos.length + 1];
+	 bound[0] = offset;
+	 for(int d = 0; d < pos.length; d++) {
+	  bound[d + 1] = bound[d] + pos[d];
+	  pos[d] = bound[d];
+	 }
+	 scatter(a, from, to, bits, shift, dest, pos, 0);
+	 return bound;
+	}
+	/** Stably distributes the elements of a big array in a destination big array, grouping them by digit.
+	 *
+	 * @param a the big array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination big array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(long[][], long, long, int, int, long[][], long)
+	 */
+	public static long[] scatter(final long[][] a, final int bits, final int shift, final long[][] dest) {
+	 return scatter(a, 0, length(a), bits, shift, dest, 0);
+	}
+	/** A task computing the histograms of the digits of the chunks of a range, or scattering each chunk given the positions of its digit groups. */
+	protected static class ForkJoinScatter extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final long[][] a, dest;
+	 private final long from, to;
+	 private final int chunks, firstChunk, lastChunk, bits, shift;
+	 private final long[] count;
+	 public ForkJoinScatter(final long[][] a, final long from, final long to, final int chunks, final int firstChunk, final int lastChunk, final int bits, final int shift, final long[] count, final long[][] dest) {
+	  this.a = a;
+	  this.from = from;
+	  this.to = to;
+	  this.chunks = chunks;
+	  this.firstChunk = firstChunk;
+	  this.lastChunk = lastChunk;
+	  this.bits = bits;
+	  this.shift = shift;
+	  this.count = count;
+	  this.dest = dest;
+	 }
+	 @Override
+	 protected void compute() {
+	  if (lastChunk - firstChunk > 1) {
+	   final int mid = (firstChunk + lastChunk) >>> 1;
+	   invokeAll(new ForkJoinScatter(a, from, to, chunks, firstChunk, mid, bits, shift, count, dest), new ForkJoinScatter(a, from, to, chunks, mid, lastChunk, bits, shift, count, dest));
+	   return;
+	  }
+	  final int c = firstChunk;
+	  final long start = chunkStart(from, to, chunks, c), end = chunkStart(from, to, chunks, c + 1);
+	  if (dest == null) count(a, start, end, bits, shift, count, c << bits);
+	  else scatter(a, start, end, bits, shift, dest, count, c << bits);
+	 }
+	}
+	/** Computes in parallel the histogram of the digits of the elements of the specified range of a big array.
+	 *
+	 * <p>Each chunk of the range is counted in parallel using its own counters, which are then added up.
+	 * This implementation runs in the {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #histogram(long[][], long, long, int, int)
+	 */
+	public static long[] parallelHistogram(final long[][] a, final long from, final long to, final int bits, final int shift) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return histogram(a, from, to, bits, shift);
+	 final int buckets = 1 << bits;
+	 final long[] count = new long[chunks << bits];
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 final long[] result = Arrays.copyOf(count, buckets);
+	 for(int c = 1; c < chunks; c++) for(int d = 0; d < buckets; d++) result[d] += count[(c << bits) + d];
+	 return result;
+	}
+	/** Computes in parallel the histogram of the digits of the elements of a big array.
+	 *
+	 * @param a the big array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @return an array of {@code 1 << bits} counters.
+	 * @see #parallelHistogram(long[][], long, long, int, int)
+	 */
+	public static long[] parallelHistogram(final long[][] a, final int bits, final int shift) {
+	 return parallelHistogram(a, 0, length(a), bits, shift);
+	}
+	/** Stably distributes in parallel the elements of the specified range of a big array in a destination big array, grouping them by digit.
+	 *
+	 * <p>The range is split in chunks whose histograms are computed in parallel; then, the position in {@code dest} of
+	 * the elements of each chunk with a given digit is computed by a prefix sum over digits and chunks, so that
+	 * the chunks can be scattered in parallel while preserving stability. This implementation runs in the
+	 * {@linkplain it.unimi.dsi.fastutil.Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the big array.
+	 * @param from the index of the first element (inclusive) of the range.
+	 * @param to the index of the last element (exclusive) of the range.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination big array.
+	 * @param offset the first position of {@code dest} that will be filled.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #scatter(long[][], long, long, int, int, long[][], long)
+	 */
+	public static long[] parallelScatter(final long[][] a, final long from, final long to, final int bits, final int shift, final long[][] dest, final long offset) {
+	 ensureFromTo(a, from, to);
+	 ensureDigit(bits, shift);
+	 final int chunks = digitChunks(to - from, bits);
+	 if (to - from < PARALLEL_SCAN_NO_FORK || chunks == 1) return scatter(a, from, to, bits, shift, dest, offset);
+	 ensureOffsetLength(dest, offset, to - from);
+	 final int buckets = 1 << bits;
+	 final long[] count = new long[chunks << bits];
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, null));
+	 // Turn counts into positions, digit by digit and, within each digit, chunk by chunk
+	 final long[] bound = new long[buckets + 1];
+	 long p = offset;
+	 for(int d = 0; d < buckets; d++) {
+	  bound[d] = p;
+	  for(int c = 0; c < chunks; c++) {
+	   final long t = count[(c << bits) + d];
+	   count[(c << bits) + d] = p;
+	   p += t;
+	  }
+	 }
+	 bound[buckets] = p;
+	 it.unimi.dsi.fastutil.Arrays.invoke(new ForkJoinScatter(a, from, to, chunks, 0, chunks, bits, shift, count, dest));
+	 return bound;
+	}
+	/** Stably distributes in parallel the elements of a big array in a destination big array, grouping them by digit.
+	 *
+	 * @param a the big array.
+	 * @param bits the number of bits of a digit (at most 30).
+	 * @param shift the position of the least significant bit of a digit.
+	 * @param dest the destination big array.
+	 * @return an array {@code b} of {@code (1 << bits) + 1} elements such that the elements with digit
+	 * <var>d</var> are in {@code dest} between {@code b[d]} (inclusive) and {@code b[d + 1]} (exclusive).
+	 * @see #parallelScatter(long[][], long, long, int, int, long[][], long)
+	 */
+	public static long[] parallelScatter(final long[][] a, final int bits, final int shift, final long[][] dest) {
+	 return parallelScatter(a, 0, length(a), bits, shift, dest, 0);
+	}
 	/** Shuffles the specified big array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the big array to be shuffled.
@@ -0,0 +1,135 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.HashCommon;
+
+/** A cache-line blocked Bloom filter for longs.
+ *
+ * <p>The bit array is divided into blocks of {@value #BLOCK_BITS} bits (the size of a cache line on most architectures),
+ * and all bits of an element are set in a single block chosen by hashing. Thus, both {@link #add(long)} and
+ * {@link #mightContain(long)} access a single cache line, whereas a standard Bloom filter causes a cache
+ * miss for each hash function. Since blocks are not loaded uniformly, a blocked filter needs more bits than a standard one
+ * to achieve the same false-positive rate: the filter is sized for half the requested rate, which brings the actual rate
+ * close to the requested one.
+ *
+ * <p>Elements are hashed using {@link HashCommon#murmurHash3(long)}. The bit array is a {@linkplain LongBigArrays big array},
+ * so there is no limit on the number of bits; blocks never span two segments.
+ *
+ * <p>A Bloom filter is never full, so {@link #add(long)} always returns true, but the false-positive rate
+ * grows beyond the requested one if more elements than expected are added. Elements cannot be removed from a
+ * Bloom filter: see {@link LongCuckooFilter} for a filter supporting removal.
+ */
+
+public class LongBloomFilter implements LongMembershipFilter, java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The number of bits in a block. */
+	public static final int BLOCK_BITS = 512;
+	/** The number of longs in a block. */
+	private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+	/** The maximum number of hash functions. */
+	private static final int MAX_HASHES = 16;
+
+	/** The bit array. */
+	protected final long[][] bits;
+	/** The number of blocks. */
+	protected final long blocks;
+	/** The number of bits set (i.e., of hash functions) for each element. */
+	protected final int hashes;
+
+	/** Creates a new Bloom filter.
+	 *
+	 * @param expected the expected number of elements.
+	 * @param fpp the desired false-positive probability.
+	 */
+	public LongBloomFilter(final long expected, final double fpp) {
+		if (expected < 0) throw new IllegalArgumentException("The expected number of elements must be nonnegative: " + expected);
+		if (! (fpp > 0 && fpp < 1)) throw new IllegalArgumentException("The false-positive probability must be in (0..1): " + fpp);
+		final long n = Math.max(1, expected);
+		// Blocking increases the false-positive rate, so we size the filter for half the requested rate
+		final double m = Math.ceil(-n * Math.log(fpp / 2) / (Math.log(2) * Math.log(2)));
+		blocks = Math.max(1, (long)Math.ceil(m / BLOCK_BITS));
+		hashes = (int)Math.max(1, Math.min(MAX_HASHES, Math.round((double)blocks * BLOCK_BITS / n * Math.log(2))));
+		bits = LongBigArrays.newBigArray(blocks * BLOCK_LONGS);
+	}
+
+	/** Creates a new Bloom filter with a false-positive probability of 1%.
+	 *
+	 * @param expected the expected number of elements.
+	 */
+	public LongBloomFilter(final long expected) {
+		this(expected, .01);
+	}
+
+	/** Returns the first position (in {@link #bits}) of the block associated with a hash. */
+	private long block(final long h) {
+		// Range reduction by multiplication, avoiding a division for all practical sizes
+		return (blocks <= 1L << 32 ? ((h >>> 32) * blocks) >>> 32 : Long.remainderUnsigned(h, blocks)) * BLOCK_LONGS;
+	}
+
+	@Override
+	public boolean add(final long x) {
+		final long h = HashCommon.murmurHash3(x);
+		final long start = block(h);
+		final long[] segment = bits[BigArrays.segment(start)];
+		final int displacement = BigArrays.displacement(start);
+		final long g = HashCommon.murmurHash3(h);
+		final int a = (int)g, b = (int)(g >>> 32) | 1;
+		for(int i = 0; i < hashes; i++) {
+			final int bit = (a + i * b) >>> 23;
+			segment[displacement + (bit >>> 6)] |= 1L << bit;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean mightContain(final long x) {
+		final long h = HashCommon.murmurHash3(x);
+		final long start = block(h);
+		final long[] segment = bits[BigArrays.segment(start)];
+		final int displacement = BigArrays.displacement(start);
+		final long g = HashCommon.murmurHash3(h);
+		final int a = (int)g, b = (int)(g >>> 32) | 1;
+		for(int i = 0; i < hashes; i++) {
+			final int bit = (a + i * b) >>> 23;
+			if ((segment[displacement + (bit >>> 6)] & 1L << bit) == 0) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		LongBigArrays.fill(bits, 0);
+	}
+
+	/** Returns the number of bits of this filter.
+	 *
+	 * @return the number of bits of this filter.
+	 */
+	public long bitSize() {
+		return blocks * BLOCK_BITS;
+	}
+
+	/** Returns the number of hash functions of this filter.
+	 *
+	 * @return the number of bits set for each element.
+	 */
+	public int hashes() {
+		return hashes;
+	}
+}
@@ -0,0 +1,233 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/** A cuckoo filter for longs, supporting removal.
+ *
+ * <p>A cuckoo filter stores a short fingerprint of each element in one of two candidate buckets; the second
+ * bucket can be computed from the first one and the fingerprint alone (<em>partial-key cuckoo hashing</em>), so fingerprints
+ * can be moved around when a bucket is full. Each bucket is a single long divided into slots of 8, 16 or 32 bits,
+ * depending on the false-positive probability requested at construction time, so a query examines at most two longs.
+ * Differently from a {@link LongBloomFilter}, elements can be {@linkplain #remove(long) removed}, but the filter can
+ * become full: in that case, {@link #add(long)} returns false.
+ *
+ * <p>Elements are hashed using {@link HashCommon#murmurHash3(long)}. Buckets are stored in a {@linkplain LongBigArrays big array},
+ * so there is no limit on the number of buckets.
+ *
+ * <p>Adding the same element twice stores two fingerprints, which must be removed separately.
+ */
+
+public class LongCuckooFilter implements LongMembershipFilter, java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The maximum number of displacements before declaring the filter full. */
+	private static final int MAX_KICKS = 500;
+
+	/** The buckets. */
+	protected final long[][] bucket;
+	/** The mask for wrapping a bucket index (the number of buckets is a power of two). */
+	protected final long bucketMask;
+	/** The number of bits of a fingerprint. */
+	protected final int fingerprintBits;
+	/** A mask for the lowest {@link #fingerprintBits} bits. */
+	protected final long fingerprintMask;
+	/** The number of elements in the filter. */
+	protected long size;
+	/** Whether there is an element waiting to be placed, in which case the filter is full. */
+	protected boolean hasVictim;
+	/** The first bucket of the element waiting to be placed. */
+	protected long victimBucket;
+	/** The fingerprint of the element waiting to be placed. */
+	protected long victimFingerprint;
+	/** The state of the pseudorandom generator used to choose displacements. */
+	private long random = 0x9E3779B97F4A7C15L;
+
+	/** Creates a new cuckoo filter.
+	 *
+	 * @param expected the expected number of elements.
+	 * @param fpp the desired false-positive probability; it determines the fingerprint size, and it cannot be smaller than 2<sup>&minus;30</sup>.
+	 */
+	public LongCuckooFilter(final long expected, final double fpp) {
+		if (expected < 0) throw new IllegalArgumentException("The expected number of elements must be nonnegative: " + expected);
+		if (! (fpp > 0 && fpp < 1)) throw new IllegalArgumentException("The false-positive probability must be in (0..1): " + fpp);
+		// The false-positive probability is about 2b/2^f, where b is the number of slots of f bits in a bucket
+		final double loadFactor;
+		if (fpp >= 16. / (1 << 8)) {
+			fingerprintBits = 8;
+			loadFactor = .98;
+		}
+		else if (fpp >= 8. / (1 << 16)) {
+			fingerprintBits = 16;
+			loadFactor = .95;
+		}
+		else if (fpp >= 4. / (1L << 32)) {
+			fingerprintBits = 32;
+			loadFactor = .84;
+		}
+		else throw new IllegalArgumentException("The false-positive probability is too small: " + fpp);
+		fingerprintMask = -1L >>> -fingerprintBits;
+		final long buckets = Math.max(2, HashCommon.nextPowerOfTwo((long)Math.ceil(expected / (loadFactor * (Long.SIZE / fingerprintBits)))));
+		bucketMask = buckets - 1;
+		bucket = LongBigArrays.newBigArray(buckets);
+	}
+
+	/** Creates a new cuckoo filter with a false-positive probability of about 0.01%.
+	 *
+	 * @param expected the expected number of elements.
+	 */
+	public LongCuckooFilter(final long expected) {
+		this(expected, 8. / (1 << 16));
+	}
+
+	/** Returns the nonzero fingerprint associated with a hash. */
+	private long fingerprint(final long h) {
+		final long f = (h >>> 32) & fingerprintMask;
+		return f == 0 ? 1 : f;
+	}
+
+	/** Returns the alternate bucket of a fingerprint. */
+	private long alternate(final long i, final long f) {
+		return (i ^ HashCommon.murmurHash3(f)) & bucketMask;
+	}
+
+	/** Returns whether a bucket contains a fingerprint. */
+	private boolean contains(final long i, final long f) {
+		final long b = LongBigArrays.get(bucket, i);
+		for(int s = 0; s < Long.SIZE; s += fingerprintBits) if ((b >>> s & fingerprintMask) == f) return true;
+		return false;
+	}
+
+	/** Stores a fingerprint in a free slot of a bucket, if any.
+	 *
+	 * @return true if the fingerprint has been stored.
+	 */
+	private boolean insert(final long i, final long f) {
+		final long b = LongBigArrays.get(bucket, i);
+		for(int s = 0; s < Long.SIZE; s += fingerprintBits) {
+			if ((b >>> s & fingerprintMask) == 0) {
+				LongBigArrays.set(bucket, i, b | f << s);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Deletes a fingerprint from a bucket, if present.
+	 *
+	 * @return true if the fingerprint has been deleted.
+	 */
+	private boolean delete(final long i, final long f) {
+		final long b = LongBigArrays.get(bucket, i);
+		for(int s = 0; s < Long.SIZE; s += fingerprintBits) {
+			if ((b >>> s & fingerprintMask) == f) {
+				LongBigArrays.set(bucket, i, b & ~(fingerprintMask << s));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Places a fingerprint in one of its buckets, displacing other fingerprints if necessary; if the
+	 * fingerprint cannot be placed, the last displaced fingerprint becomes the victim.
+	 */
+	private void place(long i, long f) {
+		if (insert(i, f) || insert(alternate(i, f), f)) return;
+		for(int k = 0; k < MAX_KICKS; k++) {
+			random ^= random << 13;
+			random ^= random >>> 7;
+			random ^= random << 17;
+			if ((random & 1) != 0) i = alternate(i, f);
+			final int s = (int)((random >>> 32) % (Long.SIZE / fingerprintBits)) * fingerprintBits;
+			final long b = LongBigArrays.get(bucket, i);
+			final long g = b >>> s & fingerprintMask;
+			LongBigArrays.set(bucket, i, b & ~(fingerprintMask << s) | f << s);
+			f = g;
+			i = alternate(i, f);
+			if (insert(i, f)) return;
+		}
+		hasVictim = true;
+		victimBucket = i;
+		victimFingerprint = f;
+	}
+
+	@Override
+	public boolean add(final long x) {
+		if (hasVictim) return false;
+		final long h = HashCommon.murmurHash3(x);
+		place(h & bucketMask, fingerprint(h));
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean mightContain(final long x) {
+		final long h = HashCommon.murmurHash3(x);
+		final long f = fingerprint(h);
+		final long i = h & bucketMask;
+		final long j = alternate(i, f);
+		return contains(i, f) || contains(j, f) || hasVictim && victimFingerprint == f && (victimBucket == i || victimBucket == j);
+	}
+
+	/** {@inheritDoc}
+	 *
+	 * <p>Removing an element that has not been added might remove another element with the same fingerprint.
+	 */
+	@Override
+	public boolean remove(final long x) {
+		final long h = HashCommon.murmurHash3(x);
+		final long f = fingerprint(h);
+		final long i = h & bucketMask;
+		final long j = alternate(i, f);
+		if (hasVictim && victimFingerprint == f && (victimBucket == i || victimBucket == j)) {
+			hasVictim = false;
+			size--;
+			return true;
+		}
+		if (! delete(i, f) && ! delete(j, f)) return false;
+		size--;
+		if (hasVictim) {
+			// A slot is now free: we try to place the victim again
+			hasVictim = false;
+			place(victimBucket, victimFingerprint);
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		LongBigArrays.fill(bucket, 0);
+		hasVictim = false;
+		size = 0;
+	}
+
+	/** Returns the number of elements in this filter.
+	 *
+	 * @return the number of elements in this filter.
+	 */
+	public long size64() {
+		return size;
+	}
+
+	/** Returns the number of bits of a fingerprint.
+	 *
+	 * @return the number of bits of a fingerprint.
+	 */
+	public int fingerprintBits() {
+		return fingerprintBits;
+	}
+}
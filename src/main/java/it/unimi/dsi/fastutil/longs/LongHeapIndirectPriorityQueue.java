@@ -0,0 +1,289 @@
+/*
+	* Copyright (C) 2002-2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.longs;
+import java.util.NoSuchElementException;
+import it.unimi.dsi.fastutil.IndirectPriorityQueue;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+/** A type-specific heap-based indirect priority queue.
+	*
+	* <p>Instances of this class use an additional <em>inversion array</em>, of the same length of the reference array,
+	* to keep track of the heap position containing a given element of the reference array. The priority queue is
+	* represented using a heap. The heap is enlarged as needed, but it is never shrunk. Use the {@link #trim()} method
+	* to reduce its size, if necessary.
+	*
+	* <p>Thanks to the inversion array, the elements of the queue can be {@linkplain #changed(int) changed} and
+	* {@linkplain #remove(int) removed} in logarithmic time: for instance, in Dijkstra's algorithm the reference array
+	* contains the tentative distances of the nodes, and after decreasing the distance of a node in the queue it is
+	* sufficient to call {@link #changed(int)} on the node. As in {@link LongHeapPriorityQueue}, it is possible to specify at
+	* construction time an arity larger than two for the heap.
+	*
+	* <p>This implementation does not allow one to enqueue several times the same index.
+	*/
+public class LongHeapIndirectPriorityQueue implements IndirectPriorityQueue<Long> {
+	/** The reference array. */
+	protected final long[] refArray;
+	/** The heap array, containing indices of the reference array. */
+	protected int[] heap = IntArrays.EMPTY_ARRAY;
+	/** The inversion array: the position in the heap of each index of the reference array, or -1 if the index is not in the queue. */
+	protected final int[] inv;
+	/** The number of elements in this queue. */
+	protected int size;
+	/** The type-specific comparator used in this queue. */
+	protected LongComparator c;
+	/** The base-2 logarithm of the arity of the heap. */
+	protected final int log2arity;
+	/** Creates a new empty queue with a given capacity, comparator and heap arity.
+	 *
+	 * @param refArray the reference array.
+	 * @param capacity the initial capacity of this queue.
+	 * @param c the comparator used in this queue, or {@code null} for the natural order.
+	 * @param arity the arity of the heap, a power of two greater than one.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int capacity, final LongComparator c, final int arity) {
+	 if (capacity < 0) throw new IllegalArgumentException("Initial capacity (" + capacity + ") is negative");
+	 if (capacity > 0) this.heap = new int[capacity];
+	 this.refArray = refArray;
+	 this.c = c;
+	 this.log2arity = LongHeapPriorityQueue.log2arity(arity);
+	 this.inv = new int[refArray.length];
+	 java.util.Arrays.fill(inv, -1);
+	}
+	/** Creates a new empty queue with a given capacity and comparator.
+	 *
+	 * @param refArray the reference array.
+	 * @param capacity the initial capacity of this queue.
+	 * @param c the comparator used in this queue, or {@code null} for the natural order.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int capacity, final LongComparator c) {
+	 this(refArray, capacity, c, 2);
+	}
+	/** Creates a new empty queue with a given capacity and using the natural order.
+	 *
+	 * @param refArray the reference array.
+	 * @param capacity the initial capacity of this queue.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int capacity) {
+	 this(refArray, capacity, null);
+	}
+	/** Creates a new empty queue with capacity equal to the length of the reference array and a given comparator.
+	 *
+	 * @param refArray the reference array.
+	 * @param c the comparator used in this queue, or {@code null} for the natural order.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final LongComparator c) {
+	 this(refArray, refArray.length, c);
+	}
+	/** Creates a new empty queue with capacity equal to the length of the reference array and using the natural order.
+	 *
+	 * @param refArray the reference array.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray) {
+	 this(refArray, refArray.length, null);
+	}
+	/** Wraps a given array of indices in a queue using a given comparator and heap arity.
+	 *
+	 * <p>The queue returned by this method will be backed by the given array.
+	 * The first {@code size} element of the array will be rearranged so to form a heap (this is
+	 * more efficient than enqueing the elements of {@code a} one by one).
+	 *
+	 * @param refArray the reference array.
+	 * @param a an array of distinct indices into {@code refArray}.
+	 * @param size the number of elements to be included in the queue.
+	 * @param c the comparator used in this queue, or {@code null} for the natural order.
+	 * @param arity the arity of the heap, a power of two greater than one.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int[] a, final int size, final LongComparator c, final int arity) {
+	 this(refArray, 0, c, arity);
+	 this.heap = a;
+	 this.size = size;
+	 int i = size;
+	 while(i-- != 0) {
+	  if (inv[a[i]] != -1) throw new IllegalArgumentException("Index " + a[i] + " appears twice in the heap");
+	  inv[a[i]] = i;
+	 }
+	 allChanged();
+	}
+	/** Wraps a given array of indices in a queue using a given comparator.
+	 *
+	 * <p>The queue returned by this method will be backed by the given array.
+	 * The first {@code size} element of the array will be rearranged so to form a heap (this is
+	 * more efficient than enqueing the elements of {@code a} one by one).
+	 *
+	 * @param refArray the reference array.
+	 * @param a an array of distinct indices into {@code refArray}.
+	 * @param size the number of elements to be included in the queue.
+	 * @param c the comparator used in this queue, or {@code null} for the natural order.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int[] a, final int size, final LongComparator c) {
+	 this(refArray, a, size, c, 2);
+	}
+	/** Wraps a given array of indices in a queue using the natural order.
+	 *
+	 * <p>The queue returned by this method will be backed by the given array.
+	 * The elements of the array will be rearranged so to form a heap (this is
+	 * more efficient than enqueing the elements of {@code a} one by one).
+	 *
+	 * @param refArray the reference array.
+	 * @param a an array of distinct indices into {@code refArray}.
+	 */
+	public LongHeapIndirectPriorityQueue(final long[] refArray, final int[] a) {
+	 this(refArray, a, a.length, null);
+	}
+	/** Moves the given element of the heap up until it reaches the highest possible position. */
+	private int upHeap(int i) {
+	 final int e = heap[i];
+	 final long x = refArray[e];
+	 if (c == null)
+	  while (i != 0) {
+	   final int parent = (i - 1) >>> log2arity;
+	   final int t = heap[parent];
+	   if (( (refArray[t]) <= (x) )) break;
+	   inv[heap[i] = t] = i;
+	   i = parent;
+	  }
+	 else
+	  while (i != 0) {
+	   final int parent = (i - 1) >>> log2arity;
+	   final int t = heap[parent];
+	   if (c.compare(refArray[t], x) <= 0) break;
+	   inv[heap[i] = t] = i;
+	   i = parent;
+	  }
+	 inv[heap[i] = e] = i;
+	 return i;
+	}
+	/** Moves the given element of the heap down until it reaches the lowest possible position. */
+	private int downHeap(int i) {
+	 final int e = heap[i];
+	 final long x = refArray[e];
+	 final int lastParent = size < 2 ? -1 : (size - 2) >>> log2arity;
+	 if (c == null)
+	  while (i <= lastParent) {
+	   int child = (i << log2arity) + 1;
+	   int t = heap[child];
+	   for(int j = child + 1, end = Math.min(child + (1 << log2arity), size); j < end; j++) if (( (refArray[heap[j]]) < (refArray[t]) )) t = heap[child = j];
+	   if (( (x) <= (refArray[t]) )) break;
+	   inv[heap[i] = t] = i;
+	   i = child;
+	  }
+	 else
+	  while (i <= lastParent) {
+	   int child = (i << log2arity) + 1;
+	   int t = heap[child];
+	   for(int j = child + 1, end = Math.min(child + (1 << log2arity), size); j < end; j++) if (c.compare(refArray[heap[j]], refArray[t]) < 0) t = heap[child = j];
+	   if (c.compare(x, refArray[t]) <= 0) break;
+	   inv[heap[i] = t] = i;
+	   i = child;
+	  }
+	 inv[heap[i] = e] = i;
+	 return i;
+	}
+	@Override
+	public void enqueue(final int x) {
+	 if (inv[x] >= 0) throw new IllegalArgumentException("Index " + x + " belongs to the queue");
+	 if (size == heap.length) heap = IntArrays.grow(heap, size + 1);
+	 inv[heap[size] = x] = size++;
+	 upHeap(size - 1);
+	}
+	@Override
+	public boolean contains(final int index) {
+	 return inv[index] >= 0;
+	}
+	@Override
+	public int dequeue() {
+	 if (size == 0) throw new NoSuchElementException();
+	 final int result = heap[0];
+	 if (--size != 0) inv[heap[0] = heap[size]] = 0;
+	 inv[result] = -1;
+	 if (size != 0) downHeap(0);
+	 return result;
+	}
+	@Override
+	public int first() {
+	 if (size == 0) throw new NoSuchElementException();
+	 return heap[0];
+	}
+	/** {@inheritDoc}
+	 *
+	 * <p>The caller <strong>must</strong> guarantee that when this method is called the index of the first element
+	 * appears just once in the queue. Failure to do so will bring the queue in an inconsistent state, and will cause
+	 * unpredictable behaviour.
+	 */
+	@Override
+	public void changed() {
+	 downHeap(0);
+	}
+	/** Notifies this queue that the specified element has changed, moving it up or down as needed.
+	 *
+	 * <p>This method is the <em>decrease-key</em> (and <em>increase-key</em>) operation of the queue: after
+	 * changing {@code refArray[index]}, call this method to restore the heap.
+	 *
+	 * @param index the element that has changed.
+	 * @throws NoSuchElementException if the specified element is not in this queue.
+	 */
+	@Override
+	public void changed(final int index) {
+	 final int pos = inv[index];
+	 if (pos < 0) throw new NoSuchElementException("Index " + index + " does not belong to the queue");
+	 final int newPos = upHeap(pos);
+	 downHeap(newPos);
+	}
+	/** Rebuilds this queue in a bottom-up fashion (in linear time). */
+	@Override
+	public void allChanged() {
+	 int i = size < 2 ? 0 : ((size - 2) >>> log2arity) + 1;
+	 while(i-- != 0) downHeap(i);
+	}
+	@Override
+	public boolean remove(final int index) {
+	 final int result = inv[index];
+	 if (result < 0) return false;
+	 inv[index] = -1;
+	 if (result < --size) {
+	  inv[heap[result] = heap[size]] = result;
+	  final int newPos = upHeap(result);
+	  downHeap(newPos);
+	 }
+	 return true;
+	}
+	@Override
+	public void clear() {
+	 while(size != 0) inv[heap[--size]] = -1;
+	}
+	@Override
+	public int size() {
+	 return size;
+	}
+	/** Trims the underlying heap array so that it has exactly {@link #size()} elements. */
+	public void trim() {
+	 heap = IntArrays.trim(heap, size);
+	}
+	@Override
+	public LongComparator comparator() {
+	 return c;
+	}
+	@Override
+	public String toString() {
+	 final StringBuilder s = new StringBuilder();
+	 s.append("[");
+	 for (int i = 0; i < size; i++) {
+	  if (i != 0) s.append(", ");
+	  s.append(refArray[heap[i]]);
+	 }
+	 s.append("]");
+	 return s.toString();
+	}
+}
@@ -98,4 +98,87 @@ public final class LongHeaps {
 	 int i = size >>> 1;
 	 while(i-- != 0) downHeap(heap, size, i, c);
 	}
+	/** Moves the given element down into a <var>d</var>-ary heap until it reaches the lowest possible position.
+	 *
+	 * <p>In a <var>d</var>-ary heap the children of the element of index <var>i</var> have indices
+	 * <var>d</var><var>i</var>&nbsp;+&nbsp;1, &hellip;, <var>d</var><var>i</var>&nbsp;+&nbsp;<var>d</var>.
+	 * Heaps with larger arity are shallower, and the children of an element tend to lie in the same cache line, which
+	 * makes insertions and (for small arities, such as 4) deletions faster.
+	 *
+	 * @param heap the heap (starting at 0).
+	 * @param size the number of elements in the heap.
+	 * @param i the index of the element that must be moved down.
+	 * @param c a type-specific comparator, or {@code null} for the natural order.
+	 * @param log2arity the base-2 logarithm of the arity <var>d</var> of the heap (1 gives a binary heap).
+	 * @return the new position of the element of index {@code i}.
+	 */
+	public static int downHeap(final long[] heap, final int size, int i, final LongComparator c, final int log2arity) {
+	 assert i < size;
+	 final long e = heap[i];
+	 final int lastParent = size < 2 ? -1 : (size - 2) >>> log2arity;
+	 if (c == null)
+	  while (i <= lastParent) {
+	   int child = (i << log2arity) + 1;
+	   long t = heap[child];
+	   for(int j = child + 1, end = Math.min(child + (1 << log2arity), size); j < end; j++) if (( (heap[j]) < (t) )) t = heap[child = j];
+	   if (( (e) <= (t) )) break;
+	   heap[i] = t;
+	   i = child;
+	  }
+	 else
+	  while (i <= lastParent) {
+	   int child = (i << log2arity) + 1;
+	   long t = heap[child];
+	   for(int j = child + 1, end = Math.min(child + (1 << log2arity), size); j < end; j++) if (c.compare(heap[j], t) < 0) t = heap[child = j];
+	   if (c.compare(e, t) <= 0) break;
+	   heap[i] = t;
+	   i = child;
+	  }
+	 heap[i] = e;
+	 return i;
+	}
+	/** Moves the given element up in a <var>d</var>-ary heap until it reaches the highest possible position.
+	 *
+	 * @param heap the heap (starting at 0).
+	 * @param size the number of elements in the heap.
+	 * @param i the index of the element that must be moved up.
+	 * @param c a type-specific comparator, or {@code null} for the natural order.
+	 * @param log2arity the base-2 logarithm of the arity <var>d</var> of the heap (1 gives a binary heap).
+	 * @return the new position of the element of index {@code i}.
+	 * @see #downHeap(long[], int, int, LongComparator, int)
+	 */
+	public static int upHeap(final long[] heap, final int size, int i, final LongComparator c, final int log2arity) {
+	 assert i < size;
+	 final long e = heap[i];
+	 if (c == null)
+	  while (i != 0) {
+	   final int parent = (i - 1) >>> log2arity;
+	   final long t = heap[parent];
+	   if (( (t) <= (e) )) break;
+	   heap[i] = t;
+	   i = parent;
+	  }
+	 else
+	  while (i != 0) {
+	   final int parent = (i - 1) >>> log2arity;
+	   final long t = heap[parent];
+	   if (c.compare(t, e) <= 0) break;
+	   heap[i] = t;
+	   i = parent;
+	  }
+	 heap[i] = e;
+	 return i;
+	}
+	/** Makes an array into a <var>d</var>-ary heap.
+	 *
+	 * @param heap the heap (starting at 0).
+	 * @param size the number of elements in the heap.
+	 * @param c a type-specific comparator, or {@code null} for the natural order.
+	 * @param log2arity the base-2 logarithm of the arity <var>d</var> of the heap (1 gives a binary heap).
+	 * @see #downHeap(long[], int, int, LongComparator, int)
+	 */
+	public static void makeHeap(final long[] heap, final int size, final LongComparator c, final int log2arity) {
+	 int i = size < 2 ? 0 : ((size - 2) >>> log2arity) + 1;
+	 while(i-- != 0) downHeap(heap, size, i, c, log2arity);
+	}
 }
@@ -0,0 +1,65 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/** An approximate membership filter for longs.
+ *
+ * <p>A filter answers membership queries with one-sided errors: if {@link #mightContain(long)} returns false,
+ * the element has never been added (or it has been removed), but if it returns true the element might be
+ * a <em>false positive</em>. Filters are useful to avoid expensive lookups in a large data structure
+ * (see, e.g., {@link Long2ObjectMaps#filtered(Long2ObjectMap, LongMembershipFilter)}).
+ *
+ * @see LongBloomFilter
+ * @see LongCuckooFilter
+ */
+
+public interface LongMembershipFilter {
+
+	/** Adds an element to this filter.
+	 *
+	 * <p>A filter might be unable to record new elements when it is too full: in that case, this
+	 * method returns false, and {@link #mightContain(long)} might return false on {@code x}.
+	 *
+	 * @param x an element.
+	 * @return true if the element has been recorded, false if the filter is full.
+	 */
+	boolean add(long x);
+
+	/** Returns whether an element might have been added to this filter.
+	 *
+	 * @param x an element.
+	 * @return false if {@code x} has certainly not been added to this filter; true if it has been added, or in
+	 * case of a false positive.
+	 */
+	boolean mightContain(long x);
+
+	/** Removes an element from this filter, if the filter supports removal.
+	 *
+	 * <p>The element must have been added to this filter, or other elements might disappear from it.
+	 * This default implementation does nothing and returns false, which is always safe, as stale elements
+	 * just increase the false-positive rate.
+	 *
+	 * @param x an element previously added to this filter.
+	 * @return true if the filter has been modified.
+	 */
+	default boolean remove(final long x) {
+		return false;
+	}
+
+	/** Removes all elements from this filter. */
+	void clear();
+}
@@ -0,0 +1,213 @@
+/*
+	* Copyright (C) 2002-2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.longs;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+import it.unimi.dsi.fastutil.HashCommon;
+/** A type-specific lock-free bounded single-producer/single-consumer ring buffer.
+	*
+	* <p>Instances of this class make it possible to hand primitive elements from one producer thread to one
+	* consumer thread without synchronization and without allocating objects: at any given time, at most one thread may call
+	* the producer methods ({@link #offer(long)}, {@link #fill(long[], int, int)}) and at most one (possibly different) thread
+	* may call the consumer methods ({@link #poll(long)}, {@link #drain(LongConsumer, int)}, {@link #drain(long[], int, int)}).
+	*
+	* <p>The elements are stored in an array whose length is a power of two, padded at both ends, and
+	* the producer and consumer sequence counters live in different cache lines, so that the two threads do not
+	* suffer from false sharing. Each side keeps a cached copy of the other side's counter, and reads the
+	* actual counter only when the cached copy says that the buffer is full (or empty).
+	*
+	* @see LongMpscRingBuffer
+	*/
+public class LongSpscRingBuffer {
+	/** The number of elements of padding at each end of {@link #buffer}. */
+	private static final int PAD = 16;
+	/** The number of counters in a padding block (128 bytes, i.e., two cache lines). */
+	private static final int COUNTER_PAD = 16;
+	/** The index in {@link #counters} of the producer sequence. */
+	private static final int TAIL = COUNTER_PAD;
+	/** The index in {@link #counters} of the producer's cached copy of the consumer sequence. */
+	private static final int CACHED_HEAD = COUNTER_PAD + 1;
+	/** The index in {@link #counters} of the consumer sequence. */
+	private static final int HEAD = 3 * COUNTER_PAD;
+	/** The index in {@link #counters} of the consumer's cached copy of the producer sequence. */
+	private static final int CACHED_TAIL = 3 * COUNTER_PAD + 1;
+	/** The padded backing array: the element of sequence <var>s</var> is at position {@code PAD + (s & mask)}. */
+	private final long[] buffer;
+	/** The mask used to reduce sequences to positions. */
+	private final int mask;
+	/** The sequence counters and their cached copies, separated by padding. */
+	private final AtomicLongArray counters = new AtomicLongArray(5 * COUNTER_PAD);
+	/** Creates a new ring buffer with given capacity.
+	 *
+	 * @param capacity the minimum capacity of this ring buffer; it will be rounded up to a power of two.
+	 */
+	public LongSpscRingBuffer(final int capacity) {
+	 if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+	 final int length = HashCommon.nextPowerOfTwo(capacity);
+	 buffer = new long[length + 2 * PAD];
+	 mask = length - 1;
+	}
+	/** Returns the capacity of this ring buffer.
+	 *
+	 * @return the capacity of this ring buffer (a power of two).
+	 */
+	public int capacity() {
+	 return mask + 1;
+	}
+	/** Returns the number of elements in this ring buffer.
+	 *
+	 * <p>If the producer or the consumer are active, the returned value is just an estimate.
+	 *
+	 * @return the number of elements in this ring buffer.
+	 */
+	public int size() {
+	 final long head = counters.get(HEAD);
+	 return (int)Math.min(counters.get(TAIL) - head, mask + 1);
+	}
+	/** Checks whether this ring buffer is empty.
+	 *
+	 * @return true if this ring buffer is empty.
+	 * @see #size()
+	 */
+	public boolean isEmpty() {
+	 return counters.get(HEAD) == counters.get(TAIL);
+	}
+	/** Returns the number of free slots, reading the consumer sequence only if the cached copy says they are not enough. */
+	private int free(final long tail, final int wanted) {
+	 final int capacity = mask + 1;
+	 long free = capacity - (tail - counters.get(CACHED_HEAD));
+	 if (free < wanted) {
+	  final long head = counters.get(HEAD);
+	  counters.lazySet(CACHED_HEAD, head);
+	  free = capacity - (tail - head);
+	 }
+	 return (int)free;
+	}
+	/** Returns the number of available elements, reading the producer sequence only if the cached copy says they are not enough. */
+	private int available(final long head, final int wanted) {
+	 long available = counters.get(CACHED_TAIL) - head;
+	 if (available < wanted) {
+	  final long tail = counters.get(TAIL);
+	  counters.lazySet(CACHED_TAIL, tail);
+	  available = tail - head;
+	 }
+	 return (int)available;
+	}
+	/** Adds an element to this ring buffer, if there is space (producer only).
+	 *
+	 * @param x the element to add.
+	 * @return true if the element was added; false if this ring buffer is full.
+	 */
+	public boolean offer(final long x) {
+	 final long tail = counters.get(TAIL);
+	 if (free(tail, 1) == 0) return false;
+	 buffer[PAD + ((int)tail & mask)] = x;
+	 counters.lazySet(TAIL, tail + 1);
+	 return true;
+	}
+	/** Adds as many elements as possible from an array fragment, in order (producer only).
+	 *
+	 * <p>The producer sequence is published just once, after all elements have been stored.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the maximum number of elements to add.
+	 * @return the number of elements added, which is the minimum between {@code length} and the free space in this ring buffer.
+	 */
+	public int fill(final long[] a, final int offset, final int length) {
+	 LongArrays.ensureOffsetLength(a, offset, length);
+	 final long tail = counters.get(TAIL);
+	 final int n = Math.min(length, free(tail, length));
+	 if (n == 0) return 0;
+	 final int pos = (int)tail & mask;
+	 final int l = Math.min(n, mask + 1 - pos);
+	 System.arraycopy(a, offset, buffer, PAD + pos, l);
+	 System.arraycopy(a, offset + l, buffer, PAD, n - l);
+	 counters.lazySet(TAIL, tail + n);
+	 return n;
+	}
+	/** Adds as many elements as possible from an array, in order (producer only).
+	 *
+	 * @param a an array.
+	 * @return the number of elements added.
+	 * @see #fill(long[], int, int)
+	 */
+	public int fill(final long[] a) {
+	 return fill(a, 0, a.length);
+	}
+	/** Removes the first element of this ring buffer, if any (consumer only).
+	 *
+	 * @param defRetValue the value to return if this ring buffer is empty.
+	 * @return the removed element, or {@code defRetValue} if this ring buffer is empty.
+	 */
+	public long poll(final long defRetValue) {
+	 final long head = counters.get(HEAD);
+	 if (available(head, 1) == 0) return defRetValue;
+	 final long x = buffer[PAD + ((int)head & mask)];
+	 counters.lazySet(HEAD, head + 1);
+	 return x;
+	}
+	/** Removes at most a given number of elements, passing them in order to a consumer (consumer only).
+	 *
+	 * <p>The consumer sequence is published just once, after all elements have been processed (or
+	 * the consumer has thrown an exception, in which case the elements passed to the consumer so far are removed).
+	 *
+	 * @param consumer a consumer that will receive the removed elements.
+	 * @param limit the maximum number of elements to remove.
+	 * @return the number of elements removed.
+	 */
+	public int drain(final LongConsumer consumer, final int limit) {
+	 if (limit < 0) throw new IllegalArgumentException("Negative limit: " + limit);
+	 final long head = counters.get(HEAD);
+	 final int n = Math.min(limit, available(head, limit));
+	 int i = 0;
+	 try {
+	  while(i < n) consumer.accept(buffer[PAD + ((int)(head + i++) & mask)]);
+	 }
+	 finally {
+	  if (i != 0) counters.lazySet(HEAD, head + i);
+	 }
+	 return n;
+	}
+	/** Removes all available elements, passing them in order to a consumer (consumer only).
+	 *
+	 * @param consumer a consumer that will receive the removed elements.
+	 * @return the number of elements removed.
+	 * @see #drain(LongConsumer, int)
+	 */
+	public int drain(final LongConsumer consumer) {
+	 return drain(consumer, Integer.MAX_VALUE);
+	}
+	/** Removes elements into an array fragment, in order (consumer only).
+	 *
+	 * @param a an array.
+	 * @param offset the first position of {@code a} that will be filled.
+	 * @param length the maximum number of elements to remove.
+	 * @return the number of elements removed, which is the minimum between {@code length} and the number of available elements.
+	 */
+	public int drain(final long[] a, final int offset, final int length) {
+	 LongArrays.ensureOffsetLength(a, offset, length);
+	 final long head = counters.get(HEAD);
+	 final int n = Math.min(length, available(head, length));
+	 if (n == 0) return 0;
+	 final int pos = (int)head & mask;
+	 final int l = Math.min(n, mask + 1 - pos);
+	 System.arraycopy(buffer, PAD + pos, a, offset, l);
+	 System.arraycopy(buffer, PAD, a, offset + l, n - l);
+	 counters.lazySet(HEAD, head + n);
+	 return n;
+	}
+}
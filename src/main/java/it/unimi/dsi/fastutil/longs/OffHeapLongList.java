@@ -0,0 +1,364 @@
+package it.unimi.dsi.fastutil.longs;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.DirectBuffers;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.RandomAccess;
+
+/** A type-specific list whose elements are stored off-heap, in direct buffers.
+ *
+ * <p>Instances of this class behave like a {@link LongArrayList}, but since their elements are stored outside the Java heap
+ * they do not contribute to the size of the heap or to the marking work of the garbage collector, which makes them
+ * suitable for very large lists. Elements are stored in native byte order in segments of {@link #SEGMENT_SIZE} elements
+ * (only the last segment can be smaller), so the size of a list is not limited by the maximum capacity of a buffer.
+ *
+ * <p>The memory used by a list is released by {@link #close()}, after which the list is empty (and can be used again);
+ * if a list is not closed, its memory is released only when its buffers are garbage collected.
+ *
+ * <p>Besides the {@linkplain #getElements(int, long[], int, int) bulk} {@linkplain #addElements(int, long[], int, int) methods}
+ * of type-specific lists, this class provides {@link #setElements(int, long[], int, int)} to overwrite elements from an array,
+ * and {@link #write(WritableByteChannel)}/{@link #read(ReadableByteChannel, int)} to transfer elements between a list and a channel
+ * directly from the backing buffers.
+ *
+ * <p>Instances of this class are not serializable.
+ *
+ * @see LongArrayList
+ */
+
+public class OffHeapLongList extends AbstractLongList implements RandomAccess, java.io.Closeable {
+	/** The base-2 logarithm of {@link #SEGMENT_SIZE}. */
+	public static final int SEGMENT_SHIFT = 26;
+	/** The number of elements of a segment (a segment occupies 512&nbsp;MiB). */
+	public static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+	/** The mask used to compute the position of an element in its segment. */
+	private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+	/** The base-2 logarithm of the number of bytes of an element. */
+	private static final int BYTE_SHIFT = 3;
+	/** The initial capacity of a list with a single segment. */
+	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+	/** The backing buffers, one per segment. */
+	protected ByteBuffer[] buffer;
+	/** Type-specific views of {@link #buffer}. */
+	protected LongBuffer[] segment;
+	/** The number of elements in the list. */
+	protected int size;
+	/** The number of elements that can be stored without allocating memory. */
+	protected int capacity;
+
+	/** Creates a new off-heap list with given capacity.
+	 *
+	 * @param capacity the initial capacity of the list (may be 0).
+	 */
+	public OffHeapLongList(final int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("Initial capacity (" + capacity + ") is negative");
+		buffer = new ByteBuffer[0];
+		segment = new LongBuffer[0];
+		resize(capacity);
+	}
+
+	/** Creates a new empty off-heap list; memory will be allocated when elements are added. */
+	public OffHeapLongList() {
+		this(0);
+	}
+
+	/** Creates a new off-heap list and fills it with the elements of a given array fragment.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to add.
+	 * @param length the number of elements of {@code a} to add.
+	 */
+	public OffHeapLongList(final long[] a, final int offset, final int length) {
+		this(length);
+		addElements(0, a, offset, length);
+	}
+
+	/** Returns the segment length necessary for given segment index and capacity. */
+	private static int segmentLength(final int s, final int capacity) {
+		return (int)Math.min(SEGMENT_SIZE, (long)capacity - ((long)s << SEGMENT_SHIFT));
+	}
+
+	/** Resizes the backing buffers so that the capacity is exactly the given one, which must not be smaller than the size. */
+	private void resize(final int newCapacity) {
+		final int oldSegments = buffer.length;
+		final int newSegments = (int)(((long)newCapacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		final ByteBuffer[] newBuffer = java.util.Arrays.copyOf(buffer, newSegments);
+		final LongBuffer[] newSegment = java.util.Arrays.copyOf(segment, newSegments);
+		for(int s = 0; s < Math.max(oldSegments, newSegments); s++) {
+			final int oldLength = s < oldSegments ? buffer[s].capacity() >>> BYTE_SHIFT : 0;
+			final int newLength = s < newSegments ? segmentLength(s, newCapacity) : 0;
+			if (oldLength == newLength) continue;
+			if (newLength != 0) {
+				newBuffer[s] = DirectBuffers.allocate(newLength << BYTE_SHIFT);
+				newSegment[s] = newBuffer[s].asLongBuffer();
+				// Copy the elements in use
+				final int used = (int)Math.max(0, Math.min(Math.min(oldLength, newLength), (long)size - ((long)s << SEGMENT_SHIFT)));
+				if (used != 0) {
+					final ByteBuffer from = buffer[s].duplicate();
+					from.limit(used << BYTE_SHIFT);
+					newBuffer[s].put(from);
+					newBuffer[s].clear();
+				}
+			}
+			if (oldLength != 0) DirectBuffers.free(buffer[s]);
+		}
+		buffer = newBuffer;
+		segment = newSegment;
+		capacity = newCapacity;
+	}
+
+	/** Ensures that this list can contain the given number of elements without allocating memory.
+	 *
+	 * @param capacity the new minimum capacity for this list.
+	 */
+	public void ensureCapacity(final int capacity) {
+		if (capacity <= this.capacity) return;
+		resize(capacity);
+	}
+
+	/** Grows this list, ensuring that it can contain the given number of elements.
+	 *
+	 * <p>The capacity is doubled while the list fits a segment; then, whole segments are added.
+	 *
+	 * @param capacity the new minimum capacity for this list.
+	 */
+	private void grow(final int capacity) {
+		if (capacity <= this.capacity) return;
+		if (capacity <= SEGMENT_SIZE) resize((int)Math.min(SEGMENT_SIZE, Math.max(capacity, Math.max(DEFAULT_INITIAL_CAPACITY, 2L * this.capacity))));
+		else resize((int)Math.min(Integer.MAX_VALUE, ((long)capacity + SEGMENT_MASK) & -SEGMENT_SIZE));
+	}
+
+	/** Moves elements within the backing buffers; the source and the destination may overlap. */
+	private void move(final int from, final int to, final int length) {
+		final LongBuffer[] segment = this.segment;
+		if (from > to) for(int i = 0; i < length; i++) segment[to + i >>> SEGMENT_SHIFT].put(to + i & SEGMENT_MASK, segment[from + i >>> SEGMENT_SHIFT].get(from + i & SEGMENT_MASK));
+		else for(int i = length; i-- != 0;) segment[to + i >>> SEGMENT_SHIFT].put(to + i & SEGMENT_MASK, segment[from + i >>> SEGMENT_SHIFT].get(from + i & SEGMENT_MASK));
+	}
+
+	@Override
+	public void add(final int index, final long k) {
+		ensureIndex(index);
+		grow(size + 1);
+		if (index != size) move(index, index + 1, size - index);
+		segment[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, k);
+		size++;
+	}
+
+	@Override
+	public boolean add(final long k) {
+		if (size == capacity) grow(size + 1);
+		segment[size >>> SEGMENT_SHIFT].put(size & SEGMENT_MASK, k);
+		size++;
+		return true;
+	}
+
+	@Override
+	public long getLong(final int index) {
+		if (index >= size) throw new IndexOutOfBoundsException("Index (" + index + ") is greater than or equal to list size (" + size + ")");
+		return segment[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+	}
+
+	@Override
+	public long set(final int index, final long k) {
+		if (index >= size) throw new IndexOutOfBoundsException("Index (" + index + ") is greater than or equal to list size (" + size + ")");
+		final LongBuffer s = segment[index >>> SEGMENT_SHIFT];
+		final long old = s.get(index & SEGMENT_MASK);
+		s.put(index & SEGMENT_MASK, k);
+		return old;
+	}
+
+	@Override
+	public long removeLong(final int index) {
+		final long old = getLong(index);
+		move(index + 1, index, size - index - 1);
+		size--;
+		return old;
+	}
+
+	@Override
+	public int indexOf(final long k) {
+		for(int i = 0; i < size; i++) if (k == segment[i >>> SEGMENT_SHIFT].get(i & SEGMENT_MASK)) return i;
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(final long k) {
+		for(int i = size; i-- != 0;) if (k == segment[i >>> SEGMENT_SHIFT].get(i & SEGMENT_MASK)) return i;
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void size(final int size) {
+		if (size < 0) throw new IllegalArgumentException("The size must be nonnegative: " + size);
+		ensureCapacity(size);
+		for(int i = this.size; i < size; i++) segment[i >>> SEGMENT_SHIFT].put(i & SEGMENT_MASK, (long)0);
+		this.size = size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+	}
+
+	/** Trims the backing buffers so that the capacity is equal to the size, freeing the memory that is not in use. */
+	public void trim() {
+		if (capacity != size) resize(size);
+	}
+
+	/** Frees the memory of this list, which becomes empty.
+	 *
+	 * <p>The list can still be used after this call: memory will be allocated again as needed.
+	 */
+	@Override
+	public void close() {
+		size = 0;
+		resize(0);
+	}
+
+	/** Copies elements of this list into an array.
+	 *
+	 * @param from the start index (inclusive).
+	 * @param a the destination array.
+	 * @param offset the offset into the destination array where to store the first element copied.
+	 * @param length the number of elements to be copied.
+	 */
+	@Override
+	public void getElements(int from, final long[] a, int offset, int length) {
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		Arrays.ensureFromTo(size, from, from + length);
+		while(length != 0) {
+			final LongBuffer s = segment[from >>> SEGMENT_SHIFT].duplicate();
+			s.position(from & SEGMENT_MASK);
+			final int l = Math.min(length, s.remaining());
+			s.get(a, offset, l);
+			from += l;
+			offset += l;
+			length -= l;
+		}
+	}
+
+	/** Sets elements of this list to the values of the elements of an array.
+	 *
+	 * @param index the index of the first element to set.
+	 * @param a the source array.
+	 * @param offset the offset of the first element of {@code a} to copy.
+	 * @param length the number of elements to copy.
+	 */
+	public void setElements(int index, final long[] a, int offset, int length) {
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		Arrays.ensureFromTo(size, index, index + length);
+		while(length != 0) {
+			final LongBuffer s = segment[index >>> SEGMENT_SHIFT].duplicate();
+			s.position(index & SEGMENT_MASK);
+			final int l = Math.min(length, s.remaining());
+			s.put(a, offset, l);
+			index += l;
+			offset += l;
+			length -= l;
+		}
+	}
+
+	/** Removes elements of this list.
+	 *
+	 * @param from the start index (inclusive).
+	 * @param to the end index (exclusive).
+	 */
+	@Override
+	public void removeElements(final int from, final int to) {
+		Arrays.ensureFromTo(size, from, to);
+		move(to, from, size - to);
+		size -= to - from;
+	}
+
+	/** Adds elements to this list.
+	 *
+	 * @param index the index at which to add elements.
+	 * @param a the array containing the elements.
+	 * @param offset the offset of the first element to add.
+	 * @param length the number of elements to add.
+	 */
+	@Override
+	public void addElements(final int index, final long[] a, final int offset, final int length) {
+		ensureIndex(index);
+		Arrays.ensureOffsetLength(a.length, offset, length);
+		if ((long)size + length > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many elements: " + ((long)size + length));
+		grow(size + length);
+		move(index, index + length, size - index);
+		size += length;
+		setElements(index, a, offset, length);
+	}
+
+	/** Writes the elements of this list to a channel, in native byte order.
+	 *
+	 * <p>Bytes are written directly from the backing buffers: for instance, no copy on the Java heap is involved
+	 * when writing to a {@link java.nio.channels.FileChannel}.
+	 *
+	 * @param channel a channel.
+	 * @return the number of bytes written.
+	 * @see java.nio.ByteOrder#nativeOrder()
+	 */
+	public long write(final WritableByteChannel channel) throws IOException {
+		for(int s = 0; s < buffer.length; s++) {
+			final ByteBuffer b = buffer[s].duplicate();
+			b.limit((int)Math.max(0, Math.min(b.capacity() >>> BYTE_SHIFT, (long)size - ((long)s << SEGMENT_SHIFT))) << BYTE_SHIFT);
+			while(b.hasRemaining()) channel.write(b);
+		}
+		return (long)size << BYTE_SHIFT;
+	}
+
+	/** Reads elements in native byte order from a channel and appends them to this list.
+	 *
+	 * <p>Bytes are read directly into the backing buffers.
+	 *
+	 * @param channel a channel.
+	 * @param length the number of elements to read.
+	 * @throws EOFException if the channel ends before {@code length} elements have been read; the elements read
+	 * up to that point are discarded.
+	 */
+	public void read(final ReadableByteChannel channel, final int length) throws IOException {
+		if (length < 0) throw new IllegalArgumentException("The number of elements must be nonnegative: " + length);
+		if ((long)size + length > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many elements: " + ((long)size + length));
+		grow(size + length);
+		for(int index = size, end = size + length; index < end;) {
+			final ByteBuffer b = buffer[index >>> SEGMENT_SHIFT].duplicate();
+			final int l = Math.min(end - index, SEGMENT_SIZE - (index & SEGMENT_MASK));
+			b.position((index & SEGMENT_MASK) << BYTE_SHIFT);
+			b.limit(b.position() + (l << BYTE_SHIFT));
+			while(b.hasRemaining()) if (channel.read(b) == -1) throw new EOFException();
+			index += l;
+		}
+		size += length;
+	}
+}
@@ -961,5 +961,149 @@ public class Object2CharOpenHashMap <K> extends AbstractObject2CharMap <K> imple
 	 }
 	 if (ASSERTS) checkTable();
 	}
+	/** Stores this map to a data output using a compact binary format.
+	 *
+	 * <p>Values are written in blocks using {@link it.unimi.dsi.fastutil.io.BinIO#writeChars(char[],int,int,java.io.DataOutput)},
+	 * and keys are written by the given codec, so no per-entry call to an {@link java.io.ObjectOutputStream} is
+	 * necessary. Keys are rehashed when loading, as their hash codes might not be stable across virtual machines.
+	 * The codec must be able to handle {@code null} if this map contains the {@code null} key.
+	 *
+	 * <p>The default return value is not stored.
+	 *
+	 * @param s a data output.
+	 * @param codec a codec for the keys of this map.
+	 * @see #load(java.io.DataInput,it.unimi.dsi.fastutil.io.ObjectCodec)
+	 */
+	public void store(final java.io.DataOutput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? super K> codec) throws java.io.IOException {
+	 final K key[] = this.key;
+	 final char value[] = this.value;
+	 s.writeFloat(f);
+	 s.writeInt(size);
+	 final int length = Math.min(size, 1024);
+	 final char block[] = new char[length];
+	 final int slot[] = new int[length];
+	 for(int j = size, pos = 0, c; j != 0; j -= c) {
+	  for(c = 0; c < length && c < j; pos++) {
+	   if (pos == n ? containsNullKey : ! ( (key[pos]) == null )) {
+	    block[c] = value[pos];
+	    slot[c++] = pos;
+	   }
+	  }
+	  s.writeInt(c);
+	  it.unimi.dsi.fastutil.io.BinIO.writeChars(block, 0, c, s);
+	  for(int i = 0; i < c; i++) codec.write(s, key[slot[i]]);
+	 }
+	}
+	/** Loads a map stored by {@link #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec)}.
+	 *
+	 * @param s a data input.
+	 * @param codec a codec for the keys of the map.
+	 * @return a new map containing the entries read from {@code s}.
+	 * @see #store(java.io.DataOutput,it.unimi.dsi.fastutil.io.ObjectCodec)
+	 */
+	public static <K> Object2CharOpenHashMap <K> load(final java.io.DataInput s, final it.unimi.dsi.fastutil.io.ObjectCodec<? extends K> codec) throws java.io.IOException {
+	 final float f = s.readFloat();
+	 final int size = s.readInt();
+	 final Object2CharOpenHashMap <K> m = new Object2CharOpenHashMap <>(size, f);
+	 final K key[] = m.key;
+	 final char value[] = m.value;
+	 final int mask = m.mask;
+	 final char block[] = new char[Math.min(size, 1024)];
+	 K k;
+	 for(int j = size, c; j != 0; j -= c) {
+	  c = s.readInt();
+	  if (c <= 0 || c > j) throw new java.io.StreamCorruptedException("Illegal block length: " + c);
+	  it.unimi.dsi.fastutil.io.BinIO.readChars(s, block, 0, c);
+	  for(int i = 0, pos; i < c; i++) {
+	   k = codec.read(s);
+	   if (( (k) == null )) {
+	    pos = m.n;
+	    m.containsNullKey = true;
+	   }
+	   else {
+	    pos = ( it.unimi.dsi.fastutil.HashCommon.mix( (k).hashCode() ) ) & mask;
+	    while (! ( (key[pos]) == null )) pos = (pos + 1) & mask;
+	   }
+	   key[pos] = k;
+	   value[pos] = block[i];
+	  }
+	 }
+	 m.size = size;
+	 return m;
+	}
+	/** Performs the given action for each entry of this map.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param action the action to be performed for each entry.
+	 */
+	public void forEach(final Object2CharConsumer <? super K> action) {
+	 java.util.Objects.requireNonNull(action);
+	 if (containsNullKey) action.accept(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == null )) action.accept(key[pos], value[pos]);
+	}
+	/** Replaces the value of each entry with the result of applying a function to the entry.
+	 *
+	 * <p>The table is scanned directly: there is no boxing and no iterator is allocated.
+	 *
+	 * @param function the function computing new values.
+	 */
+	public void replaceAll(final Object2CharBiFunction <? super K> function) {
+	 java.util.Objects.requireNonNull(function);
+	 if (containsNullKey) value[n] = function.apply(key[n], value[n]);
+	 for(int pos = n; pos-- != 0;) if (! ( (key[pos]) == null )) value[pos] = function.apply(key[pos], value[pos]);
+	}
+	/** Removes all entries satisfying a predicate.
+	 *
+	 * <p>The table is compacted in a single pass: differently from removals through an iterator, no entry
+	 * is shifted more than once, and no memory is allocated unless the table shrinks.
+	 *
+	 * @param filter a predicate returning true for the entries to be removed.
+	 * @return true if any entry was removed.
+	 */
+	public boolean removeIf(final Object2CharPredicate <? super K> filter) {
+	 java.util.Objects.requireNonNull(filter);
+	 final int oldSize = size;
+	 if (containsNullKey && filter.test(key[n], value[n])) {
+	  containsNullKey = false;
+	  size--;
+	 }
+	 final K[] key = this.key;
+	 final char[] value = this.value;
+	 // We start after a free slot, so that each run of full slots is scanned from its beginning.
+	 int pos = 0;
+	 RuntimeException failure = null;
+	 while(! ( (key[pos]) == null )) pos++;
+	 for(int i = n; i-- != 0;) {
+	  pos = (pos + 1) & mask;
+	  final K curr = key[pos];
+	  if (( (curr) == null )) continue;
+	  if (failure == null) {
+	   try {
+	    if (filter.test(curr, value[pos])) {
+	     key[pos] = null;
+	     size--;
+	     continue;
+	    }
+	   }
+	   catch(final RuntimeException e) {
+	    // We stop evaluating the predicate, but the compaction must be completed to keep the table consistent.
+	    failure = e;
+	   }
+	  }
+	  // All slots of the run preceding pos are final: we move the entry to the first free slot from its home.
+	  int slot = ( it.unimi.dsi.fastutil.HashCommon.mix( (curr).hashCode() ) ) & mask;
+	  while(slot != pos && ! ( (key[slot]) == null )) slot = (slot + 1) & mask;
+	  if (slot != pos) {
+	   key[slot] = curr;
+	   value[slot] = value[pos];
+	   key[pos] = null;
+	  }
+	 }
+	 if (size != oldSize && n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(Math.max(minN, arraySize(size, f)));
+	 if (ASSERTS) checkTable();
+	 if (failure != null) throw failure;
+	 return size != oldSize;
+	}
 	private void checkTable() {}
 }
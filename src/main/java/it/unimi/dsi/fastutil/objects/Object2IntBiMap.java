@@ -0,0 +1,615 @@
+package it.unimi.dsi.fastutil.objects;
+
+/*
+ * Copyright (C) 2002-2017 Sebastiano Vigna
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.maxFill;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2ObjectBiMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/** A bidirectional map from objects to integers, such as a dictionary assigning identifiers to strings.
+ *
+ * <p>Both keys and values are unique: {@link #put(Object, int)} throws an {@link IllegalArgumentException} if
+ * the value is already associated with a different key, whereas {@link #putForce(Object, int)} removes silently
+ * the existing association. Reverse lookups are performed by {@link #getKey(int)}, or by the {@link #inverse()} view,
+ * an {@link Int2ObjectBiMap} sharing the storage of this map.
+ *
+ * <p>Differently from a pair of synchronised hash maps, the state is stored just once. Each key is associated with a
+ * position either in the <em>dense array</em>, an array indexed by value, or, if the value is negative or too far from the
+ * values already present, in a <em>sparse list</em> of key/value pairs. Keys are found by means of an open-addressing hash table
+ * of such positions, so a forward lookup costs as in an {@link Object2IntOpenHashMap}, and a reverse lookup of a value in the
+ * dense array is a single array access. Values in the sparse list are found by means of a second hash table, which
+ * is resized together with the first one. Values are stored in the dense array as long as the array is at least
+ * (roughly) half full, so maps assigning identifiers sequentially starting from zero use just the dense array.
+ *
+ * <p>Keys cannot be {@code null}.
+ *
+ * @see Int2ObjectBiMap
+ */
+
+public class Object2IntBiMap <K> extends AbstractObject2IntMap <K> implements java.io.Serializable, Cloneable, Hash {
+	private static final long serialVersionUID = 0L;
+
+	/** The hash table of keys: zero denotes an empty entry, a positive value {@code v + 1} a key associated
+	 * with value {@code v} in the dense array, and a negative value {@code -(s + 1)} a key in position {@code s} of the sparse list. */
+	protected transient int[] keyTable;
+	/** The hash table of values in the sparse list: zero denotes an empty entry, a positive value {@code s + 1} position {@code s} of the sparse list. */
+	protected transient int[] valueTable;
+	/** The dense array: the key associated with value {@code v}, or {@code null}. */
+	protected transient K[] dense;
+	/** The keys of the sparse list. */
+	protected transient K[] sparseKey;
+	/** The values of the sparse list. */
+	protected transient int[] sparseValue;
+	/** The number of pairs in the sparse list. */
+	protected transient int sparseSize;
+	/** The mask for wrapping a position counter. */
+	protected transient int mask;
+	/** The current table size. */
+	protected transient int n;
+	/** Threshold after which we rehash. It must be the table size times {@link #f}. */
+	protected transient int maxFill;
+	/** We never resize below this threshold, which is the construction-time {#n}. */
+	protected final transient int minN;
+	/** Number of entries in the map. */
+	protected int size;
+	/** The acceptable load factor. */
+	protected final float f;
+	/** Cached inverse view. */
+	protected transient Int2ObjectBiMap <K> inverse;
+
+	/** Creates a new bidirectional map.
+	 *
+	 * <p>The actual table size will be the least power of two greater than {@code expected}/{@code f}.
+	 *
+	 * @param expected the expected number of elements in the map.
+	 * @param f the load factor.
+	 */
+	@SuppressWarnings("unchecked")
+	public Object2IntBiMap(final int expected, final float f) {
+		if (f <= 0 || f > 1) throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than or equal to 1");
+		if (expected < 0) throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+		this.f = f;
+		minN = n = arraySize(expected, f);
+		mask = n - 1;
+		maxFill = maxFill(n, f);
+		keyTable = new int[n];
+		valueTable = new int[n];
+		dense = (K[]) new Object[expected];
+		sparseKey = (K[]) ObjectArrays.EMPTY_ARRAY;
+		sparseValue = IntArrays.EMPTY_ARRAY;
+	}
+
+	/** Creates a new bidirectional map with {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 *
+	 * @param expected the expected number of elements in the map.
+	 */
+	public Object2IntBiMap(final int expected) {
+		this(expected, DEFAULT_LOAD_FACTOR);
+	}
+
+	/** Creates a new bidirectional map with initial expected {@link Hash#DEFAULT_INITIAL_SIZE} entries
+	 * and {@link Hash#DEFAULT_LOAD_FACTOR} as load factor.
+	 */
+	public Object2IntBiMap() {
+		this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+	}
+
+	/** Creates a new bidirectional map copying a given one.
+	 *
+	 * @param m a {@link java.util.Map} to be copied into the new map.
+	 * @throws IllegalArgumentException if {@code m} contains duplicate values.
+	 */
+	public Object2IntBiMap(final java.util.Map<? extends K, ? extends Integer> m) {
+		this(m.size(), DEFAULT_LOAD_FACTOR);
+		putAll(m);
+	}
+
+	private K keyOf(final int c) {
+		return c > 0 ? dense[c - 1] : sparseKey[-c - 1];
+	}
+
+	private int valueOf(final int c) {
+		return c > 0 ? c - 1 : sparseValue[-c - 1];
+	}
+
+	/** Returns the position of a key in the key table, or -(<var>p</var> + 1), where <var>p</var> is the position where the key should be inserted. */
+	private int findKey(final Object k) {
+		final int[] keyTable = this.keyTable;
+		int c, pos;
+		// The starting point.
+		if ((c = keyTable[pos = HashCommon.mix(k.hashCode()) & mask]) == 0) return -(pos + 1);
+		if (k.equals(keyOf(c))) return pos;
+		// There's always an unused entry.
+		while(true) {
+			if ((c = keyTable[pos = (pos + 1) & mask]) == 0) return -(pos + 1);
+			if (k.equals(keyOf(c))) return pos;
+		}
+	}
+
+	/** Returns the position of a value in the value table, or -(<var>p</var> + 1), where <var>p</var> is the position where the value should be inserted. */
+	private int findValue(final int v) {
+		final int[] valueTable = this.valueTable;
+		int c, pos;
+		// The starting point.
+		if ((c = valueTable[pos = HashCommon.mix(v) & mask]) == 0) return -(pos + 1);
+		if (v == sparseValue[c - 1]) return pos;
+		// There's always an unused entry.
+		while(true) {
+			if ((c = valueTable[pos = (pos + 1) & mask]) == 0) return -(pos + 1);
+			if (v == sparseValue[c - 1]) return pos;
+		}
+	}
+
+	/** Returns whether a value should be stored in the dense array, possibly growing it. */
+	private boolean denseFor(final int v) {
+		if (v < 0) return false;
+		if (v < dense.length) return true;
+		// We grow the dense array only if it would be (roughly) at least half full
+		if (v >= Math.max(DEFAULT_INITIAL_SIZE, 2L * (size + 1))) return false;
+		growDense(v + 1);
+		return true;
+	}
+
+	/** Grows the dense array and moves to it the pairs of the sparse list whose value is now in range. */
+	private void growDense(final int length) {
+		dense = ObjectArrays.grow(dense, length);
+		final int l = dense.length;
+		for(int s = sparseSize; s-- != 0;) {
+			final int v = sparseValue[s];
+			if (v < 0 || v >= l) continue;
+			final K k = sparseKey[s];
+			final int pos = findKey(k);
+			detach(-(s + 1));
+			dense[v] = k;
+			keyTable[pos] = v + 1;
+		}
+	}
+
+	/** Stores a key/value pair in the dense array or in the sparse list.
+	 *
+	 * @return the key-table entry for the pair.
+	 */
+	private int attach(final K k, final int v) {
+		if (denseFor(v)) {
+			dense[v] = k;
+			return v + 1;
+		}
+		final int s = sparseSize++;
+		if (s == sparseKey.length) {
+			sparseKey = ObjectArrays.grow(sparseKey, s + 1);
+			sparseValue = IntArrays.grow(sparseValue, s + 1);
+		}
+		sparseKey[s] = k;
+		sparseValue[s] = v;
+		valueTable[-findValue(v) - 1] = s + 1;
+		return -(s + 1);
+	}
+
+	/** Removes a key/value pair from the dense array or from the sparse list, leaving the key table unchanged.
+	 *
+	 * <p>The last pair of the sparse list is moved in the free position, and the tables are updated accordingly.
+	 *
+	 * @param c the key-table entry for the pair.
+	 */
+	private void detach(final int c) {
+		if (c > 0) {
+			dense[c - 1] = null;
+			return;
+		}
+		final int s = -c - 1;
+		final int last = --sparseSize;
+		shiftValues(findValue(sparseValue[s]));
+		if (s != last) {
+			final K k = sparseKey[last];
+			final int v = sparseValue[last];
+			keyTable[findKey(k)] = -(s + 1);
+			valueTable[findValue(v)] = s + 1;
+			sparseKey[s] = k;
+			sparseValue[s] = v;
+		}
+		sparseKey[last] = null;
+	}
+
+	@Override
+	public int getInt(final Object k) {
+		if (k == null) return defRetValue;
+		final int pos = findKey(k);
+		return pos < 0 ? defRetValue : valueOf(keyTable[pos]);
+	}
+
+	@Override
+	public boolean containsKey(final Object k) {
+		return k != null && findKey(k) >= 0;
+	}
+
+	/** Returns the key associated with a value.
+	 *
+	 * @param v a value.
+	 * @return the key associated with {@code v}, or {@code null}.
+	 */
+	public K getKey(final int v) {
+		if (v >= 0 && v < dense.length) return dense[v];
+		final int pos = findValue(v);
+		return pos < 0 ? null : sparseKey[valueTable[pos] - 1];
+	}
+
+	@Override
+	public boolean containsValue(final int v) {
+		return getKey(v) != null;
+	}
+
+	/** Associates a value with a key.
+	 *
+	 * @param k the key (not {@code null}).
+	 * @param v the value.
+	 * @return the old value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 * @throws IllegalArgumentException if {@code v} is already associated with a key different from {@code k}.
+	 */
+	@Override
+	public int put(final K k, final int v) {
+		Objects.requireNonNull(k);
+		final K other = getKey(v);
+		if (other != null) {
+			if (k.equals(other)) return v;
+			throw new IllegalArgumentException("Value " + v + " is already associated with key " + other);
+		}
+		return putUnbound(k, v);
+	}
+
+	/** Associates a value with a key, removing the association of the value with another key, if present.
+	 *
+	 * @param k the key (not {@code null}).
+	 * @param v the value.
+	 * @return the old value, or the {@linkplain #defaultReturnValue() default return value} if no value was present for the given key.
+	 */
+	public int putForce(final K k, final int v) {
+		Objects.requireNonNull(k);
+		final K other = getKey(v);
+		if (other != null) {
+			if (k.equals(other)) return v;
+			removeInt(other);
+		}
+		return putUnbound(k, v);
+	}
+
+	/** Associates with a key a value that is not associated with any key. */
+	private int putUnbound(final K k, final int v) {
+		int oldValue = defRetValue;
+		final int pos = findKey(k);
+		if (pos >= 0) {
+			// We remove the old pair first, so that the tables are consistent while the new pair is attached
+			final int c = keyTable[pos];
+			oldValue = valueOf(c);
+			shiftKeys(pos);
+			detach(c);
+			size--;
+		}
+		final int c = attach(k, v);
+		// Attaching might have moved other pairs, so we must look for the position again
+		keyTable[-findKey(k) - 1] = c;
+		if (size++ >= maxFill) rehash(arraySize(size + 1, f));
+		return oldValue;
+	}
+
+	@Override
+	public int removeInt(final Object k) {
+		if (k == null) return defRetValue;
+		final int pos = findKey(k);
+		if (pos < 0) return defRetValue;
+		final int c = keyTable[pos];
+		final int oldValue = valueOf(c);
+		shiftKeys(pos);
+		detach(c);
+		size--;
+		if (n > minN && size < maxFill / 4 && n > DEFAULT_INITIAL_SIZE) rehash(n / 2);
+		return oldValue;
+	}
+
+	/** Removes the key associated with a value.
+	 *
+	 * @param v a value.
+	 * @return the key that was associated with {@code v}, or {@code null}.
+	 */
+	public K removeKey(final int v) {
+		final K k = getKey(v);
+		if (k != null) removeInt(k);
+		return k;
+	}
+
+	/** Shifts left entries of the key table with the specified hash code, starting at the specified position,
+	 * and empties the resulting free entry.
+	 *
+	 * @param pos a starting position.
+	 */
+	protected final void shiftKeys(int pos) {
+		// Shift entries with the same hash.
+		int last, slot;
+		int c;
+		final int[] keyTable = this.keyTable;
+		for(;;) {
+			pos = ((last = pos) + 1) & mask;
+			for(;;) {
+				if ((c = keyTable[pos]) == 0) {
+					keyTable[last] = 0;
+					return;
+				}
+				slot = HashCommon.mix(keyOf(c).hashCode()) & mask;
+				if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+				pos = (pos + 1) & mask;
+			}
+			keyTable[last] = c;
+		}
+	}
+
+	/** Shifts left entries of the value table with the specified hash code, starting at the specified position,
+	 * and empties the resulting free entry.
+	 *
+	 * @param pos a starting position.
+	 */
+	protected final void shiftValues(int pos) {
+		// Shift entries with the same hash.
+		int last, slot;
+		int c;
+		final int[] valueTable = this.valueTable;
+		for(;;) {
+			pos = ((last = pos) + 1) & mask;
+			for(;;) {
+				if ((c = valueTable[pos]) == 0) {
+					valueTable[last] = 0;
+					return;
+				}
+				slot = HashCommon.mix(sparseValue[c - 1]) & mask;
+				if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+				pos = (pos + 1) & mask;
+			}
+			valueTable[last] = c;
+		}
+	}
+
+	/** Returns an inverse view of this map.
+	 *
+	 * <p>The view shares the storage of this map, so changes to either map are reflected in the other one.
+	 *
+	 * @return an inverse view of this map.
+	 */
+	public Int2ObjectBiMap <K> inverse() {
+		if (inverse == null) inverse = new Int2ObjectBiMap <K>(this);
+		return inverse;
+	}
+
+	/* Removes all elements from this map.
+	 *
+	 * <p>To increase object reuse, this method does not change the table size.
+	 * If you want to reduce the table size, you must use {@link #trim()}.
+	 *
+	 */
+	@Override
+	public void clear() {
+		if (size == 0) return;
+		size = 0;
+		Arrays.fill(keyTable, 0);
+		Arrays.fill(valueTable, 0);
+		Arrays.fill(dense, null);
+		Arrays.fill(sparseKey, 0, sparseSize, null);
+		sparseSize = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** An entry of the map; its value can be set, but with the same restrictions of {@link Object2IntBiMap#put(Object, int)}. */
+	private final class MapEntry extends AbstractObject2IntMap.BasicEntry <K> {
+		MapEntry(final K key, final int value) {
+			super(key, value);
+		}
+
+		@Override
+		public int setValue(final int v) {
+			final int oldValue = put(key, v);
+			value = v;
+			return oldValue;
+		}
+	}
+
+	/** An iterator over the pairs of the map, enumerating first the dense array and then the sparse list (backwards). */
+	private final class EntryIterator implements ObjectIterator<Object2IntMap.Entry <K> > {
+		/** The next position in the dense array, or {@code dense.length} plus the number of remaining positions of the sparse list. */
+		int next;
+		/** The key of the last returned entry, or {@code null}. */
+		K last;
+		/** The number of entries to return. */
+		int c = size;
+
+		@Override
+		public boolean hasNext() {
+			return c != 0;
+		}
+
+		@Override
+		public Object2IntMap.Entry <K> next() {
+			if (! hasNext()) throw new NoSuchElementException();
+			c--;
+			final K[] dense = Object2IntBiMap.this.dense;
+			while(next < dense.length) {
+				final int v = next++;
+				if (dense[v] != null) return new MapEntry(last = dense[v], v);
+			}
+			// The sparse list is enumerated backwards, as removals move its last element
+			final int s = sparseSize - 1 - (next++ - dense.length);
+			return new MapEntry(last = sparseKey[s], sparseValue[s]);
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) throw new IllegalStateException();
+			final boolean sparse = next > dense.length;
+			removeInt(last);
+			if (sparse) next--;
+			last = null;
+		}
+	}
+
+	private final class EntrySet extends AbstractObject2IntMap.BasicEntrySet <K> {
+		EntrySet() {
+			super(Object2IntBiMap.this);
+		}
+
+		@Override
+		public ObjectIterator<Object2IntMap.Entry <K> > iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public void clear() {
+			Object2IntBiMap.this.clear();
+		}
+	}
+
+	@Override
+	public ObjectSet<Object2IntMap.Entry <K> > object2IntEntrySet() {
+		return new EntrySet();
+	}
+
+	/** Rehashes the map, making the table as small as possible, and shrinks the dense array and the sparse list to their minimum size.
+	 *
+	 * <p>This method rehashes the table to the smallest size satisfying the
+	 * load factor. It can be used when the set will not be changed anymore, so
+	 * to optimize access speed and size.
+	 *
+	 * <p>If the table size is already the minimum possible, this method
+	 * does nothing.
+	 *
+	 * @return true if there was enough memory to trim the map.
+	 */
+	public boolean trim() {
+		final int l = arraySize(size, f);
+		try {
+			int d = dense.length;
+			while(d != 0 && dense[d - 1] == null) d--;
+			dense = ObjectArrays.trim(dense, d);
+			sparseKey = ObjectArrays.trim(sparseKey, sparseSize);
+			sparseValue = IntArrays.trim(sparseValue, sparseSize);
+			if (l < n && size <= maxFill(l, f)) rehash(l);
+		}
+		catch(OutOfMemoryError cantDoIt) { return false; }
+		return true;
+	}
+
+	/** Rehashes the map.
+	 *
+	 * <p>The key table and the value table are rebuilt together; the dense array and the sparse list are not modified.
+	 *
+	 * @param newN the new size
+	 */
+	protected void rehash(final int newN) {
+		final int[] keyTable = this.keyTable;
+		final int mask = newN - 1;
+		final int[] newKeyTable = new int[newN];
+		final int[] newValueTable = new int[newN];
+		int pos;
+		for(int i = keyTable.length, j = size; j-- != 0;) {
+			int c;
+			while((c = keyTable[--i]) == 0);
+			if (newKeyTable[pos = HashCommon.mix(keyOf(c).hashCode()) & mask] != 0)
+				while (newKeyTable[pos = (pos + 1) & mask] != 0);
+			newKeyTable[pos] = c;
+		}
+		for(int s = sparseSize; s-- != 0;) {
+			if (newValueTable[pos = HashCommon.mix(sparseValue[s]) & mask] != 0)
+				while (newValueTable[pos = (pos + 1) & mask] != 0);
+			newValueTable[pos] = s + 1;
+		}
+		n = newN;
+		this.mask = mask;
+		maxFill = maxFill(n, f);
+		this.keyTable = newKeyTable;
+		this.valueTable = newValueTable;
+	}
+
+	/** Returns a deep copy of this map.
+	 *
+	 * <p>This method performs a deep copy of this bidirectional map; the data stored in the
+	 * map, however, is not cloned. Note that this makes a difference only for object keys.
+	 *
+	 * @return a deep copy of this map.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object2IntBiMap <K> clone() {
+		Object2IntBiMap <K> c;
+		try {
+			c = (Object2IntBiMap <K>)super.clone();
+		}
+		catch(CloneNotSupportedException cantHappen) {
+			throw new InternalError();
+		}
+		c.keyTable = keyTable.clone();
+		c.valueTable = valueTable.clone();
+		c.dense = dense.clone();
+		c.sparseKey = sparseKey.clone();
+		c.sparseValue = sparseValue.clone();
+		c.inverse = null;
+		return c;
+	}
+
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		for(int v = 0; v < dense.length; v++) {
+			if (dense[v] == null) continue;
+			s.writeObject(dense[v]);
+			s.writeInt(v);
+		}
+		for(int i = 0; i < sparseSize; i++) {
+			s.writeObject(sparseKey[i]);
+			s.writeInt(sparseValue[i]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		final int size = this.size;
+		n = arraySize(size, f);
+		maxFill = maxFill(n, f);
+		mask = n - 1;
+		keyTable = new int[n];
+		valueTable = new int[n];
+		dense = (K[]) ObjectArrays.EMPTY_ARRAY;
+		sparseKey = (K[]) ObjectArrays.EMPTY_ARRAY;
+		sparseValue = IntArrays.EMPTY_ARRAY;
+		this.size = 0;
+		for(int i = size; i-- != 0;) {
+			final K k = (K) s.readObject();
+			putUnbound(k, s.readInt());
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+	* Copyright (C) 2002-2017 Sebastiano Vigna
+	*
+	* Licensed under the Apache License, Version 2.0 (the "License");
+	* you may not use this file except in compliance with the License.
+	* You may obtain a copy of the License at
+	*
+	*     http://www.apache.org/licenses/LICENSE-2.0
+	*
+	* Unless required by applicable law or agreed to in writing, software
+	* distributed under the License is distributed on an "AS IS" BASIS,
+	* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	* See the License for the specific language governing permissions and
+	* limitations under the License.
+	*/
+package it.unimi.dsi.fastutil.objects;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import it.unimi.dsi.fastutil.PriorityQueue;
+import it.unimi.dsi.fastutil.HashCommon;
+/** An array-based FIFO queue, supporting also deque operations.
+	*
+	* <p>Instances of this class represent a FIFO queue using a backing
+	* array in a circular way. The array has always a power-of-two length, so that positions
+	* wrap around using a mask instead of a comparison. The array is enlarged as needed, but it is never
+	* shrunk; use the {@link #trim()} method to reduce its size, if necessary.
+	*
+	* <p>Besides the usual {@linkplain #enqueue(Object) enqueue} and {@linkplain #dequeue() dequeue} operations,
+	* this class makes it possible to {@linkplain #enqueueFirst(Object) enqueue at the front} and
+	* {@linkplain #dequeueLast() dequeue from the back}, and to enqueue and dequeue
+	* in bulk {@linkplain #enqueue(Object[], int, int) from} and {@linkplain #dequeue(Object[], int, int) into} array fragments.
+	*/
+public class ObjectArrayFIFOQueue <K> implements PriorityQueue<K>, java.io.Serializable {
+	private static final long serialVersionUID = 0L;
+	/** The standard initial capacity of a queue. */
+	public static final int INITIAL_CAPACITY = 4;
+	/** The backing array; its length is a power of two. */
+	protected transient K array[];
+	/** The start position in {@link #array}. It is always strictly smaller than {@code array.length}. */
+	protected transient int start;
+	/** The end position in {@link #array}. It is always strictly smaller than {@code array.length}.
+	 * Because the array is enlarged as soon as it gets full, {@code start == end} only if the queue is empty. */
+	protected transient int end;
+	/** Creates a new empty queue with given capacity.
+	 *
+	 * @param capacity the initial capacity of this queue.
+	 */
+	@SuppressWarnings("unchecked")
+	public ObjectArrayFIFOQueue(final int capacity) {
+	 if (capacity < 0) throw new IllegalArgumentException("Initial capacity (" + capacity + ") is negative");
+	 array = (K[]) new Object[HashCommon.nextPowerOfTwo(Math.max(INITIAL_CAPACITY, capacity + 1))];
+	}
+	/** Creates a new empty queue with standard {@linkplain #INITIAL_CAPACITY initial capacity}. */
+	public ObjectArrayFIFOQueue() {
+	 this(INITIAL_CAPACITY);
+	}
+	/** {@inheritDoc}
+	 * <p>This implementation returns {@code null} (FIFO queues have no comparator).
+	 */
+	@Override
+	public Comparator <? super K> comparator() {
+	 return null;
+	}
+	@Override
+	public K dequeue() {
+	 if (start == end) throw new NoSuchElementException();
+	 final K t = array[start];
+	 array[start] = null; // Clean-up for the garbage collector
+	 start = start + 1 & array.length - 1;
+	 return t;
+	}
+	/** Dequeues the {@linkplain #last() last} element from the queue.
+	 *
+	 * @return the dequeued element.
+	 * @throws NoSuchElementException if the queue is empty.
+	 */
+	public K dequeueLast() {
+	 if (start == end) throw new NoSuchElementException();
+	 end = end - 1 & array.length - 1;
+	 final K t = array[end];
+	 array[end] = null; // Clean-up for the garbage collector
+	 return t;
+	}
+	/** Moves the elements of the queue to the start of a new array of given length. */
+	@SuppressWarnings("unchecked")
+	private void resize(final int size, final int newLength) {
+	 final K[] newArray = (K[]) new Object[newLength];
+	 if (start >= end) {
+	  if (size != 0) {
+	   System.arraycopy(array, start, newArray, 0, array.length - start);
+	   System.arraycopy(array, 0, newArray, array.length - start, end);
+	  }
+	 }
+	 else System.arraycopy(array, start, newArray, 0, end - start);
+	 start = 0;
+	 end = size;
+	 array = newArray;
+	}
+	/** Ensures that the backing array can contain the given number of elements without being enlarged. */
+	private void ensureCapacity(final int capacity) {
+	 if (capacity >= array.length) {
+	  if (capacity >= 1 << 30) throw new IllegalStateException("Queue too large: " + capacity);
+	  resize(size(), HashCommon.nextPowerOfTwo(capacity + 1));
+	 }
+	}
+	@Override
+	public void enqueue(K x) {
+	 array[end] = x;
+	 end = end + 1 & array.length - 1;
+	 if (end == start) resize(array.length, array.length << 1);
+	}
+	/** Enqueues a new element as the first element (in dequeuing order) of the queue.
+	 *
+	 * @param x the element to enqueue.
+	 */
+	public void enqueueFirst(K x) {
+	 start = start - 1 & array.length - 1;
+	 array[start] = x;
+	 if (end == start) resize(array.length, array.length << 1);
+	}
+	/** Enqueues the elements of an array fragment, in order.
+	 *
+	 * <p>The backing array is enlarged at most once, and the elements are copied in at most two chunks.
+	 *
+	 * @param a an array.
+	 * @param offset the first element of {@code a} to enqueue.
+	 * @param length the number of elements to enqueue.
+	 */
+	public void enqueue(final K[] a, final int offset, final int length) {
+	 ObjectArrays.ensureOffsetLength(a, offset, length);
+	 ensureCapacity(size() + length);
+	 final int l = Math.min(length, array.length - end);
+	 System.arraycopy(a, offset, array, end, l);
+	 System.arraycopy(a, offset + l, array, 0, length - l);
+	 end = end + length & array.length - 1;
+	}
+	/** Enqueues the elements of an array, in order.
+	 *
+	 * @param a an array.
+	 * @see #enqueue(Object[], int, int)
+	 */
+	public void enqueue(final K[] a) {
+	 enqueue(a, 0, a.length);
+	}
+	/** Dequeues elements into an array fragment, in order.
+	 *
+	 * <p>The elements are copied out in at most two chunks.
+	 *
+	 * @param a an array.
+	 * @param offset the first position of {@code a} that will be filled.
+	 * @param length the maximum number of elements to dequeue.
+	 * @return the number of elements dequeued, which is the minimum between {@code length} and the size of the queue.
+	 */
+	public int dequeue(final K[] a, final int offset, int length) {
+	 ObjectArrays.ensureOffsetLength(a, offset, length);
+	 length = Math.min(length, size());
+	 final int l = Math.min(length, array.length - start);
+	 System.arraycopy(array, start, a, offset, l);
+	 System.arraycopy(array, 0, a, offset + l, length - l);
+	 Arrays.fill(array, start, start + l, null); // Clean-up for the garbage collector
+	 Arrays.fill(array, 0, length - l, null);
+	 start = start + length & array.length - 1;
+	 return length;
+	}
+	/** Dequeues elements into an array, in order.
+	 *
+	 * @param a an array.
+	 * @return the number of elements dequeued, which is the minimum between {@code a.length} and the size of the queue.
+	 * @see #dequeue(Object[], int, int)
+	 */
+	public int dequeue(final K[] a) {
+	 return dequeue(a, 0, a.length);
+	}
+	@Override
+	public K first() {
+	 if (start == end) throw new NoSuchElementException();
+	 return array[start];
+	}
+	@Override
+	public K last() {
+	 if (start == end) throw new NoSuchElementException();
+	 return array[end - 1 & array.length - 1];
+	}
+	@Override
+	public void clear() {
+	 if (start <= end) Arrays.fill(array, start, end, null);
+	 else {
+	  Arrays.fill(array, start, array.length, null);
+	  Arrays.fill(array, 0, end, null);
+	 }
+	 start = end = 0;
+	}
+	/** Trims the queue to the smallest possible size. */
+	public void trim() {
+	 final int size = size();
+	 final int newLength = HashCommon.nextPowerOfTwo(Math.max(INITIAL_CAPACITY, size + 1));
+	 if (newLength < array.length) resize(size, newLength);
+	}
+	@Override
+	public int size() {
+	 return end - start & array.length - 1;
+	}
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+	 s.defaultWriteObject();
+	 int size = size();
+	 s.writeInt(size);
+	 for(int i = start; size-- != 0; i = i + 1 & array.length - 1) s.writeObject(array[i]);
+	}
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+	 s.defaultReadObject();
+	 end = s.readInt();
+	 array = (K[]) new Object[HashCommon.nextPowerOfTwo(Math.max(INITIAL_CAPACITY, end + 1))];
+	 for(int i = 0; i < end; i++) array[i] = (K) s.readObject();
+	}
+}
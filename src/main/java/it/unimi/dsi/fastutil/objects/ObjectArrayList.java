@@ -329,6 +329,26 @@ public class ObjectArrayList <K> extends AbstractObjectList <K> implements Rando
 	 System.arraycopy(a, 0, t, 0, size);
 	 a = t;
 	 assert size <= a.length;
+	}
+	/** Sorts this list by an integer key using a stable radix sort.
+	 *
+	 * <p>The key extractor is called exactly once per element, and no comparison is performed.
+	 *
+	 * @param key a function extracting an integer key from an element.
+	 * @see ObjectArrays#radixSortByInt(Object[], int, int, java.util.function.ToIntFunction, boolean)
+	 */
+	public void sortByInt(final java.util.function.ToIntFunction<? super K> key) {
+	 ObjectArrays.radixSortByInt(a, 0, size, key, true);
+	}
+	/** Sorts this list by a long key using a stable radix sort.
+	 *
+	 * <p>The key extractor is called exactly once per element, and no comparison is performed.
+	 *
+	 * @param key a function extracting a long key from an element.
+	 * @see ObjectArrays#radixSortByLong(Object[], int, int, java.util.function.ToLongFunction, boolean)
+	 */
+	public void sortByLong(final java.util.function.ToLongFunction<? super K> key) {
+	 ObjectArrays.radixSortByLong(a, 0, size, key, true);
 	}
 	   /** Copies element of this type-specific list into the given array using optimized system calls.
 	 *
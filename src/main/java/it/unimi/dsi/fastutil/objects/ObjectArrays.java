@@ -31,10 +31,11 @@ package it.unimi.dsi.fastutil.objects;
 import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.Hash;
 import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import it.unimi.dsi.fastutil.ints.IntArrays;
 import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 /** A class providing static methods and objects that do useful things with type-specific arrays.
 	*
 	* In particular, the {@code ensureCapacity()}, {@code grow()},
@@ -53,7 +54,7 @@ import java.util.Comparator;
 	*
 	* <p>There are several sorting methods available. The main theme is that of letting you choose
 	* the sorting algorithm you prefer (i.e., trading stability of mergesort for no memory allocation in quicksort).
-	* Several algorithms provide a parallel version, that will use the {@linkplain Runtime#availableProcessors() number of cores available}.
+	* Several algorithms provide a parallel version, that will run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	*
 	* <p>All comparison-based algorithm have an implementation based on a type-specific comparator.
 	*
@@ -508,8 +509,7 @@ public final class ObjectArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -519,9 +519,7 @@ public final class ObjectArrays {
 	public static <K> void parallelQuickSort(final K[] x, final int from, final int to, final Comparator <K> comp) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to, comp);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortComp <>(x, from, to, comp));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortComp <>(x, from, to, comp));
 	 }
 	}
 	/** Sorts an array according to the order induced by the specified
@@ -531,8 +529,7 @@ public final class ObjectArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param comp the comparator to determine the sorting order.
@@ -713,8 +710,7 @@ public final class ObjectArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 * @param from the index of the first element (inclusive) to be sorted.
@@ -723,9 +719,7 @@ public final class ObjectArrays {
 	public static <K> void parallelQuickSort(final K[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSort <>(x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSort <>(x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel quicksort.
@@ -734,8 +728,7 @@ public final class ObjectArrays {
 	 * McIlroy, &ldquo;Engineering a Sort Function&rdquo;, <i>Software: Practice and Experience</i>, 23(11), pages
 	 * 1249&minus;1265, 1993.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the array to be sorted.
 	 *
@@ -922,8 +915,7 @@ public final class ObjectArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -933,9 +925,7 @@ public final class ObjectArrays {
 	public static <K> void parallelQuickSortIndirect(final int[] perm, final K[] x, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSortIndirect(perm, x, from, to);
 	 else {
-	  final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	  pool.invoke(new ForkJoinQuickSortIndirect <>(perm, x, from, to));
-	  pool.shutdown();
+	  Arrays.invoke(new ForkJoinQuickSortIndirect <>(perm, x, from, to));
 	 }
 	}
 	/** Sorts an array according to the natural ascending order using a parallel indirect quicksort.
@@ -948,8 +938,7 @@ public final class ObjectArrays {
 	 * be exactly the numbers in the interval {@code [0..perm.length)}) will be permuted so that
 	 * {@code x[perm[i]] &le; x[perm[i + 1]]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param perm a permutation array indexing {@code x}.
 	 * @param x the array to be sorted.
@@ -1195,8 +1184,7 @@ public final class ObjectArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1205,9 +1193,7 @@ public final class ObjectArrays {
 	 */
 	public static <K> void parallelQuickSort(final K[] x, final K[] y, final int from, final int to) {
 	 if (to - from < PARALLEL_QUICKSORT_NO_FORK) quickSort(x, y, from, to);
-	 final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
-	 pool.invoke(new ForkJoinQuickSort2 <>(x, y, from, to));
-	 pool.shutdown();
+	 Arrays.invoke(new ForkJoinQuickSort2 <>(x, y, from, to));
 	}
 	/** Sorts two arrays according to the natural lexicographical
 	 *  ascending order using a parallel quicksort.
@@ -1221,8 +1207,7 @@ public final class ObjectArrays {
 	 * permuted accordingly. In the end, either {@code x[i] &lt; x[i + 1]} or <code>x[i]
 	 * == x[i + 1]</code> and {@code y[i] &le; y[i + 1]}.
 	 *
-	 * <p>This implementation uses a {@link ForkJoinPool} executor service with
-	 * {@link Runtime#availableProcessors()} parallel threads.
+	 * <p>This implementation runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
 	 *
 	 * @param x the first array to be sorted.
 	 * @param y the second array to be sorted.
@@ -1350,6 +1335,242 @@ public final class ObjectArrays {
 	public static <K> void mergeSort(final K a[], Comparator <K> comp) {
 	 mergeSort(a, 0, a.length, comp);
 	}
+	private static final int PARALLEL_MERGESORT_NO_FORK = 8192;
+	/** Returns the index of the first element of a sorted range that is greater than {@code x} ({@code strict}), or
+	 * greater than or equal to {@code x} (! {@code strict}). */
+	@SuppressWarnings("unchecked")
+	private static <K> int bound(final K[] a, int from, int to, final K x, final boolean strict) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? (((Comparable<K>)(a[mid])).compareTo(x) <= 0) : ! (((Comparable<K>)(x)).compareTo(a[mid]) <= 0)) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	private static <K> int bound(final K[] a, int from, int to, final K x, final boolean strict, final Comparator <K> comp) {
+	 while(from < to) {
+	  final int mid = (from + to) >>> 1;
+	  if (strict ? comp.compare(a[mid], x) <= 0 : comp.compare(x, a[mid]) > 0) from = mid + 1;
+	  else to = mid;
+	 }
+	 return from;
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array. */
+	protected static class ForkJoinMerge <K> extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final K[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 public ForkJoinMerge(final K[] src, final int from1, final int to1, final int from2, final int to2, final K[] dest, final int to) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	 }
+	 @Override
+	 @SuppressWarnings("unchecked")
+	 protected void compute() {
+	  final K[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && (((Comparable<K>)(src[p])).compareTo(src[q]) <= 0)) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  // Split the longer range in half, and the other range around the middle element of the longer one
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true);
+	  }
+	  invokeAll(new ForkJoinMerge <K>(src, from1, mid1, from2, mid2, dest, to), new ForkJoinMerge <K>(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2));
+	 }
+	}
+	/** A task merging stably two consecutive sorted ranges of an array into another array using a comparator. */
+	protected static class ForkJoinMergeComp <K> extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final K[] src, dest;
+	 private final int from1, to1, from2, to2, to;
+	 private final Comparator <K> comp;
+	 public ForkJoinMergeComp(final K[] src, final int from1, final int to1, final int from2, final int to2, final K[] dest, final int to, final Comparator <K> comp) {
+	  this.src = src;
+	  this.from1 = from1;
+	  this.to1 = to1;
+	  this.from2 = from2;
+	  this.to2 = to2;
+	  this.dest = dest;
+	  this.to = to;
+	  this.comp = comp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final K[] src = this.src, dest = this.dest;
+	  final int len1 = to1 - from1, len2 = to2 - from2;
+	  if (len1 + len2 < PARALLEL_MERGESORT_NO_FORK) {
+	   for(int i = to, p = from1, q = from2; p < to1 || q < to2; i++) {
+	    if (q >= to2 || p < to1 && comp.compare(src[p], src[q]) <= 0) dest[i] = src[p++];
+	    else dest[i] = src[q++];
+	   }
+	   return;
+	  }
+	  final int mid1, mid2;
+	  if (len1 >= len2) {
+	   mid1 = (from1 + to1) >>> 1;
+	   mid2 = bound(src, from2, to2, src[mid1], false, comp);
+	  }
+	  else {
+	   mid2 = (from2 + to2) >>> 1;
+	   mid1 = bound(src, from1, to1, src[mid2], true, comp);
+	  }
+	  invokeAll(new ForkJoinMergeComp <K>(src, from1, mid1, from2, mid2, dest, to, comp), new ForkJoinMergeComp <K>(src, mid1, to1, mid2, to2, dest, to + mid1 - from1 + mid2 - from2, comp));
+	 }
+	}
+	protected static class ForkJoinMergeSort <K> extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final K[] a, supp;
+	 public ForkJoinMergeSort(final K[] a, final int from, final int to, final K[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.supp = supp;
+	 }
+	 @Override
+	 @SuppressWarnings("unchecked")
+	 protected void compute() {
+	  final K[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, supp);
+	   return;
+	  }
+	  // Recursively sort halves of a into supp
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSort <K>(supp, from, mid, a), new ForkJoinMergeSort <K>(supp, mid, to, a));
+	  if ((((Comparable<K>)(supp[mid - 1])).compareTo(supp[mid]) <= 0)) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMerge <K>(supp, from, mid, mid, to, a, from).invoke();
+	 }
+	}
+	protected static class ForkJoinMergeSortComp <K> extends RecursiveAction {
+	 private static final long serialVersionUID = 1L;
+	 private final int from;
+	 private final int to;
+	 private final K[] a, supp;
+	 private final Comparator <K> comp;
+	 public ForkJoinMergeSortComp(final K[] a, final int from, final int to, final Comparator <K> comp, final K[] supp) {
+	  this.from = from;
+	  this.to = to;
+	  this.a = a;
+	  this.comp = comp;
+	  this.supp = supp;
+	 }
+	 @Override
+	 protected void compute() {
+	  final K[] a = this.a, supp = this.supp;
+	  if (to - from < PARALLEL_MERGESORT_NO_FORK) {
+	   mergeSort(a, from, to, comp, supp);
+	   return;
+	  }
+	  final int mid = (from + to) >>> 1;
+	  invokeAll(new ForkJoinMergeSortComp <K>(supp, from, mid, comp, a), new ForkJoinMergeSortComp <K>(supp, mid, to, comp, a));
+	  if (comp.compare(supp[mid - 1], supp[mid]) <= 0) System.arraycopy(supp, from, a, from, to - from);
+	  else new ForkJoinMergeComp <K>(supp, from, mid, mid, to, a, from, comp).invoke();
+	 }
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static <K> void parallelMergeSort(final K a[], final int from, final int to, final K supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, supp);
+	 else Arrays.invoke(new ForkJoinMergeSort <K>(a, from, to, supp));
+	}
+	/** Sorts the specified range of elements according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @see #parallelMergeSort(K[], int, int, K[])
+	 */
+	public static <K> void parallelMergeSort(final K a[], final int from, final int to) {
+	 parallelMergeSort(a, from, to, a.clone());
+	}
+	/** Sorts an array according to the natural ascending order using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @see #parallelMergeSort(K[], int, int, K[])
+	 */
+	public static <K> void parallelMergeSort(final K a[]) {
+	 parallelMergeSort(a, 0, a.length);
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort, using a given pre-filled support array.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. Moreover, no support arrays will be allocated. Both the recursive calls and the merges
+	 * are split into parallel tasks, which run in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @param supp a support array containing at least {@code to} elements, and whose entries are identical to those
+	 * of {@code a} in the specified range.
+	 */
+	public static <K> void parallelMergeSort(final K a[], final int from, final int to, final Comparator <K> comp, final K supp[]) {
+	 if (to - from < PARALLEL_MERGESORT_NO_FORK) mergeSort(a, from, to, comp, supp);
+	 else Arrays.invoke(new ForkJoinMergeSortComp <K>(a, from, to, comp, supp));
+	}
+	/** Sorts the specified range of elements according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(K[], int, int, Comparator, K[])
+	 */
+	public static <K> void parallelMergeSort(final K a[], final int from, final int to, final Comparator <K> comp) {
+	 parallelMergeSort(a, from, to, comp, a.clone());
+	}
+	/** Sorts an array according to the order induced by the specified
+	 * comparator using a parallel mergesort.
+	 *
+	 * <p>This sort is guaranteed to be <i>stable</i>: equal elements will not be reordered as a result
+	 * of the sort. An array as large as {@code a} will be allocated by this method.
+	 *
+	 * @param a the array to be sorted.
+	 * @param comp the comparator to determine the sorting order.
+	 * @see #parallelMergeSort(K[], int, int, Comparator, K[])
+	 */
+	public static <K> void parallelMergeSort(final K a[], final Comparator <K> comp) {
+	 parallelMergeSort(a, 0, a.length, comp);
+	}
 	/**
 	 * Searches a range of the specified array for the specified value using
 	 * the binary search algorithm. The range must be sorted prior to making this call.
@@ -1461,6 +1682,185 @@ public final class ObjectArrays {
 	public static <K> int binarySearch(final K[] a, final K key, final Comparator <K> c) {
 	 return binarySearch(a, 0, a.length, key, c);
 	}
+	/** Permutes in place an array fragment so that its {@code i}-th element becomes the {@code perm[i]}-th element of the fragment.
+	 * The permutation is destroyed. */
+	private static <K> void permute(final K[] a, final int from, final int[] perm) {
+	 for(int i = 0; i < perm.length; i++) {
+	  if (perm[i] == i) continue;
+	  final K t = a[from + i];
+	  for(int j = i;;) {
+	   final int p = perm[j];
+	   perm[j] = j;
+	   if (p == i) {
+	    a[from + j] = t;
+	    break;
+	   }
+	   a[from + j] = a[from + p];
+	   j = p;
+	  }
+	 }
+	}
+	/** Returns the identity permutation of given length. */
+	private static int[] identity(final int n) {
+	 final int[] perm = new int[n];
+	 for(int i = n; i-- != 0;) perm[i] = i;
+	 return perm;
+	}
+	/** Sorts the specified range of elements by an integer key using indirect radix sort.
+	 *
+	 * <p>The keys of the elements are extracted once into a scratch array, which is sorted
+	 * {@linkplain IntArrays#radixSortIndirect(int[], int[], boolean) indirectly}; the elements are then permuted in place
+	 * following the resulting permutation. Thus, the key extractor is called exactly once per element, and no comparison is performed.
+	 * This method allocates two integer arrays of the same length as the range (three, if {@code stable} is true).
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param key a function extracting an integer key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static <K> void radixSortByInt(final K[] a, final int from, final int to, final ToIntFunction<? super K> key, final boolean stable) {
+	 ensureFromTo(a, from, to);
+	 final int n = to - from;
+	 final int[] k = new int[n];
+	 for(int i = n; i-- != 0;) k[i] = key.applyAsInt(a[from + i]);
+	 final int[] perm = identity(n);
+	 IntArrays.radixSortIndirect(perm, k, stable);
+	 permute(a, from, perm);
+	}
+	/** Sorts an array by an integer key using indirect radix sort.
+	 *
+	 * @param a the array to be sorted.
+	 * @param key a function extracting an integer key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 * @see #radixSortByInt(Object[], int, int, ToIntFunction, boolean)
+	 */
+	public static <K> void radixSortByInt(final K[] a, final ToIntFunction<? super K> key, final boolean stable) {
+	 radixSortByInt(a, 0, a.length, key, stable);
+	}
+	/** Sorts the specified range of elements by an integer key using parallel indirect radix sort.
+	 *
+	 * <p>This method works as {@link #radixSortByInt(Object[], int, int, ToIntFunction, boolean)}, but the scratch array
+	 * is sorted using {@link IntArrays#parallelRadixSortIndirect(int[], int[], boolean)}, which
+	 * runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param key a function extracting an integer key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static <K> void parallelRadixSortByInt(final K[] a, final int from, final int to, final ToIntFunction<? super K> key, final boolean stable) {
+	 ensureFromTo(a, from, to);
+	 final int n = to - from;
+	 final int[] k = new int[n];
+	 for(int i = n; i-- != 0;) k[i] = key.applyAsInt(a[from + i]);
+	 final int[] perm = identity(n);
+	 IntArrays.parallelRadixSortIndirect(perm, k, stable);
+	 permute(a, from, perm);
+	}
+	/** Sorts an array by an integer key using parallel indirect radix sort.
+	 *
+	 * @param a the array to be sorted.
+	 * @param key a function extracting an integer key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 * @see #parallelRadixSortByInt(Object[], int, int, ToIntFunction, boolean)
+	 */
+	public static <K> void parallelRadixSortByInt(final K[] a, final ToIntFunction<? super K> key, final boolean stable) {
+	 parallelRadixSortByInt(a, 0, a.length, key, stable);
+	}
+	/** Extracts the long keys of an array fragment, splitting them into upper halves and lower halves with flipped sign bit,
+	 * so that lexicographical signed order on the pairs of halves is the order of the keys.
+	 *
+	 * @return true if all upper halves are the sign extension of the lower halves (i.e., if all keys are integers).
+	 */
+	private static <K> boolean extract(final K[] a, final int from, final ToLongFunction<? super K> key, final int[] hi, final int[] lo) {
+	 boolean integers = true;
+	 for(int i = hi.length; i-- != 0;) {
+	  final long k = key.applyAsLong(a[from + i]);
+	  hi[i] = (int)(k >> 32);
+	  lo[i] = (int)k ^ Integer.MIN_VALUE;
+	  integers &= k == (int)k;
+	 }
+	 return integers;
+	}
+	/** Restores the sign bit of lower halves flipped by {@link #extract(Object[], int, ToLongFunction, int[], int[])}. */
+	private static void unflip(final int[] lo) {
+	 for(int i = lo.length; i-- != 0;) lo[i] ^= Integer.MIN_VALUE;
+	}
+	/** Sorts the specified range of elements by a long key using indirect radix sort.
+	 *
+	 * <p>The keys of the elements are extracted once and split into two integer scratch arrays, which are sorted
+	 * {@linkplain IntArrays#radixSortIndirect(int[], int[], int[], boolean) indirectly}; if all keys are integers,
+	 * just the lower halves are sorted. The elements are then permuted in place following the resulting permutation.
+	 * Thus, the key extractor is called exactly once per element, and no comparison is performed.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param key a function extracting a long key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static <K> void radixSortByLong(final K[] a, final int from, final int to, final ToLongFunction<? super K> key, final boolean stable) {
+	 ensureFromTo(a, from, to);
+	 final int n = to - from;
+	 final int[] hi = new int[n], lo = new int[n];
+	 final int[] perm = identity(n);
+	 if (extract(a, from, key, hi, lo)) {
+	  unflip(lo);
+	  IntArrays.radixSortIndirect(perm, lo, stable);
+	 }
+	 else IntArrays.radixSortIndirect(perm, hi, lo, stable);
+	 permute(a, from, perm);
+	}
+	/** Sorts an array by a long key using indirect radix sort.
+	 *
+	 * @param a the array to be sorted.
+	 * @param key a function extracting a long key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 * @see #radixSortByLong(Object[], int, int, ToLongFunction, boolean)
+	 */
+	public static <K> void radixSortByLong(final K[] a, final ToLongFunction<? super K> key, final boolean stable) {
+	 radixSortByLong(a, 0, a.length, key, stable);
+	}
+	/** Sorts the specified range of elements by a long key using parallel indirect radix sort.
+	 *
+	 * <p>This method works as {@link #radixSortByLong(Object[], int, int, ToLongFunction, boolean)}, but the scratch arrays
+	 * are sorted using {@link IntArrays#parallelRadixSortIndirect(int[], int[], boolean)}, which
+	 * runs in the {@linkplain Arrays#parallelPool() pool of parallel methods}. Unless all keys are integers, the lower halves and the upper
+	 * halves are sorted in two stable passes, so in that case the sort is stable even if {@code stable} is false.
+	 *
+	 * @param a the array to be sorted.
+	 * @param from the index of the first element (inclusive) to be sorted.
+	 * @param to the index of the last element (exclusive) to be sorted.
+	 * @param key a function extracting a long key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 */
+	public static <K> void parallelRadixSortByLong(final K[] a, final int from, final int to, final ToLongFunction<? super K> key, final boolean stable) {
+	 ensureFromTo(a, from, to);
+	 final int n = to - from;
+	 final int[] hi = new int[n], lo = new int[n];
+	 final int[] perm = identity(n);
+	 if (extract(a, from, key, hi, lo)) {
+	  unflip(lo);
+	  IntArrays.parallelRadixSortIndirect(perm, lo, stable);
+	 }
+	 else {
+	  IntArrays.parallelRadixSortIndirect(perm, lo, true);
+	  IntArrays.parallelRadixSortIndirect(perm, hi, true);
+	 }
+	 permute(a, from, perm);
+	}
+	/** Sorts an array by a long key using parallel indirect radix sort.
+	 *
+	 * @param a the array to be sorted.
+	 * @param key a function extracting a long key from an element.
+	 * @param stable whether the sorting algorithm should be stable.
+	 * @see #parallelRadixSortByLong(Object[], int, int, ToLongFunction, boolean)
+	 */
+	public static <K> void parallelRadixSortByLong(final K[] a, final ToLongFunction<? super K> key, final boolean stable) {
+	 parallelRadixSortByLong(a, 0, a.length, key, stable);
+	}
 	/** Shuffles the specified array fragment using the specified pseudorandom number generator.
 	 *
 	 * @param a the array to be shuffled.